@@ -0,0 +1,35 @@
+package com.github.onsdigital.zebedee.benchmarks;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Entry point of the benchmarks jar. Accepts the standard JMH command line options (e.g. a benchmark name regex,
+ * {@code -p years=70} or {@code -prof gc}) and writes the results as json to {@code jmh-result.json} unless a result
+ * file is given, so that runs can be compared before and after a change.
+ */
+public class BenchmarkRunner {
+
+    static final String DEFAULT_RESULT_FILE = "jmh-result.json";
+
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions commandLineOptions = new CommandLineOptions(args);
+        if (commandLineOptions.shouldHelp()) {
+            commandLineOptions.showHelp();
+            return;
+        }
+        if (commandLineOptions.shouldList()) {
+            new Runner(commandLineOptions).list();
+            return;
+        }
+
+        ChainedOptionsBuilder options = new OptionsBuilder().parent(commandLineOptions);
+        if (!commandLineOptions.getResultFormat().hasValue() && !commandLineOptions.getResult().hasValue()) {
+            options.resultFormat(ResultFormatType.JSON).result(DEFAULT_RESULT_FILE);
+        }
+        new Runner(options.build()).run();
+    }
+}
@@ -0,0 +1,108 @@
+package com.github.onsdigital.zebedee.benchmarks;
+
+import com.github.davidcarboni.cryptolite.Keys;
+import com.github.davidcarboni.restolino.json.Serialiser;
+import com.github.onsdigital.zebedee.benchmarks.fixtures.ContentFixtures;
+import com.github.onsdigital.zebedee.benchmarks.fixtures.FixtureSpec;
+import com.github.onsdigital.zebedee.json.CollectionDescription;
+import com.github.onsdigital.zebedee.model.Collection;
+import com.github.onsdigital.zebedee.model.CollectionContentReader;
+import com.github.onsdigital.zebedee.reader.Resource;
+import com.github.onsdigital.zebedee.util.EncryptionUtils;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.output.NullOutputStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.crypto.SecretKey;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reading files from an encrypted collection through {@link CollectionContentReader}, which decrypts the whole file
+ * for both the resource and its content length.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CollectionContentReaderBenchmark {
+
+    /**
+     * Number of rows in the dataset csv being read.
+     */
+    @Param({"1000", "100000"})
+    public int rows;
+
+    private Path root;
+    private CollectionContentReader reader;
+    private String fileUri;
+
+    @Setup
+    public void setUp() throws Exception {
+        root = Files.createTempDirectory("zebedee-benchmark");
+        Path published = root.resolve("published");
+        ContentFixtures.Tree tree = new ContentFixtures().generate(published, new FixtureSpec()
+                .timeseriesCount(0)
+                .datasetCount(1)
+                .rowsPerDatasetFile(rows)
+                .bulletinSeriesCount(0));
+        fileUri = tree.getDatasetFileUris().get(0);
+
+        Path collectionPath = root.resolve("collections").resolve("benchmark");
+        Path reviewed = collectionPath.resolve(Collection.REVIEWED);
+        Files.createDirectories(reviewed);
+        Files.createDirectories(collectionPath.resolve(Collection.COMPLETE));
+        Files.createDirectories(collectionPath.resolve(Collection.IN_PROGRESS));
+
+        CollectionDescription description = new CollectionDescription("benchmark");
+        description.setEncrypted(true);
+        Files.write(collectionPath.resolveSibling("benchmark.json"),
+                Serialiser.serialise(description).getBytes(StandardCharsets.UTF_8));
+
+        SecretKey key = Keys.newSecretKey();
+        Path target = reviewed.resolve(fileUri.substring(1));
+        Files.createDirectories(target.getParent());
+        try (InputStream in = Files.newInputStream(published.resolve(fileUri.substring(1)));
+             OutputStream out = EncryptionUtils.encryptionOutputStream(target, key)) {
+            IOUtils.copy(in, out);
+        }
+
+        Collection collection = new Collection(collectionPath, null);
+        reader = new CollectionContentReader(collection, key, reviewed);
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        FileUtils.deleteDirectory(root.toFile());
+    }
+
+    @Benchmark
+    public long readResource() throws Exception {
+        try (Resource resource = reader.getResource(fileUri)) {
+            return IOUtils.copyLarge(resource.getData(), new NullOutputStream());
+        }
+    }
+
+    @Benchmark
+    public long getContentLength() throws Exception {
+        return reader.getContentLength(fileUri);
+    }
+}
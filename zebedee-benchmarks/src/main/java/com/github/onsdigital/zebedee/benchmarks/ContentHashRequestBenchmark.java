@@ -0,0 +1,96 @@
+package com.github.onsdigital.zebedee.benchmarks;
+
+import com.github.onsdigital.zebedee.model.publishing.client.PublishingClient;
+import com.github.onsdigital.zebedee.model.publishing.client.PublishingClientImpl;
+import com.github.onsdigital.zebedee.model.publishing.client.StandInTrainServer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Requesting the content hashes of the files in a publish from a local stand-in for the train, one request per file
+ * as when verifying each file, compared with batches of files per request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ContentHashRequestBenchmark {
+
+    private static final String TRANSACTION_ID = "benchmark";
+
+    /**
+     * Number of files in the publish.
+     */
+    @Param({"1000"})
+    public int files;
+
+    /**
+     * Number of files per batch request.
+     */
+    @Param({"100", "1000"})
+    public int batchSize;
+
+    /**
+     * Time the stand-in train waits before responding to each request.
+     */
+    @Param({"0", "1"})
+    public long latencyMillis;
+
+    private StandInTrainServer train;
+    private PublishingClient client;
+    private List<String> uris;
+
+    @Setup
+    public void setUp() throws Exception {
+        train = new StandInTrainServer().latencyMillis(latencyMillis);
+        client = new PublishingClientImpl();
+        uris = new ArrayList<>(files);
+        for (int i = 0; i < files; i++) {
+            String uri = "/economy/inflationandpriceindices/bulletins/b" + i + "/data.json";
+            uris.add(uri);
+            train.put(TRANSACTION_ID, uri, Integer.toHexString(uri.hashCode()));
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        train.close();
+    }
+
+    @Benchmark
+    public int perFile() throws Exception {
+        int found = 0;
+        for (String uri : uris) {
+            if (client.getContentHash(train.getHost(), TRANSACTION_ID, uri).getHash() != null) {
+                found++;
+            }
+        }
+        return found;
+    }
+
+    @Benchmark
+    public int batched() throws Exception {
+        int found = 0;
+        for (int i = 0; i < uris.size(); i += batchSize) {
+            List<String> batch = uris.subList(i, Math.min(uris.size(), i + batchSize));
+            found += client.getContentHashes(train.getHost(), TRANSACTION_ID, batch).size();
+        }
+        return found;
+    }
+}
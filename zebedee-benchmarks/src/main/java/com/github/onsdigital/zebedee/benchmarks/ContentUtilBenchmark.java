@@ -0,0 +1,75 @@
+package com.github.onsdigital.zebedee.benchmarks;
+
+import com.github.onsdigital.zebedee.benchmarks.fixtures.ContentFixtures;
+import com.github.onsdigital.zebedee.content.page.base.Page;
+import com.github.onsdigital.zebedee.content.page.statistics.data.timeseries.TimeSeries;
+import com.github.onsdigital.zebedee.content.util.ContentUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * (De)serialisation of timeseries pages through {@link ContentUtil}, the cost paid for every page read or written.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ContentUtilBenchmark {
+
+    /**
+     * Years of monthly, quarterly and yearly values in the timeseries.
+     */
+    @Param({"10", "70"})
+    public int years;
+
+    private TimeSeries timeSeries;
+    private String json;
+    private byte[] jsonBytes;
+
+    @Setup
+    public void setUp() {
+        timeSeries = new ContentFixtures().timeSeries("CDID", years);
+        json = ContentUtil.serialise(timeSeries);
+        jsonBytes = json.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public String serialise() {
+        return ContentUtil.serialise(timeSeries);
+    }
+
+    @Benchmark
+    public TimeSeries deserialiseTyped() {
+        return ContentUtil.deserialise(json, TimeSeries.class);
+    }
+
+    @Benchmark
+    public Page deserialiseContentFromString() {
+        return ContentUtil.deserialiseContent(json);
+    }
+
+    @Benchmark
+    public Page deserialiseContentFromStream() {
+        return ContentUtil.deserialiseContent(new ByteArrayInputStream(jsonBytes));
+    }
+
+    @Benchmark
+    public String hash() {
+        return ContentUtil.hash(timeSeries);
+    }
+}
@@ -0,0 +1,62 @@
+package com.github.onsdigital.zebedee.benchmarks;
+
+import com.github.onsdigital.zebedee.benchmarks.fixtures.ContentFixtures;
+import com.github.onsdigital.zebedee.content.page.statistics.data.timeseries.TimeSeries;
+import com.github.onsdigital.zebedee.reader.DataGenerator;
+import com.github.onsdigital.zebedee.reader.Resource;
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.output.NullOutputStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Generating timeseries downloads with {@link DataGenerator} in each of the supported formats.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DataGeneratorBenchmark {
+
+    @Param({"csv", "xls", "xlsx"})
+    public String format;
+
+    /**
+     * Number of timeseries in the download.
+     */
+    @Param({"1", "50"})
+    public int timeseries;
+
+    private List<TimeSeries> series;
+
+    @Setup
+    public void setUp() {
+        ContentFixtures fixtures = new ContentFixtures();
+        series = new ArrayList<>();
+        for (int i = 0; i < timeseries; i++) {
+            series.add(fixtures.timeSeries(String.format("D%03d", i), 30));
+        }
+    }
+
+    @Benchmark
+    public long generateData() throws Exception {
+        try (Resource resource = new DataGenerator().generateData(series, format)) {
+            return IOUtils.copyLarge(resource.getData(), new NullOutputStream());
+        }
+    }
+}
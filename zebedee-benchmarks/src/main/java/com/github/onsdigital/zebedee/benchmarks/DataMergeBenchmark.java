@@ -0,0 +1,113 @@
+package com.github.onsdigital.zebedee.benchmarks;
+
+import com.github.onsdigital.zebedee.benchmarks.fixtures.ContentFixtures;
+import com.github.onsdigital.zebedee.content.page.statistics.data.timeseries.TimeSeries;
+import com.github.onsdigital.zebedee.content.page.statistics.data.timeseries.TimeSeriesValue;
+import com.github.onsdigital.zebedee.content.util.ContentUtil;
+import com.github.onsdigital.zebedee.data.processing.DataMerge;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Merging a dataset update into an existing timeseries with {@link DataMerge}, compared with the merge it replaced
+ * that cloned through json and scanned the current values for every updated point.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DataMergeBenchmark {
+
+    /**
+     * Years of values in the original timeseries.
+     */
+    @Param({"10", "70"})
+    public int years;
+
+    @Param({"scan", "merge"})
+    public String implementation;
+
+    private TimeSeries original;
+    private TimeSeries updates;
+
+    @Setup
+    public void setUp() {
+        ContentFixtures fixtures = new ContentFixtures();
+        original = fixtures.timeSeries("CDID", years);
+        updates = fixtures.revised(original, 0.05, 1);
+    }
+
+    @Benchmark
+    public TimeSeries merge() {
+        if ("scan".equals(implementation)) {
+            return new ScanningDataMerge().merge(original, updates, "MM23");
+        }
+        return new DataMerge().merge(original, updates, "MM23");
+    }
+
+    /**
+     * The merge as it was before the ordered merge, kept as the baseline.
+     */
+    static class ScanningDataMerge {
+        int corrections = 0;
+        int insertions = 0;
+
+        TimeSeries merge(TimeSeries original, TimeSeries updates, String datasetId) {
+            TimeSeries merged = ContentUtil.deserialise(ContentUtil.serialise(original), TimeSeries.class);
+            mergeTimeSeriesValueSet(merged, merged.years, updates.years, datasetId);
+            mergeTimeSeriesValueSet(merged, merged.quarters, updates.quarters, datasetId);
+            mergeTimeSeriesValueSet(merged, merged.months, updates.months, datasetId);
+            return merged;
+        }
+
+        private void mergeTimeSeriesValueSet(TimeSeries page, Set<TimeSeriesValue> currentValues,
+                                             Set<TimeSeriesValue> updateValues, String datasetId) {
+            for (TimeSeriesValue value : updateValues) {
+                TimeSeriesValue current = null;
+                for (TimeSeriesValue candidate : currentValues) {
+                    if (candidate.compareTo(value) == 0) {
+                        current = candidate;
+                        break;
+                    }
+                }
+
+                if (current != null) {
+                    if (!current.value.equalsIgnoreCase(value.value)) {
+                        current.value = value.value;
+                        current.sourceDataset = datasetId;
+                        current.updateDate = page.getDescription().getReleaseDate();
+                        corrections += 1;
+                    }
+                } else {
+                    TimeSeriesValue copy = ContentUtil.deserialise(ContentUtil.serialise(value), TimeSeriesValue.class);
+                    copy.sourceDataset = datasetId;
+                    copy.updateDate = page.getDescription().getReleaseDate();
+                    page.add(copy);
+                    insertions += 1;
+                }
+            }
+
+            List<TimeSeriesValue> suppressed = currentValues.stream()
+                    .filter(current -> !updateValues.contains(current))
+                    .collect(Collectors.toList());
+            suppressed.forEach(current -> current.value = "");
+            corrections += suppressed.size();
+        }
+    }
+}
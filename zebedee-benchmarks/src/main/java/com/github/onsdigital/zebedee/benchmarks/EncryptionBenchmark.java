@@ -0,0 +1,139 @@
+package com.github.onsdigital.zebedee.benchmarks;
+
+import com.github.davidcarboni.cryptolite.Keys;
+import com.github.onsdigital.zebedee.util.EncryptionUtils;
+import com.github.onsdigital.zebedee.util.encryption.ChunkedEncryptedFile;
+import com.github.onsdigital.zebedee.util.encryption.ChunkedEncryption;
+import com.github.onsdigital.zebedee.util.encryption.ChunkedEncryptionOutputStream;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.output.NullOutputStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.crypto.SecretKey;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encrypting and decrypting a large file in the cryptolite stream format, which runs on a single thread, against the
+ * chunked format on the calling thread and across a pool of one thread per core.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+public class EncryptionBenchmark {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * Size of the file in megabytes.
+     */
+    @Param({"10", "100", "1024"})
+    public int megabytes;
+
+    /**
+     * How the file is encrypted: cryptolite, chunked or parallel.
+     */
+    @Param({"cryptolite", "chunked", "parallel"})
+    public String format;
+
+    private Path root;
+    private Path plaintext;
+    private Path encrypted;
+    private Path output;
+    private SecretKey key;
+    private ExecutorService executor;
+    private int window;
+
+    @Setup
+    public void setUp() throws Exception {
+        root = Files.createTempDirectory("zebedee-benchmark");
+        plaintext = root.resolve("plaintext.csv");
+        encrypted = root.resolve("encrypted.csv");
+        output = root.resolve("output.csv");
+        key = Keys.newSecretKey();
+
+        int threads = Runtime.getRuntime().availableProcessors();
+        executor = Executors.newFixedThreadPool(threads);
+        window = threads * 2;
+
+        byte[] block = new byte[BUFFER_SIZE];
+        Random random = new Random(megabytes);
+        try (OutputStream out = Files.newOutputStream(plaintext)) {
+            for (long written = 0; written < megabytes * 1024L * 1024L; written += block.length) {
+                random.nextBytes(block);
+                out.write(block);
+            }
+        }
+        encrypt(encrypted);
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        executor.shutdownNow();
+        FileUtils.deleteDirectory(root.toFile());
+    }
+
+    @Benchmark
+    public long encrypt() throws Exception {
+        return encrypt(output);
+    }
+
+    @Benchmark
+    public long decrypt() throws Exception {
+        try (InputStream in = decryptionInputStream()) {
+            return IOUtils.copyLarge(in, NullOutputStream.NULL_OUTPUT_STREAM, new byte[BUFFER_SIZE]);
+        }
+    }
+
+    private long encrypt(Path target) throws IOException {
+        try (InputStream in = Files.newInputStream(plaintext);
+             OutputStream out = encryptionOutputStream(target)) {
+            return IOUtils.copyLarge(in, out, new byte[BUFFER_SIZE]);
+        }
+    }
+
+    private OutputStream encryptionOutputStream(Path target) throws IOException {
+        switch (format) {
+            case "chunked":
+                return new ChunkedEncryptionOutputStream(target, key, ChunkedEncryption.DEFAULT_CHUNK_SIZE);
+            case "parallel":
+                return new ChunkedEncryptionOutputStream(target, key, ChunkedEncryption.DEFAULT_CHUNK_SIZE, executor,
+                        window);
+            default:
+                return EncryptionUtils.encryptionOutputStream(Files.newOutputStream(target), key);
+        }
+    }
+
+    private InputStream decryptionInputStream() throws IOException {
+        switch (format) {
+            case "chunked":
+                return ChunkedEncryptedFile.open(encrypted, key).newInputStream(0);
+            case "parallel":
+                return ChunkedEncryptedFile.open(encrypted, key).newInputStream(0, executor, window);
+            default:
+                return EncryptionUtils.encryptionInputStream(Files.newInputStream(encrypted), key);
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.github.onsdigital.zebedee.benchmarks;
+
+import com.github.onsdigital.zebedee.benchmarks.fixtures.ContentFixtures;
+import com.github.onsdigital.zebedee.benchmarks.fixtures.FixtureSpec;
+import com.github.onsdigital.zebedee.content.page.base.Page;
+import com.github.onsdigital.zebedee.reader.FileSystemContentReader;
+import org.apache.commons.io.FileUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reading published pages through {@link FileSystemContentReader#getContent(String)}, including the latest edition
+ * resolution performed for bulletins.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FileSystemContentReaderBenchmark {
+
+    /**
+     * Number of editions in the bulletin series.
+     */
+    @Param({"10", "150"})
+    public int editions;
+
+    private Path root;
+    private FileSystemContentReader reader;
+    private String timeseriesUri;
+    private String latestEditionUri;
+    private String oldEditionUri;
+    private String seriesUri;
+
+    @Setup
+    public void setUp() throws Exception {
+        root = Files.createTempDirectory("zebedee-benchmark");
+        FixtureSpec spec = new FixtureSpec()
+                .timeseriesCount(10)
+                .datasetCount(0)
+                .bulletinSeriesCount(1)
+                .editionsPerBulletinSeries(editions);
+        ContentFixtures.Tree tree = new ContentFixtures().generate(root, spec);
+
+        reader = new FileSystemContentReader(root);
+        timeseriesUri = tree.getTimeseriesUris().get(0);
+
+        List<String> series = tree.getBulletinSeries().get(0);
+        latestEditionUri = series.get(0);
+        oldEditionUri = series.get(series.size() - 1);
+        seriesUri = latestEditionUri.substring(0, latestEditionUri.lastIndexOf('/'));
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        FileUtils.deleteDirectory(root.toFile());
+    }
+
+    @Benchmark
+    public Page getTimeseries() throws Exception {
+        return reader.getContent(timeseriesUri);
+    }
+
+    @Benchmark
+    public Page getLatestBulletinEdition() throws Exception {
+        return reader.getContent(latestEditionUri);
+    }
+
+    @Benchmark
+    public Page getOldBulletinEdition() throws Exception {
+        return reader.getContent(oldEditionUri);
+    }
+
+    @Benchmark
+    public Page getLatestContent() throws Exception {
+        return reader.getLatestContent(seriesUri);
+    }
+}
@@ -0,0 +1,88 @@
+package com.github.onsdigital.zebedee.benchmarks;
+
+import com.github.onsdigital.zebedee.benchmarks.fixtures.ContentFixtures;
+import com.github.onsdigital.zebedee.benchmarks.fixtures.FixtureSpec;
+import com.github.onsdigital.zebedee.model.Content;
+import com.github.onsdigital.zebedee.model.RedirectTablePartialMatch;
+import org.apache.commons.io.FileUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Redirect resolution through {@link RedirectTablePartialMatch#get(String)} for uris that exist, that are found
+ * through a redirect, and that are not found at all.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RedirectTablePartialMatchBenchmark {
+
+    /**
+     * Number of redirects in the table.
+     */
+    @Param({"10", "1000"})
+    public int redirects;
+
+    private Path root;
+    private RedirectTablePartialMatch table;
+    private String existingUri;
+    private String redirectedUri;
+    private String missingUri;
+
+    @Setup
+    public void setUp() throws Exception {
+        root = Files.createTempDirectory("zebedee-benchmark");
+        ContentFixtures.Tree tree = new ContentFixtures().generate(root, new FixtureSpec()
+                .timeseriesCount(10)
+                .datasetCount(0)
+                .bulletinSeriesCount(0));
+
+        table = new RedirectTablePartialMatch(new Content(root));
+        String topic = ContentFixtures.TOPIC_URI.substring(1);
+        for (int i = 0; i < redirects; i++) {
+            table.addRedirect("economy/oldtopic" + i, topic);
+        }
+
+        String timeseries = tree.getTimeseriesUris().get(0).substring(1) + "/" + ContentFixtures.DATA_JSON;
+        existingUri = timeseries;
+        redirectedUri = timeseries.replace(topic, "economy/oldtopic" + (redirects - 1));
+        missingUri = timeseries.replace(topic, "economy/missingtopic");
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        FileUtils.deleteDirectory(root.toFile());
+    }
+
+    @Benchmark
+    public String getExisting() {
+        return table.get(existingUri);
+    }
+
+    @Benchmark
+    public String getRedirected() {
+        return table.get(redirectedUri);
+    }
+
+    @Benchmark
+    public String getMissing() {
+        return table.get(missingUri);
+    }
+}
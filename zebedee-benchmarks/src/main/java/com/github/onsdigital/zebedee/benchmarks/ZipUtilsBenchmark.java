@@ -0,0 +1,62 @@
+package com.github.onsdigital.zebedee.benchmarks;
+
+import com.github.onsdigital.zebedee.benchmarks.fixtures.ContentFixtures;
+import com.github.onsdigital.zebedee.benchmarks.fixtures.FixtureSpec;
+import com.github.onsdigital.zebedee.util.ZipUtils;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.output.NullOutputStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Zipping a folder of timeseries with {@link ZipUtils#zipFolder}, as done when sending timeseries to the train.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ZipUtilsBenchmark {
+
+    /**
+     * Number of timeseries in the folder being zipped.
+     */
+    @Param({"100", "1000"})
+    public int timeseries;
+
+    private Path root;
+
+    @Setup
+    public void setUp() throws Exception {
+        root = Files.createTempDirectory("zebedee-benchmark");
+        new ContentFixtures().generate(root, new FixtureSpec()
+                .timeseriesCount(timeseries)
+                .datasetCount(0)
+                .bulletinSeriesCount(0));
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        FileUtils.deleteDirectory(root.toFile());
+    }
+
+    @Benchmark
+    public int zipFolder() throws Exception {
+        return ZipUtils.zipFolder(root.toFile(), new NullOutputStream());
+    }
+}
@@ -0,0 +1,320 @@
+package com.github.onsdigital.zebedee.benchmarks.fixtures;
+
+import com.github.onsdigital.zebedee.content.page.base.Page;
+import com.github.onsdigital.zebedee.content.page.base.PageDescription;
+import com.github.onsdigital.zebedee.content.page.statistics.data.timeseries.TimeSeries;
+import com.github.onsdigital.zebedee.content.page.statistics.data.timeseries.TimeSeriesValue;
+import com.github.onsdigital.zebedee.content.page.statistics.dataset.Dataset;
+import com.github.onsdigital.zebedee.content.page.statistics.dataset.DatasetLandingPage;
+import com.github.onsdigital.zebedee.content.page.statistics.dataset.DownloadSection;
+import com.github.onsdigital.zebedee.content.page.statistics.document.bulletin.Bulletin;
+import com.github.onsdigital.zebedee.content.partial.markdown.MarkdownSection;
+import com.github.onsdigital.zebedee.content.util.ContentUtil;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Generates synthetic but realistically shaped content for the benchmarks: timeseries with yearly, quarterly and
+ * monthly values, dataset landing pages with a downloadable csv, and bulletin series with many editions.
+ * <p>
+ * Generation is seeded so that every run of a benchmark works against the same content.
+ */
+public class ContentFixtures {
+
+    public static final String TOPIC_URI = "/economy/inflationandpriceindices";
+    public static final String DATA_JSON = "data.json";
+
+    private static final String[] MONTHS = "JAN,FEB,MAR,APR,MAY,JUN,JUL,AUG,SEP,OCT,NOV,DEC".split(",");
+    private static final String LOREM = "The Consumer Prices Index including owner occupiers' housing costs (CPIH) " +
+            "12-month inflation rate was 2.9% in the month, down from 3.1% last month. The largest downward " +
+            "contribution to the change came from transport, with prices rising by less than a year ago. ";
+
+    private final Random random;
+
+    public ContentFixtures() {
+        this(1234L);
+    }
+
+    public ContentFixtures(long seed) {
+        this.random = new Random(seed);
+    }
+
+    /**
+     * Generate a content tree of the given size under the given root folder.
+     *
+     * @param root the content root, created if it does not exist.
+     * @param spec the size of the tree.
+     * @return the uris of the generated content.
+     */
+    public Tree generate(Path root, FixtureSpec spec) throws IOException {
+        Files.createDirectories(root);
+        Tree tree = new Tree(root);
+
+        for (int i = 0; i < spec.getTimeseriesCount(); i++) {
+            TimeSeries series = timeSeries(cdid(i), spec.getYearsPerTimeseries());
+            write(root, series);
+            tree.timeseriesUris.add(series.getUri().toString());
+        }
+
+        for (int i = 0; i < spec.getDatasetCount(); i++) {
+            generateDataset(root, tree, "dataset" + i, spec.getRowsPerDatasetFile());
+        }
+
+        for (int i = 0; i < spec.getBulletinSeriesCount(); i++) {
+            List<String> editions = new ArrayList<>();
+            for (Bulletin bulletin : bulletinSeries("bulletin" + i, spec.getEditionsPerBulletinSeries(),
+                    spec.getSectionsPerBulletin())) {
+                write(root, bulletin);
+                editions.add(bulletin.getUri().toString());
+            }
+            tree.bulletinSeries.add(editions);
+        }
+        return tree;
+    }
+
+    /**
+     * Create a timeseries with a value for every year, quarter and month of the given number of years.
+     */
+    public TimeSeries timeSeries(String cdid, int years) {
+        TimeSeries series = new TimeSeries();
+        series.setUri(URI.create(TOPIC_URI + "/timeseries/" + cdid.toLowerCase()));
+
+        PageDescription description = new PageDescription();
+        description.setCdid(cdid);
+        description.setTitle("CPIH INDEX 00: ALL ITEMS " + cdid);
+        description.setDatasetId("MM23");
+        description.setUnit("Index");
+        description.setReleaseDate(new Date());
+        series.setDescription(description);
+
+        int startYear = Calendar.getInstance(Locale.UK).get(Calendar.YEAR) - years;
+        double level = 100;
+        for (int year = startYear; year < startYear + years; year++) {
+            double yearTotal = 0;
+            for (int month = 0; month < 12; month++) {
+                level = walk(level);
+                yearTotal += level;
+                series.add(value(year + " " + MONTHS[month], level));
+                if (month % 3 == 2) {
+                    series.add(value(year + " Q" + (month / 3 + 1), level));
+                }
+            }
+            series.add(value(String.valueOf(year), yearTotal / 12));
+        }
+        return series;
+    }
+
+    /**
+     * Create a copy of the given timeseries as it would look after a dataset update: the given fraction of existing
+     * monthly values revised, and the given number of new months appended.
+     */
+    public TimeSeries revised(TimeSeries original, double revisedFraction, int newMonths) {
+        TimeSeries updates = ContentUtil.deserialise(ContentUtil.serialise(original), TimeSeries.class);
+        for (TimeSeriesValue value : updates.months) {
+            if (random.nextDouble() < revisedFraction) {
+                value.value = format(walk(Double.parseDouble(value.value)));
+            }
+        }
+
+        TimeSeriesValue last = updates.months.last();
+        Calendar calendar = Calendar.getInstance(Locale.UK);
+        calendar.setTime(last.toDate());
+        double level = Double.parseDouble(last.value);
+        for (int i = 0; i < newMonths; i++) {
+            calendar.add(Calendar.MONTH, 1);
+            level = walk(level);
+            updates.add(value(calendar.get(Calendar.YEAR) + " " + MONTHS[calendar.get(Calendar.MONTH)], level));
+        }
+        return updates;
+    }
+
+    /**
+     * Create a bulletin series with monthly editions, the most recent first.
+     */
+    public List<Bulletin> bulletinSeries(String seriesName, int editions, int sections) {
+        List<Bulletin> bulletins = new ArrayList<>();
+        Calendar calendar = Calendar.getInstance(Locale.UK);
+        for (int i = 0; i < editions; i++) {
+            String edition = calendar.getDisplayName(Calendar.MONTH, Calendar.LONG, Locale.UK).toLowerCase()
+                    + calendar.get(Calendar.YEAR);
+
+            Bulletin bulletin = new Bulletin();
+            bulletin.setUri(URI.create(TOPIC_URI + "/bulletins/" + seriesName + "/" + edition));
+
+            PageDescription description = new PageDescription();
+            description.setTitle("Consumer price inflation, UK: " + edition);
+            description.setEdition(edition);
+            description.setReleaseDate(calendar.getTime());
+            description.setSummary(LOREM);
+            description.setNationalStatistic(true);
+            bulletin.setDescription(description);
+
+            List<MarkdownSection> markdownSections = new ArrayList<>();
+            for (int s = 0; s < sections; s++) {
+                MarkdownSection section = new MarkdownSection();
+                section.setTitle("Section " + s);
+                section.setMarkdown(String.join("", Collections.nCopies(10, LOREM)));
+                markdownSections.add(section);
+            }
+            bulletin.setSections(markdownSections);
+
+            bulletins.add(bulletin);
+            calendar.add(Calendar.MONTH, -1);
+        }
+        return bulletins;
+    }
+
+    private void generateDataset(Path root, Tree tree, String datasetId, int rows) throws IOException {
+        String landingPageUri = TOPIC_URI + "/datasets/" + datasetId;
+        String editionUri = landingPageUri + "/current";
+        String fileName = datasetId + ".csv";
+
+        DatasetLandingPage landingPage = new DatasetLandingPage();
+        landingPage.setUri(URI.create(landingPageUri));
+        PageDescription landingDescription = new PageDescription();
+        landingDescription.setTitle("Consumer price inflation dataset " + datasetId);
+        landingDescription.setDatasetId(datasetId.toUpperCase());
+        landingDescription.setReleaseDate(new Date());
+        landingPage.setDescription(landingDescription);
+        write(root, landingPage);
+
+        Dataset dataset = new Dataset();
+        dataset.setUri(URI.create(editionUri));
+        PageDescription datasetDescription = new PageDescription();
+        datasetDescription.setTitle("Consumer price inflation dataset " + datasetId);
+        datasetDescription.setEdition("current");
+        datasetDescription.setReleaseDate(new Date());
+        dataset.setDescription(datasetDescription);
+        DownloadSection download = new DownloadSection();
+        download.setTitle(datasetId);
+        download.setFile(fileName);
+        dataset.setDownloads(Collections.singletonList(download));
+        write(root, dataset);
+
+        Path csv = root.resolve(editionUri.substring(1)).resolve(fileName);
+        try (BufferedWriter writer = Files.newBufferedWriter(csv, StandardCharsets.UTF_8)) {
+            writer.write("Title,CDID,Value,Date\n");
+            double level = 100;
+            for (int i = 0; i < rows; i++) {
+                level = walk(level);
+                writer.write("CPIH INDEX," + cdid(i % 1000) + "," + format(level) + "," + (1988 + i / 12) + " "
+                        + MONTHS[i % 12] + "\n");
+            }
+        }
+
+        tree.datasetUris.add(editionUri);
+        tree.datasetFileUris.add(editionUri + "/" + fileName);
+    }
+
+    private TimeSeriesValue value(String date, double level) {
+        TimeSeriesValue value = new TimeSeriesValue();
+        value.date = date;
+        value.value = format(level);
+        value.sourceDataset = "MM23";
+        return value;
+    }
+
+    private double walk(double level) {
+        return Math.max(1, level + random.nextGaussian() * 0.5);
+    }
+
+    private static String format(double level) {
+        return String.format(Locale.UK, "%.1f", level);
+    }
+
+    private static String cdid(int i) {
+        return String.format("D%03d", i);
+    }
+
+    /**
+     * Write the page to its data.json under the given content root.
+     */
+    public static Path write(Path root, Page page) throws IOException {
+        Path folder = root.resolve(page.getUri().toString().substring(1));
+        Files.createDirectories(folder);
+        Path dataJson = folder.resolve(DATA_JSON);
+        Files.write(dataJson, ContentUtil.serialise(page).getBytes(StandardCharsets.UTF_8));
+        return dataJson;
+    }
+
+    /**
+     * The uris of a generated content tree.
+     */
+    public static class Tree {
+        private final Path root;
+        private final List<String> timeseriesUris = new ArrayList<>();
+        private final List<String> datasetUris = new ArrayList<>();
+        private final List<String> datasetFileUris = new ArrayList<>();
+        private final List<List<String>> bulletinSeries = new ArrayList<>();
+
+        Tree(Path root) {
+            this.root = root;
+        }
+
+        public Path getRoot() {
+            return root;
+        }
+
+        public List<String> getTimeseriesUris() {
+            return timeseriesUris;
+        }
+
+        public List<String> getDatasetUris() {
+            return datasetUris;
+        }
+
+        public List<String> getDatasetFileUris() {
+            return datasetFileUris;
+        }
+
+        /**
+         * @return the edition uris of each bulletin series, the latest edition first.
+         */
+        public List<List<String>> getBulletinSeries() {
+            return bulletinSeries;
+        }
+    }
+
+    /**
+     * Generate a content tree on disk, e.g. to point a local zebedee-reader at.
+     * <p>
+     * Usage: ContentFixtures &lt;root&gt; [timeseries] [datasets] [bulletinSeries] [editionsPerSeries]
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("Usage: ContentFixtures <root> [timeseries] [datasets] [bulletinSeries] [editions]");
+            System.exit(1);
+        }
+
+        FixtureSpec spec = new FixtureSpec();
+        if (args.length > 1) {
+            spec.timeseriesCount(Integer.parseInt(args[1]));
+        }
+        if (args.length > 2) {
+            spec.datasetCount(Integer.parseInt(args[2]));
+        }
+        if (args.length > 3) {
+            spec.bulletinSeriesCount(Integer.parseInt(args[3]));
+        }
+        if (args.length > 4) {
+            spec.editionsPerBulletinSeries(Integer.parseInt(args[4]));
+        }
+
+        Path root = Paths.get(args[0]);
+        new ContentFixtures().generate(root, spec);
+        System.out.println("Generated " + spec + " in " + root.toAbsolutePath());
+    }
+}
@@ -0,0 +1,91 @@
+package com.github.onsdigital.zebedee.benchmarks.fixtures;
+
+/**
+ * Describes the size of a synthetic content tree generated by {@link ContentFixtures}.
+ */
+public class FixtureSpec {
+
+    private int timeseriesCount = 100;
+    private int yearsPerTimeseries = 30;
+    private int datasetCount = 10;
+    private int rowsPerDatasetFile = 1000;
+    private int bulletinSeriesCount = 5;
+    private int editionsPerBulletinSeries = 50;
+    private int sectionsPerBulletin = 8;
+
+    public int getTimeseriesCount() {
+        return timeseriesCount;
+    }
+
+    public FixtureSpec timeseriesCount(int timeseriesCount) {
+        this.timeseriesCount = timeseriesCount;
+        return this;
+    }
+
+    public int getYearsPerTimeseries() {
+        return yearsPerTimeseries;
+    }
+
+    public FixtureSpec yearsPerTimeseries(int yearsPerTimeseries) {
+        this.yearsPerTimeseries = yearsPerTimeseries;
+        return this;
+    }
+
+    public int getDatasetCount() {
+        return datasetCount;
+    }
+
+    public FixtureSpec datasetCount(int datasetCount) {
+        this.datasetCount = datasetCount;
+        return this;
+    }
+
+    public int getRowsPerDatasetFile() {
+        return rowsPerDatasetFile;
+    }
+
+    public FixtureSpec rowsPerDatasetFile(int rowsPerDatasetFile) {
+        this.rowsPerDatasetFile = rowsPerDatasetFile;
+        return this;
+    }
+
+    public int getBulletinSeriesCount() {
+        return bulletinSeriesCount;
+    }
+
+    public FixtureSpec bulletinSeriesCount(int bulletinSeriesCount) {
+        this.bulletinSeriesCount = bulletinSeriesCount;
+        return this;
+    }
+
+    public int getEditionsPerBulletinSeries() {
+        return editionsPerBulletinSeries;
+    }
+
+    public FixtureSpec editionsPerBulletinSeries(int editionsPerBulletinSeries) {
+        this.editionsPerBulletinSeries = editionsPerBulletinSeries;
+        return this;
+    }
+
+    public int getSectionsPerBulletin() {
+        return sectionsPerBulletin;
+    }
+
+    public FixtureSpec sectionsPerBulletin(int sectionsPerBulletin) {
+        this.sectionsPerBulletin = sectionsPerBulletin;
+        return this;
+    }
+
+    @Override
+    public String toString() {
+        return "FixtureSpec{" +
+                "timeseriesCount=" + timeseriesCount +
+                ", yearsPerTimeseries=" + yearsPerTimeseries +
+                ", datasetCount=" + datasetCount +
+                ", rowsPerDatasetFile=" + rowsPerDatasetFile +
+                ", bulletinSeriesCount=" + bulletinSeriesCount +
+                ", editionsPerBulletinSeries=" + editionsPerBulletinSeries +
+                ", sectionsPerBulletin=" + sectionsPerBulletin +
+                '}';
+    }
+}
@@ -58,6 +58,8 @@ public class Zebedee {
     public static final String APPLICATION_KEYS = "application-keys";
     public static final String SERVICES = "services";
     public static final String KEYRING = "keyring";
+    public static final String KAFKA_SPOOL = "kafka-spool";
+    public static final String VERSION_BLOBS = "version-blobs";
 
     private final Path publishedCollectionsPath;
     private final Path collectionsPath;
@@ -12,6 +12,7 @@ import com.github.onsdigital.slack.client.SlackClientImpl;
 import com.github.onsdigital.zebedee.data.processing.DataIndex;
 import com.github.onsdigital.zebedee.kafka.KafkaClient;
 import com.github.onsdigital.zebedee.kafka.KafkaClientImpl;
+import com.github.onsdigital.zebedee.kafka.KafkaRetrySpool;
 import com.github.onsdigital.zebedee.keyring.CollectionKeyCache;
 import com.github.onsdigital.zebedee.keyring.CollectionKeyStore;
 import com.github.onsdigital.zebedee.keyring.CollectionKeyring;
@@ -33,6 +34,7 @@ import com.github.onsdigital.zebedee.permissions.service.PermissionsServiceImpl;
 import com.github.onsdigital.zebedee.permissions.store.PermissionsStore;
 import com.github.onsdigital.zebedee.permissions.store.PermissionsStoreFileSystemImpl;
 import com.github.onsdigital.zebedee.reader.FileSystemContentReader;
+import com.github.onsdigital.zebedee.service.AsyncKafkaServiceImpl;
 import com.github.onsdigital.zebedee.service.DatasetService;
 import com.github.onsdigital.zebedee.service.ImageService;
 import com.github.onsdigital.zebedee.service.ImageServiceImpl;
@@ -53,10 +55,14 @@ import com.github.onsdigital.zebedee.session.store.LegacySessionsStoreImpl;
 import com.github.onsdigital.zebedee.teams.service.StubbedTeamsServiceImpl;
 import com.github.onsdigital.zebedee.teams.service.TeamsService;
 import com.github.onsdigital.zebedee.teams.service.TeamsServiceImpl;
+import com.github.onsdigital.zebedee.teams.store.TeamDirectory;
+import com.github.onsdigital.zebedee.teams.store.TeamsStore;
 import com.github.onsdigital.zebedee.teams.store.TeamsStoreFileSystemImpl;
 import com.github.onsdigital.zebedee.user.service.StubbedUsersServiceImpl;
 import com.github.onsdigital.zebedee.user.service.UsersService;
 import com.github.onsdigital.zebedee.user.service.UsersServiceImpl;
+import com.github.onsdigital.zebedee.user.store.UserDirectory;
+import com.github.onsdigital.zebedee.user.store.UserStore;
 import com.github.onsdigital.zebedee.user.store.UserStoreFileSystemImpl;
 import com.github.onsdigital.zebedee.util.slack.NopNotifierImpl;
 import com.github.onsdigital.zebedee.util.slack.NopSlackClientImpl;
@@ -75,11 +81,13 @@ import java.net.URISyntaxException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 import static com.github.onsdigital.logging.v2.event.SimpleEvent.error;
 import static com.github.onsdigital.logging.v2.event.SimpleEvent.info;
 import static com.github.onsdigital.logging.v2.event.SimpleEvent.warn;
 import static com.github.onsdigital.zebedee.Zebedee.COLLECTIONS;
+import static com.github.onsdigital.zebedee.Zebedee.KAFKA_SPOOL;
 import static com.github.onsdigital.zebedee.Zebedee.KEYRING;
 import static com.github.onsdigital.zebedee.Zebedee.PERMISSIONS;
 import static com.github.onsdigital.zebedee.Zebedee.PUBLISHED;
@@ -97,6 +105,7 @@ import static com.github.onsdigital.zebedee.configuration.Configuration.getImage
 import static com.github.onsdigital.zebedee.configuration.Configuration.getInitialRetryInterval;
 import static com.github.onsdigital.zebedee.configuration.Configuration.getInteractivesAPIURL;
 import static com.github.onsdigital.zebedee.configuration.Configuration.getKafkaContentUpdatedTopic;
+import static com.github.onsdigital.zebedee.configuration.Configuration.getKafkaRetrySpoolIntervalSeconds;
 import static com.github.onsdigital.zebedee.configuration.Configuration.getKafkaURL;
 import static com.github.onsdigital.zebedee.configuration.Configuration.getKeyringInitVector;
 import static com.github.onsdigital.zebedee.configuration.Configuration.getKeyringSecretKey;
@@ -190,8 +199,12 @@ public class ZebedeeConfiguration {
         if (cmsFeatureFlags().isJwtSessionsEnabled()) {
             this.teamsService = new StubbedTeamsServiceImpl();
         } else {
-            this.teamsService = new TeamsServiceImpl(
-                    new TeamsStoreFileSystemImpl(teamsPath), this::getPermissionsService);
+            TeamsStore teamsStore = new TeamsStoreFileSystemImpl(teamsPath);
+            TeamDirectory teamDirectory = null;
+            if (cmsFeatureFlags().isUserTeamDirectoriesEnabled()) {
+                teamDirectory = new TeamDirectory(teamsStore);
+            }
+            this.teamsService = new TeamsServiceImpl(teamsStore, teamDirectory, this::getPermissionsService);
         }
 
         this.published = createPublished();
@@ -218,8 +231,12 @@ public class ZebedeeConfiguration {
         if (cmsFeatureFlags().isJwtSessionsEnabled()) {
             this.usersService = StubbedUsersServiceImpl.getInstance();
         } else {
-            this.usersService = UsersServiceImpl.getInstance(
-                    new UserStoreFileSystemImpl(this.usersPath), permissionsService);
+            UserStore userStore = new UserStoreFileSystemImpl(this.usersPath);
+            UserDirectory userDirectory = null;
+            if (cmsFeatureFlags().isUserTeamDirectoriesEnabled()) {
+                userDirectory = new UserDirectory(userStore);
+            }
+            this.usersService = UsersServiceImpl.getInstance(userStore, userDirectory, permissionsService);
         }
 
         // Configure the sessions
@@ -266,7 +283,20 @@ public class ZebedeeConfiguration {
         if (cmsFeatureFlags().isKafkaEnabled()) {
 
             KafkaClient kafkaClient = new KafkaClientImpl(getKafkaURL(), getKafkaContentUpdatedTopic());
-            kafkaService = new KafkaServiceImpl(kafkaClient);
+            if (cmsFeatureFlags().isAsyncKafkaEnabled()) {
+                KafkaRetrySpool spool = new KafkaRetrySpool(createDir(zebedeePath, KAFKA_SPOOL), kafkaClient);
+                spool.start(getKafkaRetrySpoolIntervalSeconds(), TimeUnit.SECONDS);
+                kafkaService = new AsyncKafkaServiceImpl(kafkaClient, spool);
+                // closing the producer fails the sends still in flight, so the spool is closed after it to write
+                // the events their callbacks hand to it before the process exits.
+                Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                    kafkaClient.close();
+                    spool.close();
+                }, "kafka-shutdown"));
+            } else {
+                kafkaService = new KafkaServiceImpl(kafkaClient);
+                Runtime.getRuntime().addShutdownHook(new Thread(kafkaClient::close, "kafka-shutdown"));
+            }
         } else {
             kafkaService = new NoOpKafkaService();
         }
@@ -3,10 +3,10 @@ package com.github.onsdigital.zebedee.api;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.github.davidcarboni.restolino.framework.Api;
 import com.github.onsdigital.zebedee.json.response.Error;
+import com.github.onsdigital.zebedee.logging.CMSLogEvent;
 import com.github.onsdigital.zebedee.model.ClickEvent;
 import com.github.onsdigital.zebedee.util.HttpResponseWriter;
 import com.github.onsdigital.zebedee.util.JsonUtils;
-import org.apache.commons.io.IOUtils;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
@@ -14,6 +14,7 @@ import javax.ws.rs.POST;
 import java.io.IOException;
 import java.io.InputStream;
 
+import static com.github.onsdigital.zebedee.logging.AsyncEventLog.asyncEventLog;
 import static com.github.onsdigital.zebedee.logging.CMSLogEvent.error;
 import static com.github.onsdigital.zebedee.logging.CMSLogEvent.info;
 
@@ -38,7 +39,8 @@ public class ClickEventLog {
     public void logEvent(HttpServletRequest request, HttpServletResponse response) throws IOException {
         try {
             ClickEvent event = clickEventDetails(request);
-            info().florenceClickEvent(event).log("florence click event");
+            CMSLogEvent logEvent = info().florenceClickEvent(event);
+            asyncEventLog().write("click", () -> logEvent.log("florence click event"));
         } catch (Exception ex) {
             error().exception(ex).log("error deserialising florence click event json");
             writeErrorResponse(response, new Error("internal server error"), 500);
@@ -48,8 +50,7 @@ public class ClickEventLog {
     private ClickEvent clickEventDetails(HttpServletRequest request) throws
             IOException {
         try (InputStream inputStream = request.getInputStream()) {
-            byte[] bodyBytes = IOUtils.toByteArray(request.getInputStream());
-            return OBJECT_MAPPER.readValue(bodyBytes, ClickEvent.class);
+            return OBJECT_MAPPER.readValue(inputStream, ClickEvent.class);
         }
     }
 
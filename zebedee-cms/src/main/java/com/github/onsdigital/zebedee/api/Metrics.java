@@ -0,0 +1,37 @@
+package com.github.onsdigital.zebedee.api;
+
+import com.github.davidcarboni.restolino.framework.Api;
+import com.github.onsdigital.zebedee.metrics.MetricsRegistry;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.ws.rs.GET;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static com.github.onsdigital.zebedee.metrics.MetricsRegistry.metrics;
+
+/**
+ * Exposes the publishing metrics (phase timings, train request latency, bytes sent, executor queue depth etc.) in the
+ * Prometheus text exposition format. Requires an authenticated session or service token like any other CMS endpoint.
+ */
+@Api
+public class Metrics {
+
+    private MetricsRegistry registry;
+
+    public Metrics() {
+        this(metrics());
+    }
+
+    Metrics(MetricsRegistry registry) {
+        this.registry = registry;
+    }
+
+    @GET
+    public void get(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        response.setContentType(MetricsRegistry.CONTENT_TYPE);
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.getOutputStream().write(registry.write().getBytes(StandardCharsets.UTF_8));
+    }
+}
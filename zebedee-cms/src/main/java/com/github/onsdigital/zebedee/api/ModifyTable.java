@@ -15,6 +15,7 @@ import com.github.onsdigital.zebedee.reader.CollectionReader;
 import com.github.onsdigital.zebedee.reader.Resource;
 import com.github.onsdigital.zebedee.reader.util.RequestUtils;
 import com.github.onsdigital.zebedee.session.model.Session;
+import com.github.onsdigital.zebedee.util.StreamingXlsToHtmlConverter;
 import com.github.onsdigital.zebedee.util.XlsToHtmlConverter;
 import com.google.gson.JsonIOException;
 import com.google.gson.JsonSyntaxException;
@@ -34,10 +35,12 @@ import javax.xml.transform.TransformerException;
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.StringWriter;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 
+import static com.github.onsdigital.zebedee.configuration.CMSFeatureFlags.cmsFeatureFlags;
 import static com.github.onsdigital.zebedee.content.util.ContentUtil.deserialiseContent;
 import static com.github.onsdigital.zebedee.exceptions.TableBuilderException.ErrorType.UNEXPECTED_ERROR;
 
@@ -178,6 +181,11 @@ public class ModifyTable {
                 && modifications.getHeaderColumns().isEmpty() && modifications.getHeaderRows().isEmpty()) {
             modifications = null;
         }
+        if (cmsFeatureFlags().isStreamingXlsToHtmlEnabled()) {
+            StringWriter html = new StringWriter();
+            StreamingXlsToHtmlConverter.convertToHtmlPageWithModifications(inputStream, modifications, html);
+            return html.toString();
+        }
         Node updatedHtmlTable = XlsToHtmlConverter.convertToHtmlPageWithModifications(inputStream, modifications);
         return XlsToHtmlConverter.docToString(updatedHtmlTable);
     }
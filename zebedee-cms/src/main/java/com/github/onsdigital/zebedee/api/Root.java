@@ -12,6 +12,7 @@ import com.github.onsdigital.zebedee.json.serialiser.IsoDateSerializer;
 import com.github.onsdigital.zebedee.model.Collection;
 import com.github.onsdigital.zebedee.model.Collections;
 import com.github.onsdigital.zebedee.model.Content;
+import com.github.onsdigital.zebedee.model.publishing.scheduled.PublishScheduleJournal;
 import com.github.onsdigital.zebedee.model.publishing.scheduled.PublishScheduler;
 import com.github.onsdigital.zebedee.model.publishing.scheduled.Scheduler;
 import com.github.onsdigital.zebedee.notification.NotificationException;
@@ -46,11 +47,12 @@ public class Root {
     private static final String DEFAULT_SYS_USER_PASSWORD = "Doug4l";
 
     static final String ZEBEDEE_ROOT = "zebedee_root";
+    static final String PUBLISH_SCHEDULE_JOURNAL = "publish-schedule.journal";
     // Environment variables are stored as a static variable so if necessary we can hijack them for testing
     public static Map<String, String> env = System.getenv();
     public static Zebedee zebedee;
     static Path root;
-    private static Scheduler scheduler = new PublishScheduler();
+    private static PublishScheduler scheduler = new PublishScheduler();
 
     /**
      * Initalise the CMS.
@@ -80,11 +82,13 @@ public class Root {
         // environment variable on develop environment
         System.setProperty(ZEBEDEE_ROOT, root.toString());
 
-        try {
-            Collections.CollectionList collections = zebedee.getCollections().list();
-            loadExistingCollectionsIntoScheduler(collections);
-        } catch (IOException ex) {
-            throw new RuntimeException("failed to load collections list on startup", ex);
+        if (!recoverScheduleFromJournal()) {
+            try {
+                Collections.CollectionList collections = zebedee.getCollections().list();
+                loadExistingCollectionsIntoScheduler(collections);
+            } catch (IOException ex) {
+                throw new RuntimeException("failed to load collections list on startup", ex);
+            }
         }
 
         boolean notificationSuccessful = false;
@@ -150,6 +154,40 @@ public class Root {
         }
     }
 
+    /**
+     * Attach the publish schedule journal to the scheduler and restore the schedule from it, if the journal is
+     * enabled and exists.
+     *
+     * @return true if the schedule was restored, false if it has to be rebuilt from the collections.
+     */
+    private static boolean recoverScheduleFromJournal() {
+        if (!Configuration.isSchedulingEnabled()) {
+            return false;
+        }
+
+        Path journalPath = zebedee.getPath().resolve(PUBLISH_SCHEDULE_JOURNAL);
+        if (!cmsFeatureFlags().isPublishScheduleJournalEnabled()) {
+            // collections scheduled while the journal is off are not recorded in it, so it can't be restored from
+            // if it is turned back on.
+            try {
+                Files.deleteIfExists(journalPath);
+            } catch (IOException ex) {
+                error().data("path", journalPath.toString()).exception(ex)
+                        .log("zebedee root: error deleting unused publish schedule journal");
+            }
+            return false;
+        }
+
+        try {
+            scheduler.setJournal(PublishScheduleJournal.open(journalPath));
+        } catch (IOException ex) {
+            error().data("path", journalPath.toString()).exception(ex)
+                    .log("zebedee root: error reading publish schedule journal, rebuilding schedule from collections");
+            return false;
+        }
+        return scheduler.recover(zebedee);
+    }
+
     private static void loadExistingCollectionsIntoScheduler(Collections.CollectionList collections) {
         if (Configuration.isSchedulingEnabled()) {
 
@@ -157,6 +195,10 @@ public class Root {
             for (Collection collection : collections) {
                 schedulePublish(collection);
             }
+
+            if (scheduler.getJournal() != null) {
+                scheduler.getJournal().compact();
+            }
         } else {
             info().log("zebedee root: scheduled publishing is disabled - not reading collections");
         }
@@ -11,6 +11,7 @@ import com.github.onsdigital.zebedee.model.ZebedeeCollectionReader;
 import com.github.onsdigital.zebedee.reader.CollectionReader;
 import com.github.onsdigital.zebedee.reader.Resource;
 import com.github.onsdigital.zebedee.session.model.Session;
+import com.github.onsdigital.zebedee.util.StreamingXlsToHtmlConverter;
 import com.github.onsdigital.zebedee.util.XlsToHtmlConverter;
 import org.apache.commons.io.FilenameUtils;
 import org.apache.commons.io.IOUtils;
@@ -24,11 +25,15 @@ import javax.xml.parsers.ParserConfigurationException;
 import javax.xml.transform.TransformerException;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStreamWriter;
 import java.io.StringReader;
+import java.io.Writer;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 
+import static com.github.onsdigital.zebedee.configuration.CMSFeatureFlags.cmsFeatureFlags;
+
 @Api
 public class Table {
 
@@ -71,11 +76,17 @@ public class Table {
         ) {
 
             TableModifications modifications = getTableModifications(request);
-            Node table = XlsToHtmlConverter.convertToHtmlPageWithModifications(inputStream, modifications);
-            String output = XlsToHtmlConverter.docToString(table);
+            if (cmsFeatureFlags().isStreamingXlsToHtmlEnabled()) {
+                // Write the table to the response as each row is read
+                Writer writer = new OutputStreamWriter(response.getOutputStream(), StandardCharsets.UTF_8);
+                StreamingXlsToHtmlConverter.convertToHtmlPageWithModifications(inputStream, modifications, writer);
+            } else {
+                Node table = XlsToHtmlConverter.convertToHtmlPageWithModifications(inputStream, modifications);
+                String output = XlsToHtmlConverter.docToString(table);
 
-            // Write the file to the response
-            IOUtils.copy(new StringReader(output), response.getOutputStream(), StandardCharsets.UTF_8);
+                // Write the file to the response
+                IOUtils.copy(new StringReader(output), response.getOutputStream(), StandardCharsets.UTF_8);
+            }
 
             Audit.Event.COLLECTION_TABLE_CREATED
                     .parameters()
@@ -9,6 +9,8 @@ import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
 
+import static com.github.onsdigital.zebedee.logging.AsyncEventLog.asyncEventLog;
+
 /**
  * Provides functionality for logging key events in Zebedee. {@link Event#parameters()} returns a {@link ParameterBuilder}
  * which allows parameters to be added to the log message, alternatively you can invoke {@link Event#logWithoutParameters()}
@@ -264,7 +266,8 @@ public class Audit {
         }
 
         /**
-         * Log the event.
+         * Log the event. The message is built on the calling thread and written by the
+         * {@link com.github.onsdigital.zebedee.logging.AsyncEventLog}.
          */
         public void log() {
             StringBuilder message = new StringBuilder(event.eventDesc + " ");
@@ -282,7 +285,8 @@ public class Audit {
                 }
                 message.append("]");
             }
-            LOG.info(message.toString());
+            String text = message.toString();
+            asyncEventLog().write("audit", () -> LOG.info(text));
         }
     }
 }
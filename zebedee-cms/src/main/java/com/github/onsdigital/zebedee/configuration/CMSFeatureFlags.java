@@ -21,6 +21,20 @@ public class CMSFeatureFlags {
     public static final String ENABLE_KAFKA = "ENABLE_KAFKA";
     public static final String ENABLE_STATIC_FILES_PUBLISHING = "ENABLE_STATIC_FILES_PUBLISHING";
     public static final String ENABLE_INTERACTIVES_PUBLISHING = "ENABLE_INTERACTIVES_PUBLISHING";
+    public static final String ENABLE_PUBLISH_ZIP_BATCHES = "ENABLE_PUBLISH_ZIP_BATCHES";
+    public static final String ENABLE_CHUNKED_ENCRYPTION = "ENABLE_CHUNKED_ENCRYPTION";
+    public static final String ENABLE_PRE_PUBLISH_STAGING = "ENABLE_PRE_PUBLISH_STAGING";
+    public static final String ENABLE_DELTA_PUBLISHING = "ENABLE_DELTA_PUBLISHING";
+    public static final String ENABLE_PUBLISH_SCHEDULE_JOURNAL = "ENABLE_PUBLISH_SCHEDULE_JOURNAL";
+    public static final String ENABLE_ASYNC_KAFKA = "ENABLE_ASYNC_KAFKA";
+    public static final String ENABLE_PUBLISH_SNAPSHOT = "ENABLE_PUBLISH_SNAPSHOT";
+    public static final String ENABLE_VERSION_DEDUPLICATION = "ENABLE_VERSION_DEDUPLICATION";
+    public static final String ENABLE_CONTENT_LINK_INDEX = "ENABLE_CONTENT_LINK_INDEX";
+    public static final String ENABLE_USER_TEAM_DIRECTORIES = "ENABLE_USER_TEAM_DIRECTORIES";
+    public static final String ENABLE_BATCH_HASH_VERIFICATION = "ENABLE_BATCH_HASH_VERIFICATION";
+    public static final String ENABLE_ASYNC_EVENT_LOG = "ENABLE_ASYNC_EVENT_LOG";
+    public static final String ENABLE_STREAMING_XLS_TO_HTML = "ENABLE_STREAMING_XLS_TO_HTML";
+    public static final String ENABLE_PARALLEL_TIMESERIES_UPDATES = "ENABLE_PARALLEL_TIMESERIES_UPDATES";
 
     /**
      * Singleton instance
@@ -37,6 +51,20 @@ public class CMSFeatureFlags {
     private final boolean isKafkaEnabled;
     private final boolean isStaticFilesPublishingEnabled;
     private final boolean isInteractivesPublishingEnabled;
+    private final boolean isPublishZipBatchesEnabled;
+    private final boolean isChunkedEncryptionEnabled;
+    private final boolean isPrePublishStagingEnabled;
+    private final boolean isDeltaPublishingEnabled;
+    private final boolean isPublishScheduleJournalEnabled;
+    private final boolean isAsyncKafkaEnabled;
+    private final boolean isPublishSnapshotEnabled;
+    private final boolean isVersionDeduplicationEnabled;
+    private final boolean isContentLinkIndexEnabled;
+    private final boolean isUserTeamDirectoriesEnabled;
+    private final boolean isBatchHashVerificationEnabled;
+    private final boolean isAsyncEventLogEnabled;
+    private final boolean isStreamingXlsToHtmlEnabled;
+    private final boolean isParallelTimeseriesUpdatesEnabled;
 
 
     /**
@@ -54,6 +82,20 @@ public class CMSFeatureFlags {
         this.isKafkaEnabled = Boolean.valueOf(getConfigValue(ENABLE_KAFKA));
         this.isStaticFilesPublishingEnabled = Boolean.valueOf(getConfigValue(ENABLE_STATIC_FILES_PUBLISHING));
         this.isInteractivesPublishingEnabled = Boolean.valueOf(getConfigValue(ENABLE_INTERACTIVES_PUBLISHING));
+        this.isPublishZipBatchesEnabled = Boolean.valueOf(getConfigValue(ENABLE_PUBLISH_ZIP_BATCHES));
+        this.isChunkedEncryptionEnabled = Boolean.valueOf(getConfigValue(ENABLE_CHUNKED_ENCRYPTION));
+        this.isPrePublishStagingEnabled = Boolean.valueOf(getConfigValue(ENABLE_PRE_PUBLISH_STAGING));
+        this.isDeltaPublishingEnabled = Boolean.valueOf(getConfigValue(ENABLE_DELTA_PUBLISHING));
+        this.isPublishScheduleJournalEnabled = Boolean.valueOf(getConfigValue(ENABLE_PUBLISH_SCHEDULE_JOURNAL));
+        this.isAsyncKafkaEnabled = Boolean.valueOf(getConfigValue(ENABLE_ASYNC_KAFKA));
+        this.isPublishSnapshotEnabled = Boolean.valueOf(getConfigValue(ENABLE_PUBLISH_SNAPSHOT));
+        this.isVersionDeduplicationEnabled = Boolean.valueOf(getConfigValue(ENABLE_VERSION_DEDUPLICATION));
+        this.isContentLinkIndexEnabled = Boolean.valueOf(getConfigValue(ENABLE_CONTENT_LINK_INDEX));
+        this.isUserTeamDirectoriesEnabled = Boolean.valueOf(getConfigValue(ENABLE_USER_TEAM_DIRECTORIES));
+        this.isBatchHashVerificationEnabled = Boolean.valueOf(getConfigValue(ENABLE_BATCH_HASH_VERIFICATION));
+        this.isAsyncEventLogEnabled = Boolean.valueOf(getConfigValue(ENABLE_ASYNC_EVENT_LOG));
+        this.isStreamingXlsToHtmlEnabled = Boolean.valueOf(getConfigValue(ENABLE_STREAMING_XLS_TO_HTML));
+        this.isParallelTimeseriesUpdatesEnabled = Boolean.valueOf(getConfigValue(ENABLE_PARALLEL_TIMESERIES_UPDATES));
 
         info().data(ENABLE_DATASET_IMPORT, isDatasetImportEnabled)
                 .data(ENABLE_VERIFY_PUBLISH_CONTENT, isVerifyPublishEnabled)
@@ -66,6 +108,20 @@ public class CMSFeatureFlags {
                 .data(ENABLE_KAFKA, isKafkaEnabled)
                 .data(ENABLE_STATIC_FILES_PUBLISHING, isStaticFilesPublishingEnabled)
                 .data(ENABLE_INTERACTIVES_PUBLISHING, isInteractivesPublishingEnabled)
+                .data(ENABLE_PUBLISH_ZIP_BATCHES, isPublishZipBatchesEnabled)
+                .data(ENABLE_CHUNKED_ENCRYPTION, isChunkedEncryptionEnabled)
+                .data(ENABLE_PRE_PUBLISH_STAGING, isPrePublishStagingEnabled)
+                .data(ENABLE_DELTA_PUBLISHING, isDeltaPublishingEnabled)
+                .data(ENABLE_PUBLISH_SCHEDULE_JOURNAL, isPublishScheduleJournalEnabled)
+                .data(ENABLE_ASYNC_KAFKA, isAsyncKafkaEnabled)
+                .data(ENABLE_PUBLISH_SNAPSHOT, isPublishSnapshotEnabled)
+                .data(ENABLE_VERSION_DEDUPLICATION, isVersionDeduplicationEnabled)
+                .data(ENABLE_CONTENT_LINK_INDEX, isContentLinkIndexEnabled)
+                .data(ENABLE_USER_TEAM_DIRECTORIES, isUserTeamDirectoriesEnabled)
+                .data(ENABLE_BATCH_HASH_VERIFICATION, isBatchHashVerificationEnabled)
+                .data(ENABLE_ASYNC_EVENT_LOG, isAsyncEventLogEnabled)
+                .data(ENABLE_STREAMING_XLS_TO_HTML, isStreamingXlsToHtmlEnabled)
+                .data(ENABLE_PARALLEL_TIMESERIES_UPDATES, isParallelTimeseriesUpdatesEnabled)
                 .log("CMS feature flags configurations");
     }
 
@@ -132,6 +188,138 @@ public class CMSFeatureFlags {
         return isInteractivesPublishingEnabled;
     }
 
+    /**
+     * If true small collection files are sent to the train in zip batches rather than one request per file.
+     *
+     * @return true if enabled false (default) otherwise.
+     */
+    public boolean isPublishZipBatchesEnabled() {
+        return isPublishZipBatchesEnabled;
+    }
+
+    /**
+     * If true encrypted collection files are written in the seekable chunked format rather than the cryptolite
+     * stream format. Files are read in whichever format they were written in.
+     *
+     * @return true if enabled false (default) otherwise.
+     */
+    public boolean isChunkedEncryptionEnabled() {
+        return isChunkedEncryptionEnabled;
+    }
+
+    /**
+     * If true scheduled collections send their files to the train and verify them during the pre-publish window,
+     * leaving only the commit for the publish time.
+     *
+     * @return true if enabled false (default) otherwise.
+     */
+    public boolean isPrePublishStagingEnabled() {
+        return isPrePublishStagingEnabled;
+    }
+
+    /**
+     * If true collection files that are identical to the published file at the same uri are not sent to the train.
+     *
+     * @return true if enabled false (default) otherwise.
+     */
+    public boolean isDeltaPublishingEnabled() {
+        return isDeltaPublishingEnabled;
+    }
+
+    /**
+     * If true the publish schedule and pre-publish progress are recorded in a journal that is replayed on startup,
+     * rather than the schedule being rebuilt by reading every collection.
+     *
+     * @return true if enabled false (default) otherwise.
+     */
+    public boolean isPublishScheduleJournalEnabled() {
+        return isPublishScheduleJournalEnabled;
+    }
+
+    /**
+     * If true content-updated kafka events are sent without waiting for the broker, failed events being spooled to
+     * disk and retried.
+     *
+     * @return true if enabled false (default) otherwise.
+     */
+    public boolean isAsyncKafkaEnabled() {
+        return isAsyncKafkaEnabled;
+    }
+
+    /**
+     * Determine if a snapshot of the reviewed files is taken on approval and used by each phase of the publish.
+     *
+     * @return true if enabled false (default) otherwise.
+     */
+    public boolean isPublishSnapshotEnabled() {
+        return isPublishSnapshotEnabled;
+    }
+
+    /**
+     * Determine if identical version files in published content share a single copy on disk.
+     *
+     * @return true if enabled false (default) otherwise.
+     */
+    public boolean isVersionDeduplicationEnabled() {
+        return isVersionDeduplicationEnabled;
+    }
+
+    /**
+     * Feature flag to find the files to rewrite when content is moved using an index of the links between collection
+     * files.
+     *
+     * @return true if enabled false (default) otherwise.
+     */
+    public boolean isContentLinkIndexEnabled() {
+        return isContentLinkIndexEnabled;
+    }
+
+    /**
+     * Feature flag to look up users and teams in directories held in memory rather than reading their files each time.
+     *
+     * @return true if enabled false (default) otherwise.
+     */
+    public boolean isUserTeamDirectoriesEnabled() {
+        return isUserTeamDirectoriesEnabled;
+    }
+
+    /**
+     * Feature flag to verify the hashes of the files sent to the train in batches of many files per request.
+     *
+     * @return true if enabled false (default) otherwise.
+     */
+    public boolean isBatchHashVerificationEnabled() {
+        return isBatchHashVerificationEnabled;
+    }
+
+    /**
+     * Feature flag to write audit and florence click events on a dedicated writer thread rather than the request
+     * thread.
+     *
+     * @return true if enabled false (default) otherwise.
+     */
+    public boolean isAsyncEventLogEnabled() {
+        return isAsyncEventLogEnabled;
+    }
+
+    /**
+     * Determine if xls tables are converted to html with the streaming converter, writing each row as it is read.
+     *
+     * @return true if enabled false (default) otherwise.
+     */
+    public boolean isStreamingXlsToHtmlEnabled() {
+        return isStreamingXlsToHtmlEnabled;
+    }
+
+    /**
+     * Determine if timeseries update commands are grouped by timeseries and applied in parallel on approval.
+     *
+     * @return true if enabled false (default) otherwise.
+     */
+    public boolean isParallelTimeseriesUpdatesEnabled() {
+        return isParallelTimeseriesUpdatesEnabled;
+    }
+
     public static String getConfigValue(String name) {
         String value = System.getProperty(name);
         if (StringUtils.isNoneEmpty(value)) {
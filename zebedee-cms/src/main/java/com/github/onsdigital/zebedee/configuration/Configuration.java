@@ -44,8 +44,33 @@ public class Configuration {
     private static final String KEYRING_INIT_VECTOR = "KEYRING_INIT_VECTOR";
 
     private static final int VERIFY_RETRY_DELAY = 5000; // milliseconds
+    private static final int VERIFY_MAX_RETRY_DELAY = 60000; // milliseconds
+    private static final int VERIFY_SAVE_INTERVAL = 10000; // milliseconds
     private static final int VERIFY_RETRY_COUNT = 10;
 
+    // maximum number of concurrent API state transitions made when publishing a collection
+    private static final int DEFAULT_DATASET_API_PUBLISH_CONCURRENCY = 5;
+    private static final int DEFAULT_IMAGE_API_PUBLISH_CONCURRENCY = 5;
+
+    // limits of the zip batches small collection files are sent to the train in
+    private static final int DEFAULT_PUBLISH_ZIP_BATCH_MAX_FILES = 500;
+    private static final long DEFAULT_PUBLISH_ZIP_BATCH_MAX_BYTES = 20L * 1024 * 1024;
+    private static final long DEFAULT_PUBLISH_ZIP_BATCH_FILE_THRESHOLD = 1024L * 1024;
+    private static final int DEFAULT_ENCRYPTION_CHUNK_SIZE = 64 * 1024;
+    private static final int DEFAULT_PUBLISHING_THREADS = 40;
+    private static final int DEFAULT_PUBLISHING_QUEUE_CAPACITY = 10000;
+    private static final int DEFAULT_HASH_VERIFY_BATCH_SIZE = 1000;
+    private static final int DEFAULT_HASH_VERIFY_BATCHES_PER_HOST = 4;
+    private static final int DEFAULT_ASYNC_EVENT_LOG_CAPACITY = 8192;
+    private static final int DEFAULT_ASYNC_EVENT_LOG_BATCH_SIZE = 256;
+    private static final String DEFAULT_ASYNC_EVENT_LOG_FULL_POLICY = "drop";
+    private static final int DEFAULT_TIMESERIES_UPDATE_THREADS = 8;
+    private static final int DEFAULT_KAFKA_LINGER_MS = 20;
+    private static final int DEFAULT_KAFKA_BATCH_SIZE = 128 * 1024;
+    private static final String DEFAULT_KAFKA_COMPRESSION_TYPE = "snappy";
+    private static final int DEFAULT_KAFKA_MAX_BLOCK_MS = 1000;
+    private static final int DEFAULT_KAFKA_RETRY_SPOOL_INTERVAL_SECONDS = 60;
+
     // Default retry configs to handle fetching jwt keys from identity api failure
     private static final int DEFAULT_INITIAL_RETRY_INTERVAL = 500;
     private static final int DEFAULT_MAX_RETRY_ELAPSED_TIME = 900000;
@@ -53,6 +78,7 @@ public class Configuration {
 
     // how many seconds before the actual publish time should we run the preprocess
     private static final int DEFAULT_PREPROCESS_SECONDS_BEFORE_PUBLISH = 30;
+    private static final int DEFAULT_STAGED_PUBLISH_CHECK_SECONDS = 5;
 
     // how many additional seconds after the publish
     private static final int DEFAULT_SECONDS_TO_CACHE_AFTER_SCHEDULED_PUBLISH = 30;
@@ -80,6 +106,13 @@ public class Configuration {
         return getIntWithDefault("pre_publish_seconds_before_publish", DEFAULT_PREPROCESS_SECONDS_BEFORE_PUBLISH);
     }
 
+    /**
+     * @return how often in seconds collections staged in pre-publish are checked for changes until the publish time.
+     */
+    public static int getStagedPublishCheckSeconds() {
+        return getIntWithDefault("STAGED_PUBLISH_CHECK_SECONDS", DEFAULT_STAGED_PUBLISH_CHECK_SECONDS);
+    }
+
     /**
      * how many additional seconds after the publish should content be cached.
      */
@@ -154,6 +187,116 @@ public class Configuration {
         return StringUtils.defaultIfBlank(getValue("FILES_API_URL"), STATIC_FILES_API_URL);
     }
 
+    public static int getDatasetAPIPublishConcurrency() {
+        return getIntWithDefault("DATASET_API_PUBLISH_CONCURRENCY", DEFAULT_DATASET_API_PUBLISH_CONCURRENCY);
+    }
+
+    public static int getImageAPIPublishConcurrency() {
+        return getIntWithDefault("IMAGE_API_PUBLISH_CONCURRENCY", DEFAULT_IMAGE_API_PUBLISH_CONCURRENCY);
+    }
+
+    /**
+     * @return the maximum number of files sent to the train in a single zip batch.
+     */
+    public static int getPublishZipBatchMaxFiles() {
+        return getIntWithDefault("PUBLISH_ZIP_BATCH_MAX_FILES", DEFAULT_PUBLISH_ZIP_BATCH_MAX_FILES);
+    }
+
+    /**
+     * @return the maximum total size in bytes of the files sent to the train in a single zip batch.
+     */
+    public static long getPublishZipBatchMaxBytes() {
+        return getLongWithDefault("PUBLISH_ZIP_BATCH_MAX_BYTES", DEFAULT_PUBLISH_ZIP_BATCH_MAX_BYTES);
+    }
+
+    /**
+     * @return the size in bytes above which a file is sent to the train on its own rather than in a zip batch.
+     */
+    public static long getPublishZipBatchFileThreshold() {
+        return getLongWithDefault("PUBLISH_ZIP_BATCH_FILE_THRESHOLD", DEFAULT_PUBLISH_ZIP_BATCH_FILE_THRESHOLD);
+    }
+
+    /**
+     * @return the number of plaintext bytes in each chunk of a file written in the chunked encryption format.
+     */
+    public static int getEncryptionChunkSize() {
+        return getIntWithDefault("ENCRYPTION_CHUNK_SIZE", DEFAULT_ENCRYPTION_CHUNK_SIZE);
+    }
+
+    /**
+     * @return the number of threads used to encrypt and decrypt files in the chunked encryption format. One or less
+     * encrypts and decrypts on the calling thread.
+     */
+    public static int getCryptoThreads() {
+        return getIntWithDefault("CRYPTO_THREADS", Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @return the maximum number of publishing tasks, across every stage of every publish, running at once.
+     */
+    public static int getPublishingThreads() {
+        return getIntWithDefault("PUBLISHING_THREADS", DEFAULT_PUBLISHING_THREADS);
+    }
+
+    /**
+     * @return the maximum number of tasks waiting for each publishing stage before submitting more blocks.
+     */
+    public static int getPublishingQueueCapacity() {
+        return getIntWithDefault("PUBLISHING_QUEUE_CAPACITY", DEFAULT_PUBLISHING_QUEUE_CAPACITY);
+    }
+
+    /**
+     * @return the number of files to request the hashes of from the train in each batch when verifying a publish.
+     */
+    public static int getHashVerifyBatchSize() {
+        return getIntWithDefault("HASH_VERIFY_BATCH_SIZE", DEFAULT_HASH_VERIFY_BATCH_SIZE);
+    }
+
+    /**
+     * @return the maximum number of batch hash requests to each train host in flight at once.
+     */
+    public static int getHashVerifyBatchesPerHost() {
+        return getIntWithDefault("HASH_VERIFY_BATCHES_PER_HOST", DEFAULT_HASH_VERIFY_BATCHES_PER_HOST);
+    }
+
+    /**
+     * @return the maximum number of events waiting to be written by the asynchronous event log.
+     */
+    public static int getAsyncEventLogCapacity() {
+        return getIntWithDefault("ASYNC_EVENT_LOG_CAPACITY", DEFAULT_ASYNC_EVENT_LOG_CAPACITY);
+    }
+
+    /**
+     * @return the maximum number of events the asynchronous event log writes each time it takes events from the queue.
+     */
+    public static int getAsyncEventLogBatchSize() {
+        return getIntWithDefault("ASYNC_EVENT_LOG_BATCH_SIZE", DEFAULT_ASYNC_EVENT_LOG_BATCH_SIZE);
+    }
+
+    /**
+     * @return what to do with an event when the asynchronous event log is full, drop or block.
+     */
+    public static String getAsyncEventLogFullPolicy() {
+        return StringUtils.defaultIfBlank(getValue("ASYNC_EVENT_LOG_FULL_POLICY"), DEFAULT_ASYNC_EVENT_LOG_FULL_POLICY);
+    }
+
+    /**
+     * @return the number of threads used to apply timeseries update commands on approval. One or less applies them on
+     * the approval thread.
+     */
+    public static int getTimeseriesUpdateThreads() {
+        return getIntWithDefault("TIMESERIES_UPDATE_THREADS", DEFAULT_TIMESERIES_UPDATE_THREADS);
+    }
+
+    /**
+     * @param stage          the publishing stage, e.g. upload.
+     * @param defaultThreads the number of threads to use if none is configured.
+     * @return the maximum number of tasks of the given publishing stage running at once.
+     */
+    public static int getPublishingStageThreads(String stage, int defaultThreads) {
+        return getIntWithDefault("PUBLISHING_" + stage.toUpperCase().replace('-', '_') + "_THREADS", defaultThreads);
+    }
+
     public static String getIdentityAPIURL() {
         return StringUtils.defaultIfBlank(getValue("IDENTITY_API_URL"), IDENTITY_API_URL);
     }
@@ -180,6 +323,39 @@ public class Configuration {
         return StringUtils.defaultIfBlank(getValue("KAFKA_SEC_CLIENT_CERT"), "");
     }
 
+    /**
+     * @return how long in milliseconds the kafka producer waits for more events to batch with one it has been given.
+     */
+    public static int getKafkaLingerMs() {
+        return getIntWithDefault("KAFKA_LINGER_MS", DEFAULT_KAFKA_LINGER_MS);
+    }
+
+    /**
+     * @return the maximum size in bytes of a batch of events sent to a kafka partition.
+     */
+    public static int getKafkaBatchSize() {
+        return getIntWithDefault("KAFKA_BATCH_SIZE", DEFAULT_KAFKA_BATCH_SIZE);
+    }
+
+    public static String getKafkaCompressionType() {
+        return StringUtils.defaultIfBlank(getValue("KAFKA_COMPRESSION_TYPE"), DEFAULT_KAFKA_COMPRESSION_TYPE);
+    }
+
+    /**
+     * @return the longest in milliseconds sending a kafka event may block the caller, e.g. while the broker metadata
+     * is unavailable, before the send fails.
+     */
+    public static int getKafkaMaxBlockMs() {
+        return getIntWithDefault("KAFKA_MAX_BLOCK_MS", DEFAULT_KAFKA_MAX_BLOCK_MS);
+    }
+
+    /**
+     * @return how often in seconds kafka events that failed to send are retried from the spool.
+     */
+    public static int getKafkaRetrySpoolIntervalSeconds() {
+        return getIntWithDefault("KAFKA_RETRY_SPOOL_INTERVAL_SECONDS", DEFAULT_KAFKA_RETRY_SPOOL_INTERVAL_SECONDS);
+    }
+
     public static String getDatasetAPIAuthToken() {
         return StringUtils.defaultIfBlank(getValue("DATASET_API_AUTH_TOKEN"), DATASET_API_AUTH_TOKEN);
     }
@@ -227,6 +403,20 @@ public class Configuration {
         return VERIFY_RETRY_COUNT;
     }
 
+    /**
+     * The upper bound of the exponential back off applied between verification retries.
+     */
+    public static int getVerifyMaxRetryDelay() {
+        return getIntWithDefault("verify_max_retry_delay", VERIFY_MAX_RETRY_DELAY);
+    }
+
+    /**
+     * How often pending verification state changes are flushed to the published collection json.
+     */
+    public static int getVerifySaveInterval() {
+        return getIntWithDefault("verify_save_interval", VERIFY_SAVE_INTERVAL);
+    }
+
     public static String getReindexKey() {
         return StringUtils.defaultIfBlank(getValue("website_reindex_key"), "");
     }
@@ -305,6 +495,14 @@ public class Configuration {
         }
     }
 
+    static long getLongWithDefault(String key, long defaultValue) {
+        try {
+            return Long.parseLong(getValue(key));
+        } catch (Exception e) {
+            return defaultValue;
+        }
+    }
+
     public static String getContentDirectory() {
         return CONTENT_DIRECTORY;
     }
@@ -1,10 +1,12 @@
 package com.github.onsdigital.zebedee.data;
 
 import com.github.onsdigital.zebedee.content.page.base.Page;
+import com.github.onsdigital.zebedee.data.importing.TimeseriesUpdateApplier;
 import com.github.onsdigital.zebedee.data.importing.TimeseriesUpdateCommand;
 import com.github.onsdigital.zebedee.data.processing.DataIndex;
 import com.github.onsdigital.zebedee.data.processing.DataPublication;
 import com.github.onsdigital.zebedee.data.processing.DataPublicationFinder;
+import com.github.onsdigital.zebedee.data.processing.PublishedContentMemo;
 import com.github.onsdigital.zebedee.exceptions.BadRequestException;
 import com.github.onsdigital.zebedee.exceptions.NotFoundException;
 import com.github.onsdigital.zebedee.exceptions.ZebedeeException;
@@ -15,6 +17,9 @@ import com.github.onsdigital.zebedee.reader.ContentReader;
 import java.io.IOException;
 import java.net.URISyntaxException;
 import java.util.List;
+import java.util.Map;
+
+import static com.github.onsdigital.zebedee.configuration.CMSFeatureFlags.cmsFeatureFlags;
 
 public class DataPublisher {
     public boolean doNotCompress = false;
@@ -34,11 +39,12 @@ public class DataPublisher {
      * @param collectionContentWriter reader for this publications collection content
      * @param saveTimeSeries          the option to skip saving the individual timeseries
      * @param updateCommands
+     * @return the outcome of the timeseries update commands, see {@link #applyUpdateCommands}.
      * @throws IOException
      * @throws ZebedeeException
      * @throws URISyntaxException
      */
-    public void preprocessCollection(
+    public TimeseriesUpdateApplier.Result preprocessCollection(
             ContentReader publishedContentReader,
             CollectionReader collectionReader,
             ContentWriter collectionContentWriter,
@@ -47,20 +53,35 @@ public class DataPublisher {
             List<TimeseriesUpdateCommand> updateCommands
     ) throws IOException, ZebedeeException, URISyntaxException {
 
+        // Read each published page at most once for the whole of this approval
+        PublishedContentMemo published = new PublishedContentMemo(publishedContentReader);
+
         // Find all files that need data preprocessing
-        List<DataPublication> dataPublications = new DataPublicationFinder().findPublications(publishedContentReader, collectionReader.getReviewed());
+        List<DataPublication> dataPublications = new DataPublicationFinder().findPublications(published, collectionReader.getReviewed());
 
         // For each file in this collection
         for (DataPublication dataPublication : dataPublications) {
             // If a file upload exists
             if (dataPublication.hasUpload())
-                dataPublication.process(publishedContentReader, collectionReader.getReviewed(), collectionContentWriter, saveTimeSeries, dataIndex, updateCommands);
+                dataPublication.process(published, collectionReader.getReviewed(), collectionContentWriter, saveTimeSeries, dataIndex, updateCommands);
         }
 
-        applyUpdateCommands(publishedContentReader, collectionReader, collectionContentWriter, dataIndex, updateCommands);
+        TimeseriesUpdateApplier.Result result = applyUpdateCommands(published, collectionReader, collectionContentWriter, dataIndex, updateCommands);
+        published.logStats();
+        return result;
     }
 
-    public void applyUpdateCommands(ContentReader publishedContentReader, CollectionReader collectionReader, ContentWriter collectionContentWriter, DataIndex dataIndex, List<TimeseriesUpdateCommand> updateCommands) throws ZebedeeException, IOException {
+    /**
+     * Apply the timeseries update commands to the timeseries they update.
+     *
+     * @return the counts of timeseries updated and failed when they are applied by timeseries, or null when they are
+     * applied one at a time, where the first failure is thrown.
+     */
+    public TimeseriesUpdateApplier.Result applyUpdateCommands(ContentReader publishedContentReader, CollectionReader collectionReader, ContentWriter collectionContentWriter, DataIndex dataIndex, List<TimeseriesUpdateCommand> updateCommands) throws ZebedeeException, IOException {
+        if (cmsFeatureFlags().isParallelTimeseriesUpdatesEnabled()) {
+            return applyUpdateCommandsByTimeseries(publishedContentReader, collectionReader, collectionContentWriter, dataIndex, updateCommands);
+        }
+
         for (TimeseriesUpdateCommand updateCommand : updateCommands) {
 
             // see if the timeseries is already in the reviewed section
@@ -78,6 +99,31 @@ public class DataPublisher {
                 }
             }
         }
+        return null;
+    }
+
+    /**
+     * Apply the update commands with one read and write of each timeseries they update, updating the timeseries in
+     * parallel. A timeseries that fails to update is logged and counted in the result, and the others are still
+     * updated.
+     */
+    TimeseriesUpdateApplier.Result applyUpdateCommandsByTimeseries(ContentReader publishedContentReader, CollectionReader collectionReader, ContentWriter collectionContentWriter, DataIndex dataIndex, List<TimeseriesUpdateCommand> updateCommands) throws IOException {
+        Map<String, List<TimeseriesUpdateCommand>> commandsByUri = TimeseriesUpdateApplier.groupByUri(updateCommands,
+                command -> command.getDatasetBasedTimeseriesUri(dataIndex));
+
+        return new TimeseriesUpdateApplier().apply(commandsByUri, uri -> {
+            // use the timeseries in the reviewed section if it is already there, otherwise the published one.
+            if (collectionReader.getReviewed().probeContent(uri).isPresent()) {
+                return collectionReader.getReviewed().getContent(uri);
+            }
+            return publishedContentReader.getContent(uri);
+        }, collectionContentWriter, (page, command) -> {
+            if (command.title == null || command.title.equals(page.getDescription().getTitle())) {
+                return false;
+            }
+            page.getDescription().setTitle(command.title);
+            return true;
+        });
     }
 
     public void updateTitle(ContentWriter collectionContentWriter, TimeseriesUpdateCommand updateCommand, String uriForCdid, Page content) throws IOException, BadRequestException {
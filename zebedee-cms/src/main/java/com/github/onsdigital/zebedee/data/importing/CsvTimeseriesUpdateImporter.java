@@ -9,13 +9,16 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.nio.charset.Charset;
-import java.util.ArrayList;
+import java.util.function.Consumer;
+
+import static com.github.onsdigital.logging.v2.event.SimpleEvent.warn;
 
 /**
  * Import data from a CSV to update timeseries data.
  */
 public class CsvTimeseriesUpdateImporter implements TimeseriesUpdateImporter {
 
+    private static final int COLUMNS = 4;
     private static final IsoDateSerializer dateSerializer = new IsoDateSerializer(ContentConstants.JSON_DATE_PATTERN);
     private final InputStream inputStream;
 
@@ -29,20 +32,18 @@ public class CsvTimeseriesUpdateImporter implements TimeseriesUpdateImporter {
 
 
     /**
-     * Import data and return as a collection of timeseries update commands.
-     *
-     * @return
+     * Import data, passing each timeseries update command to the consumer as its line is read. A line without all of
+     * the expected columns is logged and skipped rather than failing the whole import.
      */
     @Override
-    public ArrayList<TimeseriesUpdateCommand> importData() throws IOException {
-        ArrayList<TimeseriesUpdateCommand> commands = new ArrayList<>();
-
+    public void importData(Consumer<TimeseriesUpdateCommand> commands) throws IOException {
         try (CSVReader reader = new CSVReader(new InputStreamReader(inputStream, Charset.forName("UTF8")), ',')) {
             String[] strings = reader.readNext();
+            int line = 1;
 
             while (strings != null) {
 
-                if (strings.length > 0) {
+                if (strings.length >= COLUMNS) {
                     TimeseriesUpdateCommand command = new TimeseriesUpdateCommand();
                     command.cdid = strings[0];
                     command.dataset = strings[1];
@@ -53,10 +54,14 @@ public class CsvTimeseriesUpdateImporter implements TimeseriesUpdateImporter {
                     command.preunit = strings[2];
                     command.unit = strings[3];
 
-                    commands.add(command);
+                    commands.accept(command);
+                } else if (strings.length > 1 || (strings.length == 1 && !strings[0].isEmpty())) {
+                    warn().data("line", line).data("columns", strings.length)
+                            .log("skipping timeseries update line without the expected columns");
                 }
 
                 strings = reader.readNext();
+                line++;
             }
         } catch (FileNotFoundException e) {
             throw new IOException("File not found.", e);
@@ -64,7 +69,5 @@ public class CsvTimeseriesUpdateImporter implements TimeseriesUpdateImporter {
 //        catch (ParseException e) {
 //            throw new IOException("Failed to parse release date", e);
 //        }
-
-        return commands;
     }
 }
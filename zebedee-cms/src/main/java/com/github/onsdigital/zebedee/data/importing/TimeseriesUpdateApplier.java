@@ -0,0 +1,222 @@
+package com.github.onsdigital.zebedee.data.importing;
+
+import com.github.onsdigital.zebedee.configuration.Configuration;
+import com.github.onsdigital.zebedee.content.page.base.Page;
+import com.github.onsdigital.zebedee.exceptions.ZebedeeException;
+import com.github.onsdigital.zebedee.metrics.InstrumentedExecutors;
+import com.github.onsdigital.zebedee.model.ContentWriter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static com.github.onsdigital.logging.v2.event.SimpleEvent.error;
+import static com.github.onsdigital.logging.v2.event.SimpleEvent.info;
+
+/**
+ * Applies timeseries update commands grouped by the timeseries they update, so each timeseries page is read, changed
+ * by every command for it and written once, with the pages updated in parallel.
+ * <p>
+ * A page that fails to update is logged with the CDIDs of its commands and counted, and the rest of the pages are
+ * still updated, so one bad command does not stop the whole import.
+ */
+public class TimeseriesUpdateApplier {
+
+    static final int PROGRESS_INTERVAL = 1000;
+
+    /**
+     * Reads the current version of a timeseries page.
+     */
+    @FunctionalInterface
+    public interface PageReader {
+        Page read(String uri) throws ZebedeeException, IOException;
+    }
+
+    /**
+     * Applies an update command to a page.
+     */
+    @FunctionalInterface
+    public interface PageUpdate {
+        /**
+         * @return true if the page was changed and needs writing.
+         */
+        boolean apply(Page page, TimeseriesUpdateCommand command);
+    }
+
+    private final ExecutorService executor;
+
+    /**
+     * Apply the updates using the shared timeseries update pool.
+     */
+    public TimeseriesUpdateApplier() {
+        this(UpdatePool.EXECUTOR);
+    }
+
+    /**
+     * @param executor the executor to update the pages with, or null to update them on the calling thread.
+     */
+    TimeseriesUpdateApplier(ExecutorService executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * Group the commands by the uri of the timeseries they update, keeping the order of the commands for each.
+     * Commands without a uri are left out.
+     */
+    public static Map<String, List<TimeseriesUpdateCommand>> groupByUri(
+            Iterable<TimeseriesUpdateCommand> commands, Function<TimeseriesUpdateCommand, String> uriOf) {
+        Map<String, List<TimeseriesUpdateCommand>> groups = new LinkedHashMap<>();
+        for (TimeseriesUpdateCommand command : commands) {
+            String uri = uriOf.apply(command);
+            if (uri != null) {
+                groups.computeIfAbsent(uri, u -> new ArrayList<>(1)).add(command);
+            }
+        }
+        return groups;
+    }
+
+    /**
+     * Read, update and write each timeseries page, waiting for every page to be done.
+     *
+     * @param groups the commands for each timeseries uri, see {@link #groupByUri(Iterable, Function)}.
+     * @param reader reads the current version of a page.
+     * @param writer writes the updated page.
+     * @param update applies a command to a page.
+     * @return the counts of pages updated, left unchanged and failed.
+     * @throws IOException if interrupted while waiting for the pages to be updated.
+     */
+    public Result apply(Map<String, List<TimeseriesUpdateCommand>> groups, PageReader reader, ContentWriter writer,
+                        PageUpdate update) throws IOException {
+        Result result = new Result(groups.size());
+        info().data("timeseries", groups.size()).log("applying timeseries update commands");
+
+        if (executor == null) {
+            groups.forEach((uri, commands) -> applyToPage(uri, commands, reader, writer, update, result));
+        } else {
+            List<Future<?>> futures = new ArrayList<>(groups.size());
+            groups.forEach((uri, commands) -> futures.add(
+                    executor.submit(() -> applyToPage(uri, commands, reader, writer, update, result))));
+            awaitAll(futures);
+        }
+
+        info().data("timeseries", result.total)
+                .data("updated", result.updated.get())
+                .data("unchanged", result.unchanged.get())
+                .data("failed", result.failed.get())
+                .log("applied timeseries update commands");
+        return result;
+    }
+
+    private void applyToPage(String uri, List<TimeseriesUpdateCommand> commands, PageReader reader,
+                             ContentWriter writer, PageUpdate update, Result result) {
+        try {
+            Page page = reader.read(uri);
+            boolean changed = false;
+            for (TimeseriesUpdateCommand command : commands) {
+                changed |= update.apply(page, command);
+            }
+
+            if (changed) {
+                writer.writeObject(page, uri + "/data.json");
+                result.updated.incrementAndGet();
+            } else {
+                result.unchanged.incrementAndGet();
+            }
+        } catch (Exception e) {
+            List<String> cdids = commands.stream().map(c -> c.cdid).collect(Collectors.toList());
+            result.failed.incrementAndGet();
+            result.failedCdids.addAll(cdids);
+            error().data("uri", uri)
+                    .data("cdids", cdids)
+                    .logException(e, "failed to apply timeseries update commands, continuing with the others");
+        }
+
+        int done = result.done.incrementAndGet();
+        if (done % PROGRESS_INTERVAL == 0) {
+            info().data("done", done).data("timeseries", result.total).data("failed", result.failed.get())
+                    .log("applying timeseries update commands");
+        }
+    }
+
+    private static void awaitAll(List<Future<?>> futures) throws IOException {
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (InterruptedException e) {
+                futures.forEach(f -> f.cancel(true));
+                Thread.currentThread().interrupt();
+                throw new IOException("interrupted applying timeseries update commands", e);
+            } catch (ExecutionException e) {
+                // failures are caught and counted by each page, so this is not expected.
+                throw new IOException("unexpected error applying timeseries update commands", e.getCause());
+            }
+        }
+    }
+
+    /**
+     * The outcome of applying the update commands.
+     */
+    public static class Result {
+        private final int total;
+        private final AtomicInteger done = new AtomicInteger();
+        private final AtomicInteger updated = new AtomicInteger();
+        private final AtomicInteger unchanged = new AtomicInteger();
+        private final AtomicInteger failed = new AtomicInteger();
+        private final Queue<String> failedCdids = new ConcurrentLinkedQueue<>();
+
+        Result(int total) {
+            this.total = total;
+        }
+
+        public int getTotal() {
+            return total;
+        }
+
+        public int getUpdated() {
+            return updated.get();
+        }
+
+        public int getUnchanged() {
+            return unchanged.get();
+        }
+
+        public int getFailed() {
+            return failed.get();
+        }
+
+        /**
+         * @return the CDIDs of the commands for the timeseries that failed to update.
+         */
+        public List<String> getFailedCdids() {
+            return new ArrayList<>(failedCdids);
+        }
+    }
+
+    /**
+     * Holder for the update pool so it is only created when updates are applied. The threads are daemons so an idle
+     * pool does not keep the JVM running.
+     */
+    private static class UpdatePool {
+        static final int THREADS = Configuration.getTimeseriesUpdateThreads();
+        static final ExecutorService EXECUTOR = THREADS > 1 ? newExecutor() : null;
+
+        private static ExecutorService newExecutor() {
+            AtomicInteger count = new AtomicInteger();
+            return InstrumentedExecutors.newFixedThreadPool("timeseries-update", THREADS, runnable -> {
+                Thread thread = new Thread(runnable, "timeseries-update-" + count.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+}
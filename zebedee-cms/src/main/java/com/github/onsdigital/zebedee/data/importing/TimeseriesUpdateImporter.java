@@ -2,6 +2,7 @@ package com.github.onsdigital.zebedee.data.importing;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.function.Consumer;
 
 /**
  * Import data to update timeseries data with.
@@ -12,5 +13,16 @@ public interface TimeseriesUpdateImporter {
      *
      * @return
      */
-    ArrayList<TimeseriesUpdateCommand> importData() throws IOException;
+    default ArrayList<TimeseriesUpdateCommand> importData() throws IOException {
+        ArrayList<TimeseriesUpdateCommand> commands = new ArrayList<>();
+        importData(commands::add);
+        return commands;
+    }
+
+    /**
+     * Import data, passing each timeseries update command to the consumer as it is read rather than holding them all.
+     *
+     * @param commands the consumer of the update commands.
+     */
+    void importData(Consumer<TimeseriesUpdateCommand> commands) throws IOException;
 }
@@ -2,16 +2,47 @@ package com.github.onsdigital.zebedee.data.processing;
 
 import com.github.onsdigital.zebedee.content.page.statistics.data.timeseries.TimeSeries;
 import com.github.onsdigital.zebedee.content.page.statistics.data.timeseries.TimeSeriesValue;
-import com.github.onsdigital.zebedee.content.util.ContentUtil;
-
+import com.github.onsdigital.zebedee.content.util.ContentConstants;
+import com.github.onsdigital.zebedee.content.util.IsoDateSerializer;
+import com.google.gson.ExclusionStrategy;
+import com.google.gson.FieldAttributes;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Set;
-import java.util.stream.Collectors;
+import java.util.TreeSet;
 
 /**
  * Created by thomasridd on 1/21/16.
  */
 public class DataMerge {
+
+    private static final Set<String> VALUE_FIELDS = new HashSet<>(Arrays.asList("years", "quarters", "months"));
+
+    /**
+     * Serialises a timeseries page without its values, which are copied directly rather than through json.
+     */
+    private static final Gson PAGE_WITHOUT_VALUES = new GsonBuilder()
+            .registerTypeAdapter(Date.class, new IsoDateSerializer(ContentConstants.JSON_DATE_PATTERN))
+            .setExclusionStrategies(new ExclusionStrategy() {
+                @Override
+                public boolean shouldSkipField(FieldAttributes f) {
+                    return f.getDeclaringClass() == TimeSeries.class && VALUE_FIELDS.contains(f.getName());
+                }
+
+                @Override
+                public boolean shouldSkipClass(Class<?> clazz) {
+                    return false;
+                }
+            })
+            .create();
+
     public int corrections = 0;
     public int insertions = 0;
     public TimeSeries merged;
@@ -19,7 +50,10 @@ public class DataMerge {
     public TimeSeries merge(TimeSeries original, TimeSeries updates, String datasetId) {
 
         // Clone the original timeseries
-        this.merged = ContentUtil.deserialise(ContentUtil.serialise(original), TimeSeries.class);
+        this.merged = PAGE_WITHOUT_VALUES.fromJson(PAGE_WITHOUT_VALUES.toJson(original), TimeSeries.class);
+        this.merged.years = copy(original.years);
+        this.merged.quarters = copy(original.quarters);
+        this.merged.months = copy(original.months);
 
         // Merge in each of the yearly, quarterly, and monthly timeseries
         mergeTimeSeriesValueSet(merged, merged.years, updates.years, datasetId);
@@ -30,72 +64,76 @@ public class DataMerge {
     }
 
     /**
-     * Merge a
+     * Merge a set of updated values into the current values of the page. Both sets are sorted by date so they are
+     * walked together in a single pass: a point in both is corrected if its value has changed, a point only in the
+     * updates is inserted, and a point only in the current values has been suppressed so is blanked out.
      *
-     * @param page
-     * @param currentValues
-     * @param updateValues
-     * @param datasetId
-     * @return
+     * @param page          the page being merged into.
+     * @param currentValues the values of the page, a set of the page.
+     * @param updateValues  the updated values.
+     * @param datasetId     the dataset the updates are from.
      */
-    private void mergeTimeSeriesValueSet(TimeSeries page, Set<TimeSeriesValue> currentValues, Set<TimeSeriesValue> updateValues, String datasetId) {
+    private void mergeTimeSeriesValueSet(TimeSeries page, TreeSet<TimeSeriesValue> currentValues,
+                                         TreeSet<TimeSeriesValue> updateValues, String datasetId) {
+        Date releaseDate = page.getDescription().getReleaseDate();
+        List<TimeSeriesValue> inserted = new ArrayList<>();
 
-        for (TimeSeriesValue value : updateValues) {
-            // Find the current value of the data point
-            TimeSeriesValue current = getCurrentValue(currentValues, value);
+        Iterator<TimeSeriesValue> currentIterator = currentValues.iterator();
+        Iterator<TimeSeriesValue> updateIterator = updateValues.iterator();
+        TimeSeriesValue current = next(currentIterator);
+        TimeSeriesValue value = next(updateIterator);
 
-            if (current != null) { // A point already exists for this data
+        while (current != null || value != null) {
+            int comparison = current == null ? 1 : value == null ? -1 : current.compareTo(value);
 
-                if (!current.value.equalsIgnoreCase(value.value)) { // A point already exists for this data
+            if (comparison == 0) { // A point already exists for this data
+                if (!current.value.equalsIgnoreCase(value.value)) {
 
                     // Update the point
                     current.value = value.value;
                     current.sourceDataset = datasetId;
-                    current.updateDate = page.getDescription().getReleaseDate();
+                    current.updateDate = releaseDate;
 
                     // Log a correction has been made to existing data
                     this.corrections += 1;
                 }
-            } else {
-                // Take a copy of the point and add it to our merged page
-                TimeSeriesValue copy = ContentUtil.deserialise(ContentUtil.serialise(value), TimeSeriesValue.class);
-                copy.sourceDataset = datasetId;
-                copy.updateDate = page.getDescription().getReleaseDate();
+                current = next(currentIterator);
+                value = next(updateIterator);
 
-                page.add(copy);
+            } else if (comparison < 0) {
+                // The value has been suppressed, i.e, it is in the current values but not in the updated values
+                current.value = "";
+                this.corrections += 1;
+                current = next(currentIterator);
 
-                // Log that an insertion has been made to the timeseries
-                this.insertions += 1;
+            } else {
+                // Take a copy of the point to add to our merged page
+                TimeSeriesValue copy = value.copy();
+                copy.sourceDataset = datasetId;
+                copy.updateDate = releaseDate;
+                inserted.add(copy);
+                value = next(updateIterator);
             }
         }
 
-        // Find values that have been suppressed, i.e, they are in the current values but not in the updated values
-        List<TimeSeriesValue> suppressed = currentValues.stream()
-                .filter(current -> !updateValues.contains(current))
-                .collect(Collectors.toList());
+        // added once the sets have been walked as the point may belong in the set being merged.
+        for (TimeSeriesValue copy : inserted) {
+            page.add(copy);
 
-        suppressed.forEach(current -> current.value = "");
-        this.corrections += suppressed.size();
+            // Log that an insertion has been made to the timeseries
+            this.insertions += 1;
+        }
     }
 
-    /**
-     * If a {@link TimeSeriesValue} for value.time exists in currentValues returns that.
-     * Otherwise null
-     *
-     * @param currentValues a set of {@link TimeSeriesValue}
-     * @param value         a {@link TimeSeriesValue}
-     * @return a {@link TimeSeriesValue} from currentValues
-     */
-    private TimeSeriesValue getCurrentValue(Set<TimeSeriesValue> currentValues, TimeSeriesValue value) {
-        if (currentValues == null) {
-            return null;
+    private static TreeSet<TimeSeriesValue> copy(TreeSet<TimeSeriesValue> values) {
+        TreeSet<TimeSeriesValue> copy = new TreeSet<>();
+        if (values != null) {
+            values.forEach(value -> copy.add(value.copy()));
         }
+        return copy;
+    }
 
-        for (TimeSeriesValue current : currentValues) {
-            if (current.compareTo(value) == 0) {
-                return current;
-            }
-        }
-        return null;
+    private static TimeSeriesValue next(Iterator<TimeSeriesValue> iterator) {
+        return iterator.hasNext() ? iterator.next() : null;
     }
 }
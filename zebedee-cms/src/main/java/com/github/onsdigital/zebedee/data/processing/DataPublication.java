@@ -13,7 +13,9 @@ import com.github.onsdigital.zebedee.reader.ContentReader;
 import java.io.IOException;
 import java.net.URISyntaxException;
 import java.nio.file.Paths;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 public class DataPublication {
@@ -101,13 +103,18 @@ public class DataPublication {
 
         CompositeContentReader compositeContentReader = new CompositeContentReader(reviewedContentReader, publishedContentReader);
 
+        // Index the update commands by CDID once rather than searching them for every timeseries
+        Map<String, TimeseriesUpdateCommand> commandsByCdid = new HashMap<>();
+        for (TimeseriesUpdateCommand updateCommand : updateCommands) {
+            commandsByCdid.putIfAbsent(updateCommand.cdid.toLowerCase(), updateCommand);
+        }
+
         // Process each timeseries returned from Brian
         for(TimeSeries series: serieses) {
 
             // see if there is an update command for this timeseries.
-            Optional<TimeseriesUpdateCommand> command = updateCommands.stream()
-                    .filter(updateCommand -> updateCommand.cdid.equalsIgnoreCase(series.getCdid()))
-                    .findFirst();
+            Optional<TimeseriesUpdateCommand> command = series.getCdid() == null ? Optional.empty()
+                    : Optional.ofNullable(commandsByCdid.get(series.getCdid().toLowerCase()));
 
             // Build new timeseries
             DataProcessor processor = new DataProcessor();
@@ -47,9 +47,7 @@ public class DataWriter {
         String uri = timeSeries.getUri().toString();
 
         // If no current version of this file exists there is nothing to version
-        try {
-            TimeSeries current = (TimeSeries) pubishedReader.getContent(uri);
-        } catch (ZebedeeException | IOException e) {
+        if (!pubishedReader.probeContent(uri).isPresent()) {
             return;
         }
 
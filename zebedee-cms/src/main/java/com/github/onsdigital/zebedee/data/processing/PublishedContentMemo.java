@@ -0,0 +1,182 @@
+package com.github.onsdigital.zebedee.data.processing;
+
+import com.github.onsdigital.zebedee.content.base.ContentLanguage;
+import com.github.onsdigital.zebedee.content.dynamic.browse.ContentNode;
+import com.github.onsdigital.zebedee.content.page.base.Page;
+import com.github.onsdigital.zebedee.exceptions.BadRequestException;
+import com.github.onsdigital.zebedee.exceptions.NotFoundException;
+import com.github.onsdigital.zebedee.exceptions.ZebedeeException;
+import com.github.onsdigital.zebedee.reader.ContentReader;
+import com.github.onsdigital.zebedee.reader.Resource;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.github.onsdigital.logging.v2.event.SimpleEvent.info;
+
+/**
+ * A {@link ContentReader} for the published content, used for the data processing of a single approval so the checks
+ * that a published page exists are answered once per page, and a page that is not found is only looked for once.
+ * <p>
+ * The callers change the pages they are given, so a parsed page is not kept to give to another, and each call for a
+ * page that exists reads and parses it again. Instead the memo
+ * answers the existence checks made of a page with {@link #probeContent(String)}, which never parses it, and remembers
+ * the pages that are not found so they are not looked for again. The published content does not change during an
+ * approval, so a memo must not outlive the approval it was created for.
+ */
+public class PublishedContentMemo implements ContentReader {
+
+    private final ContentReader published;
+
+    private final Map<String, Optional<Path>> probed = new ConcurrentHashMap<>();
+    private final Map<String, Boolean> found = new ConcurrentHashMap<>();
+
+    private final AtomicLong reads = new AtomicLong();
+    private final AtomicLong hits = new AtomicLong();
+
+    /**
+     * @param published the reader for the published content.
+     */
+    public PublishedContentMemo(ContentReader published) {
+        this.published = published;
+    }
+
+    @Override
+    public Page getContent(String path) throws ZebedeeException, IOException {
+        if (Boolean.FALSE.equals(found.get(path)) || isProbedMissing(path)) {
+            hits.incrementAndGet();
+            throw new NotFoundException("Could not find requested content, path:" + path);
+        }
+
+        reads.incrementAndGet();
+        try {
+            Page page = published.getContent(path);
+            found.put(path, true);
+            return page;
+        } catch (NotFoundException e) {
+            found.put(path, false);
+            throw e;
+        }
+    }
+
+    /**
+     * Check if the published page exists, without checking again if it has already been checked or not found.
+     */
+    @Override
+    public Optional<Path> probeContent(String path) {
+        if (path == null) {
+            return Optional.empty();
+        }
+
+        Optional<Path> existing = probed.get(path);
+        if (existing != null || Boolean.FALSE.equals(found.get(path))) {
+            hits.incrementAndGet();
+            return existing != null ? existing : Optional.empty();
+        }
+
+        Optional<Path> probe = published.probeContent(path);
+        probed.put(path, probe);
+        return probe;
+    }
+
+    private boolean isProbedMissing(String path) {
+        Optional<Path> probe = probed.get(path);
+        return probe != null && !probe.isPresent();
+    }
+
+    /**
+     * @return the number of published pages read and parsed.
+     */
+    public long getReads() {
+        return reads.get();
+    }
+
+    /**
+     * @return the number of reads and existence checks answered without going to the published content.
+     */
+    public long getHits() {
+        return hits.get();
+    }
+
+    /**
+     * Log how many reads of the published content the memo saved.
+     */
+    public void logStats() {
+        info().data("pages_read", getReads())
+                .data("memo_hits", getHits())
+                .data("pages_found", found.size())
+                .log("data processing read published pages");
+    }
+
+    @Override
+    public Page getLatestContent(String path) throws ZebedeeException, IOException {
+        return published.getLatestContent(path);
+    }
+
+    @Override
+    public Resource getResource(String path) throws ZebedeeException, IOException {
+        return published.getResource(path);
+    }
+
+    @Override
+    public long getContentLength(String path) throws ZebedeeException, IOException {
+        return published.getContentLength(path);
+    }
+
+    @Override
+    public Map<URI, ContentNode> getChildren(String path) throws ZebedeeException, IOException {
+        return published.getChildren(path);
+    }
+
+    @Override
+    public DirectoryStream<Path> getDirectoryStream(String path) throws BadRequestException, IOException {
+        return published.getDirectoryStream(path);
+    }
+
+    @Override
+    public DirectoryStream<Path> getDirectoryStream(String path, String filter) throws BadRequestException, IOException {
+        return published.getDirectoryStream(path, filter);
+    }
+
+    @Override
+    public Map<URI, ContentNode> getParents(String path) throws ZebedeeException, IOException {
+        return published.getParents(path);
+    }
+
+    @Override
+    public Optional<Path> probeResource(String path) {
+        return published.probeResource(path);
+    }
+
+    @Override
+    public Path getRootFolder() {
+        return published.getRootFolder();
+    }
+
+    @Override
+    public ContentLanguage getLanguage() {
+        return published.getLanguage();
+    }
+
+    @Override
+    public void setLanguage(ContentLanguage language) {
+        published.setLanguage(language);
+    }
+
+    @Override
+    public List<String> listUris() {
+        return published.listUris();
+    }
+
+    @Override
+    public List<Path> listTimeSeriesDirectories() {
+        return published.listTimeSeriesDirectories();
+    }
+}
@@ -21,5 +21,6 @@ public enum EventType {
     DELETE_MARKER_REMOVED,
     VERSION_DELETED,
     VERSION_VERIFICATION_FAILED,
-    VERSION_VERIFICATION_BYPASSED
+    VERSION_VERIFICATION_BYPASSED,
+    TIMESERIES_UPDATES_FAILED
 }
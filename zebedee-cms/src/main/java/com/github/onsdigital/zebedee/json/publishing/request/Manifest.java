@@ -4,6 +4,7 @@ import com.github.davidcarboni.restolino.json.Serialiser;
 import com.github.onsdigital.zebedee.json.PendingDelete;
 import com.github.onsdigital.zebedee.model.Collection;
 import com.github.onsdigital.zebedee.model.content.item.VersionedContentItem;
+import com.github.onsdigital.zebedee.model.publishing.PublishSnapshot;
 
 import java.io.IOException;
 import java.io.InputStream;
@@ -58,9 +59,9 @@ public class Manifest {
     }
 
     private static void updateManifest(Collection collection, Manifest manifest) throws IOException {
-        for (String uri : collection.getReviewed().uris()) {
-            if (VersionedContentItem.isVersionedUri(uri)) {
-                manifest.addFileCopy(VersionedContentItem.resolveBaseUri(uri), uri);
+        for (PublishSnapshot.Entry file : PublishSnapshot.reviewedFiles(collection)) {
+            if (file.isVersioned()) {
+                manifest.addFileCopy(VersionedContentItem.resolveBaseUri(file.getUri()), file.getUri());
             }
         }
 
@@ -1,5 +1,6 @@
 package com.github.onsdigital.zebedee.kafka;
 
+import org.apache.kafka.clients.producer.Callback;
 import org.apache.kafka.clients.producer.RecordMetadata;
 
 import java.util.concurrent.Future;
@@ -22,4 +23,18 @@ public interface KafkaClient {
      */
     public Future<RecordMetadata> produceContentUpdated(String uri, String dataType, String collectionID,
             String jobID, String searchIndex, String traceID);
+
+    /**
+     * Produce a 'content-updated' kafka message for the given parameters without waiting for the result, the
+     * callback being called once the broker has acknowledged the message or it has failed
+     *
+     * @param callback called on the producer thread with the result of the send
+     */
+    public void produceContentUpdated(String uri, String dataType, String collectionID, String jobID,
+            String searchIndex, String traceID, Callback callback);
+
+    /**
+     * Close the client, waiting for the messages already sent to complete so their callbacks are called
+     */
+    public void close();
 }
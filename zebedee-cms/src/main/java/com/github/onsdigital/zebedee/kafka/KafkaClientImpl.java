@@ -3,6 +3,7 @@ package com.github.onsdigital.zebedee.kafka;
 import com.github.onsdigital.zebedee.avro.ContentUpdated;
 import com.github.onsdigital.zebedee.kafka.avro.AvroSerializer;
 import org.apache.kafka.clients.CommonClientConfigs;
+import org.apache.kafka.clients.producer.Callback;
 import org.apache.kafka.clients.producer.KafkaProducer;
 import org.apache.kafka.clients.producer.Producer;
 import org.apache.kafka.clients.producer.ProducerConfig;
@@ -16,6 +17,11 @@ import java.util.Properties;
 import java.util.concurrent.Future;
 
 import static com.github.onsdigital.logging.v2.event.SimpleEvent.info;
+import static com.github.onsdigital.zebedee.configuration.CMSFeatureFlags.cmsFeatureFlags;
+import static com.github.onsdigital.zebedee.configuration.Configuration.getKafkaBatchSize;
+import static com.github.onsdigital.zebedee.configuration.Configuration.getKafkaCompressionType;
+import static com.github.onsdigital.zebedee.configuration.Configuration.getKafkaLingerMs;
+import static com.github.onsdigital.zebedee.configuration.Configuration.getKafkaMaxBlockMs;
 import static com.github.onsdigital.zebedee.configuration.Configuration.getKafkaSecClientKey;
 import static com.github.onsdigital.zebedee.configuration.Configuration.getKafkaSecClientCert;
 import static com.github.onsdigital.zebedee.configuration.Configuration.getKafkaSecProtocol;
@@ -36,6 +42,15 @@ public class KafkaClientImpl implements KafkaClient {
         Properties props = new Properties();
         props.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, kafkaAddr);
 
+        if (cmsFeatureFlags().isAsyncKafkaEnabled()) {
+            // a publish produces an event for every uri in the collection, so batch them rather than a request each.
+            props.put(ProducerConfig.LINGER_MS_CONFIG, getKafkaLingerMs());
+            props.put(ProducerConfig.BATCH_SIZE_CONFIG, getKafkaBatchSize());
+            props.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, getKafkaCompressionType());
+            // send is called on the publishing thread, so fail fast rather than wait the default minute for metadata.
+            props.put(ProducerConfig.MAX_BLOCK_MS_CONFIG, getKafkaMaxBlockMs());
+        }
+
         if (getKafkaSecProtocol().equals("TLS")) {
             props.put(CommonClientConfigs.SECURITY_PROTOCOL_CONFIG, "SSL");
             if (!getKafkaSecClientKey().isEmpty()) {
@@ -48,8 +63,6 @@ public class KafkaClientImpl implements KafkaClient {
 
         AvroSerializer<ContentUpdated> avroSerializer = new AvroSerializer<>(ContentUpdated.class);
         this.producer = new KafkaProducer<>(props, new StringSerializer(), avroSerializer);
-
-        Runtime.getRuntime().addShutdownHook(new Thread(producer::close));
     }
 
     /**
@@ -63,4 +76,22 @@ public class KafkaClientImpl implements KafkaClient {
         return producer.send(new ProducerRecord<>(topic, value));
     }
 
+    /**
+     * Produce a content-updated kafka message, calling the callback with the result
+     */
+    @Override
+    public void produceContentUpdated(String uri, String dataType, String collectionID, String jobId,
+            String searchIndex, String traceID, Callback callback) {
+        ContentUpdated value = new ContentUpdated(uri, dataType, collectionID, jobId, searchIndex, traceID);
+        producer.send(new ProducerRecord<>(topic, value), callback);
+    }
+
+    /**
+     * Close the producer, waiting for the messages already sent to complete
+     */
+    @Override
+    public void close() {
+        producer.close();
+    }
+
 }
@@ -0,0 +1,370 @@
+package com.github.onsdigital.zebedee.kafka;
+
+import com.github.onsdigital.zebedee.metrics.Gauge;
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import static com.github.onsdigital.logging.v2.event.SimpleEvent.error;
+import static com.github.onsdigital.logging.v2.event.SimpleEvent.info;
+import static com.github.onsdigital.logging.v2.event.SimpleEvent.warn;
+import static com.github.onsdigital.zebedee.metrics.MetricsRegistry.metrics;
+
+/**
+ * Content-updated events that failed to send, kept on local disk and retried on a schedule until kafka accepts them,
+ * so a broker outage during a publish neither loses the events nor holds up the publish.
+ * <p>
+ * Failed events are appended to the current spool file and flushed to disk. Events that fail in a send callback are
+ * handed to {@link #spoolLater(Event, Consumer)} and written by the spool's own writer thread, so the file writes do not
+ * hold up the kafka producer's IO thread and the other sends waiting on it. A retry moves the current file aside and
+ * resends its events, deleting the file once every event has either been sent or spooled again. An event can be sent
+ * more than once if the process stops part way through a retry, which is harmless for content-updated events.
+ */
+public class KafkaRetrySpool implements Closeable {
+
+    static final String CURRENT_FILE = "current.spool";
+    static final String RETRY_FILE_PREFIX = "retry-";
+    static final String SPOOL_FILE_SUFFIX = ".spool";
+
+    private static final Gauge SPOOLED = metrics().gauge("zebedee_kafka_spooled_events",
+            "Number of content-updated kafka events waiting in the retry spool.");
+
+    private static final Gson GSON = new Gson();
+
+    private final Path dir;
+    private final KafkaClient kafkaClient;
+    private final Object appendLock = new Object();
+    private final Set<Path> retrying = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger pending = new AtomicInteger();
+    private final AtomicLong sequence = new AtomicLong();
+    private final ConcurrentLinkedQueue<Queued> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private final ExecutorService writer;
+    private ScheduledExecutorService scheduler;
+
+    /**
+     * @param dir         the directory to keep the spool files in.
+     * @param kafkaClient the client to retry the events with.
+     */
+    public KafkaRetrySpool(Path dir, KafkaClient kafkaClient) throws IOException {
+        this.dir = dir;
+        this.kafkaClient = kafkaClient;
+        Files.createDirectories(dir);
+        for (Path file : spoolFiles()) {
+            pending.addAndGet(read(file).size());
+        }
+        SPOOLED.labels().set(pending::get);
+        this.writer = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "kafka-retry-spool-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Retry the spooled events at the given interval, starting with any left from before a restart.
+     */
+    public synchronized void start(long interval, TimeUnit unit) {
+        if (scheduler != null) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "kafka-retry-spool");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::retrySafely, 0, interval, unit);
+    }
+
+    /**
+     * Add an event that failed to send to the spool.
+     */
+    public void spool(Event event) throws IOException {
+        append(Collections.singletonList(event));
+    }
+
+    /**
+     * Add an event that failed to send to the spool without waiting for it to be written, for use from a kafka send
+     * callback. The events queued while the writer is busy are written together with a single flush.
+     *
+     * @param done called on the writer thread once the event is written, with null, or with the error if it could
+     *             not be written.
+     */
+    public void spoolLater(Event event, Consumer<IOException> done) {
+        queue.add(new Queued(event, done));
+        if (draining.compareAndSet(false, true)) {
+            try {
+                writer.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                // the spool is closing, so write the queued events on this thread instead.
+                drain();
+            }
+        }
+    }
+
+    private void drain() {
+        do {
+            List<Queued> batch = new ArrayList<>();
+            for (Queued queued = queue.poll(); queued != null; queued = queue.poll()) {
+                batch.add(queued);
+            }
+            if (!batch.isEmpty()) {
+                write(batch);
+            }
+            draining.set(false);
+            // an event queued after the last poll but before draining was cleared would otherwise be left behind.
+        } while (!queue.isEmpty() && draining.compareAndSet(false, true));
+    }
+
+    private void write(List<Queued> batch) {
+        List<Event> events = new ArrayList<>(batch.size());
+        batch.forEach(queued -> events.add(queued.event));
+
+        IOException error = null;
+        try {
+            append(events);
+        } catch (IOException e) {
+            error = e;
+        }
+        for (Queued queued : batch) {
+            try {
+                queued.done.accept(error);
+            } catch (Exception e) {
+                error().data("uri", queued.event.uri).logException(e, "error handling spooled kafka event");
+            }
+        }
+    }
+
+    private void append(List<Event> events) throws IOException {
+        StringBuilder lines = new StringBuilder();
+        events.forEach(event -> lines.append(GSON.toJson(event)).append('\n'));
+        synchronized (appendLock) {
+            try (FileChannel channel = FileChannel.open(dir.resolve(CURRENT_FILE), StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+                ByteBuffer buffer = ByteBuffer.wrap(lines.toString().getBytes(StandardCharsets.UTF_8));
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                channel.force(false);
+            }
+        }
+        pending.addAndGet(events.size());
+    }
+
+    /**
+     * Resend the spooled events. The events are sent without waiting for the result, those that fail again are
+     * spooled for the next retry.
+     *
+     * @return the number of events resent.
+     */
+    public int retry() throws IOException {
+        synchronized (appendLock) {
+            Path current = dir.resolve(CURRENT_FILE);
+            if (Files.exists(current)) {
+                Files.move(current, dir.resolve(RETRY_FILE_PREFIX + System.currentTimeMillis() + "-"
+                        + sequence.incrementAndGet() + SPOOL_FILE_SUFFIX));
+            }
+        }
+
+        int resent = 0;
+        for (Path file : spoolFiles()) {
+            if (file.getFileName().toString().equals(CURRENT_FILE) || !retrying.add(file)) {
+                continue;
+            }
+            resent += resend(file);
+        }
+        return resent;
+    }
+
+    /**
+     * @return the number of events waiting in the spool.
+     */
+    public int size() {
+        return pending.get();
+    }
+
+    /**
+     * Wait for the events queued by {@link #spoolLater(Event, Consumer)} to be written.
+     */
+    public void flush() throws InterruptedException {
+        while (!queue.isEmpty() || draining.get()) {
+            Thread.sleep(1);
+        }
+    }
+
+    /**
+     * Stop retrying, writing any queued events before returning.
+     */
+    @Override
+    public synchronized void close() {
+        if (scheduler != null) {
+            scheduler.shutdown();
+        }
+        writer.shutdown();
+        try {
+            writer.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private int resend(Path file) throws IOException {
+        List<Event> events = read(file);
+        if (events.isEmpty()) {
+            delete(file);
+            return 0;
+        }
+
+        info().data("file", file.toString()).data("events", events.size())
+                .log("retrying spooled content-updated kafka events");
+
+        AtomicInteger remaining = new AtomicInteger(events.size());
+        for (Event event : events) {
+            try {
+                kafkaClient.produceContentUpdated(event.uri, event.dataType, event.collectionId, event.jobId,
+                        event.searchIndex, event.traceId, (metadata, e) -> resent(file, event, e, remaining));
+            } catch (Exception e) {
+                resent(file, event, e, remaining);
+            }
+        }
+        return events.size();
+    }
+
+    private void resent(Path file, Event event, Exception exception, AtomicInteger remaining) {
+        pending.decrementAndGet();
+        if (exception == null) {
+            done(file, remaining);
+            return;
+        }
+
+        // the retry file is only deleted once the event is safely in the current file.
+        spoolLater(event, e -> {
+            if (e != null) {
+                error().data("collectionId", event.collectionId).data("uri", event.uri)
+                        .logException(e, "unable to spool content-updated kafka event again, the event is lost");
+            }
+            done(file, remaining);
+        });
+    }
+
+    private void done(Path file, AtomicInteger remaining) {
+        if (remaining.decrementAndGet() == 0) {
+            delete(file);
+        }
+    }
+
+    private void delete(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            // the events will be sent again on the next retry.
+            warn().data("file", file.toString()).log("unable to delete kafka retry spool file");
+        } finally {
+            retrying.remove(file);
+        }
+    }
+
+    private void retrySafely() {
+        try {
+            retry();
+        } catch (Exception e) {
+            error().data("dir", dir.toString()).logException(e, "error retrying spooled content-updated kafka events");
+        }
+    }
+
+    private List<Path> spoolFiles() throws IOException {
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir, "*" + SPOOL_FILE_SUFFIX)) {
+            stream.forEach(files::add);
+        }
+        Collections.sort(files);
+        return files;
+    }
+
+    private static List<Event> read(Path file) throws IOException {
+        List<Event> events = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.trim().isEmpty()) {
+                    continue;
+                }
+                try {
+                    Event event = GSON.fromJson(line, Event.class);
+                    if (event != null && event.uri != null) {
+                        events.add(event);
+                    }
+                } catch (JsonParseException e) {
+                    // a line only partly written when the process stopped.
+                    warn().data("file", file.toString()).log("skipping unreadable kafka retry spool record");
+                }
+            }
+        }
+        return events;
+    }
+
+    private static class Queued {
+        private final Event event;
+        private final Consumer<IOException> done;
+
+        Queued(Event event, Consumer<IOException> done) {
+            this.event = event;
+            this.done = done;
+        }
+    }
+
+    /**
+     * The fields of a content-updated event.
+     */
+    public static class Event {
+        private String uri;
+        private String dataType;
+        private String collectionId;
+        private String jobId;
+        private String searchIndex;
+        private String traceId;
+
+        public Event(String uri, String dataType, String collectionId, String jobId, String searchIndex,
+                     String traceId) {
+            this.uri = uri;
+            this.dataType = dataType;
+            this.collectionId = collectionId;
+            this.jobId = jobId;
+            this.searchIndex = searchIndex;
+            this.traceId = traceId;
+        }
+
+        public String getUri() {
+            return uri;
+        }
+
+        public String getCollectionId() {
+            return collectionId;
+        }
+    }
+}
@@ -0,0 +1,242 @@
+package com.github.onsdigital.zebedee.logging;
+
+import com.github.onsdigital.zebedee.configuration.Configuration;
+import com.github.onsdigital.zebedee.metrics.Counter;
+import com.github.onsdigital.zebedee.metrics.Gauge;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import static com.github.onsdigital.zebedee.configuration.CMSFeatureFlags.cmsFeatureFlags;
+import static com.github.onsdigital.zebedee.logging.CMSLogEvent.error;
+import static com.github.onsdigital.zebedee.logging.CMSLogEvent.warn;
+import static com.github.onsdigital.zebedee.metrics.MetricsRegistry.metrics;
+
+/**
+ * Writes high volume log events, e.g. audit and florence click events, on a dedicated writer thread so a slow log sink
+ * does not hold up the request that raised them.
+ * <p>
+ * Events are added to a bounded {@link EventRingBuffer} and the writer takes them off in batches. When the queue is
+ * full an event is either dropped and counted or the request thread waits for space, as set by the
+ * {@link FullPolicy}. When the event log is disabled, or has been closed, events are written on the calling thread as
+ * before.
+ * <p>
+ * An event is a {@link Runnable} that writes it, so anything taken from the request thread, such as the trace ID,
+ * must be captured when the event is created rather than when it is run.
+ */
+public class AsyncEventLog implements AutoCloseable {
+
+    static final long IDLE_WAIT_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+    static final long FULL_WAIT_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+    static final long CLOSE_TIMEOUT_MILLIS = TimeUnit.SECONDS.toMillis(5);
+
+    private static final Counter QUEUED = metrics().counter("zebedee_event_log_queued_total",
+            "Events queued to be written by the asynchronous event log by log.", "log");
+    private static final Counter DROPPED = metrics().counter("zebedee_event_log_dropped_total",
+            "Events dropped as the asynchronous event log queue was full by log.", "log");
+    private static final Gauge QUEUE_DEPTH = metrics().gauge("zebedee_event_log_queue_depth",
+            "Number of events waiting to be written by the asynchronous event log by log.", "log");
+
+    private static final AsyncEventLog INSTANCE = newAsyncEventLog();
+
+    /**
+     * What to do with an event when the queue is full.
+     */
+    public enum FullPolicy {
+        /**
+         * Drop the event, counting it in the dropped events metric.
+         */
+        DROP,
+        /**
+         * Wait on the calling thread until there is space for the event.
+         */
+        BLOCK;
+
+        /**
+         * @return the policy with the given name, ignoring case, or {@link #DROP} if there is no such policy.
+         */
+        public static FullPolicy fromString(String name) {
+            for (FullPolicy policy : values()) {
+                if (policy.name().equalsIgnoreCase(name)) {
+                    return policy;
+                }
+            }
+            warn().data("policy", name).log("unknown event log full policy, events will be dropped when it is full");
+            return DROP;
+        }
+    }
+
+    private final String name;
+    private final boolean enabled;
+    private final EventRingBuffer<Runnable> events;
+    private final int batchSize;
+    private final FullPolicy fullPolicy;
+
+    private final Object startLock = new Object();
+    private final Object drainLock = new Object();
+    private volatile Thread writer;
+    private volatile boolean waiting;
+    private volatile boolean closed;
+
+    /**
+     * Construct a new event log. The writer thread is started when the first event is written.
+     *
+     * @param name       the name of the event log, used for the writer thread and metrics.
+     * @param enabled    false to write every event on the calling thread.
+     * @param capacity   the most events waiting to be written, rounded up to a power of two.
+     * @param batchSize  the most events the writer takes from the queue at a time.
+     * @param fullPolicy what to do with an event when the queue is full.
+     */
+    AsyncEventLog(String name, boolean enabled, int capacity, int batchSize, FullPolicy fullPolicy) {
+        this.name = name;
+        this.enabled = enabled;
+        this.events = new EventRingBuffer<>(capacity);
+        this.batchSize = Math.max(1, batchSize);
+        this.fullPolicy = fullPolicy;
+    }
+
+    private static AsyncEventLog newAsyncEventLog() {
+        AsyncEventLog eventLog = new AsyncEventLog("event-log", cmsFeatureFlags().isAsyncEventLogEnabled(),
+                Configuration.getAsyncEventLogCapacity(), Configuration.getAsyncEventLogBatchSize(),
+                FullPolicy.fromString(Configuration.getAsyncEventLogFullPolicy()));
+        QUEUE_DEPTH.labels(eventLog.name).set(eventLog.events::size);
+        if (eventLog.enabled) {
+            Runtime.getRuntime().addShutdownHook(new Thread(eventLog::close, "event-log-shutdown"));
+        }
+        return eventLog;
+    }
+
+    /**
+     * @return the event log shared by the application.
+     */
+    public static AsyncEventLog asyncEventLog() {
+        return INSTANCE;
+    }
+
+    /**
+     * Write an event, on the writer thread if the event log is enabled.
+     *
+     * @param log   the name of the log the event is for, e.g. audit, used for the metrics.
+     * @param event writes the event when run.
+     */
+    public void write(String log, Runnable event) {
+        if (!enabled || closed) {
+            event.run();
+            return;
+        }
+
+        startWriter();
+        if (!events.offer(event)) {
+            if (fullPolicy == FullPolicy.DROP) {
+                DROPPED.labels(log).inc();
+                return;
+            }
+
+            while (!events.offer(event)) {
+                if (closed) {
+                    event.run();
+                    return;
+                }
+                LockSupport.unpark(writer);
+                LockSupport.parkNanos(FULL_WAIT_NANOS);
+            }
+        }
+
+        QUEUED.labels(log).inc();
+        if (closed) {
+            // the writer may have stopped before taking the event, in which case nothing else will write it.
+            writeAfterWriterStops();
+            return;
+        }
+        if (waiting) {
+            LockSupport.unpark(writer);
+        }
+    }
+
+    /**
+     * Stop the writer thread once it has written the events in the queue. Events written after the event log is
+     * closed are written on the calling thread.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        writeAfterWriterStops();
+    }
+
+    /**
+     * Wait for the writer to stop, then write any events left in the queue on this thread. Events offered as the
+     * writer stopped are written here, as nothing else will take them.
+     */
+    private void writeAfterWriterStops() {
+        Thread thread = writer;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+            try {
+                thread.join(CLOSE_TIMEOUT_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (thread.isAlive()) {
+                return;
+            }
+        }
+
+        // the queue has a single consumer, so only one thread may take from it once the writer has stopped.
+        synchronized (drainLock) {
+            Runnable event;
+            while ((event = events.poll()) != null) {
+                run(event);
+            }
+        }
+    }
+
+    int queued() {
+        return events.size();
+    }
+
+    private void startWriter() {
+        if (writer != null) {
+            return;
+        }
+        synchronized (startLock) {
+            if (writer == null && !closed) {
+                Thread thread = new Thread(this::writeEvents, name + "-writer");
+                thread.setDaemon(true);
+                thread.start();
+                writer = thread;
+            }
+        }
+    }
+
+    private void writeEvents() {
+        List<Runnable> batch = new ArrayList<>(batchSize);
+        while (true) {
+            if (events.drainTo(batch, batchSize) == 0) {
+                if (closed) {
+                    return;
+                }
+                waiting = true;
+                if (events.size() == 0 && !closed) {
+                    LockSupport.parkNanos(this, IDLE_WAIT_NANOS);
+                }
+                waiting = false;
+                continue;
+            }
+
+            for (Runnable event : batch) {
+                run(event);
+            }
+            batch.clear();
+        }
+    }
+
+    private void run(Runnable event) {
+        try {
+            event.run();
+        } catch (RuntimeException ex) {
+            error().exception(ex).data("eventLog", name).log("error writing event from asynchronous event log");
+        }
+    }
+}
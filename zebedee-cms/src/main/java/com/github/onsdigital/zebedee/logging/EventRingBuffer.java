@@ -0,0 +1,120 @@
+package com.github.onsdigital.zebedee.logging;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A bounded queue of events without locks, for many threads adding events and one thread taking them.
+ * <p>
+ * Each slot of the ring has a sequence number saying whether it is free for the next lap of the producers or holds an
+ * event for the consumer. A producer claims a slot by moving the shared tail on with a compare and set, and the
+ * consumer, being the only one, moves the head on without one. When the ring is full {@link #offer(Object)} returns
+ * false rather than waiting, leaving what to do to the caller.
+ *
+ * @param <T> the type of the events.
+ */
+class EventRingBuffer<T> {
+
+    private final int mask;
+    private final AtomicReferenceArray<T> events;
+    private final AtomicLongArray sequences;
+    private final AtomicLong tail = new AtomicLong();
+    private volatile long head;
+
+    /**
+     * @param capacity the most events held, rounded up to a power of two.
+     */
+    EventRingBuffer(int capacity) {
+        if (capacity < 1 || capacity > 1 << 30) {
+            throw new IllegalArgumentException("event ring buffer capacity must be between 1 and 2^30: " + capacity);
+        }
+        int size = Integer.highestOneBit(capacity);
+        if (size < capacity) {
+            size <<= 1;
+        }
+
+        this.mask = size - 1;
+        this.events = new AtomicReferenceArray<>(size);
+        this.sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * Add an event to the queue, if there is space. Safe to call from any thread.
+     *
+     * @return true if the event was added, false if the queue was full.
+     */
+    boolean offer(T event) {
+        if (event == null) {
+            throw new NullPointerException("event");
+        }
+
+        while (true) {
+            long position = tail.get();
+            int index = (int) position & mask;
+            long available = sequences.get(index) - position;
+
+            if (available == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    events.lazySet(index, event);
+                    sequences.set(index, position + 1);
+                    return true;
+                }
+            } else if (available < 0) {
+                // the slot still holds the event from the last lap, so the ring is full.
+                return false;
+            }
+            // otherwise another producer claimed the slot first, try the next one.
+        }
+    }
+
+    /**
+     * Take the next event from the queue. Must only be called from the one consuming thread.
+     *
+     * @return the event, or null if the queue is empty.
+     */
+    T poll() {
+        long position = head;
+        int index = (int) position & mask;
+        if (sequences.get(index) != position + 1) {
+            return null;
+        }
+
+        T event = events.get(index);
+        events.lazySet(index, null);
+        sequences.set(index, position + mask + 1);
+        head = position + 1;
+        return event;
+    }
+
+    /**
+     * Take up to max events from the queue. Must only be called from the one consuming thread.
+     *
+     * @return the number of events taken.
+     */
+    int drainTo(List<T> batch, int max) {
+        int taken = 0;
+        T event;
+        while (taken < max && (event = poll()) != null) {
+            batch.add(event);
+            taken++;
+        }
+        return taken;
+    }
+
+    /**
+     * @return an estimate of the number of events in the queue.
+     */
+    int size() {
+        long size = tail.get() - head;
+        return (int) Math.max(0, Math.min(size, capacity()));
+    }
+
+    int capacity() {
+        return mask + 1;
+    }
+}
@@ -0,0 +1,55 @@
+package com.github.onsdigital.zebedee.metrics;
+
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A count that only goes up, e.g. the number of files sent to a publishing host or the bytes sent to it.
+ */
+public class Counter extends Metric<Counter.Child> {
+
+    Counter(String name, String help, String... labelNames) {
+        super(name, help, labelNames);
+    }
+
+    /**
+     * Increment the counter of a metric created without labels.
+     */
+    public void inc() {
+        labels().inc();
+    }
+
+    @Override
+    Child newChild() {
+        return new Child();
+    }
+
+    @Override
+    String type() {
+        return "counter";
+    }
+
+    @Override
+    void writeSamples(StringBuilder out, List<String> labelValues, Child child) {
+        writeSample(out, getName(), labelValues, null, null, child.get());
+    }
+
+    public static class Child {
+        private final LongAdder value = new LongAdder();
+
+        public void inc() {
+            value.increment();
+        }
+
+        public void inc(long amount) {
+            if (amount < 0) {
+                throw new IllegalArgumentException("counters cannot be decremented");
+            }
+            value.add(amount);
+        }
+
+        public long get() {
+            return value.sum();
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.github.onsdigital.zebedee.metrics;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * A value sampled when the metrics are written, e.g. the depth of an executor queue.
+ */
+public class Gauge extends Metric<Gauge.Child> {
+
+    Gauge(String name, String help, String... labelNames) {
+        super(name, help, labelNames);
+    }
+
+    @Override
+    Child newChild() {
+        return new Child();
+    }
+
+    @Override
+    String type() {
+        return "gauge";
+    }
+
+    @Override
+    void writeSamples(StringBuilder out, List<String> labelValues, Child child) {
+        writeSample(out, getName(), labelValues, null, null, child.get());
+    }
+
+    public static class Child {
+        private volatile Supplier<? extends Number> supplier = () -> 0;
+
+        /**
+         * Set the function used to sample the value of the gauge.
+         */
+        public void set(Supplier<? extends Number> supplier) {
+            this.supplier = supplier;
+        }
+
+        public double get() {
+            Number value = supplier.get();
+            return value == null ? Double.NaN : value.doubleValue();
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.github.onsdigital.zebedee.metrics;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static com.github.onsdigital.zebedee.metrics.MetricsRegistry.metrics;
+
+/**
+ * Factory for thread pools that report their queue depth, active threads and the time tasks spend waiting in the queue.
+ */
+public class InstrumentedExecutors {
+
+    static final Gauge QUEUE_DEPTH = metrics().gauge("zebedee_executor_queue_depth",
+            "Number of tasks waiting in the executor queue.", "executor");
+    static final Gauge ACTIVE_THREADS = metrics().gauge("zebedee_executor_active_threads",
+            "Number of executor threads running a task.", "executor");
+    static final Gauge POOL_SIZE = metrics().gauge("zebedee_executor_pool_size",
+            "Number of threads in the executor pool.", "executor");
+    static final Timer QUEUE_WAIT = metrics().timer("zebedee_executor_queue_wait_seconds",
+            "Time tasks spent queued before an executor thread picked them up.", "executor");
+    static final Counter BLOCKED_SUBMISSIONS = metrics().counter("zebedee_executor_blocked_submissions_total",
+            "Number of submissions that waited for space in a full executor queue.", "executor");
+
+    private InstrumentedExecutors() {
+        // static factory.
+    }
+
+    /**
+     * Equivalent to {@link java.util.concurrent.Executors#newFixedThreadPool(int)} with metrics labelled with the
+     * given executor name.
+     */
+    public static ExecutorService newFixedThreadPool(String name, int threads) {
+        return newFixedThreadPool(name, threads, Executors.defaultThreadFactory());
+    }
+
+    /**
+     * Equivalent to {@link java.util.concurrent.Executors#newFixedThreadPool(int, ThreadFactory)} with metrics
+     * labelled with the given executor name.
+     */
+    public static ExecutorService newFixedThreadPool(String name, int threads, ThreadFactory threadFactory) {
+        return instrument(name, new InstrumentedThreadPoolExecutor(name, threads, new LinkedBlockingQueue<>(),
+                threadFactory));
+    }
+
+    /**
+     * A fixed thread pool with metrics labelled with the given executor name whose queue holds at most the given
+     * number of tasks. Submitting a task while the queue is full blocks the submitting thread until there is space,
+     * so the submitter is slowed down to the rate the pool can keep up with rather than queueing without limit.
+     * <p>
+     * A task run by the pool must not submit to the same pool and wait for the result, as it can block forever
+     * waiting for space that only the pool threads can make.
+     */
+    public static ExecutorService newBoundedThreadPool(String name, int threads, int queueCapacity,
+                                                       ThreadFactory threadFactory) {
+        InstrumentedThreadPoolExecutor executor = new InstrumentedThreadPoolExecutor(name, threads,
+                new LinkedBlockingQueue<>(queueCapacity), threadFactory);
+        executor.setRejectedExecutionHandler(new BlockingSubmissionHandler(BLOCKED_SUBMISSIONS.labels(name)));
+        return instrument(name, executor);
+    }
+
+    private static ExecutorService instrument(String name, ThreadPoolExecutor executor) {
+        QUEUE_DEPTH.labels(name).set(() -> executor.getQueue().size());
+        ACTIVE_THREADS.labels(name).set(executor::getActiveCount);
+        POOL_SIZE.labels(name).set(executor::getPoolSize);
+        return executor;
+    }
+
+    static class InstrumentedThreadPoolExecutor extends ThreadPoolExecutor {
+
+        private final Timer.Child queueWait;
+
+        InstrumentedThreadPoolExecutor(String name, int threads, BlockingQueue<Runnable> queue,
+                                       ThreadFactory threadFactory) {
+            super(threads, threads, 0L, TimeUnit.MILLISECONDS, queue, threadFactory);
+            this.queueWait = QUEUE_WAIT.labels(name);
+        }
+
+        @Override
+        public void execute(Runnable command) {
+            if (command == null) {
+                throw new NullPointerException();
+            }
+            long queued = System.nanoTime();
+            super.execute(() -> {
+                queueWait.observe(System.nanoTime() - queued, TimeUnit.NANOSECONDS);
+                command.run();
+            });
+        }
+    }
+
+    /**
+     * Waits for space in the queue of a full executor rather than rejecting the task.
+     */
+    static class BlockingSubmissionHandler implements RejectedExecutionHandler {
+
+        private final Counter.Child blocked;
+
+        BlockingSubmissionHandler(Counter.Child blocked) {
+            this.blocked = blocked;
+        }
+
+        @Override
+        public void rejectedExecution(Runnable task, ThreadPoolExecutor executor) {
+            if (executor.isShutdown()) {
+                throw new RejectedExecutionException("executor has been shut down");
+            }
+            blocked.inc();
+            try {
+                executor.getQueue().put(task);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RejectedExecutionException("interrupted waiting for space in the executor queue", e);
+            }
+        }
+    }
+}
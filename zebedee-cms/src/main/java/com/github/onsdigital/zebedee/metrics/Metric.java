@@ -0,0 +1,147 @@
+package com.github.onsdigital.zebedee.metrics;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * A named family of metric values, one value per distinct set of label values.
+ *
+ * @param <C> the type of the value held for each set of label values.
+ */
+public abstract class Metric<C> {
+
+    private final String name;
+    private final String help;
+    private final List<String> labelNames;
+    private final ConcurrentMap<List<String>, C> children = new ConcurrentHashMap<>();
+
+    Metric(String name, String help, String... labelNames) {
+        this.name = name;
+        this.help = help;
+        this.labelNames = Collections.unmodifiableList(Arrays.asList(labelNames));
+    }
+
+    /**
+     * Get the value for the given label values, creating it if it does not exist.
+     *
+     * @param labelValues the label values, in the same order as the label names the metric was created with.
+     */
+    public C labels(String... labelValues) {
+        if (labelValues.length != labelNames.size()) {
+            throw new IllegalArgumentException("metric " + name + " expects labels " + labelNames + " but was given "
+                    + Arrays.toString(labelValues));
+        }
+        List<String> key = new ArrayList<>(labelValues.length);
+        for (String value : labelValues) {
+            key.add(value == null ? "" : value);
+        }
+        return children.computeIfAbsent(key, k -> newChild());
+    }
+
+    abstract C newChild();
+
+    /**
+     * @return the metric type as written on the TYPE line of the text format.
+     */
+    abstract String type();
+
+    /**
+     * Write the samples of a single child in the text format.
+     */
+    abstract void writeSamples(StringBuilder out, List<String> labelValues, C child);
+
+    public String getName() {
+        return name;
+    }
+
+    public String getHelp() {
+        return help;
+    }
+
+    public List<String> getLabelNames() {
+        return labelNames;
+    }
+
+    void write(StringBuilder out) {
+        out.append("# HELP ").append(name).append(' ').append(escapeHelp(help)).append('\n');
+        out.append("# TYPE ").append(name).append(' ').append(type()).append('\n');
+
+        // Sort the children so that the output is stable between scrapes.
+        Map<String, Map.Entry<List<String>, C>> sorted = new TreeMap<>();
+        for (Map.Entry<List<String>, C> entry : children.entrySet()) {
+            sorted.put(entry.getKey().toString(), entry);
+        }
+        for (Map.Entry<List<String>, C> entry : sorted.values()) {
+            writeSamples(out, entry.getKey(), entry.getValue());
+        }
+    }
+
+    void writeSample(StringBuilder out, String sampleName, List<String> labelValues, String extraLabel,
+                     String extraValue, double value) {
+        out.append(sampleName);
+        if (!labelValues.isEmpty() || extraLabel != null) {
+            out.append('{');
+            for (int i = 0; i < labelValues.size(); i++) {
+                if (i > 0) {
+                    out.append(',');
+                }
+                appendLabel(out, labelNames.get(i), labelValues.get(i));
+            }
+            if (extraLabel != null) {
+                if (!labelValues.isEmpty()) {
+                    out.append(',');
+                }
+                appendLabel(out, extraLabel, extraValue);
+            }
+            out.append('}');
+        }
+        out.append(' ').append(formatValue(value)).append('\n');
+    }
+
+    private static void appendLabel(StringBuilder out, String name, String value) {
+        out.append(name).append("=\"");
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '\\':
+                    out.append("\\\\");
+                    break;
+                case '"':
+                    out.append("\\\"");
+                    break;
+                case '\n':
+                    out.append("\\n");
+                    break;
+                default:
+                    out.append(c);
+            }
+        }
+        out.append('"');
+    }
+
+    private static String escapeHelp(String help) {
+        return help.replace("\\", "\\\\").replace("\n", "\\n");
+    }
+
+    static String formatValue(double value) {
+        if (value == Double.POSITIVE_INFINITY) {
+            return "+Inf";
+        }
+        if (value == Double.NEGATIVE_INFINITY) {
+            return "-Inf";
+        }
+        if (Double.isNaN(value)) {
+            return "NaN";
+        }
+        if (value == Math.rint(value) && Math.abs(value) < 1e15) {
+            return Long.toString((long) value);
+        }
+        return Double.toString(value);
+    }
+}
@@ -0,0 +1,74 @@
+package com.github.onsdigital.zebedee.metrics;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Function;
+
+/**
+ * In-process registry of the CMS metrics. Metrics are registered once, typically as static fields of the class that
+ * records them, and are written in the Prometheus text exposition format by {@link #write()}.
+ */
+public class MetricsRegistry {
+
+    /**
+     * Content type of the text exposition format.
+     */
+    public static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    private static final MetricsRegistry INSTANCE = new MetricsRegistry();
+
+    private final Map<String, Metric<?>> metrics = new ConcurrentSkipListMap<>();
+
+    /**
+     * @return the registry shared by the CMS.
+     */
+    public static MetricsRegistry metrics() {
+        return INSTANCE;
+    }
+
+    /**
+     * Get or create a counter.
+     */
+    public Counter counter(String name, String help, String... labelNames) {
+        return register(name, Counter.class, n -> new Counter(n, help, labelNames), labelNames);
+    }
+
+    /**
+     * Get or create a timer.
+     */
+    public Timer timer(String name, String help, String... labelNames) {
+        return register(name, Timer.class, n -> new Timer(n, help, labelNames), labelNames);
+    }
+
+    /**
+     * Get or create a gauge.
+     */
+    public Gauge gauge(String name, String help, String... labelNames) {
+        return register(name, Gauge.class, n -> new Gauge(n, help, labelNames), labelNames);
+    }
+
+    private <M extends Metric<?>> M register(String name, Class<M> type, Function<String, M> factory,
+                                             String... labelNames) {
+        Metric<?> metric = metrics.computeIfAbsent(name, factory);
+        if (!type.isInstance(metric)) {
+            throw new IllegalArgumentException("metric " + name + " is already registered as a "
+                    + metric.getClass().getSimpleName());
+        }
+        if (metric.getLabelNames().size() != labelNames.length) {
+            throw new IllegalArgumentException("metric " + name + " is already registered with labels "
+                    + metric.getLabelNames());
+        }
+        return type.cast(metric);
+    }
+
+    /**
+     * @return all of the metrics in the text exposition format.
+     */
+    public String write() {
+        StringBuilder out = new StringBuilder();
+        for (Metric<?> metric : metrics.values()) {
+            metric.write(out);
+        }
+        return out.toString();
+    }
+}
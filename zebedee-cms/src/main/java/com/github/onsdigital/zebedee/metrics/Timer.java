@@ -0,0 +1,101 @@
+package com.github.onsdigital.zebedee.metrics;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A histogram of durations in seconds. Written in the text format as a histogram with cumulative buckets, a sum and a
+ * count so that latency percentiles and rates can be derived by whatever scrapes the metrics.
+ */
+public class Timer extends Metric<Timer.Child> {
+
+    /**
+     * Bucket upper bounds in seconds. Covers single http requests through to whole publish phases.
+     */
+    static final double[] BUCKETS = {0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1, 2.5, 5, 10, 30, 60, 120, 300};
+
+    Timer(String name, String help, String... labelNames) {
+        super(name, help, labelNames);
+    }
+
+    @Override
+    Child newChild() {
+        return new Child();
+    }
+
+    @Override
+    String type() {
+        return "histogram";
+    }
+
+    @Override
+    void writeSamples(StringBuilder out, List<String> labelValues, Child child) {
+        long cumulative = 0;
+        for (int i = 0; i < BUCKETS.length; i++) {
+            cumulative += child.buckets[i].sum();
+            writeSample(out, getName() + "_bucket", labelValues, "le", formatValue(BUCKETS[i]), cumulative);
+        }
+        writeSample(out, getName() + "_bucket", labelValues, "le", "+Inf", child.count.sum());
+        writeSample(out, getName() + "_sum", labelValues, null, null, child.sum.sum());
+        writeSample(out, getName() + "_count", labelValues, null, null, child.count.sum());
+    }
+
+    public static class Child {
+        private final LongAdder[] buckets = new LongAdder[BUCKETS.length];
+        private final LongAdder count = new LongAdder();
+        private final DoubleAdder sum = new DoubleAdder();
+
+        Child() {
+            for (int i = 0; i < buckets.length; i++) {
+                buckets[i] = new LongAdder();
+            }
+        }
+
+        /**
+         * Record a duration.
+         */
+        public void observe(long duration, TimeUnit unit) {
+            double seconds = unit.toNanos(duration) / 1e9;
+            for (int i = 0; i < BUCKETS.length; i++) {
+                if (seconds <= BUCKETS[i]) {
+                    buckets[i].increment();
+                    break;
+                }
+            }
+            count.increment();
+            sum.add(seconds);
+        }
+
+        /**
+         * Start timing. The duration is recorded when the returned context is closed, so it can be used with
+         * try-with-resources.
+         */
+        public Context time() {
+            return new Context(this);
+        }
+
+        public long getCount() {
+            return count.sum();
+        }
+
+        public double getSum() {
+            return sum.sum();
+        }
+    }
+
+    public static class Context implements AutoCloseable {
+        private final Child child;
+        private final long start = System.nanoTime();
+
+        Context(Child child) {
+            this.child = child;
+        }
+
+        @Override
+        public void close() {
+            child.observe(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+}
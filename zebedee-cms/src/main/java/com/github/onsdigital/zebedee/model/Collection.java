@@ -25,6 +25,7 @@ import com.github.onsdigital.zebedee.json.Events;
 import com.github.onsdigital.zebedee.model.approval.tasks.ReleasePopulator;
 import com.github.onsdigital.zebedee.model.content.item.ContentItemVersion;
 import com.github.onsdigital.zebedee.model.content.item.VersionedContentItem;
+import com.github.onsdigital.zebedee.model.publishing.PublishSnapshot;
 import com.github.onsdigital.zebedee.model.publishing.Publisher;
 import com.github.onsdigital.zebedee.model.publishing.scheduled.Scheduler;
 import com.github.onsdigital.zebedee.permissions.service.PermissionsService;
@@ -36,6 +37,7 @@ import com.github.onsdigital.zebedee.reader.ZebedeeReader;
 import com.github.onsdigital.zebedee.session.model.Session;
 import com.github.onsdigital.zebedee.teams.model.Team;
 import com.github.onsdigital.zebedee.teams.service.TeamsService;
+import com.github.onsdigital.zebedee.util.LinkReplacer;
 import com.github.onsdigital.zebedee.util.versioning.VersionsService;
 import com.github.onsdigital.zebedee.util.versioning.VersionsServiceImpl;
 import org.apache.commons.io.FileUtils;
@@ -47,8 +49,12 @@ import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InputStreamReader;
 import java.io.OutputStream;
+import java.io.Reader;
+import java.io.StringWriter;
 import java.net.URI;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
@@ -61,9 +67,7 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.NoSuchElementException;
 import java.util.Optional;
-import java.util.Scanner;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
@@ -97,6 +101,7 @@ public class Collection {
     private final Content reviewed;
     private final Content complete;
     private final Content inProgress;
+    private PublishSnapshot publishSnapshot;
 
     private final Zebedee zebedee;
 
@@ -907,6 +912,32 @@ public class Collection {
         return reviewed.uris();
     }
 
+    /**
+     * @return the snapshot of the reviewed files taken when the collection was approved, or null if there isn't one.
+     */
+    public synchronized PublishSnapshot getPublishSnapshot() throws IOException {
+        if (publishSnapshot == null) {
+            publishSnapshot = PublishSnapshot.load(this);
+        }
+        return publishSnapshot;
+    }
+
+    /**
+     * Forget the snapshot held in memory so it is read from disk again, as the collection may have been approved again
+     * through another instance of it since the snapshot was read.
+     */
+    public synchronized void reloadPublishSnapshot() {
+        publishSnapshot = null;
+    }
+
+    /**
+     * Delete the snapshot of the reviewed files, as the content of the collection may change.
+     */
+    public synchronized void deletePublishSnapshot() throws IOException {
+        publishSnapshot = null;
+        PublishSnapshot.delete(this);
+    }
+
     public boolean isEmpty() {
         return uriCount() == 0;
     }
@@ -1177,6 +1208,7 @@ public class Collection {
         }
 
         FileUtils.deleteDirectory(reviewedPath.toFile());
+        deletePublishSnapshot();
 
         Optional<String> version = versionsService.getVersionNameFromURI(uri);
         String note = version.isPresent() ? version.get() : uri;
@@ -1243,15 +1275,31 @@ public class Collection {
 
         CollectionReader collectionReader = new ZebedeeCollectionReader(this.zebedee, this, session);
         CollectionWriter collectionWriter = new ZebedeeCollectionWriter(this.zebedee, this, session);
+        LinkReplacer replacer = LinkReplacer.forMove(oldUri, newUri);
 
-        for (String uri : inProgressUris()) {
-            replaceLinksInFile(uri, oldUri, newUri, collectionReader.getInProgress(), collectionWriter.getInProgress());
-        }
-        for (String uri : completeUris()) {
-            replaceLinksInFile(uri, oldUri, newUri, collectionReader.getComplete(), collectionWriter.getComplete());
+        replaceLinks(inProgress, oldUri, replacer, collectionReader.getInProgress(), collectionWriter.getInProgress());
+        replaceLinks(complete, oldUri, replacer, collectionReader.getComplete(), collectionWriter.getComplete());
+        replaceLinks(reviewed, oldUri, replacer, collectionReader.getReviewed(), collectionWriter.getReviewed());
+    }
+
+    /**
+     * Replace uri references within the files of one tree of the collection content, using the link index to find
+     * the files referring to the old uri if it is enabled.
+     */
+    private void replaceLinks(Content content, String oldUri, LinkReplacer replacer, ContentReader contentReader,
+                              ContentWriter contentWriter) throws IOException, ZebedeeException {
+        if (!cmsFeatureFlags().isContentLinkIndexEnabled() || !ContentLinkIndex.isIndexed(oldUri)) {
+            for (String uri : content.uris()) {
+                replaceLinksInFile(uri, replacer, contentReader, contentWriter);
+            }
+            return;
         }
-        for (String uri : reviewedUris()) {
-            replaceLinksInFile(uri, oldUri, newUri, collectionReader.getReviewed(), collectionWriter.getReviewed());
+
+        ContentLinkIndex index = ContentLinkIndex.forContent(content);
+        for (String uri : index.findReferrers(content, contentReader, oldUri)) {
+            if (replaceLinksInFile(uri, replacer, contentReader, contentWriter)) {
+                index.invalidate(uri);
+            }
         }
     }
 
@@ -1259,36 +1307,35 @@ public class Collection {
      * Replace uri references within a file
      *
      * @param uri           the uri to update the links in
-     * @param oldUri        the uri we are moving from
-     * @param newUri        the uri we are moving to
+     * @param replacer      the replacer for the links to the moved content
      * @param contentReader
+     * @return true if the file referred to the moved content and has been rewritten.
      * @throws IOException if we encounter file problems
      * @ param contentWriter
      */
-    private void replaceLinksInFile(String uri, String oldUri, String newUri, ContentReader contentReader, ContentWriter contentWriter) throws IOException, ZebedeeException {
-        try {
-            if (!uri.toLowerCase().endsWith(".json")) {
-                return;
-            }
+    private boolean replaceLinksInFile(String uri, LinkReplacer replacer, ContentReader contentReader,
+                                       ContentWriter contentWriter) throws IOException, ZebedeeException {
+        if (!uri.toLowerCase().endsWith(".json")) {
+            return false;
+        }
 
-            String content;
-            try (
-                    Resource resource = contentReader.getResource(uri);
-                    InputStream inputStream = resource.getData();
-                    Scanner scanner = new Scanner(inputStream)
-            ) {
-                content = scanner.useDelimiter("//Z").next();
-                content = content.replaceAll("\"" + oldUri + "\"", "\"" + newUri + "\"");
-                content = content.replaceAll(oldUri + "/", newUri + "/");
-
-                try (ByteArrayInputStream byteArrayInputStream = new ByteArrayInputStream(content.getBytes())) {
-                    contentWriter.write(byteArrayInputStream, uri);
-                }
+        StringWriter content = new StringWriter();
+        try (
+                Resource resource = contentReader.getResource(uri);
+                Reader reader = new InputStreamReader(resource.getData(), StandardCharsets.UTF_8)
+        ) {
+            if (replacer.replace(reader, content) == 0) {
+                return false;
             }
-
-        } catch (NoSuchElementException e) {
+        } catch (NotFoundException e) {
             // do nothing if its not found.
+            return false;
+        }
+
+        try (ByteArrayInputStream input = new ByteArrayInputStream(content.toString().getBytes(StandardCharsets.UTF_8))) {
+            contentWriter.write(input, uri);
         }
+        return true;
     }
 
     public boolean renameContent(String email, String fromUri, String toUri) throws IOException {
@@ -3,15 +3,14 @@ package com.github.onsdigital.zebedee.model;
 import com.github.onsdigital.zebedee.exceptions.UnauthorizedException;
 import com.github.onsdigital.zebedee.reader.FileSystemContentReader;
 import com.github.onsdigital.zebedee.reader.Resource;
+import com.github.onsdigital.zebedee.reader.util.MimeTypeResolver;
 import com.github.onsdigital.zebedee.util.EncryptionUtils;
-import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang3.StringUtils;
 
 import javax.crypto.SecretKey;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.OutputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 
@@ -32,10 +31,7 @@ public class CollectionContentReader extends FileSystemContentReader {
     @Override
     protected long calculateContentLength(Path path) throws IOException {
         if (collection.getDescription().isEncrypted()) {
-            try (InputStream inputStream = EncryptionUtils.encryptionInputStream(path, key);
-                 OutputStream outputStream = new ByteArrayOutputStream()) {
-                return IOUtils.copy(inputStream, outputStream);
-            }
+            return EncryptionUtils.decryptedLength(path, key);
         } else {
             return super.calculateContentLength(path);
         }
@@ -45,12 +41,23 @@ public class CollectionContentReader extends FileSystemContentReader {
     protected Resource buildResource(Path path) throws IOException {
         Resource resource = new Resource();
         resource.setName(path.getFileName().toString());
-        resource.setMimeType(determineMimeType(path));
+        resource.setMimeType(resolveMimeType(path));
         resource.setUri(toRelativeUri(path));
         resource.setData(getInputStream(path));
         return resource;
     }
 
+    /**
+     * Encrypted content can not be sniffed, so resolve the MIME type from the file name alone.
+     */
+    private String resolveMimeType(Path path) throws IOException {
+        if (collection.getDescription().isEncrypted()) {
+            return StringUtils.defaultIfEmpty(MimeTypeResolver.fromFileName(path.getFileName().toString()),
+                    MimeTypeResolver.DEFAULT_MIME_TYPE);
+        }
+        return FileSystemContentReader.determineMimeType(path);
+    }
+
     private InputStream getInputStream(Path path) throws IOException {
         InputStream inputStream;
         if (collection.getDescription().isEncrypted()) {
@@ -366,6 +366,9 @@ public class Collections {
 
         collection.getDescription().setApprovalStatus(ApprovalStatus.IN_PROGRESS);
 
+        // the approve task takes a new snapshot, so drop any left from an earlier approval.
+        collection.deletePublishSnapshot();
+
         info().data("collectionId", collectionId)
                 .log("approve collection: saving collection");
         collection.save();
@@ -420,6 +423,9 @@ public class Collections {
         collection.getDescription().setApprovalStatus(ApprovalStatus.NOT_STARTED);
         collection.getDescription().addEvent(new Event(new Date(), EventType.UNLOCKED, session.getEmail()));
 
+        // the content can change once unlocked so the snapshot taken on approval no longer applies.
+        collection.deletePublishSnapshot();
+
         publishingNotificationConsumer.accept(collection, EventType.UNLOCKED);
         return collection.save();
     }
@@ -740,6 +746,10 @@ public class Collections {
         }
 
         boolean deleted = deleteContentFromCollection(collection, session, contentTargetPath, uri);
+        if (deleted) {
+            // an approved collection can still have content deleted, so the approval snapshot no longer applies.
+            collection.deletePublishSnapshot();
+        }
         collection.save();
 
         if (deleted) {
@@ -863,7 +873,9 @@ public class Collections {
             throw new BadRequestException("You cannot move or rename a file that is already published.");
         }
 
-        collection.moveContent(session, uri, newUri);
+        if (collection.moveContent(session, uri, newUri)) {
+            collection.deletePublishSnapshot();
+        }
         collection.save();
     }
 
@@ -891,7 +903,9 @@ public class Collections {
             throw new BadRequestException("You cannot move or rename a file that is already published.");
         }
 
-        collection.renameContent(session.getEmail(), uri, toUri);
+        if (collection.renameContent(session.getEmail(), uri, toUri)) {
+            collection.deletePublishSnapshot();
+        }
         collection.save();
     }
 
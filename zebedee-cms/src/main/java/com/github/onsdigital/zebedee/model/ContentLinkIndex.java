@@ -0,0 +1,241 @@
+package com.github.onsdigital.zebedee.model;
+
+import com.github.onsdigital.zebedee.exceptions.NotFoundException;
+import com.github.onsdigital.zebedee.exceptions.ZebedeeException;
+import com.github.onsdigital.zebedee.reader.ContentReader;
+import com.github.onsdigital.zebedee.reader.Resource;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * An index of the links in the json files of one tree of collection content, i.e. in progress, complete or reviewed,
+ * from each uri to the files that refer to it. It is used when content is moved so only the files referring to the
+ * moved content are read and rewritten.
+ * <p>
+ * A file is taken to refer to every '/' delimited run of a uri found in it, so a file linking to
+ * {@code /economy/inflation/bulletins/jan} is found for a move of {@code /economy/inflation} as well as of the bulletin
+ * itself. This matches the links {@link com.github.onsdigital.zebedee.util.LinkReplacer#forMove(String, String)}
+ * replaces, and a file listed that does not need changing is only read.
+ * <p>
+ * Content is written from many places, so rather than being told of each change the index checks the modified time
+ * and size of each file in the tree before it is used and indexes again only the files that have changed. The indexes
+ * are held in memory, as they are built from decrypted content, and dropped when not used for a while.
+ */
+public class ContentLinkIndex {
+
+    /**
+     * The longest uri the index can find the files referring to.
+     */
+    static final int MAX_URI_LENGTH = 512;
+
+    /**
+     * The characters that can not be part of a uri in a json file, so mark the end of one.
+     */
+    private static final String SEPARATORS = "\"\\,()[]{}<>'+= \t\r\n";
+
+    private static final int BUFFER_SIZE = 8 * 1024;
+
+    private static final Cache<Path, ContentLinkIndex> INDEXES = CacheBuilder.newBuilder()
+            .maximumSize(300)
+            .expireAfterAccess(1, TimeUnit.HOURS)
+            .build();
+
+    private final Map<String, IndexedFile> files = new HashMap<>();
+    private final Map<String, Set<String>> referrers = new HashMap<>();
+
+    ContentLinkIndex() {
+        // use forContent.
+    }
+
+    /**
+     * @return the index of the given tree of collection content.
+     */
+    public static ContentLinkIndex forContent(Content content) {
+        return INDEXES.asMap().computeIfAbsent(content.getPath(), path -> new ContentLinkIndex());
+    }
+
+    /**
+     * @return true if the files referring to the uri can be found using the index. Otherwise every file has to be
+     * checked.
+     */
+    public static boolean isIndexed(String uri) {
+        if (uri == null || !uri.startsWith("/") || uri.endsWith("/") || uri.length() >= MAX_URI_LENGTH) {
+            return false;
+        }
+        for (int i = 0; i < uri.length(); i++) {
+            if (isSeparator(uri.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Find the json files that may refer to the given uri, indexing any files changed since the index was last used.
+     *
+     * @param content the tree of collection content.
+     * @param reader  a reader for the content, to read the files that have changed.
+     * @param uri     the uri to find the references to.
+     * @return the uris of the files referring to the uri.
+     */
+    public synchronized List<String> findReferrers(Content content, ContentReader reader, String uri)
+            throws IOException, ZebedeeException {
+        refresh(content, reader);
+        Set<String> found = referrers.get(uri);
+        return found == null ? Collections.emptyList() : new ArrayList<>(found);
+    }
+
+    /**
+     * Forget the indexed links of the file, e.g. as it has just been rewritten, so it is indexed again when next used.
+     */
+    public synchronized void invalidate(String uri) {
+        remove(uri);
+    }
+
+    synchronized int size() {
+        return files.size();
+    }
+
+    private void refresh(Content content, ContentReader reader) throws IOException, ZebedeeException {
+        Set<String> present = new HashSet<>();
+        for (String uri : content.uris()) {
+            if (!uri.toLowerCase().endsWith(".json")) {
+                continue;
+            }
+
+            BasicFileAttributes attributes;
+            try {
+                attributes = Files.readAttributes(content.toPath(uri), BasicFileAttributes.class);
+            } catch (NoSuchFileException e) {
+                continue;
+            }
+            present.add(uri);
+
+            IndexedFile file = files.get(uri);
+            if (file != null && file.isCurrent(attributes)) {
+                continue;
+            }
+
+            // the attributes are read first, so a change made while reading is picked up next time.
+            remove(uri);
+            try (Resource resource = reader.getResource(uri);
+                 Reader input = new InputStreamReader(resource.getData(), StandardCharsets.UTF_8)) {
+                add(uri, new IndexedFile(attributes, links(input)));
+            } catch (NotFoundException e) {
+                present.remove(uri);
+            }
+        }
+
+        Iterator<String> indexed = files.keySet().iterator();
+        while (indexed.hasNext()) {
+            String uri = indexed.next();
+            if (!present.contains(uri)) {
+                removeReferrer(uri, files.get(uri));
+                indexed.remove();
+            }
+        }
+    }
+
+    private void add(String uri, IndexedFile file) {
+        files.put(uri, file);
+        for (String link : file.links) {
+            referrers.computeIfAbsent(link, key -> new HashSet<>()).add(uri);
+        }
+    }
+
+    private void remove(String uri) {
+        IndexedFile file = files.remove(uri);
+        if (file != null) {
+            removeReferrer(uri, file);
+        }
+    }
+
+    private void removeReferrer(String uri, IndexedFile file) {
+        for (String link : file.links) {
+            Set<String> found = referrers.get(link);
+            if (found != null && found.remove(uri) && found.isEmpty()) {
+                referrers.remove(link);
+            }
+        }
+    }
+
+    /**
+     * Read the uris linked to in the text: each run of it between separators starting with '/', up to each of the '/'
+     * that follow.
+     */
+    static Set<String> links(Reader input) throws IOException {
+        Set<String> links = new HashSet<>();
+        StringBuilder run = new StringBuilder();
+        char[] buffer = new char[BUFFER_SIZE];
+        int read;
+        while ((read = input.read(buffer)) != -1) {
+            for (int i = 0; i < read; i++) {
+                char c = buffer[i];
+                if (isSeparator(c)) {
+                    addLinks(run, links);
+                    run.setLength(0);
+                } else {
+                    run.append(c);
+                }
+            }
+        }
+        addLinks(run, links);
+        return links;
+    }
+
+    private static void addLinks(CharSequence run, Set<String> links) {
+        for (int start = 0; start < run.length(); start++) {
+            if (run.charAt(start) != '/') {
+                continue;
+            }
+            int limit = Math.min(run.length(), start + MAX_URI_LENGTH);
+            for (int end = start + 1; end < limit; end++) {
+                if (run.charAt(end) == '/') {
+                    links.add(run.subSequence(start, end).toString());
+                }
+            }
+            if (run.length() - start < MAX_URI_LENGTH) {
+                links.add(run.subSequence(start, run.length()).toString());
+            }
+        }
+    }
+
+    private static boolean isSeparator(char c) {
+        return SEPARATORS.indexOf(c) >= 0;
+    }
+
+    private static class IndexedFile {
+        private final FileTime modified;
+        private final long size;
+        private final Set<String> links;
+
+        IndexedFile(BasicFileAttributes attributes, Set<String> links) {
+            this.modified = attributes.lastModifiedTime();
+            this.size = attributes.size();
+            this.links = links;
+        }
+
+        boolean isCurrent(BasicFileAttributes attributes) {
+            return modified.equals(attributes.lastModifiedTime()) && size == attributes.size();
+        }
+    }
+}
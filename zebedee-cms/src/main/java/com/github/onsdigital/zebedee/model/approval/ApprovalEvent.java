@@ -10,10 +10,16 @@ public class ApprovalEvent {
 
     private String event;
     private String time;
+    private String details;
 
     public ApprovalEvent(ApprovalEventType event, Date comletedAt) {
+        this(event, comletedAt, null);
+    }
+
+    public ApprovalEvent(ApprovalEventType event, Date comletedAt, String details) {
         this.event = event.getDescription();
         this.time = DATE_FORMAT.format(comletedAt);
+        this.details = details;
     }
 
     public String getTime() {
@@ -23,4 +29,8 @@ public class ApprovalEvent {
     public String getEvent() {
         return event;
     }
+
+    public String getDetails() {
+        return details;
+    }
 }
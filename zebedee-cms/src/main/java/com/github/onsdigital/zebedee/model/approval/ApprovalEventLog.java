@@ -1,10 +1,15 @@
 package com.github.onsdigital.zebedee.model.approval;
 
+import com.github.onsdigital.zebedee.metrics.Timer;
+
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 import static com.github.onsdigital.logging.v2.event.SimpleEvent.info;
+import static com.github.onsdigital.logging.v2.event.SimpleEvent.warn;
+import static com.github.onsdigital.zebedee.metrics.MetricsRegistry.metrics;
 import static com.github.onsdigital.zebedee.model.approval.ApprovalEventType.ADD_DATASET_VERSION_DETAILS;
 import static com.github.onsdigital.zebedee.model.approval.ApprovalEventType.ADD_INTERACTIVE_DETAILS;
 import static com.github.onsdigital.zebedee.model.approval.ApprovalEventType.APPROVAL_COMPLETED;
@@ -12,29 +17,41 @@ import static com.github.onsdigital.zebedee.model.approval.ApprovalEventType.APP
 import static com.github.onsdigital.zebedee.model.approval.ApprovalEventType.APPROVAL_STATE_SET;
 import static com.github.onsdigital.zebedee.model.approval.ApprovalEventType.COMPRESSED_ZIP_FILES;
 import static com.github.onsdigital.zebedee.model.approval.ApprovalEventType.CREATED_PUBLISH_NOTIFICATION;
+import static com.github.onsdigital.zebedee.model.approval.ApprovalEventType.CREATED_PUBLISH_SNAPSHOT;
 import static com.github.onsdigital.zebedee.model.approval.ApprovalEventType.GENERATED_PDFS;
 import static com.github.onsdigital.zebedee.model.approval.ApprovalEventType.GENERATED_TIME_SERIES;
 import static com.github.onsdigital.zebedee.model.approval.ApprovalEventType.POPULATED_RELEASE_PAGE;
 import static com.github.onsdigital.zebedee.model.approval.ApprovalEventType.RESOLVED_DETAILS;
 import static com.github.onsdigital.zebedee.model.approval.ApprovalEventType.SENT_PUBLISH_NOTIFICATION;
+import static com.github.onsdigital.zebedee.model.approval.ApprovalEventType.TIMESERIES_UPDATES_FAILED;
 
 public class ApprovalEventLog {
 
+    private static final Timer APPROVAL_STEP = metrics().timer("zebedee_approval_step_seconds",
+            "Time taken by each step of a collection approval.", "step");
+
     private String collectionID;
     private String approverEmail;
 
     private List<ApprovalEvent> eventLog;
+    private long lastEventNanos;
 
     public ApprovalEventLog(String collectionID, String approverEmail) {
         this.collectionID = collectionID;
         this.approverEmail = approverEmail;
         this.eventLog = new ArrayList<>();
         this.eventLog.add(new ApprovalEvent(APPROVAL_STARTED, new Date()));
+        this.lastEventNanos = System.nanoTime();
     }
 
     public void addEvent(ApprovalEventType event) {
         this.eventLog.add(new ApprovalEvent(event, new Date()));
 
+        // Each event marks the end of a step, so the step took the time since the previous event.
+        long now = System.nanoTime();
+        APPROVAL_STEP.labels(event.name().toLowerCase()).observe(now - lastEventNanos, TimeUnit.NANOSECONDS);
+        lastEventNanos = now;
+
         info().data("step", event.name()).data("collectionId", collectionID)
                 .data("approver", approverEmail)
                 .log("collection approval step addEvent");
@@ -68,6 +85,16 @@ public class ApprovalEventLog {
         addEvent(GENERATED_TIME_SERIES);
     }
 
+    /**
+     * Record the timeseries that failed to update. Not a step of the approval, so it is not timed.
+     */
+    public void timeseriesUpdatesFailed(String details) {
+        this.eventLog.add(new ApprovalEvent(TIMESERIES_UPDATES_FAILED, new Date(), details));
+
+        warn().data("collectionId", collectionID).data("approver", approverEmail).data("details", details)
+                .log("collection approval timeseries updates failed");
+    }
+
     public void generatedPDFs() {
         addEvent(GENERATED_PDFS);
     }
@@ -80,6 +107,10 @@ public class ApprovalEventLog {
         addEvent(COMPRESSED_ZIP_FILES);
     }
 
+    public void createdPublishSnapshot() {
+        addEvent(CREATED_PUBLISH_SNAPSHOT);
+    }
+
     public void approvalStateSet() {
         addEvent(APPROVAL_STATE_SET);
     }
@@ -14,12 +14,16 @@ public enum ApprovalEventType {
 
     GENERATED_TIME_SERIES("generatedTimeSeries"),
 
+    TIMESERIES_UPDATES_FAILED("timeseriesUpdatesFailed"),
+
     GENERATED_PDFS("generatedPDFs"),
 
     CREATED_PUBLISH_NOTIFICATION("createdPublishNotification"),
 
     COMPRESSED_ZIP_FILES("compressedZipFiles"),
 
+    CREATED_PUBLISH_SNAPSHOT("createdPublishSnapshot"),
+
     APPROVAL_STATE_SET("approvalStateSet"),
 
     SENT_PUBLISH_NOTIFICATION("sentPublishNotification"),
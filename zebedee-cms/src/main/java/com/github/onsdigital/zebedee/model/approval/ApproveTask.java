@@ -3,6 +3,7 @@ package com.github.onsdigital.zebedee.model.approval;
 import com.github.onsdigital.zebedee.configuration.Configuration;
 import com.github.onsdigital.zebedee.data.DataPublisher;
 import com.github.onsdigital.zebedee.data.importing.CsvTimeseriesUpdateImporter;
+import com.github.onsdigital.zebedee.data.importing.TimeseriesUpdateApplier;
 import com.github.onsdigital.zebedee.data.importing.TimeseriesUpdateCommand;
 import com.github.onsdigital.zebedee.data.importing.TimeseriesUpdateImporter;
 import com.github.onsdigital.zebedee.data.processing.DataIndex;
@@ -13,12 +14,15 @@ import com.github.onsdigital.zebedee.json.Event;
 import com.github.onsdigital.zebedee.json.EventType;
 import com.github.onsdigital.zebedee.json.PendingDelete;
 import com.github.onsdigital.zebedee.logging.CMSLogEvent;
+import com.github.onsdigital.zebedee.metrics.Counter;
+import com.github.onsdigital.zebedee.metrics.Timer;
 import com.github.onsdigital.zebedee.model.Collection;
 import com.github.onsdigital.zebedee.model.CollectionWriter;
 import com.github.onsdigital.zebedee.model.approval.tasks.CollectionPdfGenerator;
 import com.github.onsdigital.zebedee.model.approval.tasks.timeseries.TimeSeriesCompressionTask;
 import com.github.onsdigital.zebedee.model.content.CompoundContentReader;
 import com.github.onsdigital.zebedee.model.publishing.PublishNotification;
+import com.github.onsdigital.zebedee.model.publishing.PublishSnapshot;
 import com.github.onsdigital.zebedee.reader.CollectionReader;
 import com.github.onsdigital.zebedee.reader.ContentReader;
 import com.github.onsdigital.zebedee.reader.Resource;
@@ -42,12 +46,20 @@ import static com.github.onsdigital.logging.v2.event.SimpleEvent.info;
 import static com.github.onsdigital.zebedee.configuration.CMSFeatureFlags.cmsFeatureFlags;
 import static com.github.onsdigital.zebedee.json.EventType.APPROVAL_FAILED;
 import static com.github.onsdigital.zebedee.logging.CMSLogEvent.error;
+import static com.github.onsdigital.zebedee.metrics.MetricsRegistry.metrics;
 
 /**
  * Callable implementation for the approval process.
  */
 public class ApproveTask implements Callable<Boolean> {
 
+    private static final Timer APPROVAL_TIME = metrics().timer("zebedee_approval_seconds",
+            "Time taken to approve a collection.");
+    private static final Counter APPROVALS = metrics().counter("zebedee_approvals_total",
+            "Collection approvals by outcome.", "outcome");
+
+    static final int MAX_FAILED_CDIDS = 100;
+
     private final Collection collection;
     private final Session session;
     private final CollectionReader collectionReader;
@@ -95,8 +107,10 @@ public class ApproveTask implements Callable<Boolean> {
 
     @Override
     public Boolean call() {
-        try {
-            return doApproval();
+        boolean approved = false;
+        try (Timer.Context timer = APPROVAL_TIME.labels().time()) {
+            approved = doApproval();
+            return approved;
         } catch (Exception e) {
 
             CMSLogEvent errorLog = error().data("collectionId", collection.getId());
@@ -107,6 +121,8 @@ public class ApproveTask implements Callable<Boolean> {
 
             errorLog.logException(e, "approve task: unrecoverable error while attempting to approve collection");
             return false;
+        } finally {
+            APPROVALS.labels(approved ? "success" : "failure").inc();
         }
     }
 
@@ -136,8 +152,15 @@ public class ApproveTask implements Callable<Boolean> {
             populateReleasePage(collectionContent);
             eventLog.populatedResleasePage();
 
-            generateTimeseries(collection, publishedReader, collectionReader, collectionWriter, dataIndex);
+            TimeseriesUpdateApplier.Result timeseriesUpdates = generateTimeseries(collection, publishedReader,
+                    collectionReader, collectionWriter, dataIndex);
             eventLog.generatedTimeSeries();
+            if (timeseriesUpdates != null && timeseriesUpdates.getFailed() > 0) {
+                String failures = describeFailures(timeseriesUpdates);
+                eventLog.timeseriesUpdatesFailed(failures);
+                collection.getDescription().addEvent(new Event(new Date(), EventType.TIMESERIES_UPDATES_FAILED,
+                        session.getEmail(), failures));
+            }
 
             generatePdfFiles(collectionContent);
             eventLog.generatedPDFs();
@@ -153,6 +176,11 @@ public class ApproveTask implements Callable<Boolean> {
             compressZipFiles(collection, collectionReader, collectionWriter);
             eventLog.compressedZipFiles();
 
+            if (cmsFeatureFlags().isPublishSnapshotEnabled()) {
+                PublishSnapshot.save(collection, PublishSnapshot.create(collection, collectionReader));
+                eventLog.createdPublishSnapshot();
+            }
+
             approveCollection();
             eventLog.approvalStateSet();
 
@@ -182,6 +210,7 @@ public class ApproveTask implements Callable<Boolean> {
             collection.getDescription().setApprovalStatus(ApprovalStatus.ERROR);
             collection.getDescription().addEvent(new Event(APPROVAL_FAILED, session.getEmail(), e));
             try {
+                collection.deletePublishSnapshot();
                 collection.save();
             } catch (Exception e1) {
                 error().data("collectionId", collection.getDescription().getId()).data("user", session.getEmail())
@@ -192,7 +221,11 @@ public class ApproveTask implements Callable<Boolean> {
         }
     }
 
-    public static void generateTimeseries(
+    /**
+     * @return the outcome of the timeseries update commands, or null if they were applied one at a time, see
+     * {@link DataPublisher#applyUpdateCommands}.
+     */
+    public static TimeseriesUpdateApplier.Result generateTimeseries(
             Collection collection,
             ContentReader publishedReader,
             CollectionReader collectionReader,
@@ -204,7 +237,7 @@ public class ApproveTask implements Callable<Boolean> {
         List<TimeseriesUpdateCommand> updateCommands = importUpdateCommandCsvs(collection, publishedReader, collectionReader);
 
         // Generate time series if required.
-        new DataPublisher().preprocessCollection(
+        return new DataPublisher().preprocessCollection(
                 publishedReader,
                 collectionReader,
                 collectionWriter.getReviewed(), true, dataIndex, updateCommands);
@@ -235,7 +268,7 @@ public class ApproveTask implements Callable<Boolean> {
                     info().data("filename", importFile).data("collectionId", collection.getDescription().getId())
                             .log("approve collection: importing csv file");
 
-                    updateCommands.addAll(importer.importData());
+                    importer.importData(updateCommands::add);
                 }
             }
         }
@@ -278,6 +311,22 @@ public class ApproveTask implements Callable<Boolean> {
         }
     }
 
+    /**
+     * Describe the timeseries that failed to update for the collection history, listing at most
+     * {@link #MAX_FAILED_CDIDS} of the CDIDs so a large failure does not bloat the collection.
+     */
+    static String describeFailures(TimeseriesUpdateApplier.Result result) {
+        List<String> cdids = result.getFailedCdids();
+        StringBuilder description = new StringBuilder()
+                .append(result.getFailed()).append(" of ").append(result.getTotal())
+                .append(" timeseries failed to update, CDIDs: ")
+                .append(String.join(", ", cdids.subList(0, Math.min(cdids.size(), MAX_FAILED_CDIDS))));
+        if (cdids.size() > MAX_FAILED_CDIDS) {
+            description.append(" and ").append(cdids.size() - MAX_FAILED_CDIDS).append(" more");
+        }
+        return description.toString();
+    }
+
     protected void approveCollection() throws IOException {
         // set the approved state on the collection
         try {
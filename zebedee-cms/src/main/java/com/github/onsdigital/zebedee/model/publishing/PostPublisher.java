@@ -10,6 +10,8 @@ import com.github.onsdigital.zebedee.json.PendingDelete;
 import com.github.onsdigital.zebedee.json.publishing.PublishedCollection;
 import com.github.onsdigital.zebedee.json.publishing.request.FileCopy;
 import com.github.onsdigital.zebedee.json.publishing.request.Manifest;
+import com.github.onsdigital.zebedee.metrics.Counter;
+import com.github.onsdigital.zebedee.metrics.Timer;
 import com.github.onsdigital.zebedee.model.Collection;
 import com.github.onsdigital.zebedee.model.ContentWriter;
 import com.github.onsdigital.zebedee.model.PathUtils;
@@ -27,8 +29,9 @@ import com.github.onsdigital.zebedee.util.SlackNotification;
 import com.github.onsdigital.zebedee.util.URIUtils;
 import com.github.onsdigital.zebedee.util.ZebedeeCmsService;
 import com.github.onsdigital.zebedee.util.slack.Notifier;
+import com.github.onsdigital.zebedee.util.versioning.VersionBlobStore;
 import org.apache.commons.io.FileUtils;
-import org.apache.commons.io.FilenameUtils;
+import org.apache.commons.io.input.CountingInputStream;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.time.FastDateFormat;
 import org.slf4j.MDC;
@@ -44,12 +47,17 @@ import java.util.List;
 import java.util.TimeZone;
 import java.util.UUID;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.stream.Collectors;
 
 import static com.github.onsdigital.zebedee.api.Root.zebedee;
 import static com.github.onsdigital.zebedee.logging.CMSLogEvent.error;
 import static com.github.onsdigital.zebedee.logging.CMSLogEvent.info;
+import static com.github.onsdigital.zebedee.metrics.MetricsRegistry.metrics;
+import static com.github.onsdigital.zebedee.model.publishing.PublishMetrics.DECRYPTED_BYTES;
+import static com.github.onsdigital.zebedee.model.publishing.PublishMetrics.DECRYPT_TIME;
+import static com.github.onsdigital.zebedee.model.publishing.PublishingExecutors.publishingExecutors;
+import static com.github.onsdigital.zebedee.reader.LatestEditionIndex.latestEditionIndex;
+import static com.github.onsdigital.zebedee.reader.NegativeLookupCache.publishedNegativeLookups;
 import static org.apache.commons.lang3.StringUtils.defaultIfBlank;
 
 /**
@@ -61,7 +69,12 @@ public class PostPublisher {
     private static final FastDateFormat FORMAT = FastDateFormat.getInstance("yyyy-MM-dd-HH-mm", TimeZone.getTimeZone("Europe/London"));
     private static final ServiceSupplier<KafkaService> KAFKA_SERVICE_SUPPLIER = () -> ZebedeeCmsService.getInstance().getKafkaService();
 
-    private static final ExecutorService POOL = Executors.newFixedThreadPool(10);
+    private static final ExecutorService POOL = publishingExecutors().get(PublishingExecutors.Stage.POST_PUBLISH);
+
+    private static final Timer POST_PUBLISH_PHASE = metrics().timer("zebedee_post_publish_phase_seconds",
+            "Time taken by each phase of post publish.", "phase");
+    private static final Counter POST_PUBLISHES = metrics().counter("zebedee_post_publishes_total",
+            "Collection post publish attempts by outcome.", "outcome");
 
     private static final String TRACE_ID_HEADER = "trace_id";
     private static final String SEARCHINDEX = "ONS";
@@ -89,17 +102,38 @@ public class PostPublisher {
             ContentReader contentReader = new FileSystemContentReader(zebedee.getPublished().getPath());
             ContentWriter contentWriter = new ContentWriter(zebedee.getPublished().getPath());
 
-            applyDeletesToPublishing(collection, contentReader, contentWriter);
-            processManifestForMaster(collection, contentReader, contentWriter);
-            copyFilesToMaster(zebedee, collection, collectionReader);
+            VersionBlobStore versionStore = null;
+            if (CMSFeatureFlags.cmsFeatureFlags().isVersionDeduplicationEnabled()) {
+                versionStore = new VersionBlobStore(zebedee.getPath().resolve(Zebedee.VERSION_BLOBS));
+            }
+
+            try (Timer.Context timer = POST_PUBLISH_PHASE.labels("apply_deletes").time()) {
+                applyDeletesToPublishing(collection, contentReader, contentWriter);
+            }
+            try (Timer.Context timer = POST_PUBLISH_PHASE.labels("process_manifest").time()) {
+                processManifestForMaster(collection, contentReader, contentWriter, versionStore);
+            }
+            if (versionStore != null && !collection.getDescription().getPendingDeletes().isEmpty()) {
+                pruneVersionBlobs(collection, versionStore);
+            }
+            try (Timer.Context timer = POST_PUBLISH_PHASE.labels("copy_to_master").time()) {
+                copyFilesToMaster(zebedee, collection, collectionReader);
+            }
 
-            reindexPublishingSearch(collection);
+            try (Timer.Context timer = POST_PUBLISH_PHASE.labels("reindex").time()) {
+                reindexPublishingSearch(collection);
+            }
 
             if (CMSFeatureFlags.cmsFeatureFlags().isKafkaEnabled()) {
-                sendToKafka(collection);
+                try (Timer.Context timer = POST_PUBLISH_PHASE.labels("kafka").time()) {
+                    sendToKafka(collection);
+                }
             }
 
-            Path collectionJsonPath = moveCollectionToArchive(zebedee, collection, collectionReader);
+            Path collectionJsonPath;
+            try (Timer.Context timer = POST_PUBLISH_PHASE.labels("archive").time()) {
+                collectionJsonPath = moveCollectionToArchive(zebedee, collection, collectionReader);
+            }
 
             if (!skipVerification) {
                 // add to published collections list
@@ -108,12 +142,16 @@ public class PostPublisher {
 
             collection.delete();
             ContentTree.dropCache();
+            latestEditionIndex().invalidate(zebedee.getPublished().getPath());
+            publishedNegativeLookups().invalidate();
             zebedee.getSchedulerKeyCache().remove(collection.getId());
 
             SlackNotification.publishNotification(publishedCollection,SlackNotification.CollectionStage.POST_PUBLISH, SlackNotification.StageStatus.COMPLETED);
 
+            POST_PUBLISHES.labels("success").inc();
             return true;
         } catch (Exception exception) {
+            POST_PUBLISHES.labels("failure").inc();
             error().collectionID(collection).exception(exception).log("An error occurred during the publish cleanup");
             SlackNotification.publishNotification(getPublishedCollection(collection),SlackNotification.CollectionStage.POST_PUBLISH, SlackNotification.StageStatus.FAILED);
         }
@@ -168,7 +206,8 @@ public class PostPublisher {
     }
 
 
-    private static void processManifestForMaster(Collection collection, ContentReader contentReader, ContentWriter contentWriter) {
+    private static void processManifestForMaster(Collection collection, ContentReader contentReader,
+                                                 ContentWriter contentWriter, VersionBlobStore versionStore) {
 
         try {
             Manifest manifest = Manifest.get(collection);
@@ -191,7 +230,13 @@ public class PostPublisher {
                         Resource resource = contentReader.getResource(fileCopy.source);
                         InputStream inputStream = resource.getData()
                 ) {
-                    contentWriter.write(inputStream, fileCopy.target);
+                    if (versionStore != null) {
+                        Path target = contentReader.getRootFolder()
+                                .resolve(StringUtils.removeStart(fileCopy.target, "/"));
+                        versionStore.store(inputStream, target);
+                    } else {
+                        contentWriter.write(inputStream, fileCopy.target);
+                    }
                 } catch (ZebedeeException | IOException e) {
                     error().collectionID(collection)
                             .exception(e)
@@ -219,6 +264,19 @@ public class PostPublisher {
         });
     }
 
+    /**
+     * Delete the blobs of versions deleted by the collection in the background, as the versions no longer need them.
+     */
+    private static void pruneVersionBlobs(Collection collection, VersionBlobStore versionStore) {
+        POOL.submit(() -> {
+            try {
+                versionStore.prune();
+            } catch (Exception e) {
+                error().collectionID(collection).logException(e, "error pruning unused version blobs");
+            }
+        });
+    }
+
     private static void reindexPublishingSearch(Collection collection) throws IOException {
 
         info().collectionID(collection).log("Reindexing search");
@@ -226,9 +284,9 @@ public class PostPublisher {
 
             long start = System.currentTimeMillis();
 
-            List<String> uris = collection.getReviewed().uris("*data.json");
+            List<String> uris = PublishSnapshot.reviewedUris(collection);
             for (String uri : uris) {
-                if (isIndexedUri(uri)) {
+                if (uri.endsWith("data.json") && isIndexedUri(uri)) {
                     String contentUri = URIUtils.removeLastSegment(uri);
                     reIndexPublishingSearch(contentUri);
                 }
@@ -284,15 +342,17 @@ public class PostPublisher {
         info().collectionID(collection).log("Moving files from collection into master");
 
         // Move each item of content:
-        for (String uri : collection.getReviewed().uris()) {
-            if (!VersionedContentItem.isVersionedUri(uri)
-                    && !FilenameUtils.getName(uri).equals("timeseries-to-publish.zip")) {
+        for (PublishSnapshot.Entry file : PublishSnapshot.reviewedFiles(collection)) {
+            if (!file.isVersioned() && !file.isZipped()) {
+                String uri = file.getUri();
                 Path destination = zebedee.getPublished().toPath(uri);
                 try (
+                        Timer.Context timer = DECRYPT_TIME.labels("copy_to_master").time();
                         Resource resource = collectionReader.getResource(uri);
-                        InputStream dataStream = resource.getData()
+                        CountingInputStream dataStream = new CountingInputStream(resource.getData())
                 ) {
                     FileUtils.copyInputStreamToFile(dataStream, destination.toFile());
+                    DECRYPTED_BYTES.labels("copy_to_master").inc(dataStream.getByteCount());
                 }
             }
         }
@@ -333,13 +393,15 @@ public class PostPublisher {
                 .data("to", collectionFilesDestination.toString())
                 .log("moving collection files");
 
-        for (String uri : collection.getReviewed().uris()) {
+        for (String uri : PublishSnapshot.reviewedUris(collection)) {
             try (
+                    Timer.Context timer = DECRYPT_TIME.labels("archive").time();
                     Resource resource = collectionReader.getResource(uri);
-                    InputStream inputStream = resource.getData();
+                    CountingInputStream inputStream = new CountingInputStream(resource.getData());
             ) {
                 File destination = collectionFilesDestination.resolve(URIUtils.removeLeadingSlash(uri)).toFile();
                 FileUtils.copyInputStreamToFile(inputStream, destination);
+                DECRYPTED_BYTES.labels("archive").inc(inputStream.getByteCount());
             }
         }
 
@@ -362,7 +424,7 @@ public class PostPublisher {
             sendMessage(collection, datasetUris, DATASETCONTENTFLAG);
         }
 
-        List<String> reviewedUris = collection.getReviewed().uris()
+        List<String> reviewedUris = PublishSnapshot.reviewedUris(collection)
                 .stream().map(temp -> convertUriForEvent(temp))
                 .collect(Collectors.toList());
         info().data("collectionId", collection.getId())
@@ -0,0 +1,22 @@
+package com.github.onsdigital.zebedee.model.publishing;
+
+import com.github.onsdigital.zebedee.metrics.Counter;
+import com.github.onsdigital.zebedee.metrics.Timer;
+
+import static com.github.onsdigital.zebedee.metrics.MetricsRegistry.metrics;
+
+/**
+ * Metrics shared by the publishing stages. Divide the rate of {@link #DECRYPTED_BYTES} by the rate of the
+ * {@link #DECRYPT_TIME} sum to get the decryption throughput of a stage.
+ */
+public final class PublishMetrics {
+
+    public static final Counter DECRYPTED_BYTES = metrics().counter("zebedee_collection_decrypted_bytes_total",
+            "Bytes of collection content decrypted by publishing stage.", "stage");
+    public static final Timer DECRYPT_TIME = metrics().timer("zebedee_collection_decrypt_seconds",
+            "Time spent reading and decrypting a single collection file by publishing stage.", "stage");
+
+    private PublishMetrics() {
+        // constants only.
+    }
+}
@@ -0,0 +1,229 @@
+package com.github.onsdigital.zebedee.model.publishing;
+
+import com.github.davidcarboni.restolino.json.Serialiser;
+import com.github.onsdigital.zebedee.exceptions.ZebedeeException;
+import com.github.onsdigital.zebedee.model.Collection;
+import com.github.onsdigital.zebedee.model.content.item.VersionedContentItem;
+import com.github.onsdigital.zebedee.reader.CollectionReader;
+import com.github.onsdigital.zebedee.reader.Resource;
+import org.apache.commons.codec.binary.Hex;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.io.FilenameUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * The reviewed files of a collection, recorded once when the collection is approved so each phase of the publish can
+ * use them rather than listing, and in some cases decrypting, the reviewed files again.
+ * <p>
+ * Content can still be deleted, moved or renamed in an approved collection, so the snapshot is deleted whenever the
+ * reviewed content changes, as well as when the collection is unlocked or approved again. A collection without a
+ * snapshot falls back to listing its reviewed files.
+ */
+public class PublishSnapshot {
+
+    public static final String FILENAME = "publish-snapshot.json";
+
+    static final String ZIPPED_TIMESERIES = "timeseries-to-publish.zip";
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private Date created;
+    private List<Entry> entries = new ArrayList<>();
+
+    private PublishSnapshot() {
+        // for deserialisation.
+    }
+
+    /**
+     * Take a snapshot of the reviewed files of the collection, reading each one to record its hash.
+     *
+     * @param collection the collection to take a snapshot of.
+     * @param reader     a {@link CollectionReader} to decrypt the reviewed files with.
+     * @return the snapshot.
+     */
+    public static PublishSnapshot create(Collection collection, CollectionReader reader)
+            throws IOException, ZebedeeException {
+        PublishSnapshot snapshot = new PublishSnapshot();
+        snapshot.created = new Date();
+
+        byte[] buffer = new byte[BUFFER_SIZE];
+        for (String uri : collection.getReviewed().uris()) {
+            try (Resource resource = reader.getResource(uri);
+                 InputStream in = resource.getData()) {
+                MessageDigest digest = DigestUtils.getSha1Digest();
+                long size = 0;
+                int read;
+                while ((read = in.read(buffer)) != -1) {
+                    digest.update(buffer, 0, read);
+                    size += read;
+                }
+                snapshot.entries.add(new Entry(uri, size, Hex.encodeHexString(digest.digest()),
+                        resource.getMimeType()));
+            }
+        }
+        return snapshot;
+    }
+
+    /**
+     * Save the snapshot alongside the collection, replacing any snapshot already saved.
+     */
+    public static void save(Collection collection, PublishSnapshot snapshot) throws IOException {
+        Path path = getPath(collection);
+        Path temp = path.resolveSibling(FILENAME + ".tmp");
+
+        try (OutputStream output = Files.newOutputStream(temp)) {
+            Serialiser.serialise(output, snapshot);
+        }
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Load the snapshot of the collection.
+     *
+     * @return the snapshot, or null if the collection does not have one.
+     */
+    public static PublishSnapshot load(Collection collection) throws IOException {
+        Path path = getPath(collection);
+        if (!Files.exists(path)) {
+            return null;
+        }
+
+        try (InputStream input = Files.newInputStream(path)) {
+            return Serialiser.deserialise(input, PublishSnapshot.class);
+        }
+    }
+
+    /**
+     * Delete the snapshot of the collection, e.g. as it is unlocked and the content may change.
+     */
+    public static void delete(Collection collection) throws IOException {
+        Files.deleteIfExists(getPath(collection));
+    }
+
+    public static Path getPath(Collection collection) {
+        return collection.getPath().resolve(FILENAME);
+    }
+
+    /**
+     * The reviewed files of the collection, from its snapshot if it has one, otherwise listed from disk without their
+     * size, hash or mime type.
+     */
+    public static List<Entry> reviewedFiles(Collection collection) throws IOException {
+        PublishSnapshot snapshot = collection.getPublishSnapshot();
+        if (snapshot != null) {
+            return snapshot.getEntries();
+        }
+
+        List<Entry> entries = new ArrayList<>();
+        for (String uri : collection.getReviewed().uris()) {
+            entries.add(new Entry(uri));
+        }
+        return entries;
+    }
+
+    /**
+     * The uris of the reviewed files of the collection, from its snapshot if it has one.
+     */
+    public static List<String> reviewedUris(Collection collection) throws IOException {
+        List<String> uris = new ArrayList<>();
+        for (Entry entry : reviewedFiles(collection)) {
+            uris.add(entry.getUri());
+        }
+        return uris;
+    }
+
+    public Date getCreated() {
+        return created;
+    }
+
+    public List<Entry> getEntries() {
+        return Collections.unmodifiableList(entries);
+    }
+
+    /**
+     * A reviewed file of the collection.
+     */
+    public static class Entry {
+
+        private String uri;
+        private long size = -1;
+        private String sha1;
+        private String mimeType;
+        private boolean versioned;
+        private boolean timeseries;
+        private boolean zipped;
+
+        private Entry() {
+            // for deserialisation.
+        }
+
+        Entry(String uri) {
+            this.uri = uri;
+            this.versioned = VersionedContentItem.isVersionedUri(uri);
+            this.timeseries = Paths.get(uri).toString().contains("/timeseries/");
+            this.zipped = FilenameUtils.getName(uri).equals(ZIPPED_TIMESERIES);
+        }
+
+        Entry(String uri, long size, String sha1, String mimeType) {
+            this(uri);
+            this.size = size;
+            this.sha1 = sha1;
+            this.mimeType = mimeType;
+        }
+
+        public String getUri() {
+            return uri;
+        }
+
+        /**
+         * @return the size of the decrypted file, or -1 if it is not known.
+         */
+        public long getSize() {
+            return size;
+        }
+
+        /**
+         * @return the SHA-1 hash of the decrypted file, or null if it is not known.
+         */
+        public String getSha1() {
+            return sha1;
+        }
+
+        public String getMimeType() {
+            return mimeType;
+        }
+
+        /**
+         * @return true if the file is a previous version of a page, which is never sent to the train.
+         */
+        public boolean isVersioned() {
+            return versioned;
+        }
+
+        /**
+         * @return true if the file is part of a timeseries, which is sent to the train in a zip.
+         */
+        public boolean isTimeseries() {
+            return timeseries;
+        }
+
+        /**
+         * @return true if the file is the zip of timeseries files sent to the train to be unzipped.
+         */
+        public boolean isZipped() {
+            return zipped;
+        }
+    }
+}
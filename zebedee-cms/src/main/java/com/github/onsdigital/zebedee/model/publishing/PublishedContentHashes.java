@@ -0,0 +1,131 @@
+package com.github.onsdigital.zebedee.model.publishing;
+
+import org.apache.commons.codec.binary.Hex;
+import org.apache.commons.codec.digest.DigestUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Index of the SHA-1 hash of published content files, used to leave files that are unchanged from master out of a
+ * publish.
+ * <p>
+ * A file is hashed the first time it is looked up and the hash is kept while the size and modified time of the file
+ * are the same as when it was hashed, so republishing a file re-hashes it on its next lookup. The hashes are of the
+ * plaintext, the same as the hashes the publishing API reports for transaction content.
+ */
+public class PublishedContentHashes {
+
+    static final int MAX_ENTRIES = 100000;
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final PublishedContentHashes INSTANCE = new PublishedContentHashes(MAX_ENTRIES);
+
+    private final Map<Path, Hash> entries;
+
+    PublishedContentHashes(int maxEntries) {
+        this.entries = Collections.synchronizedMap(new LinkedHashMap<Path, Hash>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Path, Hash> eldest) {
+                return size() > maxEntries;
+            }
+        });
+    }
+
+    /**
+     * @return the index shared by every publish.
+     */
+    public static PublishedContentHashes publishedContentHashes() {
+        return INSTANCE;
+    }
+
+    /**
+     * Get the hash of the published file at the given path, hashing it if it has not been hashed or has changed since.
+     *
+     * @param file the published file.
+     * @return the hash of the file, or null if there is no file at the path.
+     */
+    public Hash get(Path file) throws IOException {
+        BasicFileAttributes attributes;
+        try {
+            attributes = Files.readAttributes(file, BasicFileAttributes.class);
+        } catch (NoSuchFileException e) {
+            entries.remove(file);
+            return null;
+        }
+        if (!attributes.isRegularFile()) {
+            return null;
+        }
+
+        long modified = attributes.lastModifiedTime().toMillis();
+        Hash hash = entries.get(file);
+        if (hash != null && hash.size == attributes.size() && hash.modified == modified) {
+            return hash;
+        }
+
+        try (InputStream in = Files.newInputStream(file)) {
+            hash = new Hash(attributes.size(), modified, DigestUtils.sha1Hex(in));
+        }
+        entries.put(file, hash);
+        return hash;
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    /**
+     * The hash of a published file and the attributes it was hashed at.
+     */
+    public static class Hash {
+
+        private final long size;
+        private final long modified;
+        private final String sha1;
+
+        Hash(long size, long modified, String sha1) {
+            this.size = size;
+            this.modified = modified;
+            this.sha1 = sha1;
+        }
+
+        /**
+         * Check whether the given content is the same as the published file. Reading stops as soon as the content is
+         * longer than the published file, so a changed file is not read further than it has to be.
+         *
+         * @param content the content to compare, e.g. the decrypted collection file.
+         * @return true if the content has the same length and hash as the published file.
+         */
+        public boolean matches(InputStream content) throws IOException {
+            MessageDigest digest = DigestUtils.getSha1Digest();
+            byte[] buffer = new byte[BUFFER_SIZE];
+            long total = 0;
+            int read;
+            while ((read = content.read(buffer)) != -1) {
+                total += read;
+                if (total > size) {
+                    return false;
+                }
+                digest.update(buffer, 0, read);
+            }
+            return total == size && sha1.equals(Hex.encodeHexString(digest.digest()));
+        }
+
+        public long getSize() {
+            return size;
+        }
+
+        public String getSha1() {
+            return sha1;
+        }
+    }
+}
@@ -1,20 +1,26 @@
 package com.github.onsdigital.zebedee.model.publishing;
 
+import com.github.davidcarboni.cryptolite.Keys;
 import com.github.davidcarboni.httpino.Endpoint;
 import com.github.davidcarboni.httpino.Host;
 import com.github.davidcarboni.httpino.Response;
 import com.github.onsdigital.zebedee.api.Root;
 import com.github.onsdigital.zebedee.configuration.CMSFeatureFlags;
 import com.github.onsdigital.zebedee.configuration.Configuration;
+import com.github.onsdigital.zebedee.exceptions.ZebedeeException;
 import com.github.onsdigital.zebedee.json.ApprovalStatus;
 import com.github.onsdigital.zebedee.json.Event;
 import com.github.onsdigital.zebedee.json.EventType;
+import com.github.onsdigital.zebedee.json.PendingDelete;
 import com.github.onsdigital.zebedee.json.publishing.Result;
 import com.github.onsdigital.zebedee.json.publishing.UriInfo;
 import com.github.onsdigital.zebedee.json.publishing.request.Manifest;
 import com.github.onsdigital.zebedee.logging.CMSLogEvent;
+import com.github.onsdigital.zebedee.metrics.Counter;
+import com.github.onsdigital.zebedee.metrics.Timer;
 import com.github.onsdigital.zebedee.model.Collection;
 import com.github.onsdigital.zebedee.model.content.item.VersionedContentItem;
+import com.github.onsdigital.zebedee.model.publishing.PublishingExecutors.Stage;
 import com.github.onsdigital.zebedee.model.publishing.verify.HashVerifier;
 import com.github.onsdigital.zebedee.model.publishing.verify.HashVerifierImpl;
 import com.github.onsdigital.zebedee.reader.CollectionReader;
@@ -25,41 +31,56 @@ import com.github.onsdigital.zebedee.service.ImageServicePublishingResult;
 import com.github.onsdigital.zebedee.service.StaticFilesService;
 import com.github.onsdigital.zebedee.service.ServiceSupplier;
 import com.github.onsdigital.zebedee.service.InteractivesService;
+import com.github.onsdigital.zebedee.util.EncryptionUtils;
 import com.github.onsdigital.zebedee.util.Http;
 import com.github.onsdigital.zebedee.util.SlackNotification;
+import com.github.onsdigital.zebedee.util.URIUtils;
 import com.github.onsdigital.zebedee.util.ZebedeeCmsService;
 import com.github.onsdigital.zebedee.util.slack.Notifier;
 import com.github.onsdigital.zebedee.util.slack.PostMessageField;
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.input.CountingInputStream;
 import org.apache.commons.lang3.StringUtils;
 
+import javax.crypto.SecretKey;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URI;
 import java.nio.channels.FileChannel;
 import java.nio.channels.FileLock;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.Lock;
 import java.util.function.Function;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
 
 import static com.github.onsdigital.zebedee.api.Root.zebedee;
 import static com.github.onsdigital.zebedee.configuration.CMSFeatureFlags.cmsFeatureFlags;
 import static com.github.onsdigital.zebedee.logging.CMSLogEvent.error;
 import static com.github.onsdigital.zebedee.logging.CMSLogEvent.info;
 import static com.github.onsdigital.zebedee.logging.CMSLogEvent.warn;
+import static com.github.onsdigital.zebedee.metrics.MetricsRegistry.metrics;
 import static com.github.onsdigital.zebedee.model.publishing.PostPublisher.getPublishedCollection;
+import static com.github.onsdigital.zebedee.model.publishing.PublishedContentHashes.publishedContentHashes;
+import static com.github.onsdigital.zebedee.model.publishing.PublishingExecutors.publishingExecutors;
 import static com.github.onsdigital.zebedee.util.SlackNotification.CollectionStage.PUBLISH;
 import static com.github.onsdigital.zebedee.util.SlackNotification.StageStatus.FAILED;
 import static com.github.onsdigital.zebedee.util.SlackNotification.StageStatus.STARTED;
@@ -68,8 +89,28 @@ import static com.github.onsdigital.zebedee.util.SlackNotification.publishNotifi
 public class Publisher {
 
     private static final List<Host> theTrainHosts;
-    private static final ExecutorService pool = Executors.newFixedThreadPool(20);
-    private static final ExecutorService apiPool = Executors.newFixedThreadPool(5);
+    private static final ExecutorService commitPool = publishingExecutors().get(Stage.COMMIT);
+    private static final ExecutorService transactionPool = publishingExecutors().get(Stage.TRANSACTION);
+    private static final ExecutorService uploadPool = publishingExecutors().get(Stage.UPLOAD);
+    private static final ExecutorService apiPool = publishingExecutors().get(Stage.API);
+
+    // metrics
+    private static final Timer PUBLISH_PHASE = metrics().timer("zebedee_publish_phase_seconds",
+            "Time taken by each phase of a collection publish.", "phase");
+    private static final Timer TRAIN_REQUEST = metrics().timer("zebedee_train_request_seconds",
+            "Latency of requests to the train by host and endpoint.", "host", "endpoint");
+    private static final Counter TRAIN_REQUEST_ERRORS = metrics().counter("zebedee_train_request_errors_total",
+            "Failed requests to the train by host and endpoint.", "host", "endpoint");
+    private static final Counter BYTES_SENT = metrics().counter("zebedee_publish_bytes_sent_total",
+            "Bytes of collection content sent to each train host.", "host");
+    private static final Counter PUBLISHES = metrics().counter("zebedee_publishes_total",
+            "Collection publish attempts by outcome.", "outcome");
+    private static final Counter UNCHANGED_FILES = metrics().counter("zebedee_publish_unchanged_files_total",
+            "Collection files left out of a publish as they are identical to the published file.");
+    private static final Counter BYTES_AVOIDED = metrics().counter("zebedee_publish_bytes_avoided_total",
+            "Bytes of unchanged collection files not sent to the train, summed over the train hosts.");
+    private static final Counter REQUESTS_AVOIDED = metrics().counter("zebedee_publish_requests_avoided_total",
+            "Publish file requests not sent to the train for unchanged collection files.");
 
     // endpoints
     private static final String BEGIN_ENDPOINT = "begin";
@@ -77,6 +118,7 @@ public class Publisher {
     private static final String PUBLISH_ENDPOINT = "publish";
     private static final String COMMIT_ENDPOINT = "commit";
     private static final String ROLLBACK_ENDPOINT = "rollback";
+    private static final String TRANSACTION_ENDPOINT = "transaction";
     private static final Pattern CMD_DATASET_URI_REGEX = Pattern
             .compile("^/datasets/[a-zA-Z0-9_\\._-]+/editions/[a-zA-Z0-9_\\._-]+/versions/\\w+");
 
@@ -92,7 +134,6 @@ public class Publisher {
 
     static {
         theTrainHosts = Configuration.getTheTrainHosts();
-        Runtime.getRuntime().addShutdownHook(new ShutDownPublisherThread(pool));
 
         // lazy loaded approach for getting the datasetService.
         datasetServiceSupplier = () -> ZebedeeCmsService.getInstance().getDatasetService();
@@ -106,8 +147,43 @@ public class Publisher {
      */
     public static void executePrePublish(Collection collection) throws IOException {
         collection.getDescription().setPublishStartDate(new Date());
-        createPublishingTransactions(collection);
-        sendManifest(collection);
+        try (Timer.Context timer = PUBLISH_PHASE.labels("begin").time()) {
+            createPublishingTransactions(collection);
+        }
+        try (Timer.Context timer = PUBLISH_PHASE.labels("send_manifest").time()) {
+            sendManifest(collection);
+        }
+    }
+
+    /**
+     * Send the collection files to the open publishing transactions and verify them ahead of a scheduled publish, so
+     * that only the commit is left for the publish time. The transactions must already have been created by
+     * {@link #executePrePublish(Collection)}.
+     *
+     * @return a record of what was staged, to pass to
+     * {@link #executePublish(Collection, CollectionReader, String, StagedPublish)}.
+     */
+    public static StagedPublish stagePublish(Collection collection, CollectionReader collectionReader)
+            throws IOException {
+        long start = System.currentTimeMillis();
+
+        // fingerprint before sending anything so that an edit made while staging is also picked up.
+        String fingerprint = StagedPublish.fingerprint(collection);
+
+        Set<String> unsentUris;
+        try (Timer.Context timer = PUBLISH_PHASE.labels("stage_files").time()) {
+            unsentUris = publishFilteredCollectionFiles(collection, collectionReader);
+        }
+        try (Timer.Context timer = PUBLISH_PHASE.labels("stage_verify").time()) {
+            HashVerifierImpl.getInstance().verifyTransactionContent(collection, collectionReader, unsentUris);
+        }
+
+        info().data("publishing", true).data("collectionId", collection.getDescription().getId())
+                .data("hostToTransactionId", collection.getDescription().getPublishTransactionIds())
+                .data("timeTaken", System.currentTimeMillis() - start)
+                .log("staged and verified collection files ahead of publish");
+
+        return new StagedPublish(fingerprint, collection.getDescription().getPublishTransactionIds());
     }
 
     /**
@@ -115,40 +191,78 @@ public class Publisher {
      */
     public static boolean executePublish(Collection collection, CollectionReader collectionReader, String email)
             throws IOException {
+        return executePublish(collection, collectionReader, email, null);
+    }
+
+    /**
+     * Execute the publishing steps, skipping sending and verifying the collection files if they were staged by
+     * {@link #stagePublish(Collection, CollectionReader)} and the collection has not changed since. If it has
+     * changed the staged transactions are rolled back and the collection is staged again.
+     *
+     * @param stagedPublish the files staged ahead of the publish, or null if nothing was staged.
+     */
+    public static boolean executePublish(Collection collection, CollectionReader collectionReader, String email,
+                                         StagedPublish stagedPublish) throws IOException {
         boolean success = false;
         final String collectionId = collection.getDescription().getId();
 
+        boolean staged = stagedPublish != null && stagedPublish.isCurrent(collection);
+        if (stagedPublish != null && !staged) {
+            warn().data("publishing", true).data("collectionId", collectionId)
+                    .data("hostToTransactionId", stagedPublish.getTransactionIds())
+                    .log("collection has changed since its files were staged, rolling back and staging again");
+            collection.reloadPublishSnapshot();
+            rollbackPublish(collection);
+            executePrePublish(collection);
+        }
+
         Future<ImageServicePublishingResult> imageFuture = null;
         if (CMSFeatureFlags.cmsFeatureFlags().isImagePublishingEnabled()) {
             imageFuture = publishImages(collection);
         }
 
-        publishFilteredCollectionFiles(collection, collectionReader);
+        if (staged) {
+            info().data("publishing", true).data("collectionId", collectionId)
+                    .log("collection files were staged ahead of publish, skipping to commit");
+        } else {
+            Set<String> unsentUris;
+            try (Timer.Context timer = PUBLISH_PHASE.labels("publish_files").time()) {
+                unsentUris = publishFilteredCollectionFiles(collection, collectionReader);
+            }
 
-        if (CMSFeatureFlags.cmsFeatureFlags().isVerifyPublishEnabled()) {
-            info().data("feature", "ENABLE_VERIFY_PUBLISH_CONTENT").log("feature enabled verifying publishing content");
+            if (CMSFeatureFlags.cmsFeatureFlags().isVerifyPublishEnabled()) {
+                info().data("feature", "ENABLE_VERIFY_PUBLISH_CONTENT").log("feature enabled verifying publishing content");
 
-            HashVerifier hashVerifier = HashVerifierImpl.getInstance();
-            hashVerifier.verifyTransactionContent(collection, collectionReader);
+                HashVerifier hashVerifier = HashVerifierImpl.getInstance();
+                try (Timer.Context timer = PUBLISH_PHASE.labels("verify").time()) {
+                    hashVerifier.verifyTransactionContent(collection, collectionReader, unsentUris);
+                }
+            }
         }
 
         // TODO - feels like we should check/return here if unsuccessful?
-        success = commitPublish(collection, email);
+        try (Timer.Context timer = PUBLISH_PHASE.labels("commit").time()) {
+            success = commitPublish(collection, email);
+        }
+
+        // The static files and interactives state transitions are independent of the datasets so run alongside them.
+        Future<Boolean> staticFilesFuture = null;
+        if (CMSFeatureFlags.cmsFeatureFlags().isStaticFilesPublishingEnabled()) {
+            staticFilesFuture = apiPool.submit(() -> publishStaticFiles(collection));
+        }
+
+        Future<Boolean> interactivesFuture = null;
+        if (CMSFeatureFlags.cmsFeatureFlags().isInteractivesPublishingEnabled()) {
+            interactivesFuture = apiPool.submit(() -> publishInteractives(collection));
+        }
 
         // FIXME CMD feature
         if (cmsFeatureFlags().isEnableDatasetImport()) {
             success &= publishDatasets(collection);
         }
 
-        if (CMSFeatureFlags.cmsFeatureFlags().isStaticFilesPublishingEnabled()) {
-            try {
-                staticFilesServiceSupplier.getService().publishCollection(collection);
-                success &= true;
-            } catch (Exception e) {
-                error().data("collectionId", collectionId).data("publishing", true)
-                        .logException(e, "Exception thrown when performing static file publish()");
-                success = false;
-            }
+        if (staticFilesFuture != null) {
+            success &= awaitApiPublish(collectionId, staticFilesFuture, "static files");
         }
 
         if (CMSFeatureFlags.cmsFeatureFlags().isImagePublishingEnabled()) {
@@ -172,15 +286,8 @@ public class Publisher {
             }
         }
 
-        if (CMSFeatureFlags.cmsFeatureFlags().isInteractivesPublishingEnabled()) {
-            try {
-                interactivesServiceSupplier.getService().publishCollection(collection);
-                success &= true;
-            } catch (Exception e) {
-                error().data("collectionId", collectionId).data("publishing", true)
-                        .logException(e,"Exception thrown when performing interactives publish()");
-                success = false;
-            }
+        if (interactivesFuture != null) {
+            success &= awaitApiPublish(collectionId, interactivesFuture, "interactives");
         }
 
         info().data("milliseconds", collection.getPublishTimeMilliseconds())
@@ -192,6 +299,52 @@ public class Publisher {
         return success;
     }
 
+    private static boolean publishStaticFiles(Collection collection) {
+        String collectionId = collection.getDescription().getId();
+        long start = System.currentTimeMillis();
+        try {
+            staticFilesServiceSupplier.getService().publishCollection(collection);
+            PUBLISH_PHASE.labels("static_files").observe(System.currentTimeMillis() - start, TimeUnit.MILLISECONDS);
+            info().data("collectionId", collectionId).data("publishing", true)
+                    .data("timeTaken", System.currentTimeMillis() - start)
+                    .log("static files publish completed");
+            return true;
+        } catch (Exception e) {
+            error().data("collectionId", collectionId).data("publishing", true)
+                    .data("timeTaken", System.currentTimeMillis() - start)
+                    .logException(e, "Exception thrown when performing static file publish()");
+            return false;
+        }
+    }
+
+    private static boolean publishInteractives(Collection collection) {
+        String collectionId = collection.getDescription().getId();
+        long start = System.currentTimeMillis();
+        try {
+            interactivesServiceSupplier.getService().publishCollection(collection);
+            PUBLISH_PHASE.labels("interactives").observe(System.currentTimeMillis() - start, TimeUnit.MILLISECONDS);
+            info().data("collectionId", collectionId).data("publishing", true)
+                    .data("timeTaken", System.currentTimeMillis() - start)
+                    .log("interactives publish completed");
+            return true;
+        } catch (Exception e) {
+            error().data("collectionId", collectionId).data("publishing", true)
+                    .data("timeTaken", System.currentTimeMillis() - start)
+                    .logException(e, "Exception thrown when performing interactives publish()");
+            return false;
+        }
+    }
+
+    private static boolean awaitApiPublish(String collectionId, Future<Boolean> future, String api) {
+        try {
+            return future.get();
+        } catch (Exception e) {
+            error().data("collectionId", collectionId).data("publishing", true).data("api", api)
+                    .logException(e, "Exception waiting for api publish to complete");
+            return false;
+        }
+    }
+
     /**
      * Sends a slack notification if there are any unpublished images in the
      * collection
@@ -260,7 +413,9 @@ public class Publisher {
                         return false;
                     }
 
-                    publishComplete = publishFilesToWebsite(collection, email, collectionReader);
+                    try (Timer.Context timer = PUBLISH_PHASE.labels("total").time()) {
+                        publishComplete = publishFilesToWebsite(collection, email, collectionReader);
+                    }
 
                     info().data("publishing", true).data("collectionId", collectionId)
                             .data("timeTaken", (System.currentTimeMillis() - publishStart))
@@ -280,6 +435,8 @@ public class Publisher {
             info().data("collectionId", collectionId).log("collection lock released");
         }
 
+        PUBLISHES.labels(publishComplete ? "success" : "failure").inc();
+
         SlackNotification.StageStatus status = FAILED;
         if (publishComplete) {
             status = SlackNotification.StageStatus.COMPLETED;
@@ -374,7 +531,7 @@ public class Publisher {
         String collectionId = collection.getDescription().getId();
 
         for (Host host : theTrainHosts) {
-            results.add(pool.submit(() -> {
+            results.add(transactionPool.submit(() -> {
                 IOException result = null;
                 try (Http http = new Http()) {
                     info().data("publishing", true).data("trainHost", host).data("collectionId", collectionId)
@@ -382,10 +539,13 @@ public class Publisher {
 
                     Endpoint begin = new Endpoint(host, BEGIN_ENDPOINT);
 
-                    Response<Result> response = http.post(begin, Result.class);
-                    checkResponse(response, null, begin, collection.getDescription().getId());
-                    hostToTransactionIDMap.put(host.toString(), response.body.transaction.id);
+                    try (Timer.Context timer = trainRequestTimer(host, BEGIN_ENDPOINT)) {
+                        Response<Result> response = http.post(begin, Result.class);
+                        checkResponse(response, null, begin, collection.getDescription().getId());
+                        hostToTransactionIDMap.put(host.toString(), response.body.transaction.id);
+                    }
                 } catch (IOException e) {
+                    trainRequestFailed(host, BEGIN_ENDPOINT);
                     Map<String, String> transactionIdMap = collection.getDescription().getPublishTransactionIds();
                     error().data("publishing", true).data("trainHost", host).data("collectionId", collectionId)
                             .logException(e, "error while attempting to create new transactions for collection");
@@ -414,6 +574,44 @@ public class Publisher {
         return hostToTransactionIDMap;
     }
 
+    /**
+     * Check the given transactions are still open on the train, e.g. before reusing transactions created before a
+     * restart. A transaction that can't be found or has ended since, for example because it was rolled back or
+     * timed out, can't be published to.
+     *
+     * @return true if every transaction is still open, false if any of them is not or can't be checked.
+     */
+    public static boolean transactionsOpen(Collection collection, Map<String, String> hostToTransactionId) {
+        String collectionId = collection.getDescription().getId();
+        for (Map.Entry<String, String> entry : hostToTransactionId.entrySet()) {
+            Host host = new Host(entry.getKey());
+            String transactionId = entry.getValue();
+
+            try (Http http = new Http()) {
+                Endpoint endpoint = new Endpoint(host, TRANSACTION_ENDPOINT)
+                        .setParameter(TRANSACTION_ID_PARAM, transactionId);
+
+                try (Timer.Context timer = trainRequestTimer(host, TRANSACTION_ENDPOINT)) {
+                    Response<Result> response = http.get(endpoint, Result.class);
+                    checkResponse(response, transactionId, endpoint, collectionId);
+                    if (response.body.transaction.endDate != null) {
+                        warn().data("publishing", true).data("collectionId", collectionId)
+                                .data("trainHost", host).data("transactionId", transactionId)
+                                .log("publish transaction is no longer open");
+                        return false;
+                    }
+                }
+            } catch (IOException e) {
+                trainRequestFailed(host, TRANSACTION_ENDPOINT);
+                warn().data("publishing", true).data("collectionId", collectionId)
+                        .data("trainHost", host).data("transactionId", transactionId)
+                        .exception(e).log("error checking publish transaction is open");
+                return false;
+            }
+        }
+        return true;
+    }
+
     /**
      * Publish collection files with required filters applied.
      *
@@ -421,7 +619,7 @@ public class Publisher {
      * @param collectionReader
      * @throws IOException
      */
-    public static void publishFilteredCollectionFiles(Collection collection, CollectionReader collectionReader)
+    public static Set<String> publishFilteredCollectionFiles(Collection collection, CollectionReader collectionReader)
             throws IOException {
         // We do not want to send versioned files. They have already been taken care of
         // via the manifest.
@@ -434,8 +632,24 @@ public class Publisher {
         List<Future<IOException>> results = new ArrayList<>();
         long start = System.currentTimeMillis();
 
+        // Small files are optionally sent in zip batches to save the overhead of a request per file per host.
+        boolean batchSmallFiles = cmsFeatureFlags().isPublishZipBatchesEnabled();
+        long batchFileThreshold = Configuration.getPublishZipBatchFileThreshold();
+        Map<String, Long> batchFileSizes = new LinkedHashMap<>();
+
+        // Files identical to the published file at the same uri are optionally left out. The transaction then has
+        // nothing at the uri, so the commit leaves the published file as it is.
+        Map<String, Long> unchanged = Collections.emptyMap();
+        if (cmsFeatureFlags().isDeltaPublishingEnabled()) {
+            unchanged = findUnchangedFiles(collection, collectionReader, filters);
+        }
+        int hosts = collection.getDescription().getPublishTransactionIds().size();
+        long bytesAvoided = 0;
+        long requestsAvoided = 0;
+
         // Publish each item of content:
-        for (String uri : collection.getReviewed().uris()) {
+        for (PublishSnapshot.Entry file : PublishSnapshot.reviewedFiles(collection)) {
+            String uri = file.getUri();
             if (!shouldBeFiltered(filters, uri)) {
                 // publishFile(collection, encryptionPassword, results, uri, collectionReader);
 
@@ -447,11 +661,27 @@ public class Publisher {
                     // if we have a recognised compressed file - set the zip header and set the
                     // correct uri so that the files
                     // are unzipped to the correct place.
-                    if (source.getFileName().toString().equals("timeseries-to-publish.zip")) {
+                    if (file.isZipped()) {
                         zipped = true;
                         publishUri = StringUtils.removeEnd(uri, "-to-publish.zip");
                     }
 
+                    if (unchanged.containsKey(uri)) {
+                        bytesAvoided += unchanged.get(uri) * hosts;
+                        if (!batchSmallFiles || size(file, source) > batchFileThreshold) {
+                            requestsAvoided += hosts;
+                        }
+                        continue;
+                    }
+
+                    if (batchSmallFiles && !zipped) {
+                        long size = size(file, source);
+                        if (size <= batchFileThreshold) {
+                            batchFileSizes.put(uri, size);
+                            continue;
+                        }
+                    }
+
                     for (Map.Entry<String, String> entry : collection.getDescription().getPublishTransactionIds()
                             .entrySet()) {
                         Host theTrainHost = new Host(entry.getKey());
@@ -464,12 +694,238 @@ public class Publisher {
             }
         }
 
+        if (!batchFileSizes.isEmpty()) {
+            results.addAll(publishZipBatches(collection.getDescription().getId(),
+                    collection.getDescription().getPublishTransactionIds(), batchFileSizes, collectionReader));
+        }
+
         checkFutureResults(results, "error while attempting to publish file");
 
+        if (!unchanged.isEmpty()) {
+            UNCHANGED_FILES.labels().inc(unchanged.size());
+            BYTES_AVOIDED.labels().inc(bytesAvoided);
+            REQUESTS_AVOIDED.labels().inc(requestsAvoided);
+        }
+
         info().data("publishing", true).data("collectionId", collection.getDescription().getId())
                 .data("hostToTransactionID", collection.getDescription().getPublishTransactionIds())
+                .data("unchangedFiles", unchanged.size())
+                .data("bytesAvoided", bytesAvoided)
+                .data("requestsAvoided", requestsAvoided)
                 .data("timeTaken", (System.currentTimeMillis() - start))
                 .log("successfully sent all publish file requests to the train");
+
+        return unchanged.keySet();
+    }
+
+    /**
+     * Find the collection files that are identical to the published file at the same uri, by comparing the hash of
+     * the decrypted collection file with the hash of the published file from {@link PublishedContentHashes}. The files
+     * are compared in parallel. A file that can not be compared is treated as changed and sent as normal.
+     *
+     * @return the size of each unchanged file keyed by its uri.
+     */
+    private static Map<String, Long> findUnchangedFiles(Collection collection, CollectionReader collectionReader,
+                                                        Function<String, Boolean>[] filters) throws IOException {
+        String collectionId = collection.getDescription().getId();
+        Path publishedRoot = zebedee.getPublished().getPath();
+
+        Map<String, Future<Long>> comparisons = new LinkedHashMap<>();
+        for (PublishSnapshot.Entry file : filesToCompare(PublishSnapshot.reviewedFiles(collection),
+                collection.getDescription().getPendingDeletes(), filters)) {
+            String uri = file.getUri();
+            Path published = publishedRoot.resolve(URIUtils.removeLeadingSlash(uri));
+            comparisons.put(uri, uploadPool.submit(() -> {
+                PublishedContentHashes.Hash hash = publishedContentHashes().get(published);
+                if (hash == null) {
+                    return null;
+                }
+
+                // the snapshot has the hash of the collection file so it does not need decrypting to compare.
+                if (file.getSha1() != null) {
+                    boolean matches = file.getSize() == hash.getSize() && file.getSha1().equals(hash.getSha1());
+                    return matches ? hash.getSize() : null;
+                }
+                try (Resource resource = collectionReader.getResource(uri);
+                     InputStream in = resource.getData()) {
+                    return hash.matches(in) ? hash.getSize() : null;
+                }
+            }));
+        }
+
+        Map<String, Long> unchanged = new LinkedHashMap<>();
+        for (Map.Entry<String, Future<Long>> comparison : comparisons.entrySet()) {
+            try {
+                Long size = comparison.getValue().get();
+                if (size != null) {
+                    unchanged.put(comparison.getKey(), size);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("interrupted comparing collection files with published content", e);
+            } catch (ExecutionException e) {
+                warn().data("publishing", true).data("collectionId", collectionId)
+                        .data(URI_PARAM, comparison.getKey())
+                        .exception(e.getCause())
+                        .log("error comparing collection file with published content, it will be published");
+            }
+        }
+        return unchanged;
+    }
+
+    /**
+     * The collection files that may be left out of the publish if they match the published file. Files under the root
+     * of a pending delete are always sent: the train deletes the root before it moves the transaction files in, so a
+     * file left out there would be deleted from the website rather than left as it is.
+     */
+    static List<PublishSnapshot.Entry> filesToCompare(List<PublishSnapshot.Entry> files,
+                                                      List<PendingDelete> pendingDeletes,
+                                                      Function<String, Boolean>[] filters) {
+        List<String> deleteRoots = new ArrayList<>();
+        if (pendingDeletes != null) {
+            for (PendingDelete delete : pendingDeletes) {
+                if (delete.getRoot() != null && delete.getRoot().uri != null) {
+                    deleteRoots.add(StringUtils.removeEnd(delete.getRoot().uri, "/"));
+                }
+            }
+        }
+
+        List<PublishSnapshot.Entry> toCompare = new ArrayList<>();
+        for (PublishSnapshot.Entry file : files) {
+            String uri = file.getUri();
+            if (shouldBeFiltered(filters, uri) || file.isZipped() || isUnderAny(deleteRoots, uri)) {
+                continue;
+            }
+            toCompare.add(file);
+        }
+        return toCompare;
+    }
+
+    private static boolean isUnderAny(List<String> roots, String uri) {
+        for (String root : roots) {
+            if (root.isEmpty() || uri.equals(root) || uri.startsWith(root + "/")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return the size of the collection file from the snapshot if it is known, otherwise from disk.
+     */
+    private static long size(PublishSnapshot.Entry file, Path source) throws IOException {
+        return file.getSize() >= 0 ? file.getSize() : Files.size(source);
+    }
+
+    private static List<Future<IOException>> publishZipBatches(
+            final String collectionID,
+            final Map<String, String> transactionIds,
+            final Map<String, Long> fileSizes,
+            final CollectionReader reader) {
+        List<ZipBatch> batches = ZipBatch.partition(fileSizes, Configuration.getPublishZipBatchMaxFiles(),
+                Configuration.getPublishZipBatchMaxBytes());
+
+        info().data("publishing", true).data("collectionId", collectionID)
+                .data("files", fileSizes.size()).data("batches", batches.size())
+                .log("sending collection files to the train in zip batches");
+
+        List<Future<IOException>> results = new ArrayList<>();
+        for (ZipBatch batch : batches) {
+            results.add(uploadPool.submit(() -> publishZipBatch(collectionID, transactionIds, batch, reader)));
+        }
+        return results;
+    }
+
+    /**
+     * Zip the files of the batch and send the zip to each train transaction. The zip is built once and sent to every
+     * host so the collection files are only decrypted once. The train unzips it into the root of the transaction.
+     *
+     * @return null if the batch was sent to every host, otherwise an exception naming the uris in the batch.
+     */
+    private static IOException publishZipBatch(
+            final String collectionID,
+            final Map<String, String> transactionIds,
+            final ZipBatch batch,
+            final CollectionReader reader) {
+        Path zip = null;
+        try {
+            // The zip holds decrypted collection content so is encrypted with a key that only exists for this batch.
+            SecretKey key = Keys.newSecretKey();
+            zip = Files.createTempFile("publish-batch", ".zip");
+            writeZipBatch(batch, reader, zip, key);
+
+            for (Map.Entry<String, String> entry : transactionIds.entrySet()) {
+                Host host = new Host(entry.getKey());
+                String transactionId = entry.getValue();
+
+                try (
+                        Http http = new Http();
+                        CountingInputStream dataStream = new CountingInputStream(
+                                EncryptionUtils.encryptionInputStream(zip, key))
+                ) {
+                    Endpoint publish = new Endpoint(host, PUBLISH_ENDPOINT)
+                            .setParameter(TRANSACTION_ID_PARAM, transactionId)
+                            .setParameter(ZIP_PARAM, Boolean.toString(true))
+                            .setParameter(URI_PARAM, "/");
+
+                    info().data("publishing", true).data("collectionId", collectionID)
+                            .data("transactionId", transactionId)
+                            .data("trainHost", host)
+                            .data("batch", batch.getNumber()).data("files", batch.getUris().size())
+                            .log("sending publish zip batch request to train host");
+
+                    try (Timer.Context timer = trainRequestTimer(host, PUBLISH_ENDPOINT)) {
+                        Response<Result> response = http.post(publish, dataStream, batch.getFileName(), Result.class);
+                        checkResponse(response, transactionId, publish, collectionID);
+                    } finally {
+                        BYTES_SENT.labels(host.toString()).inc(dataStream.getByteCount());
+                    }
+                } catch (IOException e) {
+                    trainRequestFailed(host, PUBLISH_ENDPOINT);
+                    error().data("publishing", true).data("collectionId", collectionID)
+                            .data("transactionId", transactionId)
+                            .data("trainHost", host)
+                            .data("batch", batch.getNumber()).data("uris", batch.getUris())
+                            .logException(e, "error while sending publish zip batch request to train host");
+                    return new IOException("error sending zip batch " + batch.getNumber() + " to train host " + host
+                            + ", batch contained uris: " + batch.getUris(), e);
+                }
+            }
+            return null;
+        } catch (IOException | ZebedeeException e) {
+            error().data("publishing", true).data("collectionId", collectionID)
+                    .data("batch", batch.getNumber()).data("uris", batch.getUris())
+                    .logException(e, "error while creating publish zip batch");
+            return new IOException("error creating zip batch " + batch.getNumber() + ", batch contained uris: "
+                    + batch.getUris(), e);
+        } finally {
+            if (zip != null) {
+                try {
+                    Files.deleteIfExists(zip);
+                } catch (IOException e) {
+                    warn().data("collectionId", collectionID).data("path", zip.toString())
+                            .logException(e, "failed to delete publish zip batch temp file");
+                }
+            }
+        }
+    }
+
+    private static void writeZipBatch(ZipBatch batch, CollectionReader reader, Path zip, SecretKey key)
+            throws IOException, ZebedeeException {
+        try (ZipOutputStream zipOutputStream = new ZipOutputStream(EncryptionUtils.encryptionOutputStream(zip, key))) {
+            // Most of the files are already compressed or small json so favour speed over ratio.
+            zipOutputStream.setLevel(Deflater.BEST_SPEED);
+            for (String uri : batch.getUris()) {
+                zipOutputStream.putNextEntry(new ZipEntry(URIUtils.removeLeadingSlash(uri)));
+                try (
+                        Resource resource = reader.getResource(uri);
+                        InputStream dataStream = resource.getData()
+                ) {
+                    IOUtils.copy(dataStream, zipOutputStream);
+                }
+                zipOutputStream.closeEntry();
+            }
+        }
     }
 
     private static Future<IOException> publishFile(
@@ -481,7 +937,7 @@ public class Publisher {
             final boolean zipped,
             final Path source,
             final CollectionReader reader) {
-        return pool.submit(() -> {
+        return uploadPool.submit(() -> {
             IOException result = null;
             try (Http http = new Http()) {
                 Endpoint publish = new Endpoint(host, PUBLISH_ENDPOINT)
@@ -490,18 +946,23 @@ public class Publisher {
                         .setParameter(URI_PARAM, publishUri);
                 try (
                         Resource resource = reader.getResource(uri);
-                        InputStream dataStream = resource.getData()) {
+                        CountingInputStream dataStream = new CountingInputStream(resource.getData())) {
                     info().data("publishing", true).data("collectionId", collectionID)
                             .data("transactionId", transactionId)
                             .data("trainHost", host)
                             .data(URI_PARAM, uri).data("isZip", zipped)
                             .log("sending publish collection file request to train host");
 
-                    Response<Result> response = http.post(publish, dataStream, source.getFileName().toString(),
-                            Result.class);
-                    checkResponse(response, transactionId, publish, collectionID);
+                    try (Timer.Context timer = trainRequestTimer(host, PUBLISH_ENDPOINT)) {
+                        Response<Result> response = http.post(publish, dataStream, source.getFileName().toString(),
+                                Result.class);
+                        checkResponse(response, transactionId, publish, collectionID);
+                    } finally {
+                        BYTES_SENT.labels(host.toString()).inc(dataStream.getByteCount());
+                    }
                 }
             } catch (IOException e) {
+                trainRequestFailed(host, PUBLISH_ENDPOINT);
 
                 error().data("publishing", true).data("collectionId", collectionID)
                         .data("transactionId", transactionId)
@@ -525,7 +986,7 @@ public class Publisher {
             Host theTrainHost = new Host(entry.getKey());
             String transactionId = entry.getValue();
 
-            futures.add(pool.submit(() -> {
+            futures.add(transactionPool.submit(() -> {
                 IOException result = null;
                 try (Http http = new Http()) {
                     Endpoint publish = new Endpoint(theTrainHost, SEND_MANIFEST_ENDPOINT)
@@ -534,10 +995,13 @@ public class Publisher {
                     info().data("publishing", true).data("trainHost", theTrainHost).data("collectionId", collectionId)
                             .log("sending publish manifest to train host");
 
-                    Response<Result> response = http.postJson(publish, manifest, Result.class);
-                    checkResponse(response, transactionId, publish, collection.getDescription().getId());
+                    try (Timer.Context timer = trainRequestTimer(theTrainHost, SEND_MANIFEST_ENDPOINT)) {
+                        Response<Result> response = http.postJson(publish, manifest, Result.class);
+                        checkResponse(response, transactionId, publish, collection.getDescription().getId());
+                    }
 
                 } catch (IOException e) {
+                    trainRequestFailed(theTrainHost, SEND_MANIFEST_ENDPOINT);
 
                     error().data("publishing", true).data("collectionId", collectionId)
                             .data("trainHost", theTrainHost).data("transactionId", transactionId)
@@ -627,11 +1091,14 @@ public class Publisher {
                                 Endpoint endpoint = new Endpoint(host, COMMIT_ENDPOINT)
                                         .setParameter(TRANSACTION_ID_PARAM, transactionId);
 
-                                Response<Result> response = http.post(endpoint, Result.class);
-                                checkResponse(response, transactionId, endpoint, null);
-                                return response.body;
+                                try (Timer.Context timer = trainRequestTimer(host, COMMIT_ENDPOINT)) {
+                                    Response<Result> response = http.post(endpoint, Result.class);
+                                    checkResponse(response, transactionId, endpoint, null);
+                                    return response.body;
+                                }
                             }
                         } catch (Exception e) {
+                            trainRequestFailed(host, COMMIT_ENDPOINT);
                             error().data("publishing", true).data("trainHost", host)
                                     .data("transactionId", transactionId)
                                     .logException(e, "error while sending commit transaction request to train host");
@@ -645,7 +1112,7 @@ public class Publisher {
 
         List<Future<Result>> futures = new ArrayList<>();
         try {
-            futures = pool.invokeAll(commitTasks);
+            futures = commitPool.invokeAll(commitTasks);
         } catch (Exception e) {
             error().data("publishing", true).logException(e, "error invoking commit tasks");
             throw new IOException(e);
@@ -768,6 +1235,14 @@ public class Publisher {
         }
     }
 
+    private static Timer.Context trainRequestTimer(Host host, String endpoint) {
+        return TRAIN_REQUEST.labels(host.toString(), endpoint).time();
+    }
+
+    private static void trainRequestFailed(Host host, String endpoint) {
+        TRAIN_REQUEST_ERRORS.labels(host.toString(), endpoint).inc();
+    }
+
     private static boolean publishDatasets(Collection collection) throws IOException {
 
         String collectionId = collection.getDescription().getId();
@@ -776,7 +1251,7 @@ public class Publisher {
                 .log("publishing api datasets for collection");
 
         boolean datasetsPublished = false;
-        try {
+        try (Timer.Context timer = PUBLISH_PHASE.labels("datasets").time()) {
             datasetServiceSupplier.getService().publishDatasetsInCollection(collection);
             datasetsPublished = true;
         } catch (Exception e) {
@@ -796,9 +1271,11 @@ public class Publisher {
 
     private static Future<ImageServicePublishingResult> publishImages(Collection collection) {
         return apiPool.submit(() -> {
-            ImageServicePublishingResult result = imageServiceSupplier.getService()
-                    .publishImagesInCollection(collection);
-            return result; // Complete
+            try (Timer.Context timer = PUBLISH_PHASE.labels("images").time()) {
+                ImageServicePublishingResult result = imageServiceSupplier.getService()
+                        .publishImagesInCollection(collection);
+                return result; // Complete
+            }
         });
     }
 
@@ -826,18 +1303,4 @@ public class Publisher {
                     .logException(e, "error while attempting to persist collection changes to disk");
         }
     }
-
-    static class ShutDownPublisherThread extends Thread {
-
-        private final ExecutorService executorService;
-
-        public ShutDownPublisherThread(ExecutorService executorService) {
-            this.executorService = executorService;
-        }
-
-        @Override
-        public void run() {
-            this.executorService.shutdown();
-        }
-    }
 }
@@ -0,0 +1,313 @@
+package com.github.onsdigital.zebedee.model.publishing;
+
+import com.github.onsdigital.zebedee.configuration.Configuration;
+import com.github.onsdigital.zebedee.metrics.Gauge;
+import com.github.onsdigital.zebedee.metrics.InstrumentedExecutors;
+import com.github.onsdigital.zebedee.metrics.Timer;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.ToIntFunction;
+
+import static com.github.onsdigital.zebedee.logging.CMSLogEvent.info;
+import static com.github.onsdigital.zebedee.logging.CMSLogEvent.warn;
+import static com.github.onsdigital.zebedee.metrics.MetricsRegistry.metrics;
+
+/**
+ * The thread pools the work of every publish runs on, shared so the number of threads and requests in flight stays
+ * bounded however many collections are publishing at once.
+ * <p>
+ * Each {@link Stage} has its own pool with a cap on its threads and on the tasks queued for it, and submitting a task
+ * while the queue is full blocks until there is space. Before it runs, a task of a worker stage also takes a permit
+ * from a pool of {@link Configuration#getPublishingThreads()} shared by the worker stages. Permits go to the waiting
+ * task of the highest priority stage, so commits are not held up behind uploads, or uploads behind verification.
+ */
+public class PublishingExecutors {
+
+    static final long SHUTDOWN_TIMEOUT_SECONDS = 30;
+
+    private static final Gauge PERMITS_IN_USE = metrics().gauge("zebedee_publishing_permits_in_use",
+            "Number of publishing tasks holding one of the permits shared by the publishing stages.");
+    private static final Gauge PERMITS_WAITING = metrics().gauge("zebedee_publishing_permits_waiting",
+            "Number of publishing tasks waiting for a permit by stage.", "stage");
+    private static final Timer PERMIT_WAIT = metrics().timer("zebedee_publishing_permit_wait_seconds",
+            "Time publishing tasks waited for a permit by stage.", "stage");
+
+    private static final PublishingExecutors INSTANCE = newPublishingExecutors();
+
+    /**
+     * The stages of a publish in priority order, highest first.
+     */
+    public enum Stage {
+        /**
+         * Committing publishing transactions on the train.
+         */
+        COMMIT("commit", 10, true),
+        /**
+         * Beginning, sending the manifest to and rolling back publishing transactions on the train.
+         */
+        TRANSACTION("transaction", 10, true),
+        /**
+         * Sending collection files to the train.
+         */
+        UPLOAD("upload", 20, true),
+        /**
+         * Publishing collection content held by other APIs, e.g. static files and images.
+         */
+        API("api", 5, true),
+        /**
+         * Checking the content received by the train.
+         */
+        VERIFY("verify", 20, true),
+        /**
+         * Search reindexing and other work after the content is published.
+         */
+        POST_PUBLISH("post-publish", 10, true),
+        /**
+         * Publishing a scheduled collection. These tasks wait on the worker stages rather than doing the work
+         * themselves so they do not take a permit.
+         */
+        PUBLISH_COLLECTION("publish-collection", 50, false),
+        /**
+         * Pre-publishing a scheduled collection. Kept apart from {@link #PUBLISH_COLLECTION} so a pre-publish can not
+         * hold up a publish.
+         */
+        PRE_PUBLISH_COLLECTION("pre-publish-collection", 10, false);
+
+        private final String name;
+        private final int defaultThreads;
+        private final boolean worker;
+
+        Stage(String name, int defaultThreads, boolean worker) {
+            this.name = name;
+            this.defaultThreads = defaultThreads;
+            this.worker = worker;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        int getDefaultThreads() {
+            return defaultThreads;
+        }
+    }
+
+    private final String name;
+    private final PrioritySemaphore permits;
+    private final Map<Stage, StageExecutor> executors = new EnumMap<>(Stage.class);
+
+    PublishingExecutors(String name, int permits, int queueCapacity, ToIntFunction<Stage> stageThreads) {
+        this.name = name;
+        this.permits = new PrioritySemaphore(permits, Stage.values().length);
+        for (Stage stage : Stage.values()) {
+            String poolName = name + "-" + stage.getName();
+            ExecutorService pool = InstrumentedExecutors.newBoundedThreadPool(poolName,
+                    Math.max(1, stageThreads.applyAsInt(stage)), queueCapacity, new NamedThreadFactory(poolName));
+            executors.put(stage, new StageExecutor(stage, pool));
+        }
+    }
+
+    private static PublishingExecutors newPublishingExecutors() {
+        PublishingExecutors executors = new PublishingExecutors("publishing", Configuration.getPublishingThreads(),
+                Configuration.getPublishingQueueCapacity(),
+                stage -> Configuration.getPublishingStageThreads(stage.getName(), stage.getDefaultThreads()));
+        PERMITS_IN_USE.labels().set(executors.permits::inUse);
+        for (Stage stage : Stage.values()) {
+            PERMITS_WAITING.labels(stage.getName()).set(() -> executors.permits.waiting(stage.ordinal()));
+        }
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> executors.shutdown(SHUTDOWN_TIMEOUT_SECONDS,
+                TimeUnit.SECONDS)));
+        return executors;
+    }
+
+    /**
+     * @return the executors shared by every publish.
+     */
+    public static PublishingExecutors publishingExecutors() {
+        return INSTANCE;
+    }
+
+    /**
+     * @return the executor for the given stage.
+     */
+    public ExecutorService get(Stage stage) {
+        return executors.get(stage);
+    }
+
+    /**
+     * Stop accepting tasks and wait for the tasks already submitted to finish, the collection stages first as they
+     * submit to the worker stages.
+     *
+     * @return true if every task finished within the timeout.
+     */
+    public boolean shutdown(long timeout, TimeUnit unit) {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        boolean terminated = true;
+        for (Stage stage : new Stage[]{Stage.PUBLISH_COLLECTION, Stage.PRE_PUBLISH_COLLECTION}) {
+            terminated &= shutdown(stage, deadline);
+        }
+        for (Stage stage : Stage.values()) {
+            if (stage.worker) {
+                terminated &= shutdown(stage, deadline);
+            }
+        }
+        info().data("executors", name).data("terminated", terminated).log("publishing executors shut down");
+        return terminated;
+    }
+
+    private boolean shutdown(Stage stage, long deadline) {
+        ExecutorService executor = executors.get(stage);
+        executor.shutdown();
+        try {
+            if (executor.awaitTermination(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS)) {
+                return true;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        List<Runnable> dropped = executor.shutdownNow();
+        warn().data("executors", name).data("stage", stage.getName()).data("dropped", dropped.size())
+                .log("publishing stage did not finish before the shutdown timeout");
+        return false;
+    }
+
+    /**
+     * Runs the tasks of a stage on its pool, taking a permit first for a worker stage.
+     */
+    private class StageExecutor extends AbstractExecutorService {
+
+        private final Stage stage;
+        private final ExecutorService pool;
+        private final Timer.Child permitWait;
+
+        StageExecutor(Stage stage, ExecutorService pool) {
+            this.stage = stage;
+            this.pool = pool;
+            this.permitWait = PERMIT_WAIT.labels(stage.getName());
+        }
+
+        @Override
+        public void execute(Runnable command) {
+            pool.execute(stage.worker ? () -> runWithPermit(command) : command);
+        }
+
+        private void runWithPermit(Runnable command) {
+            long start = System.nanoTime();
+            try {
+                permits.acquire(stage.ordinal());
+            } catch (InterruptedException e) {
+                // the pool is being shut down now, don't leave anyone waiting on the result.
+                Thread.currentThread().interrupt();
+                if (command instanceof Future) {
+                    ((Future<?>) command).cancel(false);
+                }
+                return;
+            }
+            permitWait.observe(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            try {
+                command.run();
+            } finally {
+                permits.release();
+            }
+        }
+
+        @Override
+        public void shutdown() {
+            pool.shutdown();
+        }
+
+        @Override
+        public List<Runnable> shutdownNow() {
+            return pool.shutdownNow();
+        }
+
+        @Override
+        public boolean isShutdown() {
+            return pool.isShutdown();
+        }
+
+        @Override
+        public boolean isTerminated() {
+            return pool.isTerminated();
+        }
+
+        @Override
+        public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+            return pool.awaitTermination(timeout, unit);
+        }
+    }
+
+    /**
+     * A counting semaphore that hands a released permit to a waiter of the highest priority, 0 being the highest.
+     */
+    static class PrioritySemaphore {
+
+        private final int permits;
+        private final int[] waiting;
+        private int available;
+
+        PrioritySemaphore(int permits, int priorities) {
+            this.permits = Math.max(1, permits);
+            this.available = this.permits;
+            this.waiting = new int[priorities];
+        }
+
+        synchronized void acquire(int priority) throws InterruptedException {
+            waiting[priority]++;
+            try {
+                while (available == 0 || higherPriorityWaiting(priority)) {
+                    wait();
+                }
+                available--;
+            } finally {
+                waiting[priority]--;
+                // a waiter giving up may be what a lower priority waiter was waiting on.
+                notifyAll();
+            }
+        }
+
+        synchronized void release() {
+            available++;
+            notifyAll();
+        }
+
+        synchronized int inUse() {
+            return permits - available;
+        }
+
+        synchronized int waiting(int priority) {
+            return waiting[priority];
+        }
+
+        private boolean higherPriorityWaiting(int priority) {
+            for (int i = 0; i < priority; i++) {
+                if (waiting[i] > 0) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    private static class NamedThreadFactory implements ThreadFactory {
+        private final String prefix;
+        private final AtomicInteger count = new AtomicInteger();
+
+        NamedThreadFactory(String name) {
+            this.prefix = name + "-";
+        }
+
+        @Override
+        public Thread newThread(Runnable r) {
+            return new Thread(r, prefix + count.incrementAndGet());
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.github.onsdigital.zebedee.model.publishing;
+
+import com.github.onsdigital.zebedee.model.Collection;
+import org.apache.commons.codec.binary.Hex;
+import org.apache.commons.codec.digest.DigestUtils;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * A record of the collection files sent to the train ahead of a scheduled publish, see
+ * {@link Publisher#stagePublish(Collection, com.github.onsdigital.zebedee.reader.CollectionReader)}.
+ * <p>
+ * The reviewed content of the collection is fingerprinted from the name, size and modification time of each file
+ * before it is staged. If the fingerprint or the transactions of the collection have changed by the time of the
+ * publish, the staged transactions no longer match the collection and have to be staged again.
+ */
+public class StagedPublish {
+
+    private final String fingerprint;
+    private final Map<String, String> transactionIds;
+
+    StagedPublish(String fingerprint, Map<String, String> transactionIds) {
+        this.fingerprint = fingerprint;
+        this.transactionIds = Collections.unmodifiableMap(new HashMap<>(transactionIds));
+    }
+
+    /**
+     * Restore the record of a collection staged before a restart, see
+     * {@link com.github.onsdigital.zebedee.model.publishing.scheduled.PublishScheduleJournal}.
+     */
+    public static StagedPublish restore(String fingerprint, Map<String, String> transactionIds) {
+        return new StagedPublish(fingerprint, transactionIds);
+    }
+
+    /**
+     * @return true if the collection content and transactions are the same as when the files were staged.
+     */
+    public boolean isCurrent(Collection collection) throws IOException {
+        return transactionIds.equals(collection.getDescription().getPublishTransactionIds())
+                && fingerprint.equals(fingerprint(collection));
+    }
+
+    public String getFingerprint() {
+        return fingerprint;
+    }
+
+    public Map<String, String> getTransactionIds() {
+        return transactionIds;
+    }
+
+    /**
+     * Fingerprint the reviewed content of the collection. Only the file attributes are read, so this is cheap enough
+     * to run at the publish time.
+     */
+    static String fingerprint(Collection collection) throws IOException {
+        Path root = collection.getReviewed().getPath();
+        MessageDigest digest = DigestUtils.getSha1Digest();
+        if (!Files.exists(root)) {
+            return Hex.encodeHexString(digest.digest());
+        }
+
+        List<Path> files;
+        try (Stream<Path> paths = Files.walk(root)) {
+            files = paths.filter(Files::isRegularFile).sorted().collect(Collectors.toList());
+        }
+        for (Path file : files) {
+            BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+            digest.update(root.relativize(file).toString().getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            digest.update(ByteBuffer.allocate(16)
+                    .putLong(attributes.size())
+                    .putLong(attributes.lastModifiedTime().to(TimeUnit.NANOSECONDS))
+                    .array());
+        }
+        return Hex.encodeHexString(digest.digest());
+    }
+}
@@ -0,0 +1,74 @@
+package com.github.onsdigital.zebedee.model.publishing;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A group of collection files sent to the train as a single zip, bounded by the number of files and their total size.
+ */
+public class ZipBatch {
+
+    private final int number;
+    private final List<String> uris = new ArrayList<>();
+    private long bytes;
+
+    ZipBatch(int number) {
+        this.number = number;
+    }
+
+    /**
+     * Split the given files into batches. Files are added to a batch in the order given until adding the next file
+     * would exceed either limit. A single file larger than the size limit is given a batch of its own.
+     *
+     * @param fileSizes the size in bytes of each file keyed by its uri, iterated in the order the files are batched.
+     * @param maxFiles  the maximum number of files in a batch.
+     * @param maxBytes  the maximum total size of the files in a batch.
+     * @return the batches.
+     */
+    public static List<ZipBatch> partition(Map<String, Long> fileSizes, int maxFiles, long maxBytes) {
+        if (maxFiles < 1) {
+            throw new IllegalArgumentException("maxFiles must be greater than zero");
+        }
+
+        List<ZipBatch> batches = new ArrayList<>();
+        ZipBatch current = null;
+        for (Map.Entry<String, Long> file : fileSizes.entrySet()) {
+            long size = file.getValue();
+            if (current == null || current.uris.size() >= maxFiles
+                    || (!current.uris.isEmpty() && current.bytes + size > maxBytes)) {
+                current = new ZipBatch(batches.size() + 1);
+                batches.add(current);
+            }
+            current.uris.add(file.getKey());
+            current.bytes += size;
+        }
+        return batches;
+    }
+
+    /**
+     * @return the position of this batch in the publish, starting at 1.
+     */
+    public int getNumber() {
+        return number;
+    }
+
+    public List<String> getUris() {
+        return Collections.unmodifiableList(uris);
+    }
+
+    /**
+     * @return the total size of the files in the batch as stored in the collection.
+     */
+    public long getBytes() {
+        return bytes;
+    }
+
+    /**
+     * @return the name of the zip file sent to the train.
+     */
+    public String getFileName() {
+        return "publish-batch-" + number + ".zip";
+    }
+}
@@ -2,6 +2,8 @@ package com.github.onsdigital.zebedee.model.publishing.client;
 
 import java.io.IOException;
 import java.net.URISyntaxException;
+import java.util.List;
+import java.util.Map;
 
 /**
  * Defines the interface for HTTP client for the website publising API.
@@ -20,4 +22,19 @@ public interface PublishingClient {
      */
     GetContentHashEntity getContentHash(String host, String transactionId, String uri) throws IOException,
             URISyntaxException;
+
+    /**
+     * Get the file hashes for the content at each of the specified uris from the publishing API in a single request.
+     *
+     * @param host          the host address of the publishing API.
+     * @param transactionId the publishing transaction ID which the content belongs to.
+     * @param uris          the uris of the content to get the hashes for.
+     * @return the hash of each uri, leaving out any uri the publishing API did not return a hash for.
+     * @throws IOException               problem executing the request.
+     * @throws URISyntaxException        problem creating the request.
+     * @throws PublishingClientException the publishing API returned a non 200 status, e.g. 404 if it does not
+     *                                   support batch requests.
+     */
+    Map<String, String> getContentHashes(String host, String transactionId, List<String> uris) throws IOException,
+            URISyntaxException;
 }
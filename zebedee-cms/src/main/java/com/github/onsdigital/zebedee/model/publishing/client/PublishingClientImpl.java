@@ -1,6 +1,7 @@
 package com.github.onsdigital.zebedee.model.publishing.client;
 
 import com.google.gson.Gson;
+import com.google.gson.stream.JsonReader;
 import org.apache.http.HttpEntity;
 import org.apache.http.client.methods.CloseableHttpResponse;
 import org.apache.http.client.methods.HttpUriRequest;
@@ -11,6 +12,10 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.function.Supplier;
 
 import static com.github.onsdigital.zebedee.logging.CMSLogEvent.info;
@@ -71,6 +76,75 @@ public class PublishingClientImpl implements PublishingClient {
         }
     }
 
+    @Override
+    public Map<String, String> getContentHashes(String host, String transactionId, List<String> uris)
+            throws IOException, URISyntaxException {
+        HttpUriRequest request = requestBuilder.createGetContentHashesRequest(host, transactionId, uris);
+
+        info().beginHTTP(request)
+                .transactionId(transactionId)
+                .host(host)
+                .data("uris", uris.size())
+                .log("executing get content hashes request");
+        try (
+                CloseableHttpClient client = httpClientSupplier.get();
+                CloseableHttpResponse response = client.execute(request)
+        ) {
+            int status = response.getStatusLine().getStatusCode();
+            if (status != 200) {
+                throw new PublishingClientException(
+                        "publishing API returned a non 200 status for get content hashes request",
+                        host, transactionId, null, status);
+            }
+
+            Map<String, String> hashes = readContentHashes(response.getEntity(), uris.size());
+            info().endHTTP(request, response)
+                    .host(host)
+                    .transactionId(transactionId)
+                    .data("uris", uris.size())
+                    .data("hashes", hashes.size())
+                    .log("execute get content hashes request completed");
+            return hashes;
+        }
+    }
+
+    /**
+     * Read the json array of uri and hash objects in the response as it arrives, rather than reading the whole
+     * response before parsing it.
+     */
+    private Map<String, String> readContentHashes(HttpEntity entity, int expected) throws IOException {
+        Map<String, String> hashes = new HashMap<>(expected * 4 / 3 + 1);
+        try (
+                InputStream inputStream = entity.getContent();
+                JsonReader reader = new JsonReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8))
+        ) {
+            reader.beginArray();
+            while (reader.hasNext()) {
+                String uri = null;
+                String hash = null;
+
+                reader.beginObject();
+                while (reader.hasNext()) {
+                    String name = reader.nextName();
+                    if ("uri".equals(name)) {
+                        uri = reader.nextString();
+                    } else if ("hash".equals(name)) {
+                        hash = reader.nextString();
+                    } else {
+                        reader.skipValue();
+                    }
+                }
+                reader.endObject();
+
+                if (uri != null && hash != null) {
+                    hashes.put(uri, hash);
+                }
+            }
+            reader.endArray();
+        }
+        return hashes;
+    }
+
     private <T> T getResponseEntity(HttpEntity entity, Class<T> tClass) throws IOException {
         try (
                 InputStream inputStream = entity.getContent();
@@ -3,6 +3,7 @@ package com.github.onsdigital.zebedee.model.publishing.client;
 import org.apache.http.client.methods.HttpUriRequest;
 
 import java.net.URISyntaxException;
+import java.util.List;
 
 /**
  * Defines the behaviour of a publishing API HTTP request builder.
@@ -20,4 +21,18 @@ public interface PublishingRequestBuilder {
      * @throws IllegalArgumentException thrown if input paramerters are invalid/null/empty.
      */
     HttpUriRequest createGetContentHashRequest(String host, String transactionId, String uri) throws URISyntaxException;
+
+    /**
+     * Create a new HTTP POST request to get the content hashes for many uris from the publishing API. The uris are
+     * sent as a json array in the request body.
+     *
+     * @param host          the host address of the publishing API.
+     * @param transactionId the ID of the publishing transaction the content belongs to.
+     * @param uris          the uris of the content to get the file hashes for
+     * @return a {@link HttpUriRequest}.
+     * @throws URISyntaxException       error creating the request.
+     * @throws IllegalArgumentException thrown if input paramerters are invalid/null/empty.
+     */
+    HttpUriRequest createGetContentHashesRequest(String host, String transactionId, List<String> uris)
+            throws URISyntaxException;
 }
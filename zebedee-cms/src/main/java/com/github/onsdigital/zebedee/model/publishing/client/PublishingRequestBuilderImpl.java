@@ -1,14 +1,19 @@
 package com.github.onsdigital.zebedee.model.publishing.client;
 
+import com.google.gson.Gson;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.http.Header;
 import org.apache.http.client.methods.HttpGet;
+import org.apache.http.client.methods.HttpPost;
 import org.apache.http.client.methods.HttpUriRequest;
 import org.apache.http.client.utils.URIBuilder;
+import org.apache.http.entity.ContentType;
+import org.apache.http.entity.StringEntity;
 import org.apache.http.message.BasicHeader;
 import org.slf4j.MDC;
 
 import java.net.URISyntaxException;
+import java.util.List;
 import java.util.UUID;
 
 import static org.apache.commons.lang3.StringUtils.defaultIfBlank;
@@ -28,6 +33,8 @@ public class PublishingRequestBuilderImpl implements PublishingRequestBuilder {
 
     private static final String GET_CONTENT_HASH_URI = "/contentHash";
 
+    private static final String GET_CONTENT_HASHES_URI = "/contentHashes";
+
     @Override
     public HttpUriRequest createGetContentHashRequest(String host, String transactionId, String uri) throws URISyntaxException {
         validateGetContentHashRequestParams(host, transactionId, uri);
@@ -44,6 +51,26 @@ public class PublishingRequestBuilderImpl implements PublishingRequestBuilder {
         return httpGet;
     }
 
+    @Override
+    public HttpUriRequest createGetContentHashesRequest(String host, String transactionId, List<String> uris)
+            throws URISyntaxException {
+        if (uris == null || uris.isEmpty()) {
+            throw new IllegalArgumentException("uris required for createGetContentHashesRequest but none provided");
+        }
+        validateGetContentHashRequestParams(host, transactionId, uris.get(0));
+
+        HttpPost httpPost = new HttpPost(host + GET_CONTENT_HASHES_URI);
+
+        httpPost.setURI(new URIBuilder(httpPost.getURI())
+                .setParameter(TRANSACTION_ID_PARAM, transactionId)
+                .build());
+
+        httpPost.setEntity(new StringEntity(new Gson().toJson(uris), ContentType.APPLICATION_JSON));
+        httpPost.setHeader(getTraceIDHeader());
+
+        return httpPost;
+    }
+
     private void validateGetContentHashRequestParams(String host, String transactionId, String uri) {
         if (StringUtils.isEmpty(host)) {
             throw new IllegalArgumentException("host required for createGetContentHashRequest but none provided");
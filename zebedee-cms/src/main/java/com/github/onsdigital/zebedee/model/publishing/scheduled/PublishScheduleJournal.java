@@ -0,0 +1,385 @@
+package com.github.onsdigital.zebedee.model.publishing.scheduled;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.github.onsdigital.logging.v2.event.SimpleEvent.error;
+import static com.github.onsdigital.logging.v2.event.SimpleEvent.info;
+import static com.github.onsdigital.logging.v2.event.SimpleEvent.warn;
+
+/**
+ * A durable record of the scheduled publishes and how far each has got through pre-publish, so the schedule can be
+ * restored on startup without reading every collection, and a pre-publish that was interrupted by a restart can carry
+ * on from where it got to rather than starting again.
+ * <p>
+ * Each change is appended to the journal file as a line of json and flushed to disk before the method returns. The
+ * journal is replayed when it is opened and rewritten with only the current entries by {@link #compact()}, which also
+ * happens automatically once enough records have been appended.
+ * <p>
+ * If a record can't be appended the journal file is deleted, so a restart rebuilds the schedule from the collections
+ * rather than restoring one that is missing the record, and the journal is only written again once it has been
+ * rewritten in full by a successful compaction.
+ */
+public class PublishScheduleJournal {
+
+    static final int COMPACT_AFTER_RECORDS = 1000;
+
+    private static final Gson GSON = new Gson();
+
+    private final Path file;
+    private final boolean existed;
+    private final Map<String, Entry> entries = new LinkedHashMap<>();
+    private int records;
+    private boolean incomplete;
+
+    private PublishScheduleJournal(Path file, boolean existed) {
+        this.file = file;
+        this.existed = existed;
+    }
+
+    /**
+     * Open the journal at the given path, replaying it if it exists.
+     */
+    public static PublishScheduleJournal open(Path file) throws IOException {
+        PublishScheduleJournal journal = new PublishScheduleJournal(file, Files.exists(file));
+        if (journal.existed) {
+            journal.replay();
+        }
+        return journal;
+    }
+
+    /**
+     * @return true if the journal file existed when it was opened, i.e. the schedule can be restored from it.
+     */
+    public boolean existed() {
+        return existed;
+    }
+
+    /**
+     * @return a copy of the current entries.
+     */
+    public synchronized List<Entry> getEntries() {
+        List<Entry> copies = new ArrayList<>();
+        entries.values().forEach(entry -> copies.add(entry.copy()));
+        return copies;
+    }
+
+    /**
+     * @return a copy of the entry for the collection, or null if it is not scheduled.
+     */
+    public synchronized Entry get(String collectionId) {
+        Entry entry = entries.get(collectionId);
+        return entry == null ? null : entry.copy();
+    }
+
+    /**
+     * Record that the collection is scheduled to publish at the given date. Scheduling a collection again for the
+     * same date keeps its pre-publish progress.
+     */
+    public synchronized void scheduled(String collectionId, Date publishDate) {
+        append(new Record(Type.SCHEDULED, collectionId).publishDate(publishDate.getTime()));
+    }
+
+    /**
+     * Record that the collection is no longer scheduled.
+     */
+    public synchronized void cancelled(String collectionId) {
+        if (entries.containsKey(collectionId)) {
+            append(new Record(Type.CANCELLED, collectionId));
+        }
+    }
+
+    /**
+     * Record that the publishing transactions for the collection have been created.
+     */
+    public synchronized void transactionsCreated(String collectionId, Map<String, String> transactionIds) {
+        if (entries.containsKey(collectionId)) {
+            append(new Record(Type.TRANSACTIONS_CREATED, collectionId).transactionIds(transactionIds));
+        }
+    }
+
+    /**
+     * Record that the manifest for the collection has been sent to its transactions.
+     */
+    public synchronized void manifestSent(String collectionId) {
+        if (entries.containsKey(collectionId)) {
+            append(new Record(Type.MANIFEST_SENT, collectionId));
+        }
+    }
+
+    /**
+     * Record that the collection files have been staged in its transactions.
+     *
+     * @param fingerprint the fingerprint of the collection content that was staged.
+     */
+    public synchronized void staged(String collectionId, String fingerprint) {
+        if (entries.containsKey(collectionId)) {
+            append(new Record(Type.STAGED, collectionId).fingerprint(fingerprint));
+        }
+    }
+
+    /**
+     * Record that the scheduled publish of the collection has finished.
+     */
+    public synchronized void completed(String collectionId) {
+        if (entries.containsKey(collectionId)) {
+            append(new Record(Type.COMPLETED, collectionId));
+        }
+    }
+
+    /**
+     * Rewrite the journal with only the records needed for the current entries.
+     */
+    public synchronized void compact() {
+        List<Record> current = new ArrayList<>();
+        for (Entry entry : entries.values()) {
+            current.addAll(entry.toRecords());
+        }
+
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try {
+            StringBuilder lines = new StringBuilder();
+            current.forEach(record -> lines.append(GSON.toJson(record)).append('\n'));
+            write(temp, lines.toString(), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING);
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            records = current.size();
+            incomplete = false;
+        } catch (IOException e) {
+            error().data("path", file.toString()).logException(e, "error compacting publish schedule journal");
+        }
+    }
+
+    /**
+     * @return true if a record could not be written and the journal file has not been rewritten since.
+     */
+    synchronized boolean isIncomplete() {
+        return incomplete;
+    }
+
+    private void append(Record record) {
+        apply(record);
+        if (incomplete) {
+            // appending to the file would leave it missing the earlier record, so rewrite it in full instead.
+            compact();
+            return;
+        }
+
+        try {
+            write(file, GSON.toJson(record) + "\n", StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            error().data("path", file.toString()).data("collectionId", record.collectionId)
+                    .logException(e, "error appending to publish schedule journal, deleting it so the schedule is " +
+                            "rebuilt from the collections on restart");
+            discard();
+            return;
+        }
+        if (++records > COMPACT_AFTER_RECORDS && records > entries.size() * 4) {
+            compact();
+        }
+    }
+
+    /**
+     * The schedule still runs from memory, but the file no longer has every record so it must not be restored from.
+     */
+    private void discard() {
+        incomplete = true;
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            error().data("path", file.toString()).logException(e, "error deleting incomplete publish schedule journal");
+        }
+    }
+
+    private void replay() throws IOException {
+        long start = System.currentTimeMillis();
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.trim().isEmpty()) {
+                    continue;
+                }
+                try {
+                    Record record = GSON.fromJson(line, Record.class);
+                    if (record != null && record.type != null && record.collectionId != null) {
+                        apply(record);
+                        records++;
+                    }
+                } catch (JsonParseException e) {
+                    // a line only partly written when the process stopped.
+                    warn().data("path", file.toString()).log("skipping unreadable publish schedule journal record");
+                }
+            }
+        }
+        info().data("path", file.toString()).data("entries", entries.size()).data("records", records)
+                .data("timeTaken", System.currentTimeMillis() - start)
+                .log("replayed publish schedule journal");
+    }
+
+    private void apply(Record record) {
+        Entry entry = entries.get(record.collectionId);
+        switch (record.type) {
+            case SCHEDULED:
+                if (entry == null || entry.publishDate != record.publishDate) {
+                    entries.put(record.collectionId, new Entry(record.collectionId, record.publishDate));
+                }
+                break;
+            case CANCELLED:
+            case COMPLETED:
+                entries.remove(record.collectionId);
+                break;
+            case TRANSACTIONS_CREATED:
+                if (entry != null) {
+                    entry.transactionIds = record.transactionIds;
+                    entry.manifestSent = false;
+                    entry.stagedFingerprint = null;
+                }
+                break;
+            case MANIFEST_SENT:
+                if (entry != null) {
+                    entry.manifestSent = true;
+                }
+                break;
+            case STAGED:
+                if (entry != null) {
+                    entry.stagedFingerprint = record.fingerprint;
+                }
+                break;
+            default:
+                break;
+        }
+    }
+
+    private static void write(Path path, String content, StandardOpenOption... options) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, options)) {
+            ByteBuffer bytes = ByteBuffer.wrap(content.getBytes(StandardCharsets.UTF_8));
+            while (bytes.hasRemaining()) {
+                channel.write(bytes);
+            }
+            channel.force(false);
+        }
+    }
+
+    enum Type {
+        SCHEDULED,
+        CANCELLED,
+        TRANSACTIONS_CREATED,
+        MANIFEST_SENT,
+        STAGED,
+        COMPLETED
+    }
+
+    /**
+     * A line of the journal.
+     */
+    static class Record {
+        private Type type;
+        private String collectionId;
+        private long publishDate;
+        private Map<String, String> transactionIds;
+        private String fingerprint;
+
+        Record(Type type, String collectionId) {
+            this.type = type;
+            this.collectionId = collectionId;
+        }
+
+        Record publishDate(long publishDate) {
+            this.publishDate = publishDate;
+            return this;
+        }
+
+        Record transactionIds(Map<String, String> transactionIds) {
+            this.transactionIds = transactionIds == null ? null : new HashMap<>(transactionIds);
+            return this;
+        }
+
+        Record fingerprint(String fingerprint) {
+            this.fingerprint = fingerprint;
+            return this;
+        }
+    }
+
+    /**
+     * The schedule and pre-publish progress of a collection.
+     */
+    public static class Entry {
+        private final String collectionId;
+        private final long publishDate;
+        private Map<String, String> transactionIds;
+        private boolean manifestSent;
+        private String stagedFingerprint;
+
+        Entry(String collectionId, long publishDate) {
+            this.collectionId = collectionId;
+            this.publishDate = publishDate;
+        }
+
+        public String getCollectionId() {
+            return collectionId;
+        }
+
+        public Date getPublishDate() {
+            return new Date(publishDate);
+        }
+
+        /**
+         * @return the publishing transactions created by pre-publish, or an empty map if they have not been created.
+         */
+        public Map<String, String> getTransactionIds() {
+            return transactionIds == null ? Collections.emptyMap() : Collections.unmodifiableMap(transactionIds);
+        }
+
+        public boolean isManifestSent() {
+            return manifestSent;
+        }
+
+        /**
+         * @return the fingerprint of the staged collection content, or null if the files have not been staged.
+         */
+        public String getStagedFingerprint() {
+            return stagedFingerprint;
+        }
+
+        Entry copy() {
+            Entry copy = new Entry(collectionId, publishDate);
+            copy.transactionIds = transactionIds == null ? null : new HashMap<>(transactionIds);
+            copy.manifestSent = manifestSent;
+            copy.stagedFingerprint = stagedFingerprint;
+            return copy;
+        }
+
+        List<Record> toRecords() {
+            List<Record> records = new ArrayList<>();
+            records.add(new Record(Type.SCHEDULED, collectionId).publishDate(publishDate));
+            if (transactionIds != null) {
+                records.add(new Record(Type.TRANSACTIONS_CREATED, collectionId).transactionIds(transactionIds));
+                if (manifestSent) {
+                    records.add(new Record(Type.MANIFEST_SENT, collectionId));
+                }
+                if (stagedFingerprint != null) {
+                    records.add(new Record(Type.STAGED, collectionId).fingerprint(stagedFingerprint));
+                }
+            }
+            return records;
+        }
+    }
+}
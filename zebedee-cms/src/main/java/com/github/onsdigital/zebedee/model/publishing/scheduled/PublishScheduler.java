@@ -3,6 +3,7 @@ package com.github.onsdigital.zebedee.model.publishing.scheduled;
 import com.github.onsdigital.zebedee.Zebedee;
 import com.github.onsdigital.zebedee.configuration.Configuration;
 import com.github.onsdigital.zebedee.json.CollectionBase;
+import com.github.onsdigital.zebedee.json.CollectionType;
 import com.github.onsdigital.zebedee.model.Collection;
 import com.github.onsdigital.zebedee.model.publishing.scheduled.task.PostPublishCollectionTask;
 import com.github.onsdigital.zebedee.model.publishing.scheduled.task.PrePublishCollectionsTask;
@@ -20,6 +21,7 @@ import java.util.Set;
 import java.util.concurrent.TimeUnit;
 
 import static com.github.onsdigital.logging.v2.event.SimpleEvent.info;
+import static com.github.onsdigital.zebedee.configuration.CMSFeatureFlags.cmsFeatureFlags;
 import static com.github.onsdigital.logging.v2.event.SimpleEvent.error;
 
 /**
@@ -29,6 +31,59 @@ public class PublishScheduler extends Scheduler {
 
     private final Map<Date, PrePublishCollectionsTask> prePublishTasks = new HashMap<>();
     private final Map<Date, PublishCollectionsTask> publishTasks = new HashMap<>();
+    private PublishScheduleJournal journal;
+
+    /**
+     * Record the schedule in the given journal from now on, see {@link #recover(Zebedee)}.
+     */
+    public void setJournal(PublishScheduleJournal journal) {
+        this.journal = journal;
+    }
+
+    /**
+     * @return the journal the schedule is recorded in, or null if it is not recorded.
+     */
+    public PublishScheduleJournal getJournal() {
+        return journal;
+    }
+
+    /**
+     * Restore the schedule from the journal, reading only the collections it names rather than every collection.
+     * Entries for collections that no longer exist or are no longer scheduled are dropped.
+     *
+     * @return false if there is no journal to restore from, in which case the schedule has to be rebuilt from the
+     * collections.
+     */
+    public boolean recover(Zebedee zebedee) {
+        if (journal == null || !journal.existed()) {
+            return false;
+        }
+
+        long start = System.currentTimeMillis();
+        int recovered = 0;
+        for (PublishScheduleJournal.Entry entry : journal.getEntries()) {
+            String collectionId = entry.getCollectionId();
+            try {
+                Collection collection = zebedee.getCollections().getCollection(collectionId);
+                if (collection == null || collection.getDescription().getType() != CollectionType.scheduled
+                        || collection.getDescription().getPublishDate() == null) {
+                    journal.cancelled(collectionId);
+                    continue;
+                }
+                schedulePublish(collection, zebedee);
+                recovered++;
+            } catch (Exception e) {
+                error().data("collectionId", collectionId)
+                        .logException(e, "error restoring scheduled collection from publish schedule journal");
+                journal.cancelled(collectionId);
+            }
+        }
+        journal.compact();
+
+        info().data("collections", recovered).data("timeTaken", System.currentTimeMillis() - start)
+                .log("restored publish schedule from journal");
+        return true;
+    }
 
     @Override
     protected void schedule(Collection collection, Zebedee zebedee) {
@@ -47,6 +102,13 @@ public class PublishScheduler extends Scheduler {
 
     @Override
     public void cancel(Collection collection) {
+        removeFromTasks(collection);
+        if (journal != null) {
+            journal.cancelled(collection.getDescription().getId());
+        }
+    }
+
+    private void removeFromTasks(Collection collection) {
         prePublishTasks.values().forEach(task -> task.removeCollection(collection));
         publishTasks.values().forEach(task -> task.removeCollection(collection));
     }
@@ -59,8 +121,11 @@ public class PublishScheduler extends Scheduler {
      * @param publishStartDate    The start date of the publish process.
      */
     void schedulePrePublish(Collection collection, Zebedee zebedee, Date prePublishStartDate, Date publishStartDate) {
-        // cancel existing publish for the collection
-        cancel(collection);
+        // cancel existing publish for the collection, the journal keeps its progress if the publish date is the same.
+        removeFromTasks(collection);
+        if (journal != null) {
+            journal.scheduled(collection.getDescription().getId(), publishStartDate);
+        }
 
         PrePublishCollectionsTask task;
 
@@ -85,8 +150,12 @@ public class PublishScheduler extends Scheduler {
             try {
                 // create and schedule publish task if all is well.
                 // pass loaded collections into publish task so that everything is ready ahead of time.
-                PublishCollectionsTask publishTask = new PublishCollectionsTask(collectionPublishTasks, postPublishCollectionTasks);
+                PublishCollectionsTask publishTask = new PublishCollectionsTask(collectionPublishTasks,
+                        postPublishCollectionTasks, journal);
                 publishTask.schedule(publishDate);
+                if (cmsFeatureFlags().isPrePublishStagingEnabled()) {
+                    publishTask.scheduleRestageChecks(Configuration.getStagedPublishCheckSeconds(), TimeUnit.SECONDS);
+                }
             } catch (Exception e) {
                 error().logException(e, "Exception caught trying to schedule");
             }
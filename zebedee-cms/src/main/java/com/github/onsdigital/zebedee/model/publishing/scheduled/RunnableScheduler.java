@@ -39,6 +39,14 @@ public class RunnableScheduler {
         return future;
     }
 
+    /**
+     * Run a task repeatedly, waiting the given delay before the first run and between the end of one run and the start
+     * of the next.
+     */
+    public ScheduledFuture<?> scheduleWithFixedDelay(Runnable task, long delay, TimeUnit unit) {
+        return scheduledExecutorService.scheduleWithFixedDelay(task, delay, delay, unit);
+    }
+
     /**
      * Shutdown the scheduler to ensure resources are disposed of.
      */
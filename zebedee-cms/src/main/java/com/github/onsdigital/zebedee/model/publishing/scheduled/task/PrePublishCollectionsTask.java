@@ -10,6 +10,9 @@ import com.github.onsdigital.zebedee.model.Collection;
 import com.github.onsdigital.zebedee.model.ZebedeeCollectionReader;
 import com.github.onsdigital.zebedee.model.publishing.PostPublisher;
 import com.github.onsdigital.zebedee.model.publishing.Publisher;
+import com.github.onsdigital.zebedee.model.publishing.PublishingExecutors;
+import com.github.onsdigital.zebedee.model.publishing.StagedPublish;
+import com.github.onsdigital.zebedee.model.publishing.scheduled.PublishScheduleJournal;
 import com.github.onsdigital.zebedee.model.publishing.scheduled.PublishScheduler;
 import com.github.onsdigital.zebedee.util.SlackNotification;
 
@@ -24,11 +27,12 @@ import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 
 import static com.github.onsdigital.logging.v2.event.SimpleEvent.info;
 import static com.github.onsdigital.logging.v2.event.SimpleEvent.error;
+import static com.github.onsdigital.zebedee.configuration.CMSFeatureFlags.cmsFeatureFlags;
+import static com.github.onsdigital.zebedee.model.publishing.PublishingExecutors.publishingExecutors;
 
 /**
  * A scheduled task to run the pre-publish process for a number of collections.
@@ -128,54 +132,87 @@ public class PrePublishCollectionsTask extends ScheduledTask {
      * @return
      */
     private List<PublishCollectionTask> createCollectionPublishTasks(Set<Collection> collections) {
-        List<PublishCollectionTask> collectionPublishTasks = new ArrayList<>(collections.size());
+        List<PublishCollectionTask> collectionPublishTasks = Collections.synchronizedList(new ArrayList<>(collections.size()));
         List<Future<Boolean>> futures = new ArrayList<>();
-        ExecutorService pool = Executors.newFixedThreadPool(collections.size()); // thread per collection
+        ExecutorService pool = publishingExecutors().get(PublishingExecutors.Stage.PRE_PUBLISH_COLLECTION);
 
         // create a publish task for each collection that will publish the content to the website.
         // creating the individual collection publish tasks here to do all the work ahead of the actual publish.
-        try {
-            for (Collection collection : collections) {
-                futures.add(pool.submit(() -> {
-                    try {
-
-                        info().data("collectionId", collection.getDescription().getId())
-                                .log("PRE-PUBLISH: creating collection publish task");
-
-                        // FIXME using PostPublisher.getPublishedCollection feels a bit hacky
-                        SlackNotification.publishNotification(PostPublisher.getPublishedCollection(collection),SlackNotification.CollectionStage.PRE_PUBLISH, SlackNotification.StageStatus.STARTED);
-
+        for (Collection collection : collections) {
+            futures.add(pool.submit(() -> {
+                try {
+
+                    info().data("collectionId", collection.getDescription().getId())
+                            .log("PRE-PUBLISH: creating collection publish task");
+
+                    // FIXME using PostPublisher.getPublishedCollection feels a bit hacky
+                    SlackNotification.publishNotification(PostPublisher.getPublishedCollection(collection),SlackNotification.CollectionStage.PRE_PUBLISH, SlackNotification.StageStatus.STARTED);
+
+                    // carry on from the progress recorded before a restart rather than starting again.
+                    String collectionId = collection.getDescription().getId();
+                    PublishScheduleJournal journal = publishScheduler.getJournal();
+                    PublishScheduleJournal.Entry progress = journal == null ? null : journal.get(collectionId);
+
+                    Map<String, String> hostToTransactionIdMap;
+                    if (hasTransactions(progress, collection)) {
+                        info().data("collectionId", collectionId)
+                                .log("PRE-PUBLISH: resuming with the transactions created before restart");
+                        hostToTransactionIdMap = collection.getDescription().getPublishTransactionIds();
+                    } else {
                         // begin the publish ahead of time. This creates the transaction on the train.
-                        Map<String, String> hostToTransactionIdMap = Publisher.createPublishingTransactions(collection);
+                        hostToTransactionIdMap = Publisher.createPublishingTransactions(collection);
+                        if (journal != null) {
+                            journal.transactionsCreated(collectionId, hostToTransactionIdMap);
+                        }
+                        progress = null;
+                    }
 
+                    if (progress == null || !progress.isManifestSent()) {
                         // send versioned files manifest ahead of time. allowing files to be copied from the website into the transaction.
                         Publisher.sendManifest(collection);
+                        if (journal != null) {
+                            journal.manifestSent(collectionId);
+                        }
+                    }
 
-                        SecretKey key = zebedee.getSchedulerKeyCache().get(collection.getDescription().getId());
-                        ZebedeeCollectionReader collectionReader = new ZebedeeCollectionReader(collection, key);
-                        PublishCollectionTask publishCollectionTask = new PublishCollectionTask(collection, collectionReader, hostToTransactionIdMap);
+                    SecretKey key = zebedee.getSchedulerKeyCache().get(collection.getDescription().getId());
+                    ZebedeeCollectionReader collectionReader = new ZebedeeCollectionReader(collection, key);
+
+                    // send the collection files into the transactions ahead of time, leaving only the commit.
+                    StagedPublish stagedPublish = null;
+                    if (cmsFeatureFlags().isPrePublishStagingEnabled()) {
+                        if (progress != null && progress.getStagedFingerprint() != null) {
+                            // checked against the collection again at publish time like any other staged publish.
+                            stagedPublish = StagedPublish.restore(progress.getStagedFingerprint(),
+                                    hostToTransactionIdMap);
+                        } else {
+                            stagedPublish = stagePublish(collection, collectionReader);
+                            if (stagedPublish != null && journal != null) {
+                                journal.staged(collectionId, stagedPublish.getFingerprint());
+                            }
+                        }
+                    }
 
-                        info().data("collectionId", collection.getDescription().getId())
-                                .log("PRE-PUBLISH: Adding publish task");
-                        collectionPublishTasks.add(publishCollectionTask);
+                    PublishCollectionTask publishCollectionTask = new PublishCollectionTask(collection, collectionReader, hostToTransactionIdMap, stagedPublish);
 
-                        // FIXME using PostPublisher.getPublishedCollection feels a bit hacky
-                        SlackNotification.publishNotification(PostPublisher.getPublishedCollection(collection), SlackNotification.CollectionStage.PRE_PUBLISH, SlackNotification.StageStatus.COMPLETED);
+                    info().data("collectionId", collection.getDescription().getId())
+                            .log("PRE-PUBLISH: Adding publish task");
+                    collectionPublishTasks.add(publishCollectionTask);
 
-                        return true;
-                    } catch (BadRequestException | IOException | UnauthorizedException | NotFoundException e) {
-                        // FIXME using PostPublisher.getPublishedCollection feels a bit hacky
-                        // TODO pass through the error?
-                        SlackNotification.publishNotification(PostPublisher.getPublishedCollection(collection), SlackNotification.CollectionStage.PRE_PUBLISH,SlackNotification.StageStatus.FAILED);
+                    // FIXME using PostPublisher.getPublishedCollection feels a bit hacky
+                    SlackNotification.publishNotification(PostPublisher.getPublishedCollection(collection), SlackNotification.CollectionStage.PRE_PUBLISH, SlackNotification.StageStatus.COMPLETED);
 
-                        error().logException(e, "PRE-PUBLISH: error when creating collection publish task");
-                        return false;
-                    }
-                }));
+                    return true;
+                } catch (BadRequestException | IOException | UnauthorizedException | NotFoundException e) {
+                    // FIXME using PostPublisher.getPublishedCollection feels a bit hacky
+                    // TODO pass through the error?
+                    SlackNotification.publishNotification(PostPublisher.getPublishedCollection(collection), SlackNotification.CollectionStage.PRE_PUBLISH,SlackNotification.StageStatus.FAILED);
+
+                    error().logException(e, "PRE-PUBLISH: error when creating collection publish task");
+                    return false;
+                }
+            }));
 
-            }
-        } finally {
-            if (pool != null) pool.shutdown();
         }
 
         for (Future<Boolean> future : futures) {
@@ -189,6 +226,34 @@ public class PrePublishCollectionsTask extends ScheduledTask {
         return collectionPublishTasks;
     }
 
+    /**
+     * @return true if the journal shows the transactions of the collection were created by an earlier pre-publish,
+     * they are still the transactions of the collection and they are still open on the train.
+     */
+    private static boolean hasTransactions(PublishScheduleJournal.Entry progress, Collection collection) {
+        return progress != null && !progress.getTransactionIds().isEmpty()
+                && progress.getTransactionIds().equals(collection.getDescription().getPublishTransactionIds())
+                && Publisher.transactionsOpen(collection, progress.getTransactionIds());
+    }
+
+    /**
+     * Stage the collection files on the train. A failure is logged and not rethrown, leaving the files to be sent at
+     * the publish time as they would be without staging.
+     *
+     * @return the staged files, or null if staging failed.
+     */
+    private static StagedPublish stagePublish(Collection collection, ZebedeeCollectionReader collectionReader) {
+        String collectionId = collection.getDescription().getId();
+        try {
+            info().data("collectionId", collectionId).log("PRE-PUBLISH: staging collection files");
+            return Publisher.stagePublish(collection, collectionReader);
+        } catch (Exception e) {
+            error().data("collectionId", collectionId)
+                    .logException(e, "PRE-PUBLISH: error staging collection files, they will be sent at publish time");
+            return null;
+        }
+    }
+
     /**
      * Prepare a post publish task for each collection ahead of the publish.
      *
@@ -1,11 +1,15 @@
 package com.github.onsdigital.zebedee.model.publishing.scheduled.task;
 
 import com.github.onsdigital.zebedee.configuration.Configuration;
+import com.github.onsdigital.zebedee.json.ApprovalStatus;
 import com.github.onsdigital.zebedee.model.Collection;
 import com.github.onsdigital.zebedee.model.ZebedeeCollectionReader;
 import com.github.onsdigital.zebedee.model.publishing.Publisher;
+import com.github.onsdigital.zebedee.model.publishing.StagedPublish;
+import com.github.onsdigital.zebedee.model.publishing.scheduled.PublishScheduleJournal;
 import com.github.onsdigital.zebedee.util.slack.Notifier;
 
+import javax.crypto.SecretKey;
 import java.util.Date;
 import java.util.Map;
 import java.util.concurrent.Callable;
@@ -25,6 +29,7 @@ public class PublishCollectionTask implements Callable<Boolean> {
     private Collection collection;
     private ZebedeeCollectionReader collectionReader;
     private Map<String, String> hostToTransactionIdMap;
+    private StagedPublish stagedPublish;
 
     /**
      * Create a new task for a collection to be published.
@@ -33,9 +38,22 @@ public class PublishCollectionTask implements Callable<Boolean> {
      * @param collectionReader - The collection reader to read collection content.
      */
     public PublishCollectionTask(Collection collection, ZebedeeCollectionReader collectionReader, Map<String, String> hostToTransactionIdMap) {
+        this(collection, collectionReader, hostToTransactionIdMap, null);
+    }
+
+    /**
+     * Create a new task for a collection to be published.
+     *
+     * @param collection       - The collection to publish.
+     * @param collectionReader - The collection reader to read collection content.
+     * @param stagedPublish    - The files staged on the train during pre-publish, null if nothing was staged.
+     */
+    public PublishCollectionTask(Collection collection, ZebedeeCollectionReader collectionReader,
+                                 Map<String, String> hostToTransactionIdMap, StagedPublish stagedPublish) {
         this.collection = collection;
         this.collectionReader = collectionReader;
         this.hostToTransactionIdMap = hostToTransactionIdMap;
+        this.stagedPublish = stagedPublish;
     }
 
     /**
@@ -45,7 +63,7 @@ public class PublishCollectionTask implements Callable<Boolean> {
      * @throws Exception
      */
     @Override
-    public Boolean call() throws Exception {
+    public synchronized Boolean call() throws Exception {
 
         String collectionId = collection.getDescription().getId();
 
@@ -53,7 +71,7 @@ public class PublishCollectionTask implements Callable<Boolean> {
             info().data("collectionId", collectionId).log("PUBLISH: Running collection publish task");
             collection.getDescription().setPublishStartDate(new Date());
 
-            published = Publisher.executePublish(collection, collectionReader, publisherSystemEmail);
+            published = Publisher.executePublish(collection, collectionReader, publisherSystemEmail, stagedPublish);
 
             collection.getDescription().setPublishEndDate(new Date());
         } catch (Exception e) {
@@ -95,6 +113,55 @@ public class PublishCollectionTask implements Callable<Boolean> {
         }
     }
 
+    /**
+     * Stage the collection again if it has changed since it was staged, e.g. it was unlocked, edited and approved
+     * again, so the rollback and the new transactions happen before the publish time rather than during the publish.
+     * A collection that is not approved is left until it is. A failure is logged and left for the publish to deal
+     * with, as it would be without this check.
+     *
+     * @param journal the journal to record the new pre-publish progress in, null if there is none.
+     */
+    public synchronized void restageIfChanged(PublishScheduleJournal journal) {
+        if (stagedPublish == null || published) {
+            return;
+        }
+
+        String collectionId = collection.getDescription().getId();
+        try {
+            // read the collection again, as the approval, transactions and snapshot held by this task may be stale.
+            Collection current = zebedee.getCollections().getCollection(collectionId);
+            if (current == null || current.getDescription().getApprovalStatus() != ApprovalStatus.COMPLETE
+                    || stagedPublish.isCurrent(current)) {
+                return;
+            }
+
+            warn().data("collectionId", collectionId).data("hostToTransactionId", stagedPublish.getTransactionIds())
+                    .log("PRE-PUBLISH: collection has changed since its files were staged, staging it again");
+
+            SecretKey key = zebedee.getSchedulerKeyCache().get(collectionId);
+            ZebedeeCollectionReader reader = new ZebedeeCollectionReader(current, key);
+            collection = current;
+            collectionReader = reader;
+
+            Publisher.rollbackPublish(current);
+            Publisher.executePrePublish(current);
+            hostToTransactionIdMap = current.getDescription().getPublishTransactionIds();
+            if (journal != null) {
+                journal.transactionsCreated(collectionId, hostToTransactionIdMap);
+                journal.manifestSent(collectionId);
+            }
+
+            stagedPublish = Publisher.stagePublish(current, reader);
+            if (journal != null) {
+                journal.staged(collectionId, stagedPublish.getFingerprint());
+            }
+        } catch (Exception e) {
+            error().data("collectionId", collectionId)
+                    .logException(e, "PRE-PUBLISH: error staging changed collection again, it will be checked at " +
+                            "the publish time");
+        }
+    }
+
     /**
      * Return true if the publish was a success.
      *
@@ -1,15 +1,18 @@
 package com.github.onsdigital.zebedee.model.publishing.scheduled.task;
 
 import com.github.onsdigital.zebedee.model.Collection;
+import com.github.onsdigital.zebedee.model.publishing.PublishingExecutors;
+import com.github.onsdigital.zebedee.model.publishing.scheduled.PublishScheduleJournal;
+import com.github.onsdigital.zebedee.model.publishing.scheduled.RunnableScheduler;
 
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 
 import static com.github.onsdigital.logging.v2.event.SimpleEvent.info;
 import static com.github.onsdigital.logging.v2.event.SimpleEvent.error;
+import static com.github.onsdigital.zebedee.model.publishing.PublishingExecutors.publishingExecutors;
 
 /**
  * A scheduled task to run the publish process for multiple collections scheduled for the same time.
@@ -17,9 +20,11 @@ import static com.github.onsdigital.logging.v2.event.SimpleEvent.error;
  */
 public class PublishCollectionsTask extends ScheduledTask {
 
-    private final ExecutorService executorService; // Thread pool to publish each collection concurrently.
+    private final ExecutorService executorService; // Shared thread pool to publish each collection concurrently.
     private List<PublishCollectionTask> publishCollectionTasks; // A task object for each collection to publish.
     private List<PostPublishCollectionTask> postPublishCollectionTasks;
+    private PublishScheduleJournal journal;
+    private RunnableScheduler restageScheduler;
 
     /**
      * Create a new instance of the PublishCollectionsTask.
@@ -28,10 +33,24 @@ public class PublishCollectionsTask extends ScheduledTask {
      */
     public PublishCollectionsTask(List<PublishCollectionTask> publishCollectionTasks,
                                   List<PostPublishCollectionTask> postPublishCollectionTasks
+    ) {
+        this(publishCollectionTasks, postPublishCollectionTasks, null);
+    }
+
+    /**
+     * Create a new instance of the PublishCollectionsTask.
+     *
+     * @param publishCollectionTasks A collection of tasks, one for each collection to publish.
+     * @param journal                The journal to record the finished publishes in, null if there is none.
+     */
+    public PublishCollectionsTask(List<PublishCollectionTask> publishCollectionTasks,
+                                  List<PostPublishCollectionTask> postPublishCollectionTasks,
+                                  PublishScheduleJournal journal
     ) {
         this.publishCollectionTasks = publishCollectionTasks;
         this.postPublishCollectionTasks = postPublishCollectionTasks;
-        this.executorService = Executors.newFixedThreadPool(publishCollectionTasks.size());
+        this.journal = journal;
+        this.executorService = publishingExecutors().get(PublishingExecutors.Stage.PUBLISH_COLLECTION);
     }
 
     /**
@@ -43,16 +62,49 @@ public class PublishCollectionsTask extends ScheduledTask {
     public void run() {
         info().log("PUBLISH: Starting publish process.");
         long publishStart = System.currentTimeMillis();
+        stopRestageChecks();
 
         publishCollections();
         postPublishCollections();
 
-        // all tasks should be completed now so cleanup the executorService.
-        executorService.shutdown();
+        // published collections should not be restored on a restart, failed ones are left to be retried as before.
+        if (journal != null) {
+            publishCollectionTasks.stream()
+                    .filter(PublishCollectionTask::isPublished)
+                    .forEach(task -> journal.completed(task.getCollection().getDescription().getId()));
+        }
 
         info().data("timeTaken", (System.currentTimeMillis() - publishStart)).log("POST-PUBLISH: Publish complete");
     }
 
+    /**
+     * Check the staged collections for changes every interval until the publish, so a collection changed after it was
+     * staged is staged again ahead of the publish, see {@link PublishCollectionTask#restageIfChanged}.
+     */
+    public synchronized void scheduleRestageChecks(long interval, TimeUnit unit) {
+        if (restageScheduler != null) {
+            return;
+        }
+        restageScheduler = new RunnableScheduler(1);
+        restageScheduler.scheduleWithFixedDelay(this::restageChangedCollections, interval, unit);
+    }
+
+    @Override
+    public void cancel() {
+        stopRestageChecks();
+        super.cancel();
+    }
+
+    private void restageChangedCollections() {
+        publishCollectionTasks.forEach(task -> task.restageIfChanged(journal));
+    }
+
+    private synchronized void stopRestageChecks() {
+        if (restageScheduler != null) {
+            restageScheduler.shutdown();
+        }
+    }
+
     /**
      * Run the publish task for each collection and wait for them all to complete before doing anything else.
      */
@@ -0,0 +1,191 @@
+package com.github.onsdigital.zebedee.model.publishing.verify;
+
+import com.github.onsdigital.zebedee.metrics.Timer;
+import com.github.onsdigital.zebedee.model.publishing.PublishSnapshot;
+import com.github.onsdigital.zebedee.model.publishing.client.PublishingClient;
+import com.github.onsdigital.zebedee.model.publishing.client.PublishingClientException;
+import com.github.onsdigital.zebedee.reader.CollectionReader;
+import org.apache.commons.lang3.StringUtils;
+
+import java.text.MessageFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.stream.Collectors;
+
+import static com.github.onsdigital.zebedee.logging.CMSLogEvent.error;
+import static com.github.onsdigital.zebedee.logging.CMSLogEvent.warn;
+import static com.github.onsdigital.zebedee.metrics.MetricsRegistry.metrics;
+import static com.github.onsdigital.zebedee.model.publishing.verify.HashVerificationTask.GENERATE_HASH_ERR;
+import static com.github.onsdigital.zebedee.model.publishing.verify.HashVerificationTask.HASH_INCORRECT_ERR;
+import static com.github.onsdigital.zebedee.model.publishing.verify.HashVerifierImpl.VERIFIED;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Task verifies batches of files in a publishing transaction against a publishing API host, requesting the SHA-1
+ * hashes of all the files in a batch in a single request rather than one request per file.
+ * <p></p>
+ * The batches for a host are shared between a fixed number of tasks, each taking the next batch from the queue when
+ * it has verified the last, so no more than that number of requests are in flight to the host at once. A host that
+ * does not support batch requests is remembered and its files are verified one request per file.
+ * <p></p>
+ * Each file with an incorrect hash is logged, and the task throws an {@link HashVerificationException} for the first
+ * one once the rest of the batch has been checked.
+ */
+class HashBatchVerificationTask implements Callable<Boolean> {
+
+    private static final Timer BATCH_TIME = metrics().timer("zebedee_hash_verify_batch_seconds",
+            "Time taken to verify a batch of files against a publishing API host.", "host");
+
+    private final String collectionID;
+    private final CollectionReader collectionReader;
+    private final String host;
+    private final String transactionId;
+    private final PublishingClient publishingClient;
+    private final Queue<List<PublishSnapshot.Entry>> batches;
+    private final Set<String> hostsWithoutBatchSupport;
+
+    /**
+     * Construct a new instance.
+     *
+     * @param collectionID             the ID of the collection being verified.
+     * @param collectionReader         a {@link CollectionReader} to read files that have no known hash.
+     * @param host                     the publishing API host to verify the files against.
+     * @param transactionId            the publishing transaction ID for the host.
+     * @param publishingClient         the {@link PublishingClient} to request the hashes with.
+     * @param batches                  the batches of files to verify, shared by all the tasks for the host.
+     * @param hostsWithoutBatchSupport the hosts found not to support batch requests, shared by all the tasks.
+     */
+    HashBatchVerificationTask(String collectionID, CollectionReader collectionReader, String host,
+                              String transactionId, PublishingClient publishingClient,
+                              Queue<List<PublishSnapshot.Entry>> batches, Set<String> hostsWithoutBatchSupport) {
+        this.collectionID = requireNonNull(collectionID);
+        this.collectionReader = requireNonNull(collectionReader);
+        this.host = requireNonNull(host);
+        this.transactionId = requireNonNull(transactionId);
+        this.publishingClient = requireNonNull(publishingClient);
+        this.batches = requireNonNull(batches);
+        this.hostsWithoutBatchSupport = requireNonNull(hostsWithoutBatchSupport);
+    }
+
+    /**
+     * Verify batches until there are none left in the queue.
+     *
+     * @return true if every file verified was as expected.
+     * @throws Exception thrown if a hash is incorrect or if there was any error while attempting to verify the
+     *                   content.
+     */
+    @Override
+    public Boolean call() throws Exception {
+        List<PublishSnapshot.Entry> batch;
+        while ((batch = batches.poll()) != null) {
+            boolean verified = false;
+            try (Timer.Context timer = BATCH_TIME.labels(host).time()) {
+                verifyBatch(batch);
+                verified = true;
+            } finally {
+                VERIFIED.labels(host, verified ? "success" : "failure").inc(batch.size());
+            }
+        }
+        return true;
+    }
+
+    private void verifyBatch(List<PublishSnapshot.Entry> batch) throws Exception {
+        if (hostsWithoutBatchSupport.contains(host)) {
+            verifyEach(batch);
+            return;
+        }
+
+        Map<String, String> actualHashes;
+        try {
+            actualHashes = publishingClient.getContentHashes(host, transactionId, uris(batch));
+        } catch (PublishingClientException ex) {
+            if (!isBatchNotSupported(ex)) {
+                throw batchRequestException(ex);
+            }
+            if (hostsWithoutBatchSupport.add(host)) {
+                warn().collectionID(collectionID)
+                        .host(host)
+                        .transactionId(transactionId)
+                        .data("status", ex.getHttpStatus())
+                        .log("publishing API does not support batch content hash requests, verifying each file");
+            }
+            verifyEach(batch);
+            return;
+        } catch (Exception ex) {
+            throw batchRequestException(ex);
+        }
+
+        HashVerificationException firstIncorrect = null;
+        for (PublishSnapshot.Entry file : batch) {
+            String expected = getExpectedHashValue(file);
+            String actual = actualHashes.get(file.getUri());
+            if (StringUtils.equals(expected, actual)) {
+                continue;
+            }
+
+            error().collectionID(collectionID)
+                    .host(host)
+                    .transactionId(transactionId)
+                    .uri(file.getUri())
+                    .data("expected", expected)
+                    .data("actual", actual)
+                    .log("file content hash from remote server did not match the expected value");
+
+            if (firstIncorrect == null) {
+                String msg = MessageFormat.format(HASH_INCORRECT_ERR, expected, actual);
+                firstIncorrect = new HashVerificationException(msg, collectionID, host, transactionId, file.getUri());
+            }
+        }
+
+        if (firstIncorrect != null) {
+            throw firstIncorrect;
+        }
+    }
+
+    private void verifyEach(List<PublishSnapshot.Entry> batch) throws Exception {
+        for (PublishSnapshot.Entry file : batch) {
+            new HashVerificationTask.Builder()
+                    .collectionID(collectionID)
+                    .collectionReader(collectionReader)
+                    .contentURI(file.getUri())
+                    .publishingAPIHost(host)
+                    .transactionId(transactionId)
+                    .publishingClient(publishingClient)
+                    .expectedHash(file.getSha1())
+                    .build()
+                    .call();
+        }
+    }
+
+    private String getExpectedHashValue(PublishSnapshot.Entry file) {
+        if (file.getSha1() != null) {
+            return file.getSha1();
+        }
+
+        try {
+            return HashVerificationTask.localHash(collectionReader, file.getUri());
+        } catch (Exception ex) {
+            throw new HashVerificationException(GENERATE_HASH_ERR, ex, collectionID, host, transactionId,
+                    file.getUri());
+        }
+    }
+
+    private HashVerificationException batchRequestException(Exception cause) {
+        return new HashVerificationException("http request to publishing API /contentHashes returned an error",
+                cause, collectionID, host, transactionId, null);
+    }
+
+    /**
+     * A publishing API without the batch endpoint responds with not found or method not allowed.
+     */
+    private static boolean isBatchNotSupported(PublishingClientException ex) {
+        return ex.getHttpStatus() == 404 || ex.getHttpStatus() == 405;
+    }
+
+    private static List<String> uris(List<PublishSnapshot.Entry> batch) {
+        return batch.stream().map(PublishSnapshot.Entry::getUri).collect(Collectors.toList());
+    }
+}
@@ -1,18 +1,21 @@
 package com.github.onsdigital.zebedee.model.publishing.verify;
 
+import com.github.onsdigital.zebedee.metrics.Timer;
 import com.github.onsdigital.zebedee.model.publishing.client.PublishingClient;
 import com.github.onsdigital.zebedee.reader.CollectionReader;
 import com.github.onsdigital.zebedee.reader.Resource;
 import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.io.input.CountingInputStream;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.builder.EqualsBuilder;
 import org.apache.commons.lang3.builder.HashCodeBuilder;
 
 import java.io.BufferedInputStream;
-import java.io.InputStream;
 import java.text.MessageFormat;
 import java.util.concurrent.Callable;
 
+import static com.github.onsdigital.zebedee.model.publishing.PublishMetrics.DECRYPTED_BYTES;
+import static com.github.onsdigital.zebedee.model.publishing.PublishMetrics.DECRYPT_TIME;
 import static java.util.Objects.requireNonNull;
 
 /**
@@ -36,6 +39,7 @@ public class HashVerificationTask implements Callable<Boolean> {
     private String transactionId;
     private String uri;
     private PublishingClient publishingClient;
+    private String expectedHash;
 
     /**
      * Construct a new instance from the {@link Builder} provided.
@@ -47,6 +51,7 @@ public class HashVerificationTask implements Callable<Boolean> {
         this.transactionId = requireNonNull(builder.getTransactionId());
         this.uri = requireNonNull(builder.getUri());
         this.publishingClient = requireNonNull(builder.getPublishingClient());
+        this.expectedHash = builder.getExpectedHash();
     }
 
     /**
@@ -80,14 +85,30 @@ public class HashVerificationTask implements Callable<Boolean> {
     }
 
     private String getExpectedHashValue() {
+        if (expectedHash != null) {
+            return expectedHash;
+        }
+
+        try {
+            return localHash(collectionReader, uri);
+        } catch (Exception ex) {
+            throw new HashVerificationException(GENERATE_HASH_ERR, ex, collectionID, host, transactionId, uri);
+        }
+    }
+
+    /**
+     * Generate the SHA-1 hash of a collection file.
+     */
+    static String localHash(CollectionReader collectionReader, String uri) throws Exception {
         try (
+                Timer.Context timer = DECRYPT_TIME.labels("verify").time();
                 Resource resource = collectionReader.getResource(uri);
-                InputStream in = resource.getData();
+                CountingInputStream in = new CountingInputStream(resource.getData());
                 BufferedInputStream buf = new BufferedInputStream(in)
         ) {
-            return DigestUtils.sha1Hex(buf);
-        } catch (Exception ex) {
-            throw new HashVerificationException(GENERATE_HASH_ERR, ex, collectionID, host, transactionId, uri);
+            String hash = DigestUtils.sha1Hex(buf);
+            DECRYPTED_BYTES.labels("verify").inc(in.getByteCount());
+            return hash;
         }
     }
 
@@ -120,6 +141,10 @@ public class HashVerificationTask implements Callable<Boolean> {
         return this.publishingClient;
     }
 
+    public String getExpectedHash() {
+        return this.expectedHash;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -135,6 +160,7 @@ public class HashVerificationTask implements Callable<Boolean> {
                 .append(this.transactionId, that.transactionId)
                 .append(this.uri, that.uri)
                 .append(this.publishingClient, that.publishingClient)
+                .append(this.expectedHash, that.expectedHash)
                 .isEquals();
     }
 
@@ -147,6 +173,7 @@ public class HashVerificationTask implements Callable<Boolean> {
                 .append(this.transactionId)
                 .append(this.uri)
                 .append(this.publishingClient)
+                .append(this.expectedHash)
                 .toHashCode();
     }
 
@@ -160,6 +187,7 @@ public class HashVerificationTask implements Callable<Boolean> {
         private String transactionId;
         private String uri;
         private PublishingClient publishingClient;
+        private String expectedHash;
 
         /**
          * Set the collection ID of the content to verify.
@@ -209,6 +237,15 @@ public class HashVerificationTask implements Callable<Boolean> {
             return this;
         }
 
+        /**
+         * Set the SHA-1 hash the content is expected to have, if it is already known, so the collection file does
+         * not need to be read to generate it.
+         */
+        public Builder expectedHash(String expectedHash) {
+            this.expectedHash = expectedHash;
+            return this;
+        }
+
         /**
          * Construct a new {@link HashVerificationTask} instance.
          */
@@ -239,5 +276,9 @@ public class HashVerificationTask implements Callable<Boolean> {
         public PublishingClient getPublishingClient() {
             return this.publishingClient;
         }
+
+        public String getExpectedHash() {
+            return this.expectedHash;
+        }
     }
 }
\ No newline at end of file
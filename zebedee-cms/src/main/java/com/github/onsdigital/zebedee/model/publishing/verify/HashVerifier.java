@@ -3,7 +3,15 @@ package com.github.onsdigital.zebedee.model.publishing.verify;
 import com.github.onsdigital.zebedee.model.Collection;
 import com.github.onsdigital.zebedee.reader.CollectionReader;
 
+import java.util.Set;
+
 public interface HashVerifier {
 
     void verifyTransactionContent(Collection collection, CollectionReader reader) throws HashVerificationException;
+
+    /**
+     * Verify the content sent to the publishing APIs, skipping the given uris, which were left out of the publish.
+     */
+    void verifyTransactionContent(Collection collection, CollectionReader reader, Set<String> unsentUris)
+            throws HashVerificationException;
 }
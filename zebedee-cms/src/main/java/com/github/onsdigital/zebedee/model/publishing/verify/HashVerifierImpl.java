@@ -1,35 +1,52 @@
 package com.github.onsdigital.zebedee.model.publishing.verify;
 
 import com.github.onsdigital.zebedee.json.CollectionDescription;
+import com.github.onsdigital.zebedee.metrics.Counter;
+import com.github.onsdigital.zebedee.metrics.Timer;
 import com.github.onsdigital.zebedee.model.Collection;
-import com.github.onsdigital.zebedee.model.content.item.VersionedContentItem;
+import com.github.onsdigital.zebedee.model.publishing.PublishSnapshot;
+import com.github.onsdigital.zebedee.model.publishing.PublishingExecutors;
 import com.github.onsdigital.zebedee.model.publishing.client.PublishingClient;
 import com.github.onsdigital.zebedee.model.publishing.client.PublishingClientImpl;
 import com.github.onsdigital.zebedee.reader.CollectionReader;
 
 import java.io.IOException;
-import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
+import static com.github.onsdigital.zebedee.configuration.CMSFeatureFlags.cmsFeatureFlags;
+import static com.github.onsdigital.zebedee.configuration.Configuration.getHashVerifyBatchSize;
+import static com.github.onsdigital.zebedee.configuration.Configuration.getHashVerifyBatchesPerHost;
+import static com.github.onsdigital.zebedee.metrics.MetricsRegistry.metrics;
+import static com.github.onsdigital.zebedee.model.publishing.PublishingExecutors.publishingExecutors;
+
 /**
  * Provides functionality for verifying the content send the publishing API was received correctly.
  */
 public class HashVerifierImpl implements HashVerifier {
 
-    private static final ExecutorService pool = Executors.newFixedThreadPool(50);
+    private static final ExecutorService pool = publishingExecutors().get(PublishingExecutors.Stage.VERIFY);
+    private static final Timer VERIFY_TIME = metrics().timer("zebedee_hash_verify_seconds",
+            "Time taken to verify the hash of a single file against a publishing API host.", "host");
+    static final Counter VERIFIED = metrics().counter("zebedee_hash_verify_total",
+            "Files verified against a publishing API host by outcome.", "host", "outcome");
     private static HashVerifier instance = null;
 
 
     private PublishingClient publishingClient;
+    private final Set<String> hostsWithoutBatchSupport = ConcurrentHashMap.newKeySet();
 
     /**
      * Construct a new instance using the default values.
@@ -53,8 +70,21 @@ public class HashVerifierImpl implements HashVerifier {
      * @throws HashVerificationException thrown for any error while attempting to verify the content.
      */
     public void verifyTransactionContent(Collection collection, CollectionReader reader) throws HashVerificationException {
+        verifyTransactionContent(collection, reader, Collections.emptySet());
+    }
+
+    /**
+     * Verify the content sent to the publshing APIs was received correctly, skipping content that was not sent.
+     *
+     * @param collection the collection to verify.
+     * @param reader     a {@link CollectionReader} used read the collection content.
+     * @param unsentUris the uris left out of the publish, e.g. as they are unchanged from the published content.
+     * @throws HashVerificationException thrown for any error while attempting to verify the content.
+     */
+    public void verifyTransactionContent(Collection collection, CollectionReader reader, Set<String> unsentUris)
+            throws HashVerificationException {
         validateParams(collection, reader);
-        List<Callable<Boolean>> tasks = createVerifyTasks(collection, reader);
+        List<Callable<Boolean>> tasks = createVerifyTasks(collection, reader, unsentUris);
         List<Future<Boolean>> verifyResults = executeVerifyTasks(tasks);
         checkVerifyResults(verifyResults);
     }
@@ -81,16 +111,23 @@ public class HashVerifierImpl implements HashVerifier {
         }
     }
 
-    private List<Callable<Boolean>> createVerifyTasks(Collection collection, CollectionReader reader) {
+    private List<Callable<Boolean>> createVerifyTasks(Collection collection, CollectionReader reader,
+                                                      Set<String> unsentUris) {
         Map<String, String> hostTransactionIdMap = collection.getDescription().getPublishTransactionIds();
-        List<String> urisToVerify = getCollectionUrisToVerify(collection);
+        List<PublishSnapshot.Entry> filesToVerify = getCollectionFilesToVerify(collection);
+        filesToVerify.removeIf(file -> unsentUris.contains(file.getUri()));
         List<Callable<Boolean>> tasks = new ArrayList<>();
 
         for (Map.Entry<String, String> hostTransactionMapping : hostTransactionIdMap.entrySet()) {
             String host = hostTransactionMapping.getKey();
             String transactionId = hostTransactionMapping.getValue();
 
-            tasks.addAll(createVerifyTasksForHost(collection.getId(), reader, host, transactionId, urisToVerify));
+            if (cmsFeatureFlags().isBatchHashVerificationEnabled()) {
+                tasks.addAll(createBatchVerifyTasksForHost(collection.getId(), reader, host, transactionId,
+                        filesToVerify, getHashVerifyBatchSize(), getHashVerifyBatchesPerHost()));
+            } else {
+                tasks.addAll(createVerifyTasksForHost(collection.getId(), reader, host, transactionId, filesToVerify));
+            }
         }
 
         return tasks;
@@ -100,31 +137,82 @@ public class HashVerifierImpl implements HashVerifier {
      * Create a {@link List} of content verification {@link Callable}s. For each content URI in the collection create a
      * task that will execute against the publishing API host provided.
      *
-     * @param collectionId    the Id of the collection to verify.
-     * @param reader          a {@link CollectionReader} to decrypt and read the collection content.
-     * @param host            the Publishing API host to use when verifying the content.
-     * @param transactionId   the publishing transaction ID for this instance of the publishing API
-     * @param transactionURIs the content uris to verify.
+     * @param collectionId     the Id of the collection to verify.
+     * @param reader           a {@link CollectionReader} to decrypt and read the collection content.
+     * @param host             the Publishing API host to use when verifying the content.
+     * @param transactionId    the publishing transaction ID for this instance of the publishing API
+     * @param transactionFiles the content files to verify, with their hash if it is known from the
+     *                         {@link PublishSnapshot}.
      * @return {@link List<Callable<Boolean>>>}
      */
     private List<Callable<Boolean>> createVerifyTasksForHost(String collectionId, CollectionReader reader,
                                                              String host, String transactionId,
-                                                             List<String> transactionURIs) {
-        return transactionURIs.stream()
-                .map(uri -> new HashVerificationTask.Builder()
+                                                             List<PublishSnapshot.Entry> transactionFiles) {
+        return transactionFiles.stream()
+                .map(file -> new HashVerificationTask.Builder()
                         .collectionID(collectionId)
                         .collectionReader(reader)
-                        .contentURI(uri)
+                        .contentURI(file.getUri())
                         .publishingAPIHost(host)
                         .transactionId(transactionId)
                         .publishingClient(publishingClient)
+                        .expectedHash(file.getSha1())
                         .build())
+                .map(task -> timed(host, task))
                 .collect(Collectors.toList());
     }
 
-    private List<String> getCollectionUrisToVerify(Collection collection) throws HashVerificationException {
+    /**
+     * Create the content verification {@link Callable}s for a host that request the hashes of many files at a time.
+     * The files are split into batches shared between the tasks, so there are never more than batchesPerHost requests
+     * to the host in flight at once.
+     *
+     * @param collectionId     the Id of the collection to verify.
+     * @param reader           a {@link CollectionReader} to decrypt and read the collection content.
+     * @param host             the Publishing API host to use when verifying the content.
+     * @param transactionId    the publishing transaction ID for this instance of the publishing API
+     * @param transactionFiles the content files to verify, with their hash if it is known from the
+     *                         {@link PublishSnapshot}.
+     * @param batchSize        the most files to request the hashes of in one request.
+     * @param batchesPerHost   the most requests to the host to have in flight at once.
+     * @return {@link List<Callable<Boolean>>>}
+     */
+    List<Callable<Boolean>> createBatchVerifyTasksForHost(String collectionId, CollectionReader reader,
+                                                          String host, String transactionId,
+                                                          List<PublishSnapshot.Entry> transactionFiles,
+                                                          int batchSize, int batchesPerHost) {
+        Queue<List<PublishSnapshot.Entry>> batches = new ConcurrentLinkedQueue<>();
+        int size = Math.max(1, batchSize);
+        for (int i = 0; i < transactionFiles.size(); i += size) {
+            batches.add(transactionFiles.subList(i, Math.min(transactionFiles.size(), i + size)));
+        }
+
+        int taskCount = Math.min(Math.max(1, batchesPerHost), batches.size());
+        List<Callable<Boolean>> tasks = new ArrayList<>(taskCount);
+        for (int i = 0; i < taskCount; i++) {
+            tasks.add(new HashBatchVerificationTask(collectionId, reader, host, transactionId, publishingClient,
+                    batches, hostsWithoutBatchSupport));
+        }
+        return tasks;
+    }
+
+    private Callable<Boolean> timed(String host, Callable<Boolean> task) {
+        return () -> {
+            boolean verified = false;
+            try (Timer.Context timer = VERIFY_TIME.labels(host).time()) {
+                Boolean result = task.call();
+                verified = true;
+                return result;
+            } finally {
+                VERIFIED.labels(host, verified ? "success" : "failure").inc();
+            }
+        };
+    }
+
+    private List<PublishSnapshot.Entry> getCollectionFilesToVerify(Collection collection)
+            throws HashVerificationException {
         try {
-            return collection.getReviewed().uris()
+            return PublishSnapshot.reviewedFiles(collection)
                     .stream()
                     .filter(publishedContentFilter())
                     .collect(Collectors.toList());
@@ -144,9 +232,8 @@ public class HashVerifierImpl implements HashVerifier {
      *
      * @return a {@link Predicate} that filters the URIs of a collection to verify.
      */
-    private Predicate<String> publishedContentFilter() {
-        return (uri) -> !Paths.get(uri).toString().contains("/timeseries/")
-                && !VersionedContentItem.isVersionedUri(uri);
+    private Predicate<PublishSnapshot.Entry> publishedContentFilter() {
+        return (file) -> !file.isTimeseries() && !file.isVersioned();
     }
 
     private List<Future<Boolean>> executeVerifyTasks(List<Callable<Boolean>> tasks) {
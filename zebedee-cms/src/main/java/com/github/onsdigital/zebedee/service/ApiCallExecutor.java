@@ -0,0 +1,170 @@
+package com.github.onsdigital.zebedee.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.github.onsdigital.zebedee.logging.CMSLogEvent.info;
+
+/**
+ * Runs blocking API calls concurrently with an upper bound on the number of calls in flight. Every call is allowed to
+ * complete before the outcomes are returned so callers can keep their partial failure semantics, and the latency of
+ * each call is logged.
+ */
+public class ApiCallExecutor {
+
+    private final String name;
+    private final ExecutorService pool;
+
+    /**
+     * @param name        the name of the API the calls are made to, used in logging and thread names.
+     * @param concurrency the maximum number of calls in flight at any one time.
+     */
+    public ApiCallExecutor(String name, int concurrency) {
+        if (concurrency < 1) {
+            throw new IllegalArgumentException("concurrency must be greater than zero");
+        }
+        this.name = name;
+        this.pool = Executors.newFixedThreadPool(concurrency, new DaemonThreadFactory(name));
+    }
+
+    /**
+     * Run all of the given calls and wait for them to complete.
+     *
+     * @param collectionId the collection the calls are being made for.
+     * @param calls        the calls to make.
+     * @return the outcome of each call in the same order as the calls were given.
+     */
+    public <T> List<Outcome<T>> invokeAll(String collectionId, List<ApiCall<T>> calls) {
+        List<Future<T>> futures = new ArrayList<>(calls.size());
+        for (ApiCall<T> call : calls) {
+            futures.add(pool.submit(() -> timed(collectionId, call)));
+        }
+
+        List<Outcome<T>> outcomes = new ArrayList<>(calls.size());
+        for (int i = 0; i < futures.size(); i++) {
+            String description = calls.get(i).getDescription();
+            try {
+                outcomes.add(new Outcome<>(description, futures.get(i).get(), null));
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                Exception ex = cause instanceof Exception ? (Exception) cause : new ExecutionException(cause);
+                outcomes.add(new Outcome<>(description, null, ex));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                outcomes.add(new Outcome<>(description, null, e));
+            }
+        }
+        return outcomes;
+    }
+
+    private <T> T timed(String collectionId, ApiCall<T> call) throws Exception {
+        long start = System.currentTimeMillis();
+        boolean success = false;
+        try {
+            T result = call.call();
+            success = true;
+            return result;
+        } finally {
+            info().data("publishing", true)
+                    .collectionID(collectionId)
+                    .data("api", name)
+                    .data("call", call.getDescription())
+                    .data("success", success)
+                    .data("timeTaken", System.currentTimeMillis() - start)
+                    .log("api call completed");
+        }
+    }
+
+    /**
+     * Get the first exception of the given outcomes.
+     *
+     * @return the first failure, or null if every call succeeded.
+     */
+    public static Exception firstFailure(List<? extends Outcome<?>> outcomes) {
+        for (Outcome<?> outcome : outcomes) {
+            if (outcome.getException() != null) {
+                return outcome.getException();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * A single blocking API call.
+     */
+    public static class ApiCall<T> {
+        private final String description;
+        private final Callable<T> call;
+
+        /**
+         * @param description a short description of the call used in logging, e.g. the id of the entity updated.
+         * @param call        the call to make.
+         */
+        public ApiCall(String description, Callable<T> call) {
+            this.description = description;
+            this.call = call;
+        }
+
+        public String getDescription() {
+            return description;
+        }
+
+        T call() throws Exception {
+            return call.call();
+        }
+    }
+
+    /**
+     * The result or exception of a single API call.
+     */
+    public static class Outcome<T> {
+        private final String description;
+        private final T result;
+        private final Exception exception;
+
+        Outcome(String description, T result, Exception exception) {
+            this.description = description;
+            this.result = result;
+            this.exception = exception;
+        }
+
+        public String getDescription() {
+            return description;
+        }
+
+        public T getResult() {
+            return result;
+        }
+
+        public Exception getException() {
+            return exception;
+        }
+
+        public boolean isSuccess() {
+            return exception == null;
+        }
+    }
+
+    private static class DaemonThreadFactory implements ThreadFactory {
+        private final String prefix;
+        private final AtomicInteger count = new AtomicInteger();
+
+        DaemonThreadFactory(String name) {
+            this.prefix = name + "-api-";
+        }
+
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread t = new Thread(r, prefix + count.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        }
+    }
+}
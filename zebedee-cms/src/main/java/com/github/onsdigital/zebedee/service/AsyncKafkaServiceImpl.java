@@ -0,0 +1,139 @@
+package com.github.onsdigital.zebedee.service;
+
+import com.github.onsdigital.zebedee.kafka.KafkaClient;
+import com.github.onsdigital.zebedee.kafka.KafkaRetrySpool;
+import com.github.onsdigital.zebedee.metrics.Counter;
+import com.github.onsdigital.zebedee.metrics.Gauge;
+import org.apache.kafka.common.errors.TimeoutException;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static com.github.onsdigital.zebedee.logging.CMSLogEvent.error;
+import static com.github.onsdigital.zebedee.logging.CMSLogEvent.info;
+import static com.github.onsdigital.zebedee.logging.CMSLogEvent.warn;
+import static com.github.onsdigital.zebedee.metrics.MetricsRegistry.metrics;
+
+/**
+ * Produces content-updated events without waiting for kafka to acknowledge them, so a publish does not wait on the
+ * broker. The result of each event is tracked with a callback, and an event that fails is added to the retry spool
+ * rather than failing the publish. The callbacks run on the producer's IO thread, so failed events are handed to the
+ * spool's writer thread rather than written to disk there.
+ * <p>
+ * A send still blocks the calling thread while the producer waits for the broker's metadata, so once a send in a call
+ * times out the rest of that call's events are spooled without being sent, rather than each waiting out the timeout.
+ */
+public class AsyncKafkaServiceImpl implements KafkaService {
+
+    private static final Counter EVENTS = metrics().counter("zebedee_kafka_content_updated_events_total",
+            "Content-updated kafka events by outcome.", "outcome");
+    private static final Gauge IN_FLIGHT = metrics().gauge("zebedee_kafka_content_updated_events_in_flight",
+            "Number of content-updated kafka events waiting to be acknowledged.");
+
+    private final KafkaClient kafkaClient;
+    private final KafkaRetrySpool spool;
+    private final AtomicLong inFlight = new AtomicLong();
+
+    public AsyncKafkaServiceImpl(KafkaClient kafkaClient, KafkaRetrySpool spool) {
+        this.kafkaClient = kafkaClient;
+        this.spool = spool;
+        IN_FLIGHT.labels().set(inFlight::get);
+    }
+
+    @Override
+    public void produceContentUpdated(String collectionId, List<String> uris, String dataType, String jobID,
+            String searchIndex, String traceId) throws IOException {
+        info().collectionID(collectionId)
+                .data("DataType", dataType)
+                .data("events", uris.size())
+                .log("generating content-updated kafka events for published collection");
+
+        Completion completion = new Completion(collectionId, dataType, uris.size());
+        for (String uri : uris) {
+            KafkaRetrySpool.Event event = new KafkaRetrySpool.Event(uri, dataType, collectionId, jobID, searchIndex,
+                    traceId);
+            inFlight.incrementAndGet();
+            Exception unavailable = completion.unavailable.get();
+            if (unavailable != null) {
+                completed(completion, event, unavailable);
+                continue;
+            }
+            try {
+                kafkaClient.produceContentUpdated(uri, dataType, collectionId, jobID, searchIndex, traceId,
+                        (metadata, e) -> completed(completion, event, e));
+            } catch (Exception e) {
+                completed(completion, event, e);
+            }
+        }
+    }
+
+    private void completed(Completion completion, KafkaRetrySpool.Event event, Exception exception) {
+        inFlight.decrementAndGet();
+        if (exception == null) {
+            EVENTS.labels("sent").inc();
+        } else {
+            completion.failed.incrementAndGet();
+            if (isTimeout(exception) && completion.unavailable.compareAndSet(null, exception)) {
+                warn().collectionID(completion.collectionId)
+                        .data("uri", event.getUri())
+                        .reason(exception.getMessage())
+                        .log("kafka send timed out, spooling the remaining content-updated events unsent");
+            }
+            spool(event, exception);
+        }
+        if (completion.remaining.decrementAndGet() == 0) {
+            info().collectionID(completion.collectionId)
+                    .data("DataType", completion.dataType)
+                    .data("events", completion.events)
+                    .data("failed", completion.failed.get())
+                    .data("timeTaken", System.currentTimeMillis() - completion.start)
+                    .log("content-updated kafka events completed for published collection");
+        }
+    }
+
+    private static boolean isTimeout(Throwable exception) {
+        for (Throwable cause = exception; cause != null; cause = cause.getCause()) {
+            if (cause instanceof TimeoutException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void spool(KafkaRetrySpool.Event event, Exception exception) {
+        spool.spoolLater(event, e -> {
+            if (e == null) {
+                EVENTS.labels("spooled").inc();
+                return;
+            }
+            EVENTS.labels("lost").inc();
+            error().collectionID(event.getCollectionId())
+                    .data("uri", event.getUri())
+                    .reason(exception.getMessage())
+                    .logException(e, "unable to spool failed content-updated kafka event, the event is lost");
+        });
+    }
+
+    /**
+     * Tracks the events of a single call until every one has succeeded or failed.
+     */
+    private static class Completion {
+        private final String collectionId;
+        private final String dataType;
+        private final int events;
+        private final long start = System.currentTimeMillis();
+        private final AtomicInteger remaining;
+        private final AtomicInteger failed = new AtomicInteger();
+        private final AtomicReference<Exception> unavailable = new AtomicReference<>();
+
+        Completion(String collectionId, String dataType, int events) {
+            this.collectionId = collectionId;
+            this.dataType = dataType;
+            this.events = events;
+            this.remaining = new AtomicInteger(events);
+        }
+    }
+}
@@ -4,10 +4,16 @@ import com.github.onsdigital.dp.image.api.client.ImageClient;
 import com.github.onsdigital.dp.image.api.client.exception.ImageAPIException;
 import com.github.onsdigital.dp.image.api.client.model.Image;
 import com.github.onsdigital.dp.image.api.client.model.Images;
+import com.github.onsdigital.zebedee.configuration.Configuration;
 import com.github.onsdigital.zebedee.model.Collection;
+import com.github.onsdigital.zebedee.service.ApiCallExecutor.ApiCall;
+import com.github.onsdigital.zebedee.service.ApiCallExecutor.Outcome;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 
+import static com.github.onsdigital.zebedee.logging.CMSLogEvent.error;
 import static com.github.onsdigital.zebedee.logging.CMSLogEvent.info;
 import static com.github.onsdigital.zebedee.logging.CMSLogEvent.warn;
 
@@ -22,6 +28,7 @@ public class ImageServiceImpl implements ImageService {
     public static final String STATE_IMPORTING = "importing";
     public static final String STATE_FAILED_IMPORT = "failed_import";
     private ImageClient imageClient;
+    private ApiCallExecutor publishExecutor;
 
     /**
      * Construct a new instance of the the image service
@@ -29,7 +36,18 @@ public class ImageServiceImpl implements ImageService {
      * @param imageClient An instance of an Image API client to be used by the service
      */
     public ImageServiceImpl(ImageClient imageClient) {
+        this(imageClient, Configuration.getImageAPIPublishConcurrency());
+    }
+
+    /**
+     * Construct a new instance of the the image service
+     *
+     * @param imageClient        An instance of an Image API client to be used by the service
+     * @param publishConcurrency The maximum number of images published concurrently
+     */
+    public ImageServiceImpl(ImageClient imageClient, int publishConcurrency) {
         this.imageClient = imageClient;
+        this.publishExecutor = new ApiCallExecutor("image", publishConcurrency);
     }
 
 
@@ -47,12 +65,20 @@ public class ImageServiceImpl implements ImageService {
 
         ImageServicePublishingResult result = new ImageServicePublishingResult(images.getTotalCount());
         if (images != null && images.getTotalCount() > 0) {
+            List<ApiCall<PublishStatus>> calls = new ArrayList<>();
             for (Image image : images.getItems()) {
-                PublishStatus status = publishImage(image, collection.getId());
-                if (PublishStatus.UNPUBLISHED.equals(status)) {
+                calls.add(new ApiCall<>(image.getId(), () -> publishImage(image, collection.getId())));
+            }
+
+            // Outcomes are returned in the order the images were listed, so the result is as it was when sequential.
+            List<Outcome<PublishStatus>> outcomes = publishExecutor.invokeAll(collection.getId(), calls);
+            for (int i = 0; i < outcomes.size(); i++) {
+                Image image = images.getItems().get(i);
+                if (PublishStatus.UNPUBLISHED.equals(outcomes.get(i).getResult())) {
                     result.addUnpublishedImage(image.getId(), image.getState());
                 }
             }
+            throwFirstFailure(collection.getId(), outcomes);
         }
 
         // Image API does not implement paging. Capture scenario if it is implemented unexpectedly.
@@ -102,6 +128,32 @@ public class ImageServiceImpl implements ImageService {
         return status;
     }
 
+    private void throwFirstFailure(String collectionId, List<Outcome<PublishStatus>> outcomes)
+            throws IOException, ImageAPIException {
+        Exception failure = ApiCallExecutor.firstFailure(outcomes);
+        if (failure == null) {
+            return;
+        }
+
+        for (Outcome<PublishStatus> outcome : outcomes) {
+            if (!outcome.isSuccess()) {
+                error().data("publishing", true)
+                        .collectionID(collectionId)
+                        .data("image_id", outcome.getDescription())
+                        .exception(outcome.getException())
+                        .log("error publishing image");
+            }
+        }
+
+        if (failure instanceof ImageAPIException) {
+            throw (ImageAPIException) failure;
+        }
+        if (failure instanceof IOException) {
+            throw (IOException) failure;
+        }
+        throw new IOException(failure);
+    }
+
     private enum PublishStatus {
         SKIPPED,
         UNPUBLISHED,
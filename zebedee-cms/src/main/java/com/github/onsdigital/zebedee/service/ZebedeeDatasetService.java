@@ -12,10 +12,17 @@ import dp.api.dataset.model.Dataset;
 import dp.api.dataset.model.DatasetVersion;
 import dp.api.dataset.model.State;
 
+import com.github.onsdigital.zebedee.configuration.Configuration;
+import com.github.onsdigital.zebedee.service.ApiCallExecutor.ApiCall;
+import com.github.onsdigital.zebedee.service.ApiCallExecutor.Outcome;
+
 import java.io.IOException;
 import java.io.InvalidObjectException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 
+import static com.github.onsdigital.logging.v2.event.SimpleEvent.error;
 import static com.github.onsdigital.logging.v2.event.SimpleEvent.info;
 
 /**
@@ -24,9 +31,19 @@ import static com.github.onsdigital.logging.v2.event.SimpleEvent.info;
 public class ZebedeeDatasetService implements DatasetService {
 
     private DatasetClient datasetClient;
+    private ApiCallExecutor publishExecutor;
 
     public ZebedeeDatasetService(DatasetClient datasetClient) {
+        this(datasetClient, Configuration.getDatasetAPIPublishConcurrency());
+    }
+
+    /**
+     * @param datasetClient      the dataset API client.
+     * @param publishConcurrency the maximum number of concurrent dataset API calls made when publishing a collection.
+     */
+    public ZebedeeDatasetService(DatasetClient datasetClient, int publishConcurrency) {
         this.datasetClient = datasetClient;
+        this.publishExecutor = new ApiCallExecutor("dataset", publishConcurrency);
     }
 
     /**
@@ -34,36 +51,73 @@ public class ZebedeeDatasetService implements DatasetService {
      */
     @Override
     public void publishDatasetsInCollection(Collection collection) throws IOException, DatasetAPIException {
+        String collectionId = collection.getDescription().getId();
 
+        // All versions are published before any dataset, as before, but the calls within each step run concurrently.
+        List<ApiCall<Void>> versionCalls = new ArrayList<>();
         for (CollectionDatasetVersion datasetVersion : collection.getDescription().getDatasetVersions()) {
+            String description = datasetVersion.getId() + "/" + datasetVersion.getEdition() + "/"
+                    + datasetVersion.getVersion();
+
+            versionCalls.add(new ApiCall<>(description, () -> {
+                info().data("collectionId", collectionId)
+                        .data("datasetId", datasetVersion.getId())
+                        .data("edition", datasetVersion.getEdition())
+                        .data("version", datasetVersion.getVersion())
+                        .log("setting dataset api version state to published");
+
+                DatasetVersion versionUpdate = new DatasetVersion();
+                versionUpdate.setState(State.PUBLISHED);
+
+                datasetClient.updateDatasetVersion(
+                        datasetVersion.getId(),
+                        datasetVersion.getEdition(),
+                        datasetVersion.getVersion(),
+                        versionUpdate);
+                return null;
+            }));
+        }
+        throwFirstFailure(collectionId, publishExecutor.invokeAll(collectionId, versionCalls));
 
-            info().data("collectionId", collection.getDescription().getId())
-                    .data("datasetId", datasetVersion.getId())
-                    .data("edition", datasetVersion.getEdition())
-                    .data("version", datasetVersion.getVersion())
-                    .log("setting dataset api version state to published");
+        List<ApiCall<Void>> datasetCalls = new ArrayList<>();
+        for (CollectionDataset dataset : collection.getDescription().getDatasets()) {
+            datasetCalls.add(new ApiCall<>(dataset.getId(), () -> {
+                info().data("collectionId", collectionId)
+                        .data("datasetId", dataset.getId())
+                        .log("setting api dataset state to published");
 
-            DatasetVersion versionUpdate = new DatasetVersion();
-            versionUpdate.setState(State.PUBLISHED);
+                Dataset datasetUpdate = new Dataset();
+                datasetUpdate.setState(State.PUBLISHED);
 
-            datasetClient.updateDatasetVersion(
-                    datasetVersion.getId(),
-                    datasetVersion.getEdition(),
-                    datasetVersion.getVersion(),
-                    versionUpdate);
+                datasetClient.updateDataset(dataset.getId(), datasetUpdate);
+                return null;
+            }));
         }
+        throwFirstFailure(collectionId, publishExecutor.invokeAll(collectionId, datasetCalls));
+    }
 
-        for (CollectionDataset dataset : collection.getDescription().getDatasets()) {
-
-            info().data("collectionId", collection.getDescription().getId())
-                    .data("datasetId", dataset.getId())
-                    .log("setting api dataset state to published");
+    private void throwFirstFailure(String collectionId, List<Outcome<Void>> outcomes)
+            throws IOException, DatasetAPIException {
+        Exception failure = ApiCallExecutor.firstFailure(outcomes);
+        if (failure == null) {
+            return;
+        }
 
-            Dataset datasetUpdate = new Dataset();
-            datasetUpdate.setState(State.PUBLISHED);
+        for (Outcome<Void> outcome : outcomes) {
+            if (!outcome.isSuccess()) {
+                error().data("collectionId", collectionId)
+                        .data("call", outcome.getDescription())
+                        .logException(outcome.getException(), "failed to set dataset api state to published");
+            }
+        }
 
-            datasetClient.updateDataset(dataset.getId(), datasetUpdate);
+        if (failure instanceof DatasetAPIException) {
+            throw (DatasetAPIException) failure;
+        }
+        if (failure instanceof IOException) {
+            throw (IOException) failure;
         }
+        throw new IOException(failure);
     }
 
     /**
@@ -28,6 +28,15 @@ public class Team {
         this.members = new HashSet<>();
     }
 
+    /**
+     * Construct a copy of the team that can be changed without changing the original.
+     */
+    public Team(Team team) {
+        this.id = team.id;
+        this.name = team.name;
+        this.members = team.members != null ? new HashSet<>(team.members) : new HashSet<>();
+    }
+
     public String getId() {
         return id;
     }
@@ -10,6 +10,7 @@ import com.github.onsdigital.zebedee.permissions.service.PermissionsService;
 import com.github.onsdigital.zebedee.service.ServiceSupplier;
 import com.github.onsdigital.zebedee.session.model.Session;
 import com.github.onsdigital.zebedee.teams.model.Team;
+import com.github.onsdigital.zebedee.teams.store.TeamDirectory;
 import com.github.onsdigital.zebedee.teams.store.TeamsStore;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.math.NumberUtils;
@@ -48,6 +49,7 @@ public class TeamsServiceImpl implements TeamsService {
     private ReadWriteLock teamLock = new ReentrantReadWriteLock();
     private ServiceSupplier<PermissionsService> permissionsServiceSupplier;
     private TeamsStore teamsStore;
+    private TeamDirectory teamDirectory;
 
     private Comparator<Team> sortTeamsbyName = (t1, t2) -> t1.getName().compareTo(t2.getName());
 
@@ -65,17 +67,35 @@ public class TeamsServiceImpl implements TeamsService {
      * @param permissionsServiceSupplier
      */
     public TeamsServiceImpl(TeamsStore teamsStore, ServiceSupplier<PermissionsService> permissionsServiceSupplier) {
+        this(teamsStore, null, permissionsServiceSupplier);
+    }
+
+    /**
+     * @param teamsStore
+     * @param teamDirectory              the in memory directory of the teams in the store to look teams up in, or
+     *                                   null to read them from the store each time.
+     * @param permissionsServiceSupplier
+     */
+    public TeamsServiceImpl(TeamsStore teamsStore, TeamDirectory teamDirectory,
+                            ServiceSupplier<PermissionsService> permissionsServiceSupplier) {
         this.teamsStore = teamsStore;
+        this.teamDirectory = teamDirectory;
         this.permissionsServiceSupplier = permissionsServiceSupplier;
     }
 
     @Override
     public List<Team> listTeams() throws IOException {
+        if (teamDirectory != null) {
+            return teamDirectory.listTeams();
+        }
         return teamsStore.listTeams();
     }
 
     @Override
     public List<Team> resolveTeams(Set<String> teamIds) throws IOException {
+        if (teamDirectory != null) {
+            return teamDirectory.getTeams(teamIds);
+        }
         return listTeams()
                 .parallelStream()
                 .filter(t -> teamIds.contains(t.getId()))
@@ -91,6 +111,9 @@ public class TeamsServiceImpl implements TeamsService {
 
     @Override
     public Team findTeam(String teamName) throws IOException, NotFoundException {
+        if (teamDirectory != null) {
+            return teamDirectory.get(teamName);
+        }
         return teamsStore.get(teamName);
     }
 
@@ -99,7 +122,7 @@ public class TeamsServiceImpl implements TeamsService {
         validateSessionAndPermissions(session);
 
         // Check for a name conflict:
-        if (teamsStore.exists(teamName)) {
+        if (teamDirectory != null ? teamDirectory.exists(teamName) : teamsStore.exists(teamName)) {
             throw new ConflictException("There is already a team matching this name.");
         }
 
@@ -122,7 +145,7 @@ public class TeamsServiceImpl implements TeamsService {
             Team team = new Team()
                     .setName(teamName)
                     .setId(teamID);
-            teamsStore.save(team);
+            save(team);
             return team;
         } finally {
             teamLock.writeLock().unlock();
@@ -136,6 +159,9 @@ public class TeamsServiceImpl implements TeamsService {
             info().data("teamName", delete.getName()).log("Team could not be deleted");
             throw new IOException("Team " + delete.getName() + " could not be deleted.");
         }
+        if (teamDirectory != null) {
+            teamDirectory.deleted(delete);
+        }
     }
 
     @Override
@@ -179,6 +205,12 @@ public class TeamsServiceImpl implements TeamsService {
 
     @Override
     public List<String> listTeamsForUser(Session session) throws IOException {
+        if (teamDirectory != null) {
+            return teamDirectory.listTeamsForMember(session.getEmail())
+                    .stream()
+                    .map(t -> t.getId())
+                    .collect(Collectors.toList());
+        }
         return listTeams().parallelStream()
                 .filter(t -> t.getMembers().contains(session.getEmail()))
                 .map(t -> t.getId())
@@ -189,13 +221,20 @@ public class TeamsServiceImpl implements TeamsService {
         if (validator.test(target)) {
             teamLock.writeLock().lock();
             try {
-                teamsStore.save(updateTask.apply(target));
+                save(updateTask.apply(target));
             } finally {
                 teamLock.writeLock().unlock();
             }
         }
     }
 
+    private void save(Team team) throws IOException, NotFoundException {
+        teamsStore.save(team);
+        if (teamDirectory != null) {
+            teamDirectory.saved(team);
+        }
+    }
+
     /**
      * Check the {@link Session} is not null & the email address is not empty and that the user have the required
      * admin permission.
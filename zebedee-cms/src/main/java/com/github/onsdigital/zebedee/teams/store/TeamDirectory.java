@@ -0,0 +1,228 @@
+package com.github.onsdigital.zebedee.teams.store;
+
+import com.github.onsdigital.zebedee.exceptions.NotFoundException;
+import com.github.onsdigital.zebedee.model.PathUtils;
+import com.github.onsdigital.zebedee.teams.model.Team;
+import org.apache.commons.lang3.StringUtils;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import static com.github.onsdigital.logging.v2.event.SimpleEvent.info;
+
+/**
+ * The teams held in memory, loaded once from the {@link TeamsStore} and indexed by name, ID and member so the
+ * lookups made for each permission check do not read every team file.
+ * <p>
+ * The directory does not write to the store. Whoever saves or deletes a team in the store must tell the directory with
+ * {@link #saved(Team)} or {@link #deleted(Team)}. Teams are copied in and out, so a team can be changed by the caller
+ * without changing the directory until it is saved.
+ *
+ * @deprecated in favour of the dp-identity-api and will be removed after the migration to JWT sessions is complete.
+ */
+@Deprecated
+public class TeamDirectory {
+
+    private final TeamsStore teamsStore;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private Map<String, Team> teamsByName;
+    private Map<String, String> namesById;
+    private Map<String, Set<String>> namesByMember;
+
+    /**
+     * @param teamsStore the store to load the teams from.
+     */
+    public TeamDirectory(TeamsStore teamsStore) {
+        this.teamsStore = teamsStore;
+    }
+
+    /**
+     * @return a copy of every team.
+     */
+    public List<Team> listTeams() throws IOException {
+        load();
+        lock.readLock().lock();
+        try {
+            return copies(teamsByName.keySet());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return a copy of the team with the given name.
+     * @throws NotFoundException if there is no team with the name.
+     */
+    public Team get(String teamName) throws IOException, NotFoundException {
+        load();
+        lock.readLock().lock();
+        try {
+            Team team = teamsByName.get(key(teamName));
+            if (team == null) {
+                throw new NotFoundException("Team not found: " + teamName);
+            }
+            return new Team(team);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public boolean exists(String teamName) throws IOException {
+        load();
+        lock.readLock().lock();
+        try {
+            return teamsByName.containsKey(key(teamName));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return a copy of each team with one of the given IDs.
+     */
+    public List<Team> getTeams(Set<String> teamIds) throws IOException {
+        load();
+        lock.readLock().lock();
+        try {
+            Set<String> names = new HashSet<>();
+            for (String teamId : teamIds) {
+                String name = namesById.get(teamId);
+                if (name != null) {
+                    names.add(name);
+                }
+            }
+            return copies(names);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return a copy of each team the given email is a member of.
+     */
+    public List<Team> listTeamsForMember(String email) throws IOException {
+        load();
+        lock.readLock().lock();
+        try {
+            Set<String> names = namesByMember.get(email);
+            return names == null ? new ArrayList<>() : copies(names);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Update the directory with a team that has been saved to the store.
+     */
+    public void saved(Team team) throws IOException {
+        load();
+        lock.writeLock().lock();
+        try {
+            put(new Team(team));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Remove a team that has been deleted from the store.
+     */
+    public void deleted(Team team) throws IOException {
+        load();
+        lock.writeLock().lock();
+        try {
+            remove(key(team.getName()));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void load() throws IOException {
+        lock.readLock().lock();
+        try {
+            if (teamsByName != null) {
+                return;
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        lock.writeLock().lock();
+        try {
+            if (teamsByName != null) {
+                return;
+            }
+
+            teamsByName = new HashMap<>();
+            namesById = new HashMap<>();
+            namesByMember = new HashMap<>();
+            for (Team team : teamsStore.listTeams()) {
+                put(team);
+            }
+            info().data("teams", teamsByName.size()).log("loaded team directory");
+        } catch (IOException | RuntimeException e) {
+            teamsByName = null;
+            throw e;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void put(Team team) {
+        if (team.getMembers() == null) {
+            team.setMembers(new HashSet<>());
+        }
+
+        String name = key(team.getName());
+        remove(name);
+
+        teamsByName.put(name, team);
+        if (team.getId() != null) {
+            namesById.put(team.getId(), name);
+        }
+        for (String member : team.getMembers()) {
+            namesByMember.computeIfAbsent(member, m -> new HashSet<>()).add(name);
+        }
+    }
+
+    private void remove(String name) {
+        Team team = teamsByName.remove(name);
+        if (team == null) {
+            return;
+        }
+
+        if (team.getId() != null) {
+            namesById.remove(team.getId(), name);
+        }
+        for (String member : team.getMembers()) {
+            Set<String> names = namesByMember.get(member);
+            if (names != null && names.remove(name) && names.isEmpty()) {
+                namesByMember.remove(member);
+            }
+        }
+    }
+
+    private List<Team> copies(Set<String> names) {
+        List<Team> result = new ArrayList<>(names.size());
+        for (String name : names) {
+            result.add(new Team(teamsByName.get(name)));
+        }
+        return result;
+    }
+
+    /**
+     * Teams are stored in a file named from the team name, so teams with names that make the same file name are the
+     * same team.
+     */
+    private static String key(String teamName) {
+        return StringUtils.isBlank(teamName) ? "" : PathUtils.toFilename(teamName);
+    }
+}
@@ -9,7 +9,6 @@ import org.apache.commons.lang3.StringUtils;
 
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.OutputStream;
 import java.nio.file.DirectoryStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -79,8 +78,8 @@ public class TeamsStoreFileSystemImpl implements TeamsStore {
 
         if (path != null) {
             teamLock.writeLock().lock();
-            try (OutputStream output = Files.newOutputStream(path)) {
-                Serialiser.serialise(output, team);
+            try {
+                teamJSONSerialiser.replace(path, team);
             } finally {
                 teamLock.writeLock().unlock();
             }
@@ -24,6 +24,22 @@ public class User extends UserSanitised {
         // No initialisation
     }
 
+    /**
+     * Construct a copy of the user that can be changed without changing the original.
+     */
+    public User(User user) {
+        this.name = user.name;
+        this.email = user.email;
+        this.inactive = user.inactive;
+        this.temporaryPassword = user.temporaryPassword;
+        this.lastAdmin = user.lastAdmin;
+        this.passwordHash = user.passwordHash;
+        if (user.adminOptions != null) {
+            this.adminOptions = new AdminOptions();
+            this.adminOptions.rawJson = user.adminOptions.rawJson;
+        }
+    }
+
     /**
      * Authenticates this user.
      * @param password The user's password.
@@ -10,6 +10,7 @@ import com.github.onsdigital.zebedee.session.model.Session;
 import com.github.onsdigital.zebedee.user.model.AdminOptions;
 import com.github.onsdigital.zebedee.user.model.User;
 import com.github.onsdigital.zebedee.user.model.UserList;
+import com.github.onsdigital.zebedee.user.store.UserDirectory;
 import com.github.onsdigital.zebedee.user.store.UserStore;
 import org.apache.commons.lang3.StringUtils;
 
@@ -42,16 +43,26 @@ public class UsersServiceImpl implements UsersService {
 
     private PermissionsService permissionsService;
     private UserStore userStore;
+    private UserDirectory userDirectory;
     private UserFactory userFactory;
 
     /**
      * Get a singleton instance of {@link UsersServiceImpl}.
      */
     public static UsersService getInstance(UserStore userStore, PermissionsService permissionsService) {
+        return getInstance(userStore, null, permissionsService);
+    }
+
+    /**
+     * Get a singleton instance of {@link UsersServiceImpl} looking users up in the given directory, or in the store
+     * each time if it is null.
+     */
+    public static UsersService getInstance(UserStore userStore, UserDirectory userDirectory,
+                                           PermissionsService permissionsService) {
         if (INSTANCE == null) {
             synchronized (MUTEX) {
                 if (INSTANCE == null) {
-                    INSTANCE = new UsersServiceImpl(userStore, permissionsService);
+                    INSTANCE = new UsersServiceImpl(userStore, userDirectory, permissionsService);
                 }
             }
         }
@@ -63,8 +74,13 @@ public class UsersServiceImpl implements UsersService {
      * singleton instance.
      */
     UsersServiceImpl(UserStore userStore, PermissionsService permissionsService) {
+        this(userStore, null, permissionsService);
+    }
+
+    UsersServiceImpl(UserStore userStore, UserDirectory userDirectory, PermissionsService permissionsService) {
         this.permissionsService = permissionsService;
         this.userStore = userStore;
+        this.userDirectory = userDirectory;
         this.userFactory = new UserFactory();
     }
 
@@ -76,11 +92,11 @@ public class UsersServiceImpl implements UsersService {
                 throw new BadRequestException(BLANK_EMAIL_MSG);
             }
 
-            if (!userStore.exists(email)) {
+            if (!userExists(email)) {
                 info().data("user", email).log("no user exists with the specified email");
                 throw new NotFoundException(format(UNKNOWN_USER_MSG, email));
             }
-            return userStore.get(email);
+            return getUser(email);
         } finally {
             lock.unlock();
         }
@@ -88,7 +104,7 @@ public class UsersServiceImpl implements UsersService {
 
     @Override
     public boolean exists(String email) throws IOException {
-        return userStore.exists(email);
+        return userExists(email);
     }
 
     @Override
@@ -103,7 +119,7 @@ public class UsersServiceImpl implements UsersService {
         lock.lock();
         try {
             user = create(user, SYSTEM_USER);
-            userStore.save(resetPassword(user, password, SYSTEM_USER));
+            save(resetPassword(user, password, SYSTEM_USER));
             permissionsService.addEditor(user.getEmail(), null);
             permissionsService.addAdministrator(user.getEmail(), null);
         } finally {
@@ -120,7 +136,7 @@ public class UsersServiceImpl implements UsersService {
         if (user == null) {
             throw new BadRequestException(USER_IS_NULL_MSG);
         }
-        if (userStore.exists(user.getEmail())) {
+        if (userExists(user.getEmail())) {
             throw new ConflictException(format(USER_ALREADY_EXISTS_MSG, user.getEmail()));
         }
         if (!valid(user)) {
@@ -140,13 +156,13 @@ public class UsersServiceImpl implements UsersService {
         if (credentials == null) {
             throw new BadRequestException("Cannot set password for user as credentials is null.");
         }
-        if (!userStore.exists(credentials.getEmail())) {
+        if (!userExists(credentials.getEmail())) {
             throw new BadRequestException("Cannot set password as user does not exist");
         }
 
         lock.lock();
         try {
-            User targetUser = userStore.get(credentials.getEmail());
+            User targetUser = getUser(credentials.getEmail());
 
             if (!permissionsService.isAdministrator(session) && !targetUser.authenticate(credentials.getOldPassword())) {
                 throw new UnauthorizedException("Authentication failed with old password.");
@@ -162,7 +178,7 @@ public class UsersServiceImpl implements UsersService {
                 if (permissionsService.isAdministrator(session) || !permissionsService.hasAdministrator()) {
 
                     targetUser = resetPassword(targetUser, credentials.getPassword(), session.getEmail());
-                    userStore.save(targetUser);
+                    save(targetUser);
                     isSuccess = true;
                 } else {
                     // Set password unsuccessful.
@@ -179,6 +195,9 @@ public class UsersServiceImpl implements UsersService {
 
     @Override
     public UserList list() throws IOException {
+        if (userDirectory != null) {
+            return userDirectory.list();
+        }
         return userStore.list();
     }
 
@@ -189,7 +208,7 @@ public class UsersServiceImpl implements UsersService {
             throw new UnauthorizedException("Administrator permissionsServiceImpl required");
         }
 
-        if (!userStore.exists(user.getEmail())) {
+        if (!userExists(user.getEmail())) {
             throw new NotFoundException("User " + user.getEmail() + " could not be found");
         }
         return update(user, updatedUser, session.getEmail());
@@ -204,13 +223,17 @@ public class UsersServiceImpl implements UsersService {
             throw new UnauthorizedException("Administrator permissionsServiceImpl required");
         }
 
-        if (!userStore.exists(user.getEmail())) {
+        if (!userExists(user.getEmail())) {
             throw new NotFoundException(format(UNKNOWN_USER_MSG, user.getEmail()));
         }
 
         lock.lock();
         try {
-            return userStore.delete(user);
+            boolean deleted = userStore.delete(user);
+            if (userDirectory != null) {
+                userDirectory.deleted(user);
+            }
+            return deleted;
         } finally {
             lock.unlock();
         }
@@ -220,9 +243,9 @@ public class UsersServiceImpl implements UsersService {
         User result = null;
         lock.lock();
         try {
-            if (valid(user) && !userStore.exists(user.getEmail())) {
+            if (valid(user) && !userExists(user.getEmail())) {
                 result = userFactory.newUserWithDefaultSettings(user.getEmail(), user.getName(), lastAdmin);
-                userStore.save(result);
+                save(result);
             }
             return result;
         } finally {
@@ -250,7 +273,7 @@ public class UsersServiceImpl implements UsersService {
                 }
 
                 user.setLastAdmin(lastAdmin);
-                userStore.save(user);
+                save(user);
             }
             return user;
         } finally {
@@ -258,6 +281,27 @@ public class UsersServiceImpl implements UsersService {
         }
     }
 
+    private boolean userExists(String email) throws IOException {
+        if (userDirectory != null) {
+            return userDirectory.exists(email);
+        }
+        return userStore.exists(email);
+    }
+
+    private User getUser(String email) throws IOException {
+        if (userDirectory != null) {
+            return userDirectory.get(email);
+        }
+        return userStore.get(email);
+    }
+
+    private void save(User user) throws IOException {
+        userStore.save(user);
+        if (userDirectory != null) {
+            userDirectory.saved(user);
+        }
+    }
+
     private boolean valid(User user) {
         return user != null && StringUtils.isNoneBlank(user.getEmail(), user.getName());
     }
@@ -269,7 +313,7 @@ public class UsersServiceImpl implements UsersService {
                 user.setInactive(false);
                 user.setLastAdmin(user.getEmail());
                 user.setTemporaryPassword(false);
-                userStore.save(user);
+                save(user);
                 return true;
             }
             return false;
@@ -0,0 +1,142 @@
+package com.github.onsdigital.zebedee.user.store;
+
+import com.github.onsdigital.zebedee.model.PathUtils;
+import com.github.onsdigital.zebedee.user.model.User;
+import com.github.onsdigital.zebedee.user.model.UserList;
+import org.apache.commons.lang3.StringUtils;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import static com.github.onsdigital.logging.v2.event.SimpleEvent.info;
+
+/**
+ * The users held in memory, loaded once from the {@link UserStore} and indexed by email so listing and looking up
+ * users does not read the user files.
+ * <p>
+ * The directory does not write to the store. Whoever saves or deletes a user in the store must tell the directory with
+ * {@link #saved(User)} or {@link #deleted(User)}. Users are copied in and out, so a user can be changed by the caller
+ * without changing the directory until it is saved.
+ */
+@Deprecated
+public class UserDirectory {
+
+    private final UserStore userStore;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private Map<String, User> usersByEmail;
+
+    /**
+     * @param userStore the store to load the users from.
+     */
+    public UserDirectory(UserStore userStore) {
+        this.userStore = userStore;
+    }
+
+    public boolean exists(String email) throws IOException {
+        load();
+        lock.readLock().lock();
+        try {
+            return StringUtils.isNotBlank(email) && usersByEmail.containsKey(normalise(email));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return a copy of the user with the given email, or null if there is no such user.
+     */
+    public User get(String email) throws IOException {
+        load();
+        lock.readLock().lock();
+        try {
+            User user = StringUtils.isBlank(email) ? null : usersByEmail.get(normalise(email));
+            return user == null ? null : new User(user);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return a copy of every user.
+     */
+    public UserList list() throws IOException {
+        load();
+        lock.readLock().lock();
+        try {
+            UserList result = new UserList();
+            for (User user : usersByEmail.values()) {
+                result.add(new User(user));
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Update the directory with a user that has been saved to the store.
+     */
+    public void saved(User user) throws IOException {
+        load();
+        lock.writeLock().lock();
+        try {
+            usersByEmail.put(normalise(user.getEmail()), new User(user));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Remove a user that has been deleted from the store.
+     */
+    public void deleted(User user) throws IOException {
+        load();
+        lock.writeLock().lock();
+        try {
+            usersByEmail.remove(normalise(user.getEmail()));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void load() throws IOException {
+        lock.readLock().lock();
+        try {
+            if (usersByEmail != null) {
+                return;
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        lock.writeLock().lock();
+        try {
+            if (usersByEmail != null) {
+                return;
+            }
+
+            Map<String, User> users = new HashMap<>();
+            for (User user : userStore.list()) {
+                if (user != null && StringUtils.isNotBlank(user.getEmail())) {
+                    users.put(normalise(user.getEmail()), user);
+                }
+            }
+            usersByEmail = users;
+            info().data("users", users.size()).log("loaded user directory");
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Users are stored in a file named from the trimmed, lower case email, so emails that make the same file name are
+     * the same user.
+     */
+    private static String normalise(String email) {
+        return PathUtils.toFilename(StringUtils.lowerCase(StringUtils.trim(email)));
+    }
+}
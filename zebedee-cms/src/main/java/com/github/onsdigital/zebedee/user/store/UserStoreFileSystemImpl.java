@@ -23,6 +23,7 @@ import java.util.stream.StreamSupport;
 public class UserStoreFileSystemImpl implements UserStore {
 
     private static final String JSON_EXT = ".json";
+    private static final String TEMP_EXT = ".tmp";
     private static final Path DS_STORE = Paths.get(".DS_Store");
 
     private Path usersPath;
@@ -51,7 +52,7 @@ public class UserStoreFileSystemImpl implements UserStore {
     public void save(User user) throws IOException {
         user.setEmail(normalise(user.getEmail()));
         Path userPath = userPath(user.getEmail());
-        userSerialiser.serialise(userPath, user);
+        userSerialiser.replace(userPath, user);
     }
 
     @Override
@@ -59,6 +60,7 @@ public class UserStoreFileSystemImpl implements UserStore {
         try (DirectoryStream<Path> directoryStream = Files.newDirectoryStream(usersPath)) {
             return StreamSupport.stream(directoryStream.spliterator(), false)
                     .filter(path -> !Files.isDirectory(path) && !path.getFileName().equals(DS_STORE))
+                    .filter(path -> !path.getFileName().toString().endsWith(TEMP_EXT))
                     .map(userPath -> {
                         return userSerialiser.deserialiseQuietly(userPath);
                     }).collect(new UserListCollector());
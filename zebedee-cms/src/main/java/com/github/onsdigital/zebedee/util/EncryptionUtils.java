@@ -1,20 +1,45 @@
 package com.github.onsdigital.zebedee.util;
 
 import com.github.davidcarboni.cryptolite.Crypto;
+import com.github.onsdigital.zebedee.configuration.Configuration;
+import com.github.onsdigital.zebedee.metrics.InstrumentedExecutors;
+import com.github.onsdigital.zebedee.util.encryption.ChunkedEncryptedFile;
+import com.github.onsdigital.zebedee.util.encryption.ChunkedEncryption;
+import com.github.onsdigital.zebedee.util.encryption.ChunkedEncryptionOutputStream;
 import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.output.NullOutputStream;
 
 import javax.crypto.SecretKey;
+import java.io.BufferedInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.github.onsdigital.zebedee.configuration.CMSFeatureFlags.cmsFeatureFlags;
 
 /**
  * Created by thomasridd on 25/11/2015.
+ * <p>
+ * Files can be encrypted in either the cryptolite stream format or the seekable {@link ChunkedEncryption} format.
+ * Files are written in the chunked format when {@code ENABLE_CHUNKED_ENCRYPTION} is set, and read in whichever
+ * format they were written in.
+ * <p>
+ * Chunks of files in the chunked format are encrypted and decrypted on a shared pool of {@code CRYPTO_THREADS}
+ * threads, so large files are not limited to the AES throughput of a single core.
  */
 public class EncryptionUtils {
 
+    /**
+     * The number of chunks each stream may have queued or running on the crypto pool, enough to keep every thread busy
+     * without buffering much of a file in memory.
+     */
+    private static final int CHUNKS_IN_FLIGHT_PER_THREAD = 2;
+
     /**
      * Get an output stream to write with encryption
      *
@@ -36,6 +61,10 @@ public class EncryptionUtils {
      * @throws IOException
      */
     public static OutputStream encryptionOutputStream(Path path, SecretKey key) throws IOException {
+        if (cmsFeatureFlags().isChunkedEncryptionEnabled()) {
+            return new ChunkedEncryptionOutputStream(path, key, Configuration.getEncryptionChunkSize(),
+                    CryptoPool.EXECUTOR, CryptoPool.WINDOW);
+        }
         return encryptionOutputStream(FileUtils.openOutputStream(path.toFile()), key);
     }
 
@@ -49,7 +78,11 @@ public class EncryptionUtils {
      * @throws IOException
      */
     public static InputStream encryptionInputStream(InputStream inputStream, SecretKey key) throws IOException {
-        InputStream cipherInputStream = new Crypto().decrypt(inputStream, key);
+        InputStream in = inputStream.markSupported() ? inputStream : new BufferedInputStream(inputStream);
+        if (ChunkedEncryption.isChunked(in)) {
+            return ChunkedEncryption.decryptionInputStream(in, key);
+        }
+        InputStream cipherInputStream = new Crypto().decrypt(in, key);
         return cipherInputStream;
     }
 
@@ -62,6 +95,68 @@ public class EncryptionUtils {
      * @throws IOException
      */
     public static InputStream encryptionInputStream(Path path, SecretKey key) throws IOException {
-        return encryptionInputStream(Files.newInputStream(path), key);
+        return encryptionInputStream(path, key, 0);
+    }
+
+    /**
+     * Get an input stream to read with decryption from the given position in the plaintext. Files in the chunked
+     * format are read from the chunk containing the position, other files are decrypted from the start.
+     *
+     * @param path     a path to a file
+     * @param key      a decryption key
+     * @param position the position in the plaintext to start reading from
+     * @return
+     * @throws IOException
+     */
+    public static InputStream encryptionInputStream(Path path, SecretKey key, long position) throws IOException {
+        if (ChunkedEncryption.isChunked(path)) {
+            ChunkedEncryptedFile file = ChunkedEncryptedFile.open(path, key);
+            if (CryptoPool.EXECUTOR == null || file.getChunkCount() == 1) {
+                return file.newInputStream(position);
+            }
+            return file.newInputStream(position, CryptoPool.EXECUTOR, CryptoPool.WINDOW);
+        }
+        InputStream inputStream = encryptionInputStream(Files.newInputStream(path), key);
+        IOUtils.skipFully(inputStream, position);
+        return inputStream;
+    }
+
+    /**
+     * Get the length of the plaintext of an encrypted file. This is read from the header of files in the chunked
+     * format, other files have to be decrypted to find their length.
+     *
+     * @param path a path to a file
+     * @param key  a decryption key
+     * @return the number of bytes in the plaintext.
+     * @throws IOException
+     */
+    public static long decryptedLength(Path path, SecretKey key) throws IOException {
+        if (ChunkedEncryption.isChunked(path)) {
+            try (ChunkedEncryptedFile file = ChunkedEncryptedFile.open(path, key)) {
+                return file.length();
+            }
+        }
+        try (InputStream inputStream = encryptionInputStream(path, key)) {
+            return IOUtils.copyLarge(inputStream, NullOutputStream.NULL_OUTPUT_STREAM);
+        }
+    }
+
+    /**
+     * Holder for the crypto pool so it is only created once chunked content is read or written. The threads are
+     * daemons so an idle pool does not keep the JVM running.
+     */
+    private static class CryptoPool {
+        static final int THREADS = Configuration.getCryptoThreads();
+        static final int WINDOW = Math.max(1, THREADS * CHUNKS_IN_FLIGHT_PER_THREAD);
+        static final ExecutorService EXECUTOR = THREADS > 1 ? newExecutor() : null;
+
+        private static ExecutorService newExecutor() {
+            AtomicInteger count = new AtomicInteger();
+            return InstrumentedExecutors.newFixedThreadPool("crypto", THREADS, runnable -> {
+                Thread thread = new Thread(runnable, "crypto-" + count.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
     }
 }
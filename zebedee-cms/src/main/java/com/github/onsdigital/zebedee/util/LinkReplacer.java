@@ -0,0 +1,122 @@
+package com.github.onsdigital.zebedee.util;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Replaces literal strings in a stream of text in a single pass, without regular expressions or holding the whole
+ * text in memory. Where more than one of the strings matches at the same position the first one given is replaced,
+ * and replaced text is never matched again.
+ */
+public class LinkReplacer {
+
+    private static final int BUFFER_SIZE = 8 * 1024;
+
+    private final char[][] targets;
+    private final char[][] replacements;
+    private final int longest;
+
+    /**
+     * @param replacements the strings to replace, mapped to their replacement, in the order to try them.
+     */
+    public LinkReplacer(LinkedHashMap<String, String> replacements) {
+        this.targets = new char[replacements.size()][];
+        this.replacements = new char[replacements.size()][];
+
+        int i = 0;
+        int longest = 1;
+        for (Map.Entry<String, String> replacement : replacements.entrySet()) {
+            if (replacement.getKey().isEmpty()) {
+                throw new IllegalArgumentException("the strings to replace can not be empty");
+            }
+            this.targets[i] = replacement.getKey().toCharArray();
+            this.replacements[i] = replacement.getValue().toCharArray();
+            longest = Math.max(longest, this.targets[i].length);
+            i++;
+        }
+        this.longest = longest;
+    }
+
+    /**
+     * The replacer for the links to content moved from one uri to another: a link to the content itself, quoted, or to
+     * anything beneath it.
+     */
+    public static LinkReplacer forMove(String oldUri, String newUri) {
+        LinkedHashMap<String, String> replacements = new LinkedHashMap<>();
+        replacements.put("\"" + oldUri + "\"", "\"" + newUri + "\"");
+        replacements.put(oldUri + "/", newUri + "/");
+        return new LinkReplacer(replacements);
+    }
+
+    /**
+     * Copy the text to the output, replacing each match as it goes.
+     *
+     * @return the number of replacements made.
+     */
+    public int replace(Reader input, Writer output) throws IOException {
+        char[] buffer = new char[BUFFER_SIZE + longest];
+        int length = 0;
+        int position = 0;
+        int unwritten = 0;
+        int count = 0;
+        boolean end = false;
+
+        while (true) {
+            // keep at least the longest target in the buffer so a match is never split across reads
+            if (!end && length - position < longest) {
+                output.write(buffer, unwritten, position - unwritten);
+                System.arraycopy(buffer, position, buffer, 0, length - position);
+                length -= position;
+                position = 0;
+                unwritten = 0;
+
+                int read;
+                while (length < buffer.length && (read = input.read(buffer, length, buffer.length - length)) != -1) {
+                    length += read;
+                }
+                end = length < buffer.length;
+            }
+
+            if (position >= length) {
+                break;
+            }
+
+            int match = match(buffer, position, length);
+            if (match < 0) {
+                position++;
+                continue;
+            }
+
+            output.write(buffer, unwritten, position - unwritten);
+            output.write(replacements[match]);
+            position += targets[match].length;
+            unwritten = position;
+            count++;
+        }
+
+        output.write(buffer, unwritten, length - unwritten);
+        return count;
+    }
+
+    private int match(char[] buffer, int position, int length) {
+        for (int i = 0; i < targets.length; i++) {
+            char[] target = targets[i];
+            if (length - position >= target.length && regionMatches(buffer, position, target)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean regionMatches(char[] buffer, int position, char[] target) {
+        for (int i = 0; i < target.length; i++) {
+            if (buffer[position + i] != target[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,926 @@
+package com.github.onsdigital.zebedee.util;
+
+import com.github.onsdigital.zebedee.content.page.statistics.document.figure.table.TableModifications;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.poi.hpsf.PropertySet;
+import org.apache.poi.hpsf.PropertySetFactory;
+import org.apache.poi.hpsf.SummaryInformation;
+import org.apache.poi.hssf.converter.ExcelToHtmlUtils;
+import org.apache.poi.hssf.eventusermodel.HSSFEventFactory;
+import org.apache.poi.hssf.eventusermodel.HSSFListener;
+import org.apache.poi.hssf.eventusermodel.HSSFRequest;
+import org.apache.poi.hssf.record.BOFRecord;
+import org.apache.poi.hssf.record.BlankRecord;
+import org.apache.poi.hssf.record.BoolErrRecord;
+import org.apache.poi.hssf.record.ColumnInfoRecord;
+import org.apache.poi.hssf.record.DBCellRecord;
+import org.apache.poi.hssf.record.DateWindow1904Record;
+import org.apache.poi.hssf.record.DefaultRowHeightRecord;
+import org.apache.poi.hssf.record.EOFRecord;
+import org.apache.poi.hssf.record.ExtendedFormatRecord;
+import org.apache.poi.hssf.record.FontRecord;
+import org.apache.poi.hssf.record.FormatRecord;
+import org.apache.poi.hssf.record.FormulaRecord;
+import org.apache.poi.hssf.record.LabelRecord;
+import org.apache.poi.hssf.record.LabelSSTRecord;
+import org.apache.poi.hssf.record.MergeCellsRecord;
+import org.apache.poi.hssf.record.MulBlankRecord;
+import org.apache.poi.hssf.record.MulRKRecord;
+import org.apache.poi.hssf.record.NumberRecord;
+import org.apache.poi.hssf.record.PaletteRecord;
+import org.apache.poi.hssf.record.RKRecord;
+import org.apache.poi.hssf.record.Record;
+import org.apache.poi.hssf.record.RowRecord;
+import org.apache.poi.hssf.record.SSTRecord;
+import org.apache.poi.hssf.record.StringRecord;
+import org.apache.poi.hssf.record.common.UnicodeString;
+import org.apache.poi.hssf.usermodel.HSSFDataFormatter;
+import org.apache.poi.hssf.usermodel.HSSFFont;
+import org.apache.poi.poifs.filesystem.DirectoryNode;
+import org.apache.poi.poifs.filesystem.DocumentInputStream;
+import org.apache.poi.poifs.filesystem.POIFSFileSystem;
+import org.apache.poi.ss.formula.eval.ErrorEval;
+import org.apache.poi.ss.usermodel.BorderStyle;
+import org.apache.poi.ss.usermodel.BuiltinFormats;
+import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.ss.util.CellRangeAddress;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+
+import static java.text.MessageFormat.format;
+
+/**
+ * Converts an xls file to a html page with a table for each sheet, as
+ * {@link XlsToHtmlConverter#convertToHtmlPageWithModifications(InputStream, TableModifications)} does, but reads the
+ * workbook with the POI event API and writes the html as it goes rather than building the workbook and a html
+ * document in memory.
+ * <p>
+ * The html has to start with the styles of every row and each table with its number of columns, and the merged cells
+ * of a sheet are stored after its rows, so the workbook records are read three times: for the workbook styles, shared
+ * strings and the merged cells and hidden columns of each sheet, then for the column counts and row styles, then to
+ * write the rows. The file is held in memory as uploaded, but only one block of at most 32 rows is held at a time.
+ */
+public class StreamingXlsToHtmlConverter {
+
+    private static final String CSS_ROW_PREFIX = "r-{0}-";
+    private static final String BODY_CLASS = "b1";
+    private static final String BODY_STYLE = "white-space-collapsing:preserve;";
+    private static final String TABLE_CLASS = "t1";
+    private static final String TABLE_STYLE = "border-collapse:collapse;border-spacing:0;";
+    private static final String ROW = "row";
+    private static final String COL = "col";
+    private static final String NBSP = "\u00A0";
+
+    /**
+     * Palette index of the automatic colour, which is not stored in the palette.
+     */
+    private static final short AUTOMATIC_COLOR = 0x40;
+
+    private final Globals globals = new Globals();
+    private final List<SheetLayout> sheets = new ArrayList<>();
+    private final Map<String, String> rowClasses = new LinkedHashMap<>();
+    private final String rowClassPrefix = format(CSS_ROW_PREFIX, UUID.randomUUID().toString());
+    private final HSSFDataFormatter formatter = new HSSFDataFormatter();
+
+    private final Set<Integer> rowsExcluded;
+    private final Set<Integer> headerRows;
+    private final Set<Integer> headerColumns;
+    private final boolean modified;
+
+    private StreamingXlsToHtmlConverter(TableModifications modifications) {
+        this.modified = modifications != null;
+        this.rowsExcluded = modified ? new HashSet<>(modifications.getRowsExcluded()) : Collections.emptySet();
+        this.headerRows = modified ? new HashSet<>(modifications.getHeaderRows()) : Collections.emptySet();
+        this.headerColumns = modified ? new HashSet<>(modifications.getHeaderColumns()) : Collections.emptySet();
+    }
+
+    /**
+     * Convert the xls file to a html page, writing the html to the given writer as each row is read.
+     *
+     * @param stream        the xls file.
+     * @param modifications the rows to leave out and the header rows and columns, or null for none.
+     * @param out           the writer to write the html page to. It is not closed.
+     * @throws IOException if the file can not be read as a xls workbook or the html can not be written.
+     */
+    public static void convertToHtmlPageWithModifications(InputStream stream, TableModifications modifications,
+                                                          Writer out) throws IOException {
+        try (POIFSFileSystem fs = new POIFSFileSystem(stream)) {
+            StreamingXlsToHtmlConverter converter = new StreamingXlsToHtmlConverter(modifications);
+            DirectoryNode root = fs.getRoot();
+
+            converter.process(root, converter.new StructureReader());
+            converter.process(root, converter.new LayoutReader());
+            converter.writeHead(out, readSummaryInformation(root));
+            converter.process(root, converter.new HtmlWriter(out));
+            out.write("</body>\n</html>\n");
+            out.flush();
+        }
+    }
+
+    private void process(DirectoryNode root, HSSFListener listener) throws IOException {
+        HSSFRequest request = new HSSFRequest();
+        request.addListenerForAllRecords(listener);
+        new HSSFEventFactory().processWorkbookEvents(request, root);
+        if (listener instanceof SheetReader && ((SheetReader) listener).error != null) {
+            throw ((SheetReader) listener).error;
+        }
+    }
+
+    private static SummaryInformation readSummaryInformation(DirectoryNode root) {
+        if (!root.hasEntry(SummaryInformation.DEFAULT_STREAM_NAME)) {
+            return null;
+        }
+        try (DocumentInputStream in = root.createDocumentInputStream(SummaryInformation.DEFAULT_STREAM_NAME)) {
+            PropertySet propertySet = PropertySetFactory.create(in);
+            return propertySet instanceof SummaryInformation ? (SummaryInformation) propertySet : null;
+        } catch (Exception e) {
+            // the summary only adds the title and meta tags, so the table is still written without it.
+            return null;
+        }
+    }
+
+    private void writeHead(Writer out, SummaryInformation summary) throws IOException {
+        StringBuilder head = new StringBuilder("<html>\n<head>\n");
+        head.append("<META http-equiv=\"Content-Type\" content=\"text/html; charset=UTF-8\">\n");
+        head.append("<style type=\"text/css\">");
+        appendCssClass(head, BODY_CLASS, BODY_STYLE);
+        if (sheets.stream().anyMatch(sheet -> sheet.hasRows)) {
+            appendCssClass(head, TABLE_CLASS, TABLE_STYLE);
+        }
+        for (Map.Entry<String, String> rowClass : rowClasses.entrySet()) {
+            appendCssClass(head, rowClass.getValue(), rowClass.getKey());
+        }
+        head.append("</style>\n");
+
+        if (summary != null) {
+            if (StringUtils.isNotEmpty(summary.getTitle())) {
+                head.append("<title>").append(escape(summary.getTitle())).append("</title>\n");
+            }
+            appendMeta(head, "author", summary.getAuthor());
+            appendMeta(head, "keywords", summary.getKeywords());
+            appendMeta(head, "description", summary.getComments());
+        }
+
+        head.append("</head>\n<body class=\"").append(BODY_CLASS).append("\">\n");
+        out.write(head.toString());
+    }
+
+    private static void appendCssClass(StringBuilder out, String className, String style) {
+        out.append('.').append(className).append('{').append(style).append("}\n");
+    }
+
+    private static void appendMeta(StringBuilder out, String name, String content) {
+        if (StringUtils.isNotEmpty(content)) {
+            out.append("<meta content=\"").append(escapeAttribute(content)).append("\" name=\"").append(name)
+                    .append("\">\n");
+        }
+    }
+
+    /**
+     * Render a row, the same as {@link XlsToHtmlConverter#processRow}: cells hidden or covered by a merged cell are
+     * left out and empty cells are only written if followed by a cell that is not empty.
+     *
+     * @return the number of columns up to the last cell written, or 0 if the row is excluded or has no cells.
+     */
+    private int renderRow(SheetLayout sheet, RowState row, StringBuilder out) {
+        if (rowsExcluded.contains(row.rowNum)) {
+            return 0;
+        }
+
+        int maxColIx = row.lastCellNum();
+        if (maxColIx <= 0) {
+            return 0;
+        }
+
+        List<CellRangeAddress> rowRanges = sheet.mergedRangesInRow(row.rowNum);
+        StringBuilder emptyCells = new StringBuilder();
+        StringBuilder element = new StringBuilder();
+        int maxRenderedColumn = 0;
+        for (int columnIndex = 0; columnIndex < maxColIx; columnIndex++) {
+            if (sheet.hiddenColumns.get(columnIndex)) {
+                continue;
+            }
+
+            CellRangeAddress range = mergedRange(rowRanges, columnIndex);
+            if (range != null && (range.getFirstColumn() != columnIndex || range.getFirstRow() != row.rowNum)) {
+                continue;
+            }
+
+            element.setLength(0);
+            boolean emptyCell = renderCell(row.rowNum, columnIndex, row.cell(columnIndex), range, element);
+            if (emptyCell) {
+                emptyCells.append(element);
+            } else {
+                out.append(emptyCells);
+                emptyCells.setLength(0);
+                out.append(element);
+                maxRenderedColumn = columnIndex;
+            }
+        }
+        return maxRenderedColumn + 1;
+    }
+
+    /**
+     * The last merged range listed that covers the column wins, as in {@link ExcelToHtmlUtils#buildMergedRangesMap}.
+     */
+    private static CellRangeAddress mergedRange(List<CellRangeAddress> rowRanges, int columnIndex) {
+        for (int i = rowRanges.size() - 1; i >= 0; i--) {
+            CellRangeAddress range = rowRanges.get(i);
+            if (range.getFirstColumn() <= columnIndex && columnIndex <= range.getLastColumn()) {
+                return range;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Render a cell as {@link XlsToHtmlConverter#processCell} does.
+     *
+     * @return true if the cell is empty.
+     */
+    private boolean renderCell(int rowNum, int columnIndex, Cell cell, CellRangeAddress range, StringBuilder out) {
+        String scope = null;
+        if (modified && !isEmptyCell(cell)) {
+            if (headerRows.contains(rowNum)) {
+                // If row is defined as header and this column is also a header then col scope takes priority.
+                scope = headerColumns.contains(columnIndex) ? COL : ROW;
+            } else if (headerColumns.contains(columnIndex)) {
+                scope = COL;
+            }
+        }
+        String tag = scope == null ? "td" : "th";
+
+        String style = null;
+        String content = "";
+        boolean empty = true;
+        if (cell != null) {
+            String value = cellValue(cell);
+            boolean noText = StringUtils.isEmpty(value);
+
+            if (cell.xf != 0) {
+                style = buildStyle(globals.xf(cell.xf));
+                if (noText) {
+                    // keep the cell from collapsing when it has a style, e.g. borders, but no text.
+                    value = NBSP;
+                }
+            }
+
+            value = leadingSpacesAsNonBreaking(value);
+            empty = StringUtils.isEmpty(value) && cell.xf == 0;
+            content = cell.type == CellType.STRING && cell.richText != null && cell.richText.getFormatRunCount() > 0
+                    ? richTextContent(cell) : escape(value);
+        }
+
+        out.append('<').append(tag);
+        if (range != null) {
+            if (range.getFirstColumn() != range.getLastColumn()) {
+                appendAttribute(out, "colspan", String.valueOf(range.getLastColumn() - range.getFirstColumn() + 1));
+            }
+            if (range.getFirstRow() != range.getLastRow()) {
+                appendAttribute(out, "rowspan", String.valueOf(range.getLastRow() - range.getFirstRow() + 1));
+            }
+        }
+        if (scope != null) {
+            appendAttribute(out, "scope", scope);
+        }
+        if (style != null) {
+            appendAttribute(out, "style", style);
+        }
+        out.append('>').append(content).append("</").append(tag).append(">\n");
+        return empty;
+    }
+
+    private String cellValue(Cell cell) {
+        switch (cell.type) {
+            case STRING:
+                return cell.richText != null ? cell.richText.getString() : cell.text;
+            case FORMULA:
+                switch (cell.resultType) {
+                    case STRING:
+                        return StringUtils.defaultString(cell.text);
+                    case NUMERIC:
+                        return formatNumber(cell);
+                    case BOOLEAN:
+                        return String.valueOf(cell.bool);
+                    case ERROR:
+                        return ErrorEval.getText(cell.error);
+                    default:
+                        return "";
+                }
+            case NUMERIC:
+                return formatNumber(cell);
+            case BOOLEAN:
+                return String.valueOf(cell.bool);
+            case ERROR:
+                return ErrorEval.getText(cell.error);
+            default:
+                return "";
+        }
+    }
+
+    private String formatNumber(Cell cell) {
+        int formatIndex = globals.xf(cell.xf).getFormatIndex();
+        return formatter.formatRawCellContents(cell.number, formatIndex, globals.formatString(formatIndex),
+                globals.date1904);
+    }
+
+    private static String leadingSpacesAsNonBreaking(String value) {
+        if (!value.startsWith(" ")) {
+            return value;
+        }
+        StringBuilder builder = new StringBuilder();
+        for (int c = 0; c < value.length() && value.charAt(c) == ' '; c++) {
+            builder.append(NBSP);
+        }
+        return builder.append(value.substring(builder.length())).toString();
+    }
+
+    /**
+     * The text of each formatting run of the cell, in superscript or subscript tags if its font is, as in
+     * {@link XlsToHtmlConverter#processCell}: the text up to the first run has the cell font and the text of each run
+     * after it the run font.
+     */
+    private String richTextContent(Cell cell) {
+        String content = cell.richText.getString();
+        FontRecord font = globals.font(globals.xf(cell.xf).getFontIndex());
+
+        StringBuilder out = new StringBuilder();
+        int fromIndex = 0;
+        for (int i = 0; i < cell.richText.getFormatRunCount(); i++) {
+            UnicodeString.FormatRun run = cell.richText.getFormatRun(i);
+            appendRun(out, content.substring(fromIndex, run.getCharacterPos()), font);
+            font = globals.font(run.getFontIndex());
+            fromIndex = run.getCharacterPos();
+        }
+        appendRun(out, content.substring(fromIndex), font);
+        return out.toString();
+    }
+
+    private static void appendRun(StringBuilder out, String text, FontRecord font) {
+        if (font.getSuperSubScript() == HSSFFont.SS_SUPER) {
+            out.append("<sup>").append(escape(text)).append("</sup>");
+        } else if (font.getSuperSubScript() == HSSFFont.SS_SUB) {
+            out.append("<sub>").append(escape(text)).append("</sub>");
+        } else {
+            out.append(escape(text));
+        }
+    }
+
+    private static boolean isEmptyCell(Cell cell) {
+        if (cell == null) {
+            return true;
+        }
+        switch (cell.type) {
+            case STRING:
+                return StringUtils.isEmpty(cell.richText != null ? cell.richText.getString() : cell.text);
+            case BLANK:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * The inline style of a cell, as built by {@link XlsToHtmlConverter#buildStyle}.
+     */
+    private String buildStyle(ExtendedFormatRecord xf) {
+        StringBuilder style = new StringBuilder("white-space:pre-wrap;");
+        ExcelToHtmlUtils.appendAlign(style, xf.getAlignment());
+        appendBorder(style, "top", BorderStyle.valueOf(xf.getBorderTop()), xf.getTopBorderPaletteIdx());
+        appendBorder(style, "bottom", BorderStyle.valueOf(xf.getBorderBottom()), xf.getBottomBorderPaletteIdx());
+
+        FontRecord font = globals.font(xf.getFontIndex());
+        if (font.getBoldWeight() == HSSFFont.BOLDWEIGHT_BOLD) {
+            style.append("font-weight:bold;");
+        }
+        String fontColor = color(font.getColorPaletteIndex());
+        if (fontColor != null) {
+            style.append("color: ").append(fontColor).append("; ");
+        }
+        if (font.getFontHeight() / 20 != 0 && font.isItalic()) {
+            style.append("font-style:italic;");
+        }
+        return style.toString();
+    }
+
+    private void appendBorder(StringBuilder style, String type, BorderStyle border, short borderColor) {
+        if (border == BorderStyle.NONE) {
+            return;
+        }
+
+        style.append("border-").append(type).append(':')
+                .append(ExcelToHtmlUtils.getBorderWidth(border)).append(' ')
+                .append(ExcelToHtmlUtils.getBorderStyle(border));
+        String color = color(borderColor);
+        if (color != null) {
+            style.append(' ').append(color);
+        }
+        style.append(';');
+    }
+
+    /**
+     * The css colour of a palette index, as written by {@link ExcelToHtmlUtils#getColor}.
+     */
+    private String color(short index) {
+        byte[] rgb = index == AUTOMATIC_COLOR ? new byte[3] : globals.palette.getColor(index);
+        if (rgb == null) {
+            return null;
+        }
+
+        StringBuilder color = new StringBuilder(7).append('#');
+        for (byte b : rgb) {
+            int component = b & 0xff;
+            if (component < 10) {
+                color.append('0');
+            }
+            color.append(Integer.toHexString(component));
+        }
+
+        switch (color.toString()) {
+            case "#ffffff":
+                return "white";
+            case "#c0c0c0":
+                return "silver";
+            case "#808080":
+                return "gray";
+            case "#000000":
+                return "black";
+            default:
+                return color.toString();
+        }
+    }
+
+    private static void appendAttribute(StringBuilder out, String name, String value) {
+        out.append(' ').append(name).append("=\"").append(escapeAttribute(value)).append('"');
+    }
+
+    static String escape(String text) {
+        StringBuilder out = null;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            String entity;
+            switch (c) {
+                case '&':
+                    entity = "&amp;";
+                    break;
+                case '<':
+                    entity = "&lt;";
+                    break;
+                case '>':
+                    entity = "&gt;";
+                    break;
+                case '\u00A0':
+                    entity = "&nbsp;";
+                    break;
+                default:
+                    entity = null;
+            }
+
+            if (entity != null && out == null) {
+                out = new StringBuilder(text.length() + 16).append(text, 0, i);
+            }
+            if (out != null) {
+                if (entity != null) {
+                    out.append(entity);
+                } else {
+                    out.append(c);
+                }
+            }
+        }
+        return out == null ? text : out.toString();
+    }
+
+    private static String escapeAttribute(String value) {
+        return escape(value).replace("\"", "&quot;");
+    }
+
+    /**
+     * The workbook records needed to render cells, read once before the sheets.
+     */
+    private static class Globals {
+        private SSTRecord sst;
+        private final List<ExtendedFormatRecord> xfs = new ArrayList<>();
+        private final List<FontRecord> fonts = new ArrayList<>();
+        private final Map<Integer, String> formats = new HashMap<>();
+        private PaletteRecord palette = new PaletteRecord();
+        private boolean date1904;
+
+        ExtendedFormatRecord xf(int index) {
+            return xfs.get(index < xfs.size() ? index : 0);
+        }
+
+        /**
+         * Font indexes skip 4, as the workbook does.
+         */
+        FontRecord font(int index) {
+            int i = index > 4 ? index - 1 : index;
+            return fonts.get(i < fonts.size() ? i : 0);
+        }
+
+        String formatString(int index) {
+            String format = formats.get(index);
+            if (format == null) {
+                format = BuiltinFormats.getBuiltinFormat(index);
+            }
+            return format == null ? "General" : format;
+        }
+    }
+
+    /**
+     * What is needed about a sheet before its rows are written.
+     */
+    private static class SheetLayout {
+        private final List<CellRangeAddress> mergedRanges = new ArrayList<>();
+        private final BitSet hiddenColumns = new BitSet();
+        private boolean hasRows;
+        private int maxColumns = 1;
+
+        List<CellRangeAddress> mergedRangesInRow(int rowNum) {
+            if (mergedRanges.isEmpty()) {
+                return Collections.emptyList();
+            }
+            List<CellRangeAddress> ranges = new ArrayList<>();
+            for (CellRangeAddress range : mergedRanges) {
+                if (range.getFirstRow() <= rowNum && rowNum <= range.getLastRow()) {
+                    ranges.add(range);
+                }
+            }
+            return ranges;
+        }
+    }
+
+    private static class RowState {
+        private final int rowNum;
+        private final int height;
+        private final boolean zeroHeight;
+        private Cell[] cells = new Cell[8];
+        private int lastColumn = -1;
+
+        RowState(int rowNum, int height, boolean zeroHeight) {
+            this.rowNum = rowNum;
+            this.height = height;
+            this.zeroHeight = zeroHeight;
+        }
+
+        void add(Cell cell) {
+            if (cell.column >= cells.length) {
+                cells = Arrays.copyOf(cells, Math.max(cells.length * 2, cell.column + 1));
+            }
+            cells[cell.column] = cell;
+            lastColumn = Math.max(lastColumn, cell.column);
+        }
+
+        Cell cell(int column) {
+            return column < cells.length ? cells[column] : null;
+        }
+
+        /**
+         * @return one more than the last column with a cell, or -1 if the row has no cells.
+         */
+        int lastCellNum() {
+            return lastColumn < 0 ? -1 : lastColumn + 1;
+        }
+    }
+
+    private static class Cell {
+        private final int column;
+        private final int xf;
+        private final CellType type;
+        private CellType resultType;
+        private UnicodeString richText;
+        private String text;
+        private double number;
+        private boolean bool;
+        private int error;
+
+        Cell(int column, int xf, CellType type) {
+            this.column = column;
+            this.xf = xf;
+            this.type = type;
+        }
+    }
+
+    /**
+     * Reads the records of each worksheet, gathering the rows of each row block and passing them on in order once the
+     * block has been read. Records of charts and other sheets are skipped.
+     */
+    private abstract class SheetReader implements HSSFListener {
+        private final TreeMap<Integer, RowState> block = new TreeMap<>();
+        private int depth;
+        private boolean inWorksheet;
+        private int sheetIndex = -1;
+        private int defaultRowHeight = DefaultRowHeightRecord.DEFAULT_ROW_HEIGHT;
+        private boolean blockHasCells;
+        private Cell pendingFormula;
+        private IOException error;
+
+        @Override
+        public void processRecord(Record record) {
+            if (error != null) {
+                return;
+            }
+            try {
+                dispatch(record);
+            } catch (IOException e) {
+                error = e;
+            }
+        }
+
+        private void dispatch(Record record) throws IOException {
+            if (record instanceof BOFRecord) {
+                depth++;
+                if (depth == 1 && ((BOFRecord) record).getType() == BOFRecord.TYPE_WORKSHEET) {
+                    inWorksheet = true;
+                    sheetIndex++;
+                    defaultRowHeight = DefaultRowHeightRecord.DEFAULT_ROW_HEIGHT;
+                    sheetStarted(sheetIndex);
+                }
+                return;
+            }
+            if (record instanceof EOFRecord) {
+                if (depth == 1 && inWorksheet) {
+                    flushBlock();
+                    inWorksheet = false;
+                    sheetEnded(sheetIndex);
+                }
+                depth--;
+                return;
+            }
+
+            if (depth != 1) {
+                return;
+            }
+            if (!inWorksheet) {
+                globalRecord(record);
+                return;
+            }
+            sheetRecord(record);
+        }
+
+        private void sheetRecord(Record record) throws IOException {
+            if (record instanceof StringRecord) {
+                // the string result of the formula before it, which may have shared formula records in between.
+                if (pendingFormula != null) {
+                    pendingFormula.text = ((StringRecord) record).getString();
+                    pendingFormula = null;
+                }
+            } else if (record instanceof DefaultRowHeightRecord) {
+                defaultRowHeight = ((DefaultRowHeightRecord) record).getRowHeight();
+            } else if (record instanceof RowRecord) {
+                if (blockHasCells) {
+                    flushBlock();
+                }
+                RowRecord row = (RowRecord) record;
+                block.put(row.getRowNumber(), new RowState(row.getRowNumber(), rowHeight(row.getHeight()),
+                        row.getZeroHeight()));
+            } else if (record instanceof DBCellRecord) {
+                flushBlock();
+            } else if (record instanceof LabelSSTRecord) {
+                LabelSSTRecord label = (LabelSSTRecord) record;
+                Cell cell = new Cell(label.getColumn(), label.getXFIndex(), CellType.STRING);
+                cell.richText = globals.sst.getString(label.getSSTIndex());
+                addCell(label.getRow(), cell);
+            } else if (record instanceof LabelRecord) {
+                LabelRecord label = (LabelRecord) record;
+                Cell cell = new Cell(label.getColumn(), label.getXFIndex(), CellType.STRING);
+                cell.text = label.getValue();
+                addCell(label.getRow(), cell);
+            } else if (record instanceof NumberRecord) {
+                NumberRecord number = (NumberRecord) record;
+                addNumber(number.getRow(), number.getColumn(), number.getXFIndex(), number.getValue());
+            } else if (record instanceof RKRecord) {
+                RKRecord rk = (RKRecord) record;
+                addNumber(rk.getRow(), rk.getColumn(), rk.getXFIndex(), rk.getRKNumber());
+            } else if (record instanceof MulRKRecord) {
+                MulRKRecord mulRk = (MulRKRecord) record;
+                for (int i = 0; i < mulRk.getNumColumns(); i++) {
+                    addNumber(mulRk.getRow(), mulRk.getFirstColumn() + i, mulRk.getXFAt(i), mulRk.getRKNumberAt(i));
+                }
+            } else if (record instanceof FormulaRecord) {
+                FormulaRecord formula = (FormulaRecord) record;
+                Cell cell = new Cell(formula.getColumn(), formula.getXFIndex(), CellType.FORMULA);
+                cell.resultType = CellType.forInt(formula.getCachedResultType());
+                cell.number = formula.getValue();
+                if (cell.resultType == CellType.BOOLEAN) {
+                    cell.bool = formula.getCachedBooleanValue();
+                } else if (cell.resultType == CellType.ERROR) {
+                    cell.error = formula.getCachedErrorValue();
+                } else if (formula.hasCachedResultString()) {
+                    pendingFormula = cell;
+                }
+                addCell(formula.getRow(), cell);
+            } else if (record instanceof BoolErrRecord) {
+                BoolErrRecord boolErr = (BoolErrRecord) record;
+                Cell cell = new Cell(boolErr.getColumn(), boolErr.getXFIndex(),
+                        boolErr.isBoolean() ? CellType.BOOLEAN : CellType.ERROR);
+                cell.bool = boolErr.isBoolean() && boolErr.getBooleanValue();
+                cell.error = boolErr.isError() ? boolErr.getErrorValue() : 0;
+                addCell(boolErr.getRow(), cell);
+            } else if (record instanceof BlankRecord) {
+                BlankRecord blank = (BlankRecord) record;
+                addCell(blank.getRow(), new Cell(blank.getColumn(), blank.getXFIndex(), CellType.BLANK));
+            } else if (record instanceof MulBlankRecord) {
+                MulBlankRecord mulBlank = (MulBlankRecord) record;
+                for (int i = 0; i < mulBlank.getNumColumns(); i++) {
+                    addCell(mulBlank.getRow(),
+                            new Cell(mulBlank.getFirstColumn() + i, mulBlank.getXFAt(i), CellType.BLANK));
+                }
+            } else {
+                otherSheetRecord(sheetIndex, record);
+            }
+        }
+
+        private void addNumber(int row, int column, int xf, double value) {
+            Cell cell = new Cell(column, xf, CellType.NUMERIC);
+            cell.number = value;
+            addCell(row, cell);
+        }
+
+        private void addCell(int rowNum, Cell cell) {
+            blockHasCells = true;
+            // a cell without a row record gets a row of the default height, as in HSSFSheet.
+            block.computeIfAbsent(rowNum, r -> new RowState(r, rowHeight(new RowRecord(r).getHeight()), false))
+                    .add(cell);
+        }
+
+        /**
+         * The row height in twips, as returned by {@link org.apache.poi.hssf.usermodel.HSSFRow#getHeight()}.
+         */
+        private int rowHeight(short height) {
+            return (height & 0x8000) != 0 ? defaultRowHeight : height & 0x7FFF;
+        }
+
+        private void flushBlock() throws IOException {
+            for (RowState row : block.values()) {
+                row(sheets.get(sheetIndex), row);
+            }
+            block.clear();
+            blockHasCells = false;
+        }
+
+        void globalRecord(Record record) {
+            // only the structure reader needs the workbook records.
+        }
+
+        void sheetStarted(int index) throws IOException {
+            // nothing to do by default.
+        }
+
+        void otherSheetRecord(int index, Record record) {
+            // nothing to do by default.
+        }
+
+        abstract void row(SheetLayout sheet, RowState row) throws IOException;
+
+        void sheetEnded(int index) throws IOException {
+            // nothing to do by default.
+        }
+    }
+
+    /**
+     * Reads the workbook styles and strings and the merged cells and hidden columns of each sheet.
+     */
+    private class StructureReader extends SheetReader {
+
+        @Override
+        void globalRecord(Record record) {
+            if (record instanceof SSTRecord) {
+                globals.sst = (SSTRecord) record;
+            } else if (record instanceof ExtendedFormatRecord) {
+                globals.xfs.add((ExtendedFormatRecord) record);
+            } else if (record instanceof FontRecord) {
+                globals.fonts.add((FontRecord) record);
+            } else if (record instanceof FormatRecord) {
+                FormatRecord formatRecord = (FormatRecord) record;
+                globals.formats.put(formatRecord.getIndexCode(), formatRecord.getFormatString());
+            } else if (record instanceof PaletteRecord) {
+                globals.palette = (PaletteRecord) record;
+            } else if (record instanceof DateWindow1904Record) {
+                globals.date1904 = ((DateWindow1904Record) record).getWindowing() == 1;
+            }
+        }
+
+        @Override
+        void sheetStarted(int index) {
+            sheets.add(new SheetLayout());
+        }
+
+        @Override
+        void otherSheetRecord(int index, Record record) {
+            SheetLayout sheet = sheets.get(index);
+            if (record instanceof MergeCellsRecord) {
+                MergeCellsRecord merged = (MergeCellsRecord) record;
+                for (int i = 0; i < merged.getNumAreas(); i++) {
+                    sheet.mergedRanges.add(merged.getAreaAt(i));
+                }
+            } else if (record instanceof ColumnInfoRecord) {
+                ColumnInfoRecord columns = (ColumnInfoRecord) record;
+                if (columns.getHidden()) {
+                    sheet.hiddenColumns.set(columns.getFirstColumn(), columns.getLastColumn() + 1);
+                }
+            }
+        }
+
+        @Override
+        void row(SheetLayout sheet, RowState row) {
+            sheet.hasRows = true;
+        }
+    }
+
+    /**
+     * Finds the number of columns of each table and the style of each row, which are written before the rows.
+     */
+    private class LayoutReader extends SheetReader {
+
+        @Override
+        void row(SheetLayout sheet, RowState row) {
+            if (row.zeroHeight) {
+                return;
+            }
+            rowClass(row);
+            sheet.maxColumns = Math.max(sheet.maxColumns, renderRow(sheet, row, new StringBuilder()));
+        }
+    }
+
+    private String rowClass(RowState row) {
+        String style = "height:" + (row.height / 20f) + "pt;";
+        return rowClasses.computeIfAbsent(style, s -> rowClassPrefix + (rowClasses.size() + 1));
+    }
+
+    /**
+     * Writes the table of each sheet. Rows with no cells are held back until a row with cells follows, so the table
+     * does not end with empty rows.
+     */
+    private class HtmlWriter extends SheetReader {
+        private final Writer out;
+        private final List<String> emptyRows = new ArrayList<>();
+        private final StringBuilder html = new StringBuilder();
+
+        HtmlWriter(Writer out) {
+            this.out = out;
+        }
+
+        @Override
+        void sheetStarted(int index) throws IOException {
+            SheetLayout sheet = sheets.get(index);
+            if (!sheet.hasRows) {
+                return;
+            }
+
+            html.setLength(0);
+            html.append("<table class=\"").append(TABLE_CLASS).append("\">\n<colgroup>\n");
+            for (int c = 0; c < sheet.maxColumns; c++) {
+                if (!sheet.hiddenColumns.get(c)) {
+                    html.append("<col>\n");
+                }
+            }
+            html.append("</colgroup>\n<tbody>\n");
+            out.write(html.toString());
+            emptyRows.clear();
+        }
+
+        @Override
+        void row(SheetLayout sheet, RowState row) throws IOException {
+            if (row.zeroHeight) {
+                return;
+            }
+
+            String rowClass = rowClass(row);
+            html.setLength(0);
+            if (renderRow(sheet, row, html) == 0) {
+                emptyRows.add(rowClass);
+                return;
+            }
+
+            for (String emptyRow : emptyRows) {
+                out.write("<tr class=\"" + emptyRow + "\"></tr>\n");
+            }
+            emptyRows.clear();
+            out.write("<tr class=\"" + rowClass + "\">\n");
+            out.write(html.toString());
+            out.write("</tr>\n");
+        }
+
+        @Override
+        void sheetEnded(int index) throws IOException {
+            if (sheets.get(index).hasRows) {
+                out.write("</tbody>\n</table>\n");
+            }
+            emptyRows.clear();
+        }
+    }
+}
@@ -1,7 +1,9 @@
 package com.github.onsdigital.zebedee.util;
 
+import com.github.onsdigital.zebedee.content.page.base.Page;
 import com.github.onsdigital.zebedee.content.page.statistics.data.timeseries.TimeSeries;
 import com.github.onsdigital.zebedee.data.importing.CsvTimeseriesUpdateImporter;
+import com.github.onsdigital.zebedee.data.importing.TimeseriesUpdateApplier;
 import com.github.onsdigital.zebedee.data.importing.TimeseriesUpdateCommand;
 import com.github.onsdigital.zebedee.data.importing.TimeseriesUpdateImporter;
 import com.github.onsdigital.zebedee.data.processing.DataIndex;
@@ -13,6 +15,7 @@ import java.io.InputStream;
 import java.util.ArrayList;
 
 import static com.github.onsdigital.logging.v2.event.SimpleEvent.info;
+import static com.github.onsdigital.zebedee.configuration.CMSFeatureFlags.cmsFeatureFlags;
 import static com.github.onsdigital.logging.v2.event.SimpleEvent.error;
 
 /**
@@ -52,31 +55,18 @@ public class TimeseriesUpdater {
     }
 
     public static void updateTimeseriesMetadata(CompoundContentReader contentReader, ContentWriter contentWriter, ArrayList<TimeseriesUpdateCommand> updateCommands) throws IOException {
+        if (cmsFeatureFlags().isParallelTimeseriesUpdatesEnabled()) {
+            // read and write each timeseries once, however many commands there are for it.
+            new TimeseriesUpdateApplier().apply(TimeseriesUpdateApplier.groupByUri(updateCommands, command -> command.uri),
+                    contentReader::getContent, contentWriter, TimeseriesUpdater::updateMetadata);
+            return;
+        }
+
         for (TimeseriesUpdateCommand command : updateCommands) {
 
             try {
-                boolean updated = false;
                 TimeSeries page = (TimeSeries) contentReader.getContent(command.uri);
-
-                if (command.title != null && command.title.length() > 0) {
-                    page.getDescription().setTitle(command.title);
-                    updated = true;
-                }
-
-                if (command.preunit != null && command.preunit.length() > 0) {
-                    page.getDescription().setPreUnit(command.preunit);
-                    updated = true;
-                }
-
-                if (command.unit != null && command.unit.length() > 0) {
-                    page.getDescription().setUnit(command.unit);
-                    updated = true;
-                }
-
-                if (command.releaseDate != null) {
-                    page.getDescription().setReleaseDate(command.releaseDate);
-                    updated = true;
-                }
+                boolean updated = updateMetadata(page, command);
 
                 if (updated) {
                     contentWriter.writeObject(page, command.uri + "/data.json");
@@ -87,4 +77,29 @@ public class TimeseriesUpdater {
             }
         }
     }
+
+    private static boolean updateMetadata(Page page, TimeseriesUpdateCommand command) {
+        boolean updated = false;
+
+        if (command.title != null && command.title.length() > 0) {
+            page.getDescription().setTitle(command.title);
+            updated = true;
+        }
+
+        if (command.preunit != null && command.preunit.length() > 0) {
+            page.getDescription().setPreUnit(command.preunit);
+            updated = true;
+        }
+
+        if (command.unit != null && command.unit.length() > 0) {
+            page.getDescription().setUnit(command.unit);
+            updated = true;
+        }
+
+        if (command.releaseDate != null) {
+            page.getDescription().setReleaseDate(command.releaseDate);
+            updated = true;
+        }
+        return updated;
+    }
 }
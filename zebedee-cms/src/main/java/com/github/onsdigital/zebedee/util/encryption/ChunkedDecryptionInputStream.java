@@ -0,0 +1,109 @@
+package com.github.onsdigital.zebedee.util.encryption;
+
+import org.apache.commons.io.IOUtils;
+
+import javax.crypto.SecretKey;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Streams the plaintext of content in the {@link ChunkedEncryption} format, decrypting one chunk at a time.
+ */
+class ChunkedDecryptionInputStream extends InputStream {
+
+    /**
+     * Supplies the plaintext of a chunk.
+     */
+    @FunctionalInterface
+    interface ChunkSource {
+        byte[] read(int index) throws IOException;
+    }
+
+    private final ChunkedEncryption.Header header;
+    private final ChunkSource source;
+    private final Closeable onClose;
+
+    private long position;
+    private byte[] chunk;
+    private int chunkIndex = -1;
+
+    ChunkedDecryptionInputStream(ChunkedEncryption.Header header, long position, ChunkSource source,
+                                 Closeable onClose) {
+        this.header = header;
+        this.position = Math.max(0, position);
+        this.source = source;
+        this.onClose = onClose;
+    }
+
+    /**
+     * Stream chunked content from the given stream, positioned after the header. Chunks are read in order, skipping
+     * forward over any that are not needed, so the stream does not need to be seekable.
+     */
+    static ChunkedDecryptionInputStream sequential(ChunkedEncryption.Header header, InputStream in, SecretKey key) {
+        int[] next = {0};
+        ChunkSource source = index -> {
+            if (index < next[0]) {
+                throw new IOException("chunk " + index + " has already been read from the stream");
+            }
+            for (; next[0] < index; next[0]++) {
+                IOUtils.skipFully(in, header.encryptedChunkLength(next[0]));
+            }
+            byte[] encrypted = new byte[header.encryptedChunkLength(index)];
+            IOUtils.readFully(in, encrypted);
+            next[0]++;
+            return ChunkedEncryption.decryptChunk(key, header, index, encrypted, 0, encrypted.length);
+        };
+        return new ChunkedDecryptionInputStream(header, 0, source, in);
+    }
+
+    @Override
+    public int read() throws IOException {
+        byte[] b = new byte[1];
+        int n = read(b, 0, 1);
+        return n < 0 ? -1 : b[0] & 0xff;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        if (position >= header.getPlaintextLength()) {
+            return -1;
+        }
+
+        int index = (int) (position / header.getChunkSize());
+        if (index != chunkIndex) {
+            chunk = source.read(index);
+            chunkIndex = index;
+        }
+
+        int within = (int) (position % header.getChunkSize());
+        int n = Math.min(len, chunk.length - within);
+        System.arraycopy(chunk, within, b, off, n);
+        position += n;
+        return n;
+    }
+
+    @Override
+    public long skip(long n) {
+        long skipped = Math.max(0, Math.min(n, header.getPlaintextLength() - position));
+        position += skipped;
+        return skipped;
+    }
+
+    @Override
+    public int available() {
+        if (chunkIndex < 0 || position >= header.getPlaintextLength()) {
+            return 0;
+        }
+        long chunkEnd = (long) (chunkIndex + 1) * header.getChunkSize();
+        return (int) Math.max(0, Math.min(chunkEnd, header.getPlaintextLength()) - position);
+    }
+
+    @Override
+    public void close() throws IOException {
+        onClose.close();
+    }
+}
@@ -0,0 +1,209 @@
+package com.github.onsdigital.zebedee.util.encryption;
+
+import javax.crypto.SecretKey;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * Random access to a file in the {@link ChunkedEncryption} format. The plaintext length is read from the header, and
+ * reading a range only decrypts the chunks it covers.
+ * <p>
+ * Reads use positional reads on the underlying channel so a single instance can decrypt different chunks from
+ * several threads at once.
+ */
+public class ChunkedEncryptedFile implements Closeable {
+
+    private final FileChannel channel;
+    private final SecretKey key;
+    private final ChunkedEncryption.Header header;
+
+    private ChunkedEncryptedFile(FileChannel channel, SecretKey key, ChunkedEncryption.Header header) {
+        this.channel = channel;
+        this.key = key;
+        this.header = header;
+    }
+
+    /**
+     * Open the chunked encrypted file at the given path.
+     *
+     * @throws IOException if the file is not in the chunked format or its size does not match its header.
+     */
+    public static ChunkedEncryptedFile open(Path path, SecretKey key) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            ByteBuffer bytes = ByteBuffer.allocate(ChunkedEncryption.HEADER_LENGTH);
+            readFully(channel, bytes, 0);
+            ChunkedEncryption.Header header = ChunkedEncryption.Header.read(bytes.array());
+            if (channel.size() != header.encryptedLength()) {
+                throw new IOException("chunked encrypted file is " + channel.size() + " bytes but its header expects "
+                        + header.encryptedLength() + ": " + path);
+            }
+            return new ChunkedEncryptedFile(channel, key, header);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * @return the length of the plaintext.
+     */
+    public long length() {
+        return header.getPlaintextLength();
+    }
+
+    public int getChunkCount() {
+        return header.getChunkCount();
+    }
+
+    public int getChunkSize() {
+        return header.getChunkSize();
+    }
+
+    /**
+     * Decrypt a single chunk.
+     *
+     * @param index the index of the chunk.
+     * @return the plaintext of the chunk.
+     */
+    public byte[] readChunk(int index) throws IOException {
+        if (index < 0 || index >= header.getChunkCount()) {
+            throw new IndexOutOfBoundsException("chunk " + index + " of " + header.getChunkCount());
+        }
+        ByteBuffer encrypted = ByteBuffer.allocate(header.encryptedChunkLength(index));
+        readFully(channel, encrypted, header.chunkOffset(index));
+        return ChunkedEncryption.decryptChunk(key, header, index, encrypted.array(), 0, encrypted.capacity());
+    }
+
+    /**
+     * Read plaintext starting at the given position.
+     *
+     * @return the number of bytes read, or -1 if the position is at or past the end of the plaintext.
+     */
+    public int read(long position, byte[] b, int off, int len) throws IOException {
+        if (position >= length()) {
+            return -1;
+        }
+        int total = 0;
+        while (len > 0 && position < length()) {
+            int index = (int) (position / header.getChunkSize());
+            int within = (int) (position % header.getChunkSize());
+            byte[] chunk = readChunk(index);
+            int n = Math.min(len, chunk.length - within);
+            System.arraycopy(chunk, within, b, off, n);
+            position += n;
+            off += n;
+            len -= n;
+            total += n;
+        }
+        return total;
+    }
+
+    /**
+     * Open a stream over the plaintext from the given position. Closing the stream closes this file.
+     */
+    public InputStream newInputStream(long position) {
+        return new ChunkedDecryptionInputStream(header, position, this::readChunk, this);
+    }
+
+    /**
+     * Open a stream over the plaintext from the given position that decrypts the chunks ahead of the reader on the
+     * given executor. Chunks are handed back in order, so the stream reads the same as
+     * {@link #newInputStream(long)}. Closing the stream closes this file.
+     *
+     * @param executor the executor to decrypt chunks on.
+     * @param window   the maximum number of chunks to decrypt ahead of the reader.
+     */
+    public InputStream newInputStream(long position, ExecutorService executor, int window) {
+        if (window <= 0) {
+            throw new IllegalArgumentException("window must be greater than zero");
+        }
+        PrefetchingChunkSource source = new PrefetchingChunkSource(executor, window);
+        return new ChunkedDecryptionInputStream(header, position, source, () -> {
+            source.cancel();
+            close();
+        });
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer dst, long position) throws IOException {
+        while (dst.hasRemaining()) {
+            int n = channel.read(dst, position);
+            if (n < 0) {
+                throw new EOFException("unexpected end of chunked encrypted file");
+            }
+            position += n;
+        }
+    }
+
+    /**
+     * Decrypts the chunks following the one last read on an executor, keeping them in order. Reading a chunk other
+     * than the next one, e.g. after a skip, drops the chunks decrypted so far and starts again from there.
+     */
+    private final class PrefetchingChunkSource implements ChunkedDecryptionInputStream.ChunkSource {
+
+        private final ExecutorService executor;
+        private final int window;
+        private final Deque<Future<byte[]>> pending = new ArrayDeque<>();
+
+        // the index of the chunk at the head of pending, and of the next chunk to submit
+        private int headIndex;
+        private int nextIndex;
+
+        PrefetchingChunkSource(ExecutorService executor, int window) {
+            this.executor = executor;
+            this.window = window;
+        }
+
+        @Override
+        public byte[] read(int index) throws IOException {
+            if (pending.isEmpty() || index != headIndex) {
+                cancel();
+                headIndex = index;
+                nextIndex = index;
+            }
+            while (pending.size() < window && nextIndex < header.getChunkCount()) {
+                int submitted = nextIndex++;
+                pending.addLast(executor.submit(() -> readChunk(submitted)));
+            }
+
+            Future<byte[]> next = pending.removeFirst();
+            headIndex++;
+            try {
+                return next.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("interrupted waiting for chunk " + index);
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof IOException) {
+                    throw (IOException) e.getCause();
+                }
+                throw new IOException("error decrypting chunk " + index, e.getCause());
+            }
+        }
+
+        void cancel() {
+            // not interrupted, as interrupting a channel read closes the channel for every reader
+            for (Future<byte[]> future : pending) {
+                future.cancel(false);
+            }
+            pending.clear();
+        }
+    }
+}
@@ -0,0 +1,245 @@
+package com.github.onsdigital.zebedee.util.encryption;
+
+import org.apache.commons.io.IOUtils;
+
+import javax.crypto.AEADBadTagException;
+import javax.crypto.Cipher;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.GCMParameterSpec;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.Arrays;
+
+/**
+ * A seekable, authenticated encryption format for collection content.
+ * <p>
+ * The plaintext is split into fixed size chunks and each chunk is encrypted separately with AES-GCM, so any chunk can
+ * be decrypted (and chunks can be encrypted and decrypted in parallel) without touching the rest of the file. The
+ * file is laid out as:
+ * <pre>
+ * magic (8) | chunk size (4) | plaintext length (8) | chunk count (4) | nonce (12) | chunk 0 | chunk 1 | ...
+ * </pre>
+ * Each chunk is the ciphertext of its plaintext followed by a 16 byte authentication tag. The nonce of a chunk is the
+ * file nonce with the chunk index mixed into its last eight bytes, and whether the chunk is the last one is
+ * authenticated with it, so chunks can not be reordered, and a file can not be truncated at a chunk boundary, without
+ * failing authentication. The header fields are checked against the size of the file when it is opened.
+ * <p>
+ * Files in this format are recognised by their magic, anything else is read as the original cryptolite stream
+ * format, see {@link com.github.onsdigital.zebedee.util.EncryptionUtils}.
+ */
+public final class ChunkedEncryption {
+
+    public static final int DEFAULT_CHUNK_SIZE = 64 * 1024;
+
+    static final byte[] MAGIC = "ZBDCHK01".getBytes(StandardCharsets.US_ASCII);
+    static final int NONCE_LENGTH = 12;
+    static final int TAG_LENGTH = 16;
+    static final int HEADER_LENGTH = MAGIC.length + 4 + 8 + 4 + NONCE_LENGTH;
+
+    private static final String TRANSFORMATION = "AES/GCM/NoPadding";
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private ChunkedEncryption() {
+        // static utility
+    }
+
+    /**
+     * @return true if the file at the given path is in the chunked format.
+     */
+    public static boolean isChunked(Path path) throws IOException {
+        if (Files.size(path) < HEADER_LENGTH) {
+            return false;
+        }
+        try (InputStream in = Files.newInputStream(path)) {
+            byte[] prefix = new byte[MAGIC.length];
+            int read = 0;
+            while (read < prefix.length) {
+                int n = in.read(prefix, read, prefix.length - read);
+                if (n < 0) {
+                    return false;
+                }
+                read += n;
+            }
+            return isChunked(prefix, read);
+        }
+    }
+
+    /**
+     * Check whether the given stream is in the chunked format without consuming it.
+     *
+     * @param in a stream that supports {@link InputStream#mark(int)}.
+     * @return true if the stream is in the chunked format.
+     */
+    public static boolean isChunked(InputStream in) throws IOException {
+        byte[] prefix = new byte[MAGIC.length];
+        in.mark(prefix.length);
+        try {
+            return isChunked(prefix, IOUtils.read(in, prefix));
+        } finally {
+            in.reset();
+        }
+    }
+
+    /**
+     * Stream the plaintext of chunked content from the given stream, which need not be seekable.
+     *
+     * @param in  a stream positioned at the start of the chunked content.
+     * @param key the key to decrypt with.
+     * @return the plaintext stream, closing it closes the given stream.
+     */
+    public static InputStream decryptionInputStream(InputStream in, SecretKey key) throws IOException {
+        byte[] header = new byte[HEADER_LENGTH];
+        IOUtils.readFully(in, header);
+        return ChunkedDecryptionInputStream.sequential(Header.read(header), in, key);
+    }
+
+    /**
+     * @return true if the given bytes, the start of a file or stream, are the start of the chunked format.
+     */
+    public static boolean isChunked(byte[] prefix, int length) {
+        if (length < MAGIC.length) {
+            return false;
+        }
+        for (int i = 0; i < MAGIC.length; i++) {
+            if (prefix[i] != MAGIC[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    static byte[] newNonce() {
+        byte[] nonce = new byte[NONCE_LENGTH];
+        RANDOM.nextBytes(nonce);
+        return nonce;
+    }
+
+    static byte[] encryptChunk(SecretKey key, byte[] fileNonce, long index, boolean last, byte[] plaintext, int offset,
+                               int length) throws IOException {
+        try {
+            return cipher(Cipher.ENCRYPT_MODE, key, fileNonce, index, last).doFinal(plaintext, offset, length);
+        } catch (GeneralSecurityException e) {
+            throw new IOException("error encrypting chunk " + index, e);
+        }
+    }
+
+    static byte[] decryptChunk(SecretKey key, Header header, long index, byte[] ciphertext, int offset, int length)
+            throws IOException {
+        boolean last = index == header.getChunkCount() - 1;
+        try {
+            return cipher(Cipher.DECRYPT_MODE, key, header.nonce, index, last).doFinal(ciphertext, offset, length);
+        } catch (AEADBadTagException e) {
+            throw new IOException("encrypted chunk " + index + " failed authentication", e);
+        } catch (GeneralSecurityException e) {
+            throw new IOException("error decrypting chunk " + index, e);
+        }
+    }
+
+    private static Cipher cipher(int mode, SecretKey key, byte[] fileNonce, long index, boolean last)
+            throws GeneralSecurityException {
+        byte[] nonce = Arrays.copyOf(fileNonce, NONCE_LENGTH);
+        for (int i = 0; i < 8; i++) {
+            nonce[NONCE_LENGTH - 1 - i] ^= (byte) (index >>> (8 * i));
+        }
+
+        Cipher cipher = Cipher.getInstance(TRANSFORMATION);
+        cipher.init(mode, key, new GCMParameterSpec(TAG_LENGTH * 8, nonce));
+        cipher.updateAAD(new byte[]{(byte) (last ? 1 : 0)});
+        return cipher;
+    }
+
+    /**
+     * The header of a chunked file.
+     */
+    static final class Header {
+        private final int chunkSize;
+        private final long plaintextLength;
+        private final int chunkCount;
+        private final byte[] nonce;
+
+        Header(int chunkSize, long plaintextLength, int chunkCount, byte[] nonce) {
+            this.chunkSize = chunkSize;
+            this.plaintextLength = plaintextLength;
+            this.chunkCount = chunkCount;
+            this.nonce = nonce;
+        }
+
+        static Header read(byte[] bytes) throws IOException {
+            if (!isChunked(bytes, bytes.length) || bytes.length < HEADER_LENGTH) {
+                throw new IOException("not a chunked encrypted file");
+            }
+            ByteBuffer buffer = ByteBuffer.wrap(bytes, MAGIC.length, HEADER_LENGTH - MAGIC.length);
+            int chunkSize = buffer.getInt();
+            long plaintextLength = buffer.getLong();
+            int chunkCount = buffer.getInt();
+            byte[] nonce = new byte[NONCE_LENGTH];
+            buffer.get(nonce);
+
+            Header header = new Header(chunkSize, plaintextLength, chunkCount, nonce);
+            if (chunkSize <= 0 || plaintextLength < 0 || chunkCount != expectedChunkCount(plaintextLength, chunkSize)) {
+                throw new IOException("invalid chunked encrypted file header");
+            }
+            return header;
+        }
+
+        byte[] toBytes() {
+            return ByteBuffer.allocate(HEADER_LENGTH)
+                    .put(MAGIC)
+                    .putInt(chunkSize)
+                    .putLong(plaintextLength)
+                    .putInt(chunkCount)
+                    .put(nonce)
+                    .array();
+        }
+
+        static int expectedChunkCount(long plaintextLength, int chunkSize) {
+            return (int) Math.max(1, (plaintextLength + chunkSize - 1) / chunkSize);
+        }
+
+        int getChunkSize() {
+            return chunkSize;
+        }
+
+        long getPlaintextLength() {
+            return plaintextLength;
+        }
+
+        int getChunkCount() {
+            return chunkCount;
+        }
+
+        /**
+         * @return the position of the given chunk in the file.
+         */
+        long chunkOffset(long index) {
+            return HEADER_LENGTH + index * (chunkSize + TAG_LENGTH);
+        }
+
+        /**
+         * @return the number of plaintext bytes in the given chunk.
+         */
+        int plaintextChunkLength(long index) {
+            if (index < chunkCount - 1) {
+                return chunkSize;
+            }
+            return (int) (plaintextLength - (long) (chunkCount - 1) * chunkSize);
+        }
+
+        int encryptedChunkLength(long index) {
+            return plaintextChunkLength(index) + TAG_LENGTH;
+        }
+
+        /**
+         * @return the size of the whole file.
+         */
+        long encryptedLength() {
+            return HEADER_LENGTH + plaintextLength + (long) chunkCount * TAG_LENGTH;
+        }
+    }
+}
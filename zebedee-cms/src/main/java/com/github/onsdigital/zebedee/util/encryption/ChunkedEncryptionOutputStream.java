@@ -0,0 +1,181 @@
+package com.github.onsdigital.zebedee.util.encryption;
+
+import javax.crypto.SecretKey;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * Writes a file in the {@link ChunkedEncryption} format. Chunks are encrypted as they fill and the header, which holds
+ * the plaintext length and chunk count, is written when the stream is closed.
+ * <p>
+ * Every chunk has a fixed position in the file, so when an executor is given chunks are encrypted and written on the
+ * executor's threads while the caller carries on filling the next chunk. At most {@code window} chunks are in flight
+ * at once, which bounds the memory used.
+ */
+public class ChunkedEncryptionOutputStream extends OutputStream {
+
+    private final FileChannel channel;
+    private final SecretKey key;
+    private final int chunkSize;
+    private final byte[] nonce;
+    private final ExecutorService executor;
+    private final int window;
+    private final Deque<Future<?>> inFlight = new ArrayDeque<>();
+
+    private byte[] buffer;
+    private int buffered;
+    private long chunkIndex;
+    private long length;
+    private boolean closed;
+
+    /**
+     * @param path      the file to write, created or truncated.
+     * @param key       the key to encrypt with.
+     * @param chunkSize the number of plaintext bytes in each chunk.
+     */
+    public ChunkedEncryptionOutputStream(Path path, SecretKey key, int chunkSize) throws IOException {
+        this(path, key, chunkSize, null, 1);
+    }
+
+    /**
+     * @param path      the file to write, created or truncated.
+     * @param key       the key to encrypt with.
+     * @param chunkSize the number of plaintext bytes in each chunk.
+     * @param executor  the executor to encrypt chunks on, or null to encrypt on the calling thread.
+     * @param window    the maximum number of chunks being encrypted at once.
+     */
+    public ChunkedEncryptionOutputStream(Path path, SecretKey key, int chunkSize, ExecutorService executor,
+                                         int window) throws IOException {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("chunk size must be greater than zero");
+        }
+        if (window <= 0) {
+            throw new IllegalArgumentException("window must be greater than zero");
+        }
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        this.key = key;
+        this.chunkSize = chunkSize;
+        this.nonce = ChunkedEncryption.newNonce();
+        this.executor = executor;
+        this.window = window;
+        this.buffer = new byte[chunkSize];
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        write(new byte[]{(byte) b}, 0, 1);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        ensureOpen();
+        while (len > 0) {
+            // A full chunk is only written once more data arrives, so that the last chunk is known when closing.
+            if (buffered == chunkSize) {
+                submitChunk(false);
+            }
+            int n = Math.min(len, chunkSize - buffered);
+            System.arraycopy(b, off, buffer, buffered, n);
+            buffered += n;
+            length += n;
+            off += n;
+            len -= n;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            writeChunk(chunkIndex, true, buffer, buffered);
+            chunkIndex++;
+            awaitAll();
+            ChunkedEncryption.Header header = new ChunkedEncryption.Header(chunkSize, length,
+                    (int) chunkIndex, nonce);
+            writeFully(ByteBuffer.wrap(header.toBytes()), 0);
+        } finally {
+            for (Future<?> future : inFlight) {
+                // not interrupted, as interrupting a channel write closes the channel
+                future.cancel(false);
+            }
+            channel.close();
+        }
+    }
+
+    private void submitChunk(boolean last) throws IOException {
+        long index = chunkIndex++;
+        byte[] plaintext = buffer;
+        int plaintextLength = buffered;
+
+        if (executor == null) {
+            writeChunk(index, last, plaintext, plaintextLength);
+        } else {
+            while (inFlight.size() >= window) {
+                await(inFlight.removeFirst());
+            }
+            inFlight.addLast(executor.submit(() -> {
+                writeChunk(index, last, plaintext, plaintextLength);
+                return null;
+            }));
+            // the submitted buffer now belongs to the task
+            buffer = new byte[chunkSize];
+        }
+        buffered = 0;
+    }
+
+    private void writeChunk(long index, boolean last, byte[] plaintext, int plaintextLength) throws IOException {
+        byte[] encrypted = ChunkedEncryption.encryptChunk(key, nonce, index, last, plaintext, 0, plaintextLength);
+        writeFully(ByteBuffer.wrap(encrypted), ChunkedEncryption.HEADER_LENGTH + index * (chunkSize
+                + ChunkedEncryption.TAG_LENGTH));
+    }
+
+    private void awaitAll() throws IOException {
+        while (!inFlight.isEmpty()) {
+            await(inFlight.removeFirst());
+        }
+    }
+
+    private static void await(Future<?> future) throws IOException {
+        try {
+            future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("interrupted waiting for chunk encryption");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IOException("error encrypting chunk", e.getCause());
+        }
+    }
+
+    private void writeFully(ByteBuffer src, long position) throws IOException {
+        while (src.hasRemaining()) {
+            position += channel.write(src, position);
+        }
+    }
+
+    private void ensureOpen() throws IOException {
+        if (closed) {
+            throw new IOException("stream closed");
+        }
+    }
+}
@@ -4,7 +4,9 @@ import com.github.davidcarboni.restolino.json.Serialiser;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 
 import static com.github.onsdigital.logging.v2.event.SimpleEvent.error;
 
@@ -18,6 +20,7 @@ public class JSONSerialiser<T> {
 
     protected static final String DESERIALISE_ERROR_DETAILS_KEY = "details";
     protected static final String DESERIALISATION_ERROR_MSG = "Failed to deserialise JSON";
+    protected static final String TEMP_EXT = ".tmp";
 
     protected Class<T> t;
 
@@ -54,4 +57,18 @@ public class JSONSerialiser<T> {
     public void serialise(Path p, T t) throws IOException {
         Serialiser.serialise(p, t);
     }
+
+    /**
+     * Serialise to a temporary file alongside the target and move it into place, so the target is never seen partly
+     * written and is left as it was if writing fails.
+     */
+    public void replace(Path p, T t) throws IOException {
+        Path temp = Files.createTempFile(p.getParent(), "." + p.getFileName().toString(), TEMP_EXT);
+        try {
+            Serialiser.serialise(temp, t);
+            Files.move(temp, p, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
 }
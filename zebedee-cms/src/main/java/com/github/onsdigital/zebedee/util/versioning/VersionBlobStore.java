@@ -0,0 +1,142 @@
+package com.github.onsdigital.zebedee.util.versioning;
+
+import com.github.onsdigital.zebedee.metrics.Counter;
+import org.apache.commons.codec.binary.Hex;
+import org.apache.commons.codec.digest.DigestUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystemException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import static com.github.onsdigital.logging.v2.event.SimpleEvent.info;
+import static com.github.onsdigital.logging.v2.event.SimpleEvent.warn;
+import static com.github.onsdigital.zebedee.metrics.MetricsRegistry.metrics;
+
+/**
+ * Stores the files of previous versions once per distinct content, so a version file identical to one already stored
+ * takes no more space. Each distinct content is kept as a blob named by its SHA-1 hash, and the version file is a hard
+ * link to the blob, so it is an ordinary file to anything reading the published content.
+ * <p>
+ * A version file is always replaced rather than written to, as writing to it would change every version sharing the
+ * blob. Where a hard link can not be made, e.g. the store is on a different filesystem or the blob already has as many
+ * links as the filesystem allows, the blob is copied to the version file instead.
+ */
+public class VersionBlobStore {
+
+    private static final Counter VERSION_FILES = metrics().counter("zebedee_version_files_total",
+            "Version files written to published content by how they were stored.", "outcome");
+
+    private static final String TEMP_PREFIX = "blob-";
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    /**
+     * Held to store files so a blob is not pruned between it being found or added and the version file linking to it.
+     */
+    private static final ReadWriteLock LOCK = new ReentrantReadWriteLock();
+
+    private final Path root;
+
+    /**
+     * @param root the directory to keep the blobs in, on the same filesystem as the published content.
+     */
+    public VersionBlobStore(Path root) {
+        this.root = root;
+    }
+
+    /**
+     * Write a version file with the given content, sharing the blob of any stored file with the same content.
+     *
+     * @param content the content of the version file.
+     * @param target  the path of the version file.
+     * @return true if the content was already stored.
+     */
+    public boolean store(InputStream content, Path target) throws IOException {
+        LOCK.readLock().lock();
+        try {
+            return storeBlob(content, target);
+        } finally {
+            LOCK.readLock().unlock();
+        }
+    }
+
+    private boolean storeBlob(InputStream content, Path target) throws IOException {
+        Files.createDirectories(root);
+        Path temp = Files.createTempFile(root, TEMP_PREFIX, TEMP_SUFFIX);
+        try {
+            MessageDigest digest = DigestUtils.getSha1Digest();
+            try (DigestInputStream in = new DigestInputStream(content, digest)) {
+                Files.copy(in, temp, StandardCopyOption.REPLACE_EXISTING);
+            }
+
+            Path blob = getBlobPath(Hex.encodeHexString(digest.digest()));
+            boolean existing = Files.exists(blob);
+            if (!existing) {
+                Files.createDirectories(blob.getParent());
+                Files.move(temp, blob, StandardCopyOption.ATOMIC_MOVE);
+            }
+
+            link(blob, target);
+            return existing;
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Delete the blobs no longer linked to by any version file, e.g. as the versions have been deleted.
+     *
+     * @return the number of blobs deleted.
+     */
+    public int prune() throws IOException {
+        if (!Files.exists(root)) {
+            return 0;
+        }
+
+        int pruned = 0;
+        LOCK.writeLock().lock();
+        try (DirectoryStream<Path> dirs = Files.newDirectoryStream(root, Files::isDirectory)) {
+            for (Path dir : dirs) {
+                try (DirectoryStream<Path> blobs = Files.newDirectoryStream(dir)) {
+                    for (Path blob : blobs) {
+                        if ((Integer) Files.getAttribute(blob, "unix:nlink") <= 1 && Files.deleteIfExists(blob)) {
+                            pruned++;
+                        }
+                    }
+                }
+            }
+        } catch (UnsupportedOperationException e) {
+            // without link counts it is not possible to tell which blobs are still in use.
+            warn().data("root", root.toString()).log("unable to prune version blobs, link counts not supported");
+            return 0;
+        } finally {
+            LOCK.writeLock().unlock();
+        }
+
+        info().data("root", root.toString()).data("pruned", pruned).log("pruned unused version blobs");
+        return pruned;
+    }
+
+    Path getBlobPath(String sha1) {
+        return root.resolve(sha1.substring(0, 2)).resolve(sha1);
+    }
+
+    private void link(Path blob, Path target) throws IOException {
+        Files.createDirectories(target.getParent());
+        Files.deleteIfExists(target);
+        try {
+            Files.createLink(target, blob);
+            VERSION_FILES.labels("linked").inc();
+        } catch (FileSystemException | UnsupportedOperationException e) {
+            Files.copy(blob, target, StandardCopyOption.REPLACE_EXISTING);
+            VERSION_FILES.labels("copied").inc();
+        }
+    }
+}
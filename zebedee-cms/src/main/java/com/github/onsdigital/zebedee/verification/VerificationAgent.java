@@ -19,13 +19,19 @@ import org.apache.http.util.EntityUtils;
 
 import java.io.IOException;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
 
 import static com.github.onsdigital.logging.v2.event.SimpleEvent.info;
 import static com.github.onsdigital.logging.v2.event.SimpleEvent.error;
@@ -37,10 +43,17 @@ import static java.util.Arrays.asList;
  */
 public class VerificationAgent {
 
+    // How long the progress summary of a completed verification is kept in memory.
+    private static final long COMPLETED_PROGRESS_RETENTION_MS = TimeUnit.HOURS.toMillis(1);
+
     private PooledHttpClient verificationProxyClient;
     private ExecutorService pool;
+    private ScheduledExecutorService scheduler;
     private Zebedee zebedee;
 
+    private final Map<String, VerificationProgress> progress = new ConcurrentHashMap<>();
+    private final Map<String, PendingSave> pendingSaves = new ConcurrentHashMap<>();
+
     public VerificationAgent(Zebedee zebedee) {
         this.zebedee = zebedee;
         String defaultVerificationUrl = Configuration.getDefaultVerificationUrl();
@@ -50,10 +63,18 @@ public class VerificationAgent {
         clientConfiguration.setDisableRedirectHandling(true);
         verificationProxyClient = new PooledHttpClient(defaultVerificationUrl, clientConfiguration);
         pool = Executors.newFixedThreadPool(100);
+        scheduler = Executors.newScheduledThreadPool(2);
+
+        int saveInterval = Configuration.getVerifySaveInterval();
+        scheduler.scheduleWithFixedDelay(this::flushPendingSaves, saveInterval, saveInterval, TimeUnit.MILLISECONDS);
     }
 
     public void submitForVerification(PublishedCollection publishedCollection, Path jsonPath, CollectionReader reader) {
-        info().data("collectionId", publishedCollection.getId());
+        info().data("collectionId", publishedCollection.getId()).log("Submitting collection for verification");
+        VerificationProgress collectionProgress = new VerificationProgress(publishedCollection.getId());
+
+        // Count every uri before submitting any so the collection cannot be seen as complete part way through.
+        List<UriInfo> toVerify = new ArrayList<>();
         List<Result> publishResults = publishedCollection.publishResults;
         for (Result publishResult : publishResults) {
             Set<UriInfo> uriInfos = publishResult.transaction.uriInfos;
@@ -61,38 +82,75 @@ public class VerificationAgent {
                 setHash(uriInfo, reader);
                 uriInfo.verificationStatus = UriInfo.VERIFYING;
                 publishedCollection.incrementVerifyInProgressCount();
-                submit(publishedCollection, jsonPath, uriInfo);
+                collectionProgress.submitted();
+                toVerify.add(uriInfo);
             }
         }
+
         save(publishedCollection, jsonPath);
+        if (toVerify.isEmpty()) {
+            return;
+        }
+
+        progress.put(publishedCollection.getId(), collectionProgress);
+        for (UriInfo uriInfo : toVerify) {
+            submit(publishedCollection, jsonPath, uriInfo, collectionProgress);
+        }
     }
 
-    private void submit(PublishedCollection publishedCollection, Path jsoPath, UriInfo uriInfo) {
-        pool.submit(new VerifyTask(publishedCollection, jsoPath, uriInfo));
+    /**
+     * Get the in memory verification progress summary for a collection.
+     *
+     * @param collectionId the id of the published collection.
+     * @return the progress of the current or recently completed verification, or null if there is none.
+     */
+    public VerificationProgress getProgress(String collectionId) {
+        return progress.get(collectionId);
     }
 
-    //Resubmits uri to be verified with configured delay if failed
-    private void reSubmit(final PublishedCollection publishedCollection, final Path jsonPath, final UriInfo uriInfo) {
-        ((Runnable) () -> {
-            try {
-                Thread.sleep(Configuration.getVerifyRetryDelay());
-            } catch (InterruptedException e) {
-                error().logException(e, "Retry delay failed, continuing with verification retry");
-            }
-            uriInfo.verificationStatus = UriInfo.VERIFY_RETRYING;
-            submit(publishedCollection, jsonPath, uriInfo);
-        }).run();
+    private void submit(PublishedCollection publishedCollection, Path jsoPath, UriInfo uriInfo,
+                        VerificationProgress collectionProgress) {
+        pool.submit(new VerifyTask(publishedCollection, jsoPath, uriInfo, collectionProgress));
+    }
+
+    //Schedules the uri to be verified again after a back off delay, without holding a worker thread while waiting
+    private void reSubmit(final PublishedCollection publishedCollection, final Path jsonPath, final UriInfo uriInfo,
+                          final VerificationProgress collectionProgress) {
+        uriInfo.verificationStatus = UriInfo.VERIFY_RETRYING;
+        collectionProgress.retryScheduled();
+        scheduler.schedule(() -> {
+            collectionProgress.retryStarted();
+            submit(publishedCollection, jsonPath, uriInfo, collectionProgress);
+        }, retryDelay(uriInfo.verificationRetryCount), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Exponential back off from the configured retry delay, capped at the configured maximum. The delay is jittered
+     * between half and the full value so the retries of a large collection do not all land on the proxy together.
+     */
+    static long retryDelay(int attempt) {
+        long baseDelay = Configuration.getVerifyRetryDelay();
+        long maxDelay = Math.max(baseDelay, Configuration.getVerifyMaxRetryDelay());
+        int exponent = Math.min(Math.max(attempt - 1, 0), 30);
+        long delay = Math.min(maxDelay, baseDelay << exponent);
+        if (delay <= 1) {
+            return delay;
+        }
+        return ThreadLocalRandom.current().nextLong(delay / 2, delay + 1);
     }
 
     private class VerifyTask implements Callable<Object> {
         private final UriInfo uriInfo;
         private final PublishedCollection publishedCollection;
+        private final VerificationProgress collectionProgress;
         private Path jsonPath;
 
-        VerifyTask(PublishedCollection publishedCollection, Path jsonPath, UriInfo uriInfo) {
+        VerifyTask(PublishedCollection publishedCollection, Path jsonPath, UriInfo uriInfo,
+                   VerificationProgress collectionProgress) {
             this.uriInfo = uriInfo;
             this.publishedCollection = publishedCollection;
             this.jsonPath = jsonPath;
+            this.collectionProgress = collectionProgress;
         }
 
         private void verify() {
@@ -119,24 +177,36 @@ public class VerificationAgent {
             publishedCollection.decrementVerifyInProgressCount();
             uriInfo.verificationStatus = UriInfo.VERIFIED;
             uriInfo.verificationEnd = DateConverter.toString(new Date());
-            saveIfDone();
+            onStatusChanged(collectionProgress.verified());
         }
 
         private void onVerifyFailed(String errorMessage) {
-            if (Configuration.getVerifyRetryCount() == uriInfo.verificationRetryCount) {
+            if (Configuration.getVerifyRetryCount() <= uriInfo.verificationRetryCount) {
                 uriInfo.verificationStatus = UriInfo.VERIFY_FAILED;
                 publishedCollection.incrementVerifyFailed();
                 publishedCollection.decrementVerifyInProgressCount();
                 uriInfo.verifyMessage = errorMessage;
+                onStatusChanged(collectionProgress.failed());
             } else {
-                reSubmit(publishedCollection, jsonPath, uriInfo);
+                reSubmit(publishedCollection, jsonPath, uriInfo, collectionProgress);
+                onStatusChanged(false);
             }
-            saveIfDone();
         }
 
-        private void saveIfDone() {
-            if (publishedCollection.verifyInprogressCount == 0) {
+        /**
+         * Status changes are coalesced and written by the periodic flush, the final state is written as soon as the
+         * last uri of the collection is done.
+         */
+        private void onStatusChanged(boolean done) {
+            if (done) {
+                pendingSaves.remove(publishedCollection.getId());
                 save(publishedCollection, jsonPath);
+                info().data("collectionId", publishedCollection.getId())
+                        .data("verified", collectionProgress.getVerified())
+                        .data("failed", collectionProgress.getFailed())
+                        .log("Verification of collection complete");
+            } else {
+                pendingSaves.put(publishedCollection.getId(), new PendingSave(publishedCollection, jsonPath));
             }
         }
 
@@ -170,12 +240,43 @@ public class VerificationAgent {
         }
     }
 
-    private void save(PublishedCollection publishedCollection, Path jsonPath) {
+    private void flushPendingSaves() {
         try {
-            zebedee.getPublishedCollections().save(publishedCollection, jsonPath);
-        } catch (IOException e) {
-            error().data("collectionId", publishedCollection.getId())
-                    .logException(e, "Saving published collection failed");
+            for (String collectionId : pendingSaves.keySet()) {
+                PendingSave pendingSave = pendingSaves.remove(collectionId);
+                if (pendingSave != null) {
+                    save(pendingSave.publishedCollection, pendingSave.jsonPath);
+                }
+            }
+
+            long now = System.currentTimeMillis();
+            progress.values().removeIf(p -> p.isComplete()
+                    && now - p.getCompleted().getTime() > COMPLETED_PROGRESS_RETENTION_MS);
+        } catch (Exception e) {
+            // never let an exception cancel the periodic flush
+            error().logException(e, "Flushing verification state failed");
+        }
+    }
+
+    private void save(PublishedCollection publishedCollection, Path jsonPath) {
+        // the periodic flush and the final save of a collection may otherwise write the same file concurrently
+        synchronized (publishedCollection) {
+            try {
+                zebedee.getPublishedCollections().save(publishedCollection, jsonPath);
+            } catch (IOException e) {
+                error().data("collectionId", publishedCollection.getId())
+                        .logException(e, "Saving published collection failed");
+            }
+        }
+    }
+
+    private static class PendingSave {
+        private final PublishedCollection publishedCollection;
+        private final Path jsonPath;
+
+        PendingSave(PublishedCollection publishedCollection, Path jsonPath) {
+            this.publishedCollection = publishedCollection;
+            this.jsonPath = jsonPath;
         }
     }
 }
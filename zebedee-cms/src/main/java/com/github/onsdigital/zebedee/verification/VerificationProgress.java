@@ -0,0 +1,98 @@
+package com.github.onsdigital.zebedee.verification;
+
+import java.util.Date;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In memory summary of the verification of a single published collection. Allows the state of a verification run to
+ * be queried without re-reading the published collection json.
+ */
+public class VerificationProgress {
+
+    private final String collectionId;
+    private final Date started;
+    private final AtomicInteger total = new AtomicInteger();
+    private final AtomicInteger outstanding = new AtomicInteger();
+    private final AtomicInteger verified = new AtomicInteger();
+    private final AtomicInteger failed = new AtomicInteger();
+    private final AtomicInteger retrying = new AtomicInteger();
+    private volatile Date completed;
+
+    public VerificationProgress(String collectionId) {
+        this.collectionId = collectionId;
+        this.started = new Date();
+    }
+
+    void submitted() {
+        total.incrementAndGet();
+        outstanding.incrementAndGet();
+    }
+
+    void retryScheduled() {
+        retrying.incrementAndGet();
+    }
+
+    void retryStarted() {
+        retrying.decrementAndGet();
+    }
+
+    /**
+     * @return true if this was the last outstanding uri of the collection.
+     */
+    boolean verified() {
+        verified.incrementAndGet();
+        return onUriDone();
+    }
+
+    /**
+     * @return true if this was the last outstanding uri of the collection.
+     */
+    boolean failed() {
+        failed.incrementAndGet();
+        return onUriDone();
+    }
+
+    private boolean onUriDone() {
+        if (outstanding.decrementAndGet() == 0) {
+            completed = new Date();
+            return true;
+        }
+        return false;
+    }
+
+    public String getCollectionId() {
+        return collectionId;
+    }
+
+    public Date getStarted() {
+        return started;
+    }
+
+    public int getTotal() {
+        return total.get();
+    }
+
+    public int getInProgress() {
+        return outstanding.get();
+    }
+
+    public int getVerified() {
+        return verified.get();
+    }
+
+    public int getFailed() {
+        return failed.get();
+    }
+
+    public int getRetrying() {
+        return retrying.get();
+    }
+
+    public Date getCompleted() {
+        return completed;
+    }
+
+    public boolean isComplete() {
+        return completed != null;
+    }
+}
@@ -0,0 +1,42 @@
+package com.github.onsdigital.zebedee.data.importing;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class CsvTimeseriesUpdateImporterTest {
+
+    @Test
+    public void importData_shouldPassEachCommandToTheConsumer() throws Exception {
+        String csv = "ABCD,qwef,£,Pounds\nEFGH,qwef,,Percent\n";
+        List<TimeseriesUpdateCommand> commands = new ArrayList<>();
+
+        new CsvTimeseriesUpdateImporter(stream(csv)).importData(commands::add);
+
+        assertThat(commands.size(), equalTo(2));
+        assertThat(commands.get(0).cdid, equalTo("ABCD"));
+        assertThat(commands.get(0).dataset, equalTo("qwef"));
+        assertThat(commands.get(0).preunit, equalTo("£"));
+        assertThat(commands.get(1).unit, equalTo("Percent"));
+    }
+
+    @Test
+    public void importData_lineWithoutEveryColumn_shouldSkipTheLine() throws Exception {
+        String csv = "ABCD,qwef,£,Pounds\nEFGH,qwef\n\nIJKL,qwef,,Percent\n";
+
+        List<TimeseriesUpdateCommand> commands = new CsvTimeseriesUpdateImporter(stream(csv)).importData();
+
+        assertThat(commands.size(), equalTo(2));
+        assertThat(commands.get(1).cdid, equalTo("IJKL"));
+    }
+
+    private static ByteArrayInputStream stream(String csv) {
+        return new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,122 @@
+package com.github.onsdigital.zebedee.data.importing;
+
+import com.github.onsdigital.zebedee.content.page.base.Page;
+import com.github.onsdigital.zebedee.content.page.base.PageDescription;
+import com.github.onsdigital.zebedee.content.page.statistics.data.timeseries.TimeSeries;
+import com.github.onsdigital.zebedee.exceptions.NotFoundException;
+import com.github.onsdigital.zebedee.model.ContentWriter;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+public class TimeseriesUpdateApplierTest {
+
+    @Mock
+    private ContentWriter writer;
+
+    private ExecutorService executor;
+
+    @Before
+    public void setUp() {
+        MockitoAnnotations.openMocks(this);
+        executor = Executors.newFixedThreadPool(4);
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void groupByUri_shouldKeepTheCommandsForEachUriInOrder() {
+        List<TimeseriesUpdateCommand> commands = Arrays.asList(
+                command("a", "/a", "first"), command("b", "/b", "b"), command("a", "/a", "second"),
+                command("c", null, "c"));
+
+        Map<String, List<TimeseriesUpdateCommand>> groups = TimeseriesUpdateApplier.groupByUri(commands, c -> c.uri);
+
+        assertThat(groups.size(), equalTo(2));
+        assertThat(groups.get("/a").size(), equalTo(2));
+        assertThat(groups.get("/a").get(1).title, equalTo("second"));
+    }
+
+    @Test
+    public void apply_shouldWriteEachTimeseriesOnceWithEveryCommandApplied() throws Exception {
+        List<TimeseriesUpdateCommand> commands = Arrays.asList(
+                command("a", "/a", "first"), command("a", "/a", "second"), command("b", "/b", "b"));
+        TimeSeries a = timeseries("old");
+        TimeSeries b = timeseries("b");
+
+        TimeseriesUpdateApplier.Result result = new TimeseriesUpdateApplier(executor).apply(
+                TimeseriesUpdateApplier.groupByUri(commands, c -> c.uri),
+                uri -> uri.equals("/a") ? a : b, writer, TimeseriesUpdateApplierTest::updateTitle);
+
+        assertThat(a.getDescription().getTitle(), equalTo("second"));
+        verify(writer, times(1)).writeObject(a, "/a/data.json");
+        verify(writer, never()).writeObject(eq(b), any());
+        assertThat(result.getUpdated(), equalTo(1));
+        assertThat(result.getUnchanged(), equalTo(1));
+        assertThat(result.getFailed(), equalTo(0));
+    }
+
+    @Test
+    public void apply_timeseriesFails_shouldUpdateTheOthers() throws Exception {
+        List<TimeseriesUpdateCommand> commands = Arrays.asList(
+                command("a", "/a", "a"), command("missing", "/missing", "m"), command("b", "/b", "b"));
+        TimeSeries a = timeseries("old a");
+        TimeSeries b = timeseries("old b");
+
+        TimeseriesUpdateApplier.Result result = new TimeseriesUpdateApplier(executor).apply(
+                TimeseriesUpdateApplier.groupByUri(commands, c -> c.uri),
+                uri -> {
+                    if (uri.equals("/missing")) {
+                        throw new NotFoundException("not found");
+                    }
+                    return uri.equals("/a") ? a : b;
+                }, writer, TimeseriesUpdateApplierTest::updateTitle);
+
+        verify(writer).writeObject(a, "/a/data.json");
+        verify(writer).writeObject(b, "/b/data.json");
+        assertThat(result.getTotal(), equalTo(3));
+        assertThat(result.getUpdated(), equalTo(2));
+        assertThat(result.getFailed(), equalTo(1));
+        assertThat(result.getFailedCdids(), equalTo(Arrays.asList("missing")));
+    }
+
+    private static boolean updateTitle(Page page, TimeseriesUpdateCommand command) {
+        if (command.title.equals(page.getDescription().getTitle())) {
+            return false;
+        }
+        page.getDescription().setTitle(command.title);
+        return true;
+    }
+
+    private static TimeseriesUpdateCommand command(String cdid, String uri, String title) {
+        TimeseriesUpdateCommand command = new TimeseriesUpdateCommand(cdid, "dataset", title);
+        command.uri = uri;
+        return command;
+    }
+
+    private static TimeSeries timeseries(String title) {
+        TimeSeries timeSeries = new TimeSeries();
+        timeSeries.setDescription(new PageDescription());
+        timeSeries.getDescription().setTitle(title);
+        return timeSeries;
+    }
+}
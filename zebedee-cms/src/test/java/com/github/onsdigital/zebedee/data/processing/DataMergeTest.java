@@ -126,6 +126,49 @@ public class DataMergeTest {
         assertEquals(1, dataMerge.corrections);
     }
 
+    @Test
+    public void mergeValues_withCorrectionsInsertionsAndSuppressions_shouldCountEach() {
+        // Given a timeseries for 2000-2002 and updates that correct 2000, suppress 2001 and add 2003 and 2004
+        TimeSeries initial = simplifyTimeSeries(generator.exampleTimeseries("cdid", "dataset"));
+        TimeSeries updates = clearTimeSeries(generator.exampleTimeseries("cdid", "dataset"));
+        updates.add(quickTimeSeriesValue("2000", "5"));
+        updates.add(quickTimeSeriesValue("2002", "3"));
+        updates.add(quickTimeSeriesValue("2003", "6"));
+        updates.add(quickTimeSeriesValue("2004", "7"));
+
+        // When a merge is done
+        DataMerge dataMerge = new DataMerge();
+        TimeSeries merged = dataMerge.merge(initial, updates, "update");
+
+        // Then the correction and suppression are counted as corrections and the new points as insertions
+        assertEquals(5, merged.years.size());
+        assertEquals(2, dataMerge.corrections);
+        assertEquals(2, dataMerge.insertions);
+        assertEquals("5", valueForTime("2000", merged).value);
+        assertEquals("update", valueForTime("2000", merged).sourceDataset);
+        assertEquals("", valueForTime("2001", merged).value);
+        assertEquals("3", valueForTime("2002", merged).value);
+        assertEquals("6", valueForTime("2003", merged).value);
+        assertEquals("update", valueForTime("2004", merged).sourceDataset);
+    }
+
+    @Test
+    public void mergeValues_overExistingTimeSeries_shouldNotChangeTheOriginal() {
+        // Given a timeseries for 2000-2002 and an update to 2002
+        TimeSeries initial = simplifyTimeSeries(generator.exampleTimeseries("cdid", "dataset"));
+        TimeSeries updates = simplifyTimeSeries(generator.exampleTimeseries("cdid", "dataset"));
+        updates.years.last().value = "4";
+
+        // When a merge is done
+        TimeSeries merged = new DataMerge().merge(initial, updates, "update");
+
+        // Then the merged page has the update and the original is as it was
+        assertEquals("4", valueForTime("2002", merged).value);
+        assertEquals("3", valueForTime("2002", initial).value);
+        assertEquals(initial.getCdid(), merged.getCdid());
+        assertTrue(initial.years.last() != merged.years.last());
+    }
+
 
     private void assertTimeSeriesPointsMatch(TreeSet<TimeSeriesValue> values1, TreeSet<TimeSeriesValue> values2) {
         assertEquals(values1.size(), values2.size());
@@ -0,0 +1,103 @@
+package com.github.onsdigital.zebedee.data.processing;
+
+import com.github.onsdigital.zebedee.content.page.statistics.data.timeseries.TimeSeries;
+import com.github.onsdigital.zebedee.exceptions.NotFoundException;
+import com.github.onsdigital.zebedee.reader.ContentReader;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Optional;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class PublishedContentMemoTest {
+
+    private static final String URI = "/economy/inflation/timeseries/cdid/dataset";
+    private static final Path DATA_FILE = Paths.get("/published" + URI + "/data.json");
+
+    @Mock
+    private ContentReader published;
+
+    private PublishedContentMemo memo;
+
+    @Before
+    public void setUp() throws Exception {
+        MockitoAnnotations.openMocks(this);
+        memo = new PublishedContentMemo(published);
+    }
+
+    @Test
+    public void probeContent_checkedTwice_shouldProbePublishedOnce() throws Exception {
+        when(published.probeContent(URI)).thenReturn(Optional.of(DATA_FILE));
+
+        assertThat(memo.probeContent(URI), equalTo(Optional.of(DATA_FILE)));
+        assertThat(memo.probeContent(URI), equalTo(Optional.of(DATA_FILE)));
+
+        verify(published, times(1)).probeContent(URI);
+        assertThat(memo.getHits(), equalTo(1L));
+    }
+
+    @Test
+    public void getContent_notFound_shouldNotReadPublishedAgain() throws Exception {
+        // Given a page that is not published
+        when(published.getContent(URI)).thenThrow(new NotFoundException("not found"));
+        getContentExpectingNotFound();
+
+        // When it is read and checked again
+        getContentExpectingNotFound();
+        Optional<Path> probe = memo.probeContent(URI);
+
+        // Then the memo answers both without going to the published content
+        assertThat(probe.isPresent(), is(false));
+        verify(published, times(1)).getContent(URI);
+        verify(published, times(0)).probeContent(URI);
+        assertThat(memo.getReads(), equalTo(1L));
+        assertThat(memo.getHits(), equalTo(2L));
+    }
+
+    @Test
+    public void getContent_probedMissing_shouldNotReadPublished() throws Exception {
+        when(published.probeContent(URI)).thenReturn(Optional.empty());
+        memo.probeContent(URI);
+
+        getContentExpectingNotFound();
+
+        verify(published, times(0)).getContent(URI);
+        assertThat(memo.getReads(), equalTo(0L));
+    }
+
+    @Test
+    public void getContent_readTwice_shouldNotShareThePage() throws Exception {
+        // Given a published page that is changed by whoever reads it
+        when(published.getContent(URI)).thenAnswer(invocation -> new TimeSeries());
+
+        // When it is read twice
+        TimeSeries first = (TimeSeries) memo.getContent(URI);
+        TimeSeries second = (TimeSeries) memo.getContent(URI);
+
+        // Then each read has its own page
+        assertThat(first, is(not(sameInstance(second))));
+        assertThat(memo.getReads(), equalTo(2L));
+    }
+
+    private void getContentExpectingNotFound() throws Exception {
+        try {
+            memo.getContent(URI);
+            fail("expected NotFoundException");
+        } catch (NotFoundException e) {
+            // expected
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package com.github.onsdigital.zebedee.kafka;
+
+import org.apache.kafka.clients.producer.Callback;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+public class KafkaRetrySpoolTest {
+
+    private static final String COLLECTION_ID = "col123";
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private Path dir;
+    private KafkaClient kafkaClient;
+
+    @Before
+    public void setUp() throws Exception {
+        dir = temporaryFolder.newFolder("kafka-spool").toPath();
+        kafkaClient = mock(KafkaClient.class);
+    }
+
+    @Test
+    public void retry_shouldResendSpooledEventsAndDeleteThem() throws Exception {
+        completeWith(null);
+        KafkaRetrySpool spool = new KafkaRetrySpool(dir, kafkaClient);
+        spool.spool(event("/moo"));
+        spool.spool(event("/quack"));
+
+        assertEquals(2, spool.retry());
+
+        verify(kafkaClient).produceContentUpdated(eq("/moo"), eq("legacy"), eq(COLLECTION_ID), eq(""), eq("ons"),
+                eq("trace"), any(Callback.class));
+        verify(kafkaClient).produceContentUpdated(eq("/quack"), anyString(), anyString(), anyString(), anyString(),
+                anyString(), any(Callback.class));
+        assertEquals(0, spool.size());
+        assertFalse(Files.list(dir).findAny().isPresent());
+    }
+
+    @Test
+    public void retry_failedEvent_shouldBeSpooledAgain() throws Exception {
+        completeWith(new IOException("broker unavailable"));
+        KafkaRetrySpool spool = new KafkaRetrySpool(dir, kafkaClient);
+        spool.spool(event("/moo"));
+
+        spool.retry();
+        spool.flush();
+
+        assertEquals(1, spool.size());
+        assertTrue(Files.exists(dir.resolve(KafkaRetrySpool.CURRENT_FILE)));
+        assertEquals(1, Files.list(dir).count());
+    }
+
+    @Test
+    public void spoolLater_shouldWriteEventsOnTheWriterThread() throws Exception {
+        completeWith(null);
+        KafkaRetrySpool spool = new KafkaRetrySpool(dir, kafkaClient);
+        List<String> threads = new CopyOnWriteArrayList<>();
+        List<IOException> errors = new CopyOnWriteArrayList<>();
+
+        for (String uri : Arrays.asList("/moo", "/quack", "/oink")) {
+            spool.spoolLater(event(uri), e -> {
+                threads.add(Thread.currentThread().getName());
+                if (e != null) {
+                    errors.add(e);
+                }
+            });
+        }
+        spool.flush();
+
+        assertEquals(3, spool.size());
+        assertEquals(3, threads.size());
+        assertFalse(threads.contains(Thread.currentThread().getName()));
+        assertTrue(errors.isEmpty());
+        assertEquals(3, spool.retry());
+    }
+
+    @Test
+    public void close_shouldWriteEventsQueuedBeforeIt() throws Exception {
+        KafkaRetrySpool spool = new KafkaRetrySpool(dir, kafkaClient);
+        List<IOException> errors = new CopyOnWriteArrayList<>();
+
+        spool.spoolLater(event("/moo"), e -> {
+            if (e != null) {
+                errors.add(e);
+            }
+        });
+        spool.close();
+
+        assertTrue(errors.isEmpty());
+        assertTrue(Files.exists(dir.resolve(KafkaRetrySpool.CURRENT_FILE)));
+        assertEquals(1, new KafkaRetrySpool(dir, kafkaClient).size());
+    }
+
+    @Test
+    public void spoolLater_afterClose_shouldWriteTheEventOnTheCallingThread() throws Exception {
+        KafkaRetrySpool spool = new KafkaRetrySpool(dir, kafkaClient);
+        spool.close();
+        List<String> threads = new CopyOnWriteArrayList<>();
+
+        spool.spoolLater(event("/moo"), e -> threads.add(Thread.currentThread().getName()));
+
+        assertEquals(Arrays.asList(Thread.currentThread().getName()), threads);
+        assertEquals(1, new KafkaRetrySpool(dir, kafkaClient).size());
+    }
+
+    @Test
+    public void newSpool_shouldRetryEventsSpooledBeforeRestart() throws Exception {
+        new KafkaRetrySpool(dir, kafkaClient).spool(event("/moo"));
+        completeWith(null);
+
+        KafkaRetrySpool restarted = new KafkaRetrySpool(dir, kafkaClient);
+        assertEquals(1, restarted.size());
+        restarted.retry();
+
+        verify(kafkaClient, times(1)).produceContentUpdated(eq("/moo"), anyString(), anyString(), anyString(),
+                anyString(), anyString(), any(Callback.class));
+        assertEquals(0, restarted.size());
+    }
+
+    @Test
+    public void retry_emptySpool_shouldSendNothing() throws Exception {
+        KafkaRetrySpool spool = new KafkaRetrySpool(dir, kafkaClient);
+
+        assertEquals(0, spool.retry());
+
+        verify(kafkaClient, never()).produceContentUpdated(anyString(), anyString(), anyString(), anyString(),
+                anyString(), anyString(), any(Callback.class));
+    }
+
+    private void completeWith(Exception exception) {
+        doAnswer(invocation -> {
+            ((Callback) invocation.getArgument(6)).onCompletion(null, exception);
+            return null;
+        }).when(kafkaClient).produceContentUpdated(anyString(), anyString(), anyString(), anyString(), anyString(),
+                anyString(), any(Callback.class));
+    }
+
+    private static KafkaRetrySpool.Event event(String uri) {
+        return new KafkaRetrySpool.Event(uri, "legacy", COLLECTION_ID, "", "ons", "trace");
+    }
+}
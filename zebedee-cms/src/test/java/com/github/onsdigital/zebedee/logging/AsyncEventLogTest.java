@@ -0,0 +1,101 @@
+package com.github.onsdigital.zebedee.logging;
+
+import com.github.onsdigital.zebedee.logging.AsyncEventLog.FullPolicy;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class AsyncEventLogTest {
+
+    @Test
+    public void write_disabled_shouldWriteOnTheCallingThread() {
+        AsyncEventLog eventLog = new AsyncEventLog("test", false, 8, 4, FullPolicy.DROP);
+        List<Thread> threads = new CopyOnWriteArrayList<>();
+
+        eventLog.write("test", () -> threads.add(Thread.currentThread()));
+
+        assertThat(threads.get(0), equalTo(Thread.currentThread()));
+    }
+
+    @Test
+    public void write_enabled_shouldWriteEveryEventInOrderOnTheWriterThread() throws Exception {
+        AsyncEventLog eventLog = new AsyncEventLog("test", true, 1024, 16, FullPolicy.BLOCK);
+        List<Integer> written = new CopyOnWriteArrayList<>();
+        List<Thread> threads = new CopyOnWriteArrayList<>();
+
+        for (int i = 0; i < 500; i++) {
+            int event = i;
+            eventLog.write("test", () -> {
+                written.add(event);
+                threads.add(Thread.currentThread());
+            });
+        }
+        eventLog.close();
+
+        assertThat(written.size(), equalTo(500));
+        for (int i = 0; i < 500; i++) {
+            assertThat(written.get(i), equalTo(i));
+        }
+        assertThat(threads.get(0), not(equalTo(Thread.currentThread())));
+    }
+
+    @Test
+    public void write_fullWithDropPolicy_shouldDropTheEvent() throws Exception {
+        AsyncEventLog eventLog = new AsyncEventLog("test", true, 2, 1, FullPolicy.DROP);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch writing = new CountDownLatch(1);
+        AtomicInteger written = new AtomicInteger();
+
+        // Given the writer is held up writing the first event and the queue is then filled
+        eventLog.write("test", () -> {
+            writing.countDown();
+            await(release);
+            written.incrementAndGet();
+        });
+        assertThat(writing.await(10, TimeUnit.SECONDS), is(true));
+        for (int i = 0; i < 3; i++) {
+            eventLog.write("test", written::incrementAndGet);
+        }
+
+        release.countDown();
+        eventLog.close();
+
+        // Then the event that did not fit was dropped
+        assertThat(written.get(), equalTo(3));
+    }
+
+    @Test
+    public void write_afterClose_shouldWriteOnTheCallingThread() {
+        AsyncEventLog eventLog = new AsyncEventLog("test", true, 8, 4, FullPolicy.DROP);
+        eventLog.close();
+        List<Thread> threads = new CopyOnWriteArrayList<>();
+
+        eventLog.write("test", () -> threads.add(Thread.currentThread()));
+
+        assertThat(threads.get(0), equalTo(Thread.currentThread()));
+    }
+
+    @Test
+    public void fromString_shouldIgnoreCaseAndDefaultToDrop() {
+        assertThat(FullPolicy.fromString("block"), equalTo(FullPolicy.BLOCK));
+        assertThat(FullPolicy.fromString("BLOCK"), equalTo(FullPolicy.BLOCK));
+        assertThat(FullPolicy.fromString("unknown"), equalTo(FullPolicy.DROP));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.github.onsdigital.zebedee.logging;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class EventRingBufferTest {
+
+    @Test
+    public void capacity_shouldBeRoundedUpToAPowerOfTwo() {
+        assertThat(new EventRingBuffer<>(1000).capacity(), equalTo(1024));
+        assertThat(new EventRingBuffer<>(8).capacity(), equalTo(8));
+    }
+
+    @Test
+    public void offer_full_shouldReturnFalseUntilAnEventIsTaken() {
+        EventRingBuffer<Integer> buffer = new EventRingBuffer<>(4);
+        for (int i = 0; i < 4; i++) {
+            assertThat(buffer.offer(i), is(true));
+        }
+
+        assertThat(buffer.offer(4), is(false));
+        assertThat(buffer.poll(), equalTo(0));
+        assertThat(buffer.offer(4), is(true));
+        assertThat(buffer.size(), equalTo(4));
+    }
+
+    @Test
+    public void drainTo_shouldTakeEventsInOrderUpToTheMax() {
+        EventRingBuffer<Integer> buffer = new EventRingBuffer<>(8);
+        for (int i = 0; i < 5; i++) {
+            buffer.offer(i);
+        }
+
+        List<Integer> batch = new ArrayList<>();
+        assertThat(buffer.drainTo(batch, 3), equalTo(3));
+        assertThat(batch.toString(), equalTo("[0, 1, 2]"));
+        assertThat(buffer.drainTo(batch, 3), equalTo(2));
+        assertThat(buffer.poll(), nullValue());
+    }
+
+    @Test
+    public void offer_manyProducers_shouldDeliverEveryEventOnce() throws Exception {
+        EventRingBuffer<Integer> buffer = new EventRingBuffer<>(64);
+        int producers = 4;
+        int perProducer = 10000;
+        ExecutorService pool = Executors.newFixedThreadPool(producers);
+        CountDownLatch start = new CountDownLatch(1);
+        for (int p = 0; p < producers; p++) {
+            int first = p * perProducer;
+            pool.submit(() -> {
+                start.await();
+                for (int i = first; i < first + perProducer; i++) {
+                    while (!buffer.offer(i)) {
+                        Thread.yield();
+                    }
+                }
+                return null;
+            });
+        }
+
+        start.countDown();
+        Set<Integer> taken = new HashSet<>();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (taken.size() < producers * perProducer && System.nanoTime() < deadline) {
+            Integer event = buffer.poll();
+            if (event != null) {
+                assertThat(taken.add(event), is(true));
+            }
+        }
+        pool.shutdownNow();
+
+        assertThat(taken.size(), equalTo(producers * perProducer));
+    }
+}
@@ -0,0 +1,99 @@
+package com.github.onsdigital.zebedee.metrics;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.assertEquals;
+
+public class MetricsRegistryTest {
+
+    private MetricsRegistry registry;
+
+    @Before
+    public void setUp() {
+        registry = new MetricsRegistry();
+    }
+
+    @Test
+    public void counter_shouldWriteLabelledValues() {
+        Counter counter = registry.counter("files_total", "Files sent.", "host");
+        counter.labels("http://train:8084").inc();
+        counter.labels("http://train:8084").inc(2);
+
+        String output = registry.write();
+
+        assertThat(output, containsString("# HELP files_total Files sent.\n"));
+        assertThat(output, containsString("# TYPE files_total counter\n"));
+        assertThat(output, containsString("files_total{host=\"http://train:8084\"} 3\n"));
+    }
+
+    @Test
+    public void timer_shouldWriteCumulativeBuckets() {
+        Timer timer = registry.timer("phase_seconds", "Phase time.", "phase");
+        timer.labels("commit").observe(20, TimeUnit.MILLISECONDS);
+        timer.labels("commit").observe(2, TimeUnit.SECONDS);
+
+        String output = registry.write();
+
+        assertThat(output, containsString("# TYPE phase_seconds histogram\n"));
+        assertThat(output, containsString("phase_seconds_bucket{phase=\"commit\",le=\"0.01\"} 0\n"));
+        assertThat(output, containsString("phase_seconds_bucket{phase=\"commit\",le=\"0.025\"} 1\n"));
+        assertThat(output, containsString("phase_seconds_bucket{phase=\"commit\",le=\"2.5\"} 2\n"));
+        assertThat(output, containsString("phase_seconds_bucket{phase=\"commit\",le=\"+Inf\"} 2\n"));
+        assertThat(output, containsString("phase_seconds_sum{phase=\"commit\"} 2.02\n"));
+        assertThat(output, containsString("phase_seconds_count{phase=\"commit\"} 2\n"));
+    }
+
+    @Test
+    public void gauge_shouldSampleSupplierOnWrite() {
+        int[] value = {1};
+        registry.gauge("queue_depth", "Queue depth.").labels().set(() -> value[0]);
+        value[0] = 5;
+
+        assertThat(registry.write(), containsString("queue_depth 5\n"));
+    }
+
+    @Test
+    public void labels_shouldEscapeValues() {
+        registry.counter("escaped_total", "Escaped.", "uri").labels("a\"b\\c\nd").inc();
+
+        assertThat(registry.write(), containsString("escaped_total{uri=\"a\\\"b\\\\c\\nd\"} 1\n"));
+    }
+
+    @Test
+    public void register_existingName_shouldReturnSameMetric() {
+        Counter counter = registry.counter("same_total", "Same.", "host");
+
+        assertThat(registry.counter("same_total", "Same.", "host"), sameInstance(counter));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void register_existingNameWithDifferentType_shouldThrow() {
+        registry.counter("clash", "Clash.");
+        registry.timer("clash", "Clash.");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void labels_wrongNumberOfValues_shouldThrow() {
+        registry.counter("labelled_total", "Labelled.", "host", "endpoint").labels("host");
+    }
+
+    @Test
+    public void instrumentedExecutor_shouldRecordQueueWait() throws Exception {
+        ExecutorService executor = InstrumentedExecutors.newFixedThreadPool("test-executor", 1);
+        try {
+            executor.submit(() -> true).get();
+        } finally {
+            executor.shutdown();
+        }
+
+        assertEquals(1, InstrumentedExecutors.QUEUE_WAIT.labels("test-executor").getCount());
+        assertThat(MetricsRegistry.metrics().write(), containsString("zebedee_executor_queue_depth{executor=\"test-executor\"} 0\n"));
+    }
+}
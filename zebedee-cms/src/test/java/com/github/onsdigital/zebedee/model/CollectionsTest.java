@@ -1090,10 +1090,29 @@ public class CollectionsTest {
 
         assertTrue(deleteSuccessful);
         verify(collectionMock, times(1)).save();
+        verify(collectionMock, times(1)).deletePublishSnapshot();
         verify(collectionMock, never()).deleteDataVisContent(sessionMock, Paths.get(uri));
         verify(collectionMock, never()).deleteFile(uri);
     }
 
+    @Test
+    public void shouldDeletePublishSnapshotOnMoveAndRenameContent() throws IOException, ZebedeeException {
+        when(permissionsServiceMock.canEdit(sessionMock))
+                .thenReturn(true);
+        when(publishedContentMock.exists("/from"))
+                .thenReturn(false);
+        when(collectionMock.moveContent(sessionMock, "/from", "/to"))
+                .thenReturn(true);
+        when(collectionMock.renameContent(TEST_EMAIL, "/from", "/to"))
+                .thenReturn(true);
+
+        collections.moveContent(sessionMock, collectionMock, "/from", "/to");
+        collections.renameContent(sessionMock, collectionMock, "/from", "/to");
+
+        verify(collectionMock, times(2)).deletePublishSnapshot();
+        verify(collectionMock, times(2)).save();
+    }
+
     @Test
     public void shouldDeleteSingleNonJsonFile() throws IOException, ZebedeeException {
         // populate the collection with some content.
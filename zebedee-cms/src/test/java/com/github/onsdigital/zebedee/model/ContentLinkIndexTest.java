@@ -0,0 +1,116 @@
+package com.github.onsdigital.zebedee.model;
+
+import com.github.onsdigital.zebedee.reader.ContentReader;
+import com.github.onsdigital.zebedee.reader.Resource;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Set;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.hasItems;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class ContentLinkIndexTest {
+
+    private static final String BULLETIN = "/economy/inflation/bulletins/jan/data.json";
+    private static final String ARTICLE = "/economy/inflation/articles/feb/data.json";
+
+    @Rule
+    public TemporaryFolder root = new TemporaryFolder();
+
+    @Mock
+    private ContentReader reader;
+
+    private Content content;
+    private ContentLinkIndex index;
+
+    @Before
+    public void setUp() throws Exception {
+        MockitoAnnotations.openMocks(this);
+        content = new Content(root.getRoot().toPath());
+        index = new ContentLinkIndex();
+
+        when(reader.getResource(anyString())).thenAnswer(invocation -> {
+            Resource resource = new Resource();
+            resource.setData(Files.newInputStream(content.toPath(invocation.getArgument(0))));
+            return resource;
+        });
+    }
+
+    @Test
+    public void links_shouldIncludeEachRunOfEachUri() throws Exception {
+        Set<String> links = ContentLinkIndex.links(new StringReader("{\"uri\":\"/a/b/c\",\"title\":\"a/b\"}"));
+
+        assertThat(links, hasItems("/a", "/a/b", "/a/b/c", "/b", "/b/c", "/c"));
+        assertThat(links.contains("a/b"), is(false));
+    }
+
+    @Test
+    public void isIndexed_shouldOnlyAcceptUrisTheIndexCanFind() {
+        assertThat(ContentLinkIndex.isIndexed("/economy/inflation"), is(true));
+        assertThat(ContentLinkIndex.isIndexed("economy/inflation"), is(false));
+        assertThat(ContentLinkIndex.isIndexed("/economy/inflation/"), is(false));
+        assertThat(ContentLinkIndex.isIndexed("/economy/inflation and prices"), is(false));
+    }
+
+    @Test
+    public void findReferrers_shouldFindOnlyTheFilesReferringToTheUri() throws Exception {
+        write(BULLETIN, "{\"uri\":\"/economy/inflation/bulletins/jan\",\"related\":[\"/economy/gdp\"]}");
+        write(ARTICLE, "{\"uri\":\"/economy/inflation/articles/feb\"}");
+
+        assertThat(index.findReferrers(content, reader, "/economy/gdp"), equalTo(singletonList(BULLETIN)));
+        assertThat(index.findReferrers(content, reader, "/economy/inflation").size(), equalTo(2));
+        assertThat(index.findReferrers(content, reader, "/economy/prices").isEmpty(), is(true));
+    }
+
+    @Test
+    public void findReferrers_unchangedFiles_shouldNotBeReadAgain() throws Exception {
+        write(BULLETIN, "{\"uri\":\"/economy/inflation/bulletins/jan\"}");
+        write(ARTICLE, "{\"uri\":\"/economy/inflation/articles/feb\"}");
+        index.findReferrers(content, reader, "/economy/gdp");
+
+        // When one file changes and the index is used again
+        write(ARTICLE, "{\"uri\":\"/economy/inflation/articles/feb\",\"related\":[\"/economy/gdp\"]}");
+        Files.setLastModifiedTime(content.toPath(ARTICLE), FileTime.fromMillis(0));
+
+        // Then only that file is read again and its new links are found
+        assertThat(index.findReferrers(content, reader, "/economy/gdp"), equalTo(singletonList(ARTICLE)));
+        verify(reader, times(1)).getResource(BULLETIN);
+        verify(reader, times(2)).getResource(ARTICLE);
+    }
+
+    @Test
+    public void findReferrers_deletedFile_shouldBeRemoved() throws Exception {
+        write(BULLETIN, "{\"related\":[\"/economy/gdp\"]}");
+        write(ARTICLE, "{\"related\":[\"/economy/gdp\"]}");
+        index.findReferrers(content, reader, "/economy/gdp");
+
+        Files.delete(content.toPath(BULLETIN));
+
+        assertThat(index.findReferrers(content, reader, "/economy/gdp"), equalTo(asList(ARTICLE)));
+        assertThat(index.size(), equalTo(1));
+    }
+
+    private void write(String uri, String json) throws Exception {
+        Path path = content.toPath(uri);
+        Files.createDirectories(path.getParent());
+        Files.write(path, json.getBytes(StandardCharsets.UTF_8));
+    }
+}
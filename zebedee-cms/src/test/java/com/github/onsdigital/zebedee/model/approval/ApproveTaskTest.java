@@ -3,6 +3,7 @@ package com.github.onsdigital.zebedee.model.approval;
 import com.github.davidcarboni.cryptolite.Random;
 import com.github.onsdigital.zebedee.configuration.CMSFeatureFlags;
 import com.github.onsdigital.zebedee.content.page.base.PageType;
+import com.github.onsdigital.zebedee.data.importing.TimeseriesUpdateApplier;
 import com.github.onsdigital.zebedee.data.processing.DataIndex;
 import com.github.onsdigital.zebedee.json.ApprovalStatus;
 import com.github.onsdigital.zebedee.json.CollectionDescription;
@@ -39,6 +40,7 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
@@ -339,4 +341,30 @@ public class ApproveTaskTest {
             System.setProperty(CMSFeatureFlags.ENABLE_DATASET_IMPORT, datasetImportFlag);
         }
     }
-}
\ No newline at end of file
+
+    @Test
+    public void describeFailures_shouldListTheFailedCdids() {
+        TimeseriesUpdateApplier.Result result = Mockito.mock(TimeseriesUpdateApplier.Result.class);
+        when(result.getTotal()).thenReturn(10);
+        when(result.getFailed()).thenReturn(2);
+        when(result.getFailedCdids()).thenReturn(Arrays.asList("abcd", "efgh"));
+
+        assertThat(ApproveTask.describeFailures(result), equalTo("2 of 10 timeseries failed to update, CDIDs: abcd, efgh"));
+    }
+
+    @Test
+    public void describeFailures_manyFailures_shouldLimitTheCdidsListed() {
+        List<String> cdids = new ArrayList<>();
+        for (int i = 0; i < ApproveTask.MAX_FAILED_CDIDS + 5; i++) {
+            cdids.add("cd" + i);
+        }
+        TimeseriesUpdateApplier.Result result = Mockito.mock(TimeseriesUpdateApplier.Result.class);
+        when(result.getTotal()).thenReturn(cdids.size());
+        when(result.getFailed()).thenReturn(cdids.size());
+        when(result.getFailedCdids()).thenReturn(cdids);
+
+        String description = ApproveTask.describeFailures(result);
+
+        assertThat(description.endsWith("cd" + (ApproveTask.MAX_FAILED_CDIDS - 1) + " and 5 more"), equalTo(true));
+    }
+}
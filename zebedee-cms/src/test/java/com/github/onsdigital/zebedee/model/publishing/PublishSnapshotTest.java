@@ -0,0 +1,148 @@
+package com.github.onsdigital.zebedee.model.publishing;
+
+import com.github.onsdigital.zebedee.model.Collection;
+import com.github.onsdigital.zebedee.model.Content;
+import com.github.onsdigital.zebedee.reader.CollectionReader;
+import com.github.onsdigital.zebedee.reader.Resource;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+
+import static java.util.Arrays.asList;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class PublishSnapshotTest {
+
+    private static final String PAGE = "/economy/inflation/data.json";
+    private static final String VERSION = "/economy/inflation/previous/v1/data.json";
+    private static final String TIMESERIES = "/economy/inflation/timeseries/cdid/data.json";
+    private static final String ZIP = "/economy/inflation/timeseries-to-publish.zip";
+
+    @Rule
+    public TemporaryFolder root = new TemporaryFolder();
+
+    @Mock
+    private Collection collection;
+
+    @Mock
+    private Content reviewed;
+
+    @Mock
+    private CollectionReader reader;
+
+    @Before
+    public void setUp() throws Exception {
+        MockitoAnnotations.openMocks(this);
+
+        when(collection.getPath()).thenReturn(root.getRoot().toPath());
+        when(collection.getReviewed()).thenReturn(reviewed);
+        when(reviewed.uris()).thenReturn(asList(PAGE, VERSION, TIMESERIES, ZIP));
+        for (String uri : asList(PAGE, VERSION, TIMESERIES, ZIP)) {
+            when(reader.getResource(uri)).thenAnswer(invocation -> resource(uri));
+        }
+    }
+
+    @Test
+    public void create_shouldRecordEachReviewedFile() throws Exception {
+        // When a snapshot is taken
+        PublishSnapshot snapshot = PublishSnapshot.create(collection, reader);
+
+        // Then each file is recorded with the size and hash of its content and its classification
+        List<PublishSnapshot.Entry> entries = snapshot.getEntries();
+        assertThat(entries.size(), equalTo(4));
+
+        PublishSnapshot.Entry page = entries.get(0);
+        assertThat(page.getUri(), equalTo(PAGE));
+        assertThat(page.getSize(), equalTo((long) PAGE.length()));
+        assertThat(page.getSha1(), equalTo(DigestUtils.sha1Hex(PAGE)));
+        assertThat(page.getMimeType(), equalTo("application/json"));
+        assertThat(page.isVersioned(), is(false));
+        assertThat(page.isTimeseries(), is(false));
+        assertThat(page.isZipped(), is(false));
+
+        assertThat(entries.get(1).isVersioned(), is(true));
+        assertThat(entries.get(2).isTimeseries(), is(true));
+        assertThat(entries.get(3).isZipped(), is(true));
+    }
+
+    @Test
+    public void save_shouldBeLoadedAgain() throws Exception {
+        // Given a saved snapshot
+        PublishSnapshot.save(collection, PublishSnapshot.create(collection, reader));
+
+        // When it is loaded
+        PublishSnapshot loaded = PublishSnapshot.load(collection);
+
+        // Then it has the same files
+        assertThat(loaded.getEntries().size(), equalTo(4));
+        assertThat(loaded.getEntries().get(0).getSha1(), equalTo(DigestUtils.sha1Hex(PAGE)));
+        assertThat(loaded.getEntries().get(3).isZipped(), is(true));
+    }
+
+    @Test
+    public void load_noSnapshot_shouldReturnNull() throws Exception {
+        assertThat(PublishSnapshot.load(collection), is(nullValue()));
+    }
+
+    @Test
+    public void delete_shouldRemoveSnapshot() throws Exception {
+        PublishSnapshot.save(collection, PublishSnapshot.create(collection, reader));
+
+        PublishSnapshot.delete(collection);
+
+        assertThat(Files.exists(PublishSnapshot.getPath(collection)), is(false));
+    }
+
+    @Test
+    public void reviewedFiles_withSnapshot_shouldNotListReviewedFiles() throws Exception {
+        // Given a collection with a snapshot
+        PublishSnapshot snapshot = PublishSnapshot.create(collection, reader);
+        when(collection.getPublishSnapshot()).thenReturn(snapshot);
+        clearInvocations(reviewed);
+
+        // When its reviewed files are requested
+        List<PublishSnapshot.Entry> files = PublishSnapshot.reviewedFiles(collection);
+
+        // Then the files come from the snapshot
+        assertThat(files, equalTo(snapshot.getEntries()));
+        verify(reviewed, never()).uris();
+    }
+
+    @Test
+    public void reviewedFiles_withoutSnapshot_shouldListReviewedFiles() throws Exception {
+        // Given a collection without a snapshot
+        when(collection.getPublishSnapshot()).thenReturn(null);
+
+        // When its reviewed files are requested
+        List<PublishSnapshot.Entry> files = PublishSnapshot.reviewedFiles(collection);
+
+        // Then the files are listed from disk, classified but without their content details
+        assertThat(PublishSnapshot.reviewedUris(collection), equalTo(asList(PAGE, VERSION, TIMESERIES, ZIP)));
+        assertThat(files.get(0).getSha1(), is(nullValue()));
+        assertThat(files.get(0).getSize(), equalTo(-1L));
+        assertThat(files.get(1).isVersioned(), is(true));
+    }
+
+    private static Resource resource(String uri) {
+        Resource resource = new Resource();
+        resource.setData(new ByteArrayInputStream(uri.getBytes(StandardCharsets.UTF_8)));
+        resource.setMimeType(uri.endsWith(".json") ? "application/json" : "application/zip");
+        return resource;
+    }
+}
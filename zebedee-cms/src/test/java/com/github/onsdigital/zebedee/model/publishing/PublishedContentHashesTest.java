@@ -0,0 +1,71 @@
+package com.github.onsdigital.zebedee.model.publishing;
+
+import org.apache.commons.codec.digest.DigestUtils;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayInputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class PublishedContentHashesTest {
+
+    private static final byte[] CONTENT = "{\"type\":\"bulletin\"}".getBytes();
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private PublishedContentHashes hashes;
+    private Path file;
+
+    @Before
+    public void setUp() throws Exception {
+        hashes = new PublishedContentHashes(10);
+        file = temporaryFolder.getRoot().toPath().resolve("data.json");
+        Files.write(file, CONTENT);
+    }
+
+    @Test
+    public void get_missingFile_shouldReturnNull() throws Exception {
+        assertThat(hashes.get(temporaryFolder.getRoot().toPath().resolve("missing.json")), nullValue());
+    }
+
+    @Test
+    public void get_shouldHashFile() throws Exception {
+        PublishedContentHashes.Hash hash = hashes.get(file);
+
+        assertThat(hash.getSha1(), equalTo(DigestUtils.sha1Hex(CONTENT)));
+        assertThat(hash.getSize(), equalTo((long) CONTENT.length));
+        assertThat(hashes.size(), equalTo(1));
+    }
+
+    @Test
+    public void get_changedFile_shouldRehash() throws Exception {
+        hashes.get(file);
+
+        byte[] changed = "{\"type\":\"article\"}".getBytes();
+        Files.write(file, changed);
+        Files.setLastModifiedTime(file, FileTime.fromMillis(Files.getLastModifiedTime(file).toMillis() + 1000));
+
+        assertThat(hashes.get(file).getSha1(), equalTo(DigestUtils.sha1Hex(changed)));
+    }
+
+    @Test
+    public void matches_shouldCompareContent() throws Exception {
+        PublishedContentHashes.Hash hash = hashes.get(file);
+
+        assertTrue(hash.matches(new ByteArrayInputStream(CONTENT)));
+        assertFalse(hash.matches(new ByteArrayInputStream("{\"type\":\"bulletin\"} ".getBytes())));
+        assertFalse(hash.matches(new ByteArrayInputStream("{\"type\":\"bulletiN\"}".getBytes())));
+        assertFalse(hash.matches(new ByteArrayInputStream(new byte[0])));
+    }
+}
@@ -0,0 +1,55 @@
+package com.github.onsdigital.zebedee.model.publishing;
+
+import com.github.onsdigital.zebedee.json.ContentDetail;
+import com.github.onsdigital.zebedee.json.PendingDelete;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class PublisherDeltaPublishTest {
+
+    @SuppressWarnings("unchecked")
+    private static final Function<String, Boolean>[] NO_FILTERS = new Function[0];
+
+    @Test
+    public void filesToCompare_pendingDelete_shouldSendFilesUnderTheDeleteRoot() {
+        // Given files that are unchanged from master, some under the root of a pending delete
+        List<PublishSnapshot.Entry> files = Arrays.asList(
+                entry("/economy/bulletins/a/data.json"),
+                entry("/economy/bulletins/a/chart/data.json"),
+                entry("/economy/bulletins/ab/data.json"),
+                entry("/people/data.json"));
+        List<PendingDelete> deletes = Collections.singletonList(
+                new PendingDelete("user", new ContentDetail("/economy/bulletins/a", null)));
+
+        // When the files to compare with master are found
+        List<String> toCompare = Publisher.filesToCompare(files, deletes, NO_FILTERS).stream()
+                .map(PublishSnapshot.Entry::getUri)
+                .collect(Collectors.toList());
+
+        // Then the files under the delete root are left to be sent
+        assertThat(toCompare, equalTo(Arrays.asList("/economy/bulletins/ab/data.json", "/people/data.json")));
+    }
+
+    @Test
+    public void filesToCompare_noPendingDeletes_shouldCompareEveryFile() {
+        List<PublishSnapshot.Entry> files = Arrays.asList(entry("/a/data.json"), entry("/b/data.json"));
+
+        assertThat(Publisher.filesToCompare(files, Collections.emptyList(), NO_FILTERS).size(), equalTo(2));
+    }
+
+    private static PublishSnapshot.Entry entry(String uri) {
+        PublishSnapshot.Entry entry = mock(PublishSnapshot.Entry.class);
+        when(entry.getUri()).thenReturn(uri);
+        return entry;
+    }
+}
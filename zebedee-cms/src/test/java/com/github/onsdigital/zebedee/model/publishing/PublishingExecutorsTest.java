@@ -0,0 +1,118 @@
+package com.github.onsdigital.zebedee.model.publishing;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.util.Arrays.asList;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class PublishingExecutorsTest {
+
+    private PublishingExecutors executors;
+
+    @Before
+    public void setUp() {
+        executors = new PublishingExecutors("test-publishing", 1, 1, stage -> 1);
+    }
+
+    @After
+    public void tearDown() {
+        executors.shutdown(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void prioritySemaphore_shouldGrantHighestPriorityWaiterFirst() throws Exception {
+        PublishingExecutors.PrioritySemaphore permits = new PublishingExecutors.PrioritySemaphore(1, 3);
+        List<Integer> granted = new CopyOnWriteArrayList<>();
+        permits.acquire(1);
+
+        Thread low = acquireAndRelease(permits, 2, granted);
+        awaitWaiting(permits, 2);
+        Thread high = acquireAndRelease(permits, 0, granted);
+        awaitWaiting(permits, 0);
+
+        permits.release();
+        low.join(5000);
+        high.join(5000);
+
+        assertThat(granted, equalTo(asList(0, 2)));
+        assertThat(permits.inUse(), equalTo(0));
+    }
+
+    @Test
+    public void submit_fullQueue_shouldBlockUntilThereIsSpace() throws Exception {
+        ExecutorService upload = executors.get(PublishingExecutors.Stage.UPLOAD);
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger completed = new AtomicInteger();
+
+        upload.submit(() -> {
+            running.countDown();
+            release.await();
+            return completed.incrementAndGet();
+        });
+        running.await();
+        upload.submit(completed::incrementAndGet); // fills the queue
+
+        Thread submitter = new Thread(() -> upload.submit(completed::incrementAndGet));
+        submitter.start();
+        submitter.join(200);
+        assertTrue(submitter.isAlive());
+
+        release.countDown();
+        submitter.join(5000);
+        assertFalse(submitter.isAlive());
+
+        assertTrue(executors.shutdown(5, TimeUnit.SECONDS));
+        assertThat(completed.get(), equalTo(3));
+    }
+
+    @Test
+    public void submit_collectionStage_shouldNotTakePermit() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        executors.get(PublishingExecutors.Stage.COMMIT).submit(() -> {
+            release.await();
+            return null;
+        });
+
+        // the only permit is held by the commit, the collection task still runs and can wait on the worker stages.
+        Future<String> collection = executors.get(PublishingExecutors.Stage.PUBLISH_COLLECTION).submit(() -> "published");
+        assertThat(collection.get(5, TimeUnit.SECONDS), equalTo("published"));
+
+        release.countDown();
+    }
+
+    private static Thread acquireAndRelease(PublishingExecutors.PrioritySemaphore permits, int priority,
+                                            List<Integer> granted) {
+        Thread thread = new Thread(() -> {
+            try {
+                permits.acquire(priority);
+                granted.add(priority);
+                permits.release();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        thread.start();
+        return thread;
+    }
+
+    private static void awaitWaiting(PublishingExecutors.PrioritySemaphore permits, int priority) throws Exception {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (permits.waiting(priority) == 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.github.onsdigital.zebedee.model.publishing;
+
+import com.github.onsdigital.zebedee.json.CollectionDescription;
+import com.github.onsdigital.zebedee.model.Collection;
+import com.github.onsdigital.zebedee.model.Content;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class StagedPublishTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private Collection collection;
+    private CollectionDescription description;
+    private Path reviewed;
+    private Map<String, String> transactionIds;
+
+    @Before
+    public void setUp() throws Exception {
+        reviewed = temporaryFolder.newFolder("reviewed").toPath();
+        Files.createDirectories(reviewed.resolve("economy"));
+        Files.write(reviewed.resolve("economy/data.json"), "{}".getBytes());
+
+        transactionIds = new HashMap<>();
+        transactionIds.put("http://localhost:8084", "transaction-1");
+
+        description = new CollectionDescription("staged");
+        description.setPublishTransactionIds(transactionIds);
+
+        collection = mock(Collection.class);
+        when(collection.getReviewed()).thenReturn(new Content(reviewed));
+        when(collection.getDescription()).thenReturn(description);
+    }
+
+    @Test
+    public void isCurrent_unchangedCollection_shouldBeTrue() throws Exception {
+        StagedPublish staged = new StagedPublish(StagedPublish.fingerprint(collection), transactionIds);
+
+        assertTrue(staged.isCurrent(collection));
+    }
+
+    @Test
+    public void isCurrent_editedFile_shouldBeFalse() throws Exception {
+        StagedPublish staged = new StagedPublish(StagedPublish.fingerprint(collection), transactionIds);
+
+        Path file = reviewed.resolve("economy/data.json");
+        Files.write(file, "{\"a\":1}".getBytes());
+        Files.setLastModifiedTime(file, FileTime.fromMillis(Files.getLastModifiedTime(file).toMillis() + 1000));
+
+        assertFalse(staged.isCurrent(collection));
+    }
+
+    @Test
+    public void isCurrent_addedFile_shouldBeFalse() throws Exception {
+        StagedPublish staged = new StagedPublish(StagedPublish.fingerprint(collection), transactionIds);
+
+        Files.write(reviewed.resolve("economy/chart.png"), new byte[10]);
+
+        assertFalse(staged.isCurrent(collection));
+    }
+
+    @Test
+    public void isCurrent_newTransactions_shouldBeFalse() throws Exception {
+        StagedPublish staged = new StagedPublish(StagedPublish.fingerprint(collection), transactionIds);
+
+        description.setPublishTransactionIds(Collections.singletonMap("http://localhost:8084", "transaction-2"));
+
+        assertFalse(staged.isCurrent(collection));
+    }
+}
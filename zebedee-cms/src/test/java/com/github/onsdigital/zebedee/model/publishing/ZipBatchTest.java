@@ -0,0 +1,72 @@
+package com.github.onsdigital.zebedee.model.publishing;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+public class ZipBatchTest {
+
+    @Test
+    public void partition_noFiles_shouldReturnNoBatches() {
+        List<ZipBatch> batches = ZipBatch.partition(Collections.emptyMap(), 10, 100);
+
+        assertTrue(batches.isEmpty());
+    }
+
+    @Test
+    public void partition_shouldLimitFilesPerBatch() {
+        Map<String, Long> files = new LinkedHashMap<>();
+        for (int i = 0; i < 5; i++) {
+            files.put("/file" + i, 1L);
+        }
+
+        List<ZipBatch> batches = ZipBatch.partition(files, 2, 100);
+
+        assertThat(batches.size(), equalTo(3));
+        assertThat(batches.get(0).getUris(), equalTo(Arrays.asList("/file0", "/file1")));
+        assertThat(batches.get(1).getUris(), equalTo(Arrays.asList("/file2", "/file3")));
+        assertThat(batches.get(2).getUris(), equalTo(Collections.singletonList("/file4")));
+        assertThat(batches.get(2).getNumber(), equalTo(3));
+    }
+
+    @Test
+    public void partition_shouldLimitBytesPerBatch() {
+        Map<String, Long> files = new LinkedHashMap<>();
+        files.put("/a", 40L);
+        files.put("/b", 40L);
+        files.put("/c", 40L);
+
+        List<ZipBatch> batches = ZipBatch.partition(files, 10, 100);
+
+        assertThat(batches.size(), equalTo(2));
+        assertThat(batches.get(0).getUris(), equalTo(Arrays.asList("/a", "/b")));
+        assertThat(batches.get(0).getBytes(), equalTo(80L));
+        assertThat(batches.get(1).getUris(), equalTo(Collections.singletonList("/c")));
+    }
+
+    @Test
+    public void partition_fileLargerThanLimit_shouldGetItsOwnBatch() {
+        Map<String, Long> files = new LinkedHashMap<>();
+        files.put("/small", 10L);
+        files.put("/large", 500L);
+        files.put("/small2", 10L);
+
+        List<ZipBatch> batches = ZipBatch.partition(files, 10, 100);
+
+        assertThat(batches.size(), equalTo(3));
+        assertThat(batches.get(1).getUris(), equalTo(Collections.singletonList("/large")));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void partition_invalidMaxFiles_shouldThrow() {
+        ZipBatch.partition(Collections.singletonMap("/a", 1L), 0, 100);
+    }
+}
@@ -16,9 +16,12 @@ import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URISyntaxException;
+import java.util.Arrays;
+import java.util.Map;
 import java.util.function.Supplier;
 
 import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.nullValue;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.mock;
@@ -139,4 +142,33 @@ public class PublishingClientImplTest {
             assertThat(actual, equalTo(expected));
         }
     }
+
+    @Test
+    public void testGetContentHashes_shouldReturnTheHashOfEachUriFound() throws Exception {
+        try (StandInTrainServer train = new StandInTrainServer()) {
+            train.put("transactionId", "/a/data.json", "hashA")
+                    .put("transactionId", "/b/data.json", "hashB");
+
+            Map<String, String> hashes = new PublishingClientImpl().getContentHashes(train.getHost(), "transactionId",
+                    Arrays.asList("/a/data.json", "/b/data.json", "/c/data.json"));
+
+            assertThat(hashes.size(), equalTo(2));
+            assertThat(hashes.get("/a/data.json"), equalTo("hashA"));
+            assertThat(hashes.get("/b/data.json"), equalTo("hashB"));
+            assertThat(hashes.get("/c/data.json"), nullValue());
+            assertThat(train.getHashesRequests(), equalTo(1));
+        }
+    }
+
+    @Test
+    public void testGetContentHashes_batchNotSupported_shouldThrowWithTheStatus() throws Exception {
+        try (StandInTrainServer train = new StandInTrainServer().batchSupported(false)) {
+            new PublishingClientImpl().getContentHashes(train.getHost(), "transactionId",
+                    Arrays.asList("/a/data.json"));
+        } catch (PublishingClientException ex) {
+            assertThat(ex.getHttpStatus(), equalTo(404));
+            return;
+        }
+        throw new AssertionError("expected PublishingClientException");
+    }
 }
@@ -0,0 +1,200 @@
+package com.github.onsdigital.zebedee.model.publishing.client;
+
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonWriter;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A local stand-in for the publishing API (the train) serving the content hash endpoints, for tests and benchmarks
+ * of the {@link PublishingClient}. The hashes it returns are set with {@link #put(String, String, String)}, and a uri
+ * with no hash set is left out of the response.
+ * <p>
+ * {@code GET /contentHash} returns the hash of one uri, and {@code POST /contentHashes} the hashes of a json array of
+ * uris, streamed in a chunked response. Batch support can be turned off to stand in for a train without the batch
+ * endpoint, which then responds 404.
+ */
+public class StandInTrainServer implements AutoCloseable {
+
+    private final HttpServer server;
+    private final Map<String, String> hashes = new ConcurrentHashMap<>();
+    private final AtomicInteger hashRequests = new AtomicInteger();
+    private final AtomicInteger hashesRequests = new AtomicInteger();
+
+    private volatile boolean batchSupported = true;
+    private volatile long latencyMillis;
+
+    /**
+     * Start a new server on a free local port.
+     */
+    public StandInTrainServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/contentHash", this::contentHash);
+        server.createContext("/contentHashes", this::contentHashes);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+    }
+
+    /**
+     * @return the host address of the server, as used by the {@link PublishingClient}.
+     */
+    public String getHost() {
+        return "http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort();
+    }
+
+    /**
+     * Set the hash the server returns for a uri in a transaction.
+     */
+    public StandInTrainServer put(String transactionId, String uri, String hash) {
+        hashes.put(key(transactionId, uri), hash);
+        return this;
+    }
+
+    public StandInTrainServer batchSupported(boolean batchSupported) {
+        this.batchSupported = batchSupported;
+        return this;
+    }
+
+    /**
+     * Set the time the server waits before responding to each request, to stand in for the round trip to a remote
+     * host.
+     */
+    public StandInTrainServer latencyMillis(long latencyMillis) {
+        this.latencyMillis = latencyMillis;
+        return this;
+    }
+
+    /**
+     * @return the number of single uri requests received.
+     */
+    public int getHashRequests() {
+        return hashRequests.get();
+    }
+
+    /**
+     * @return the number of batch requests received, including those rejected as batch support is off.
+     */
+    public int getHashesRequests() {
+        return hashesRequests.get();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+
+    private void contentHash(HttpExchange exchange) throws IOException {
+        hashRequests.incrementAndGet();
+        try {
+            if (!"GET".equals(exchange.getRequestMethod())) {
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+
+            delay();
+            Map<String, String> query = query(exchange);
+            String transactionId = query.get("transactionId");
+            String uri = query.get("uri");
+            String hash = hashes.get(key(transactionId, uri));
+            if (hash == null) {
+                exchange.sendResponseHeaders(404, -1);
+                return;
+            }
+
+            byte[] body = new Gson().toJson(new GetContentHashEntity(uri, transactionId, hash))
+                    .getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void contentHashes(HttpExchange exchange) throws IOException {
+        hashesRequests.incrementAndGet();
+        try {
+            if (!batchSupported) {
+                exchange.sendResponseHeaders(404, -1);
+                return;
+            }
+            if (!"POST".equals(exchange.getRequestMethod())) {
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+
+            delay();
+            String transactionId = query(exchange).get("transactionId");
+            List<String> uris;
+            try (Reader reader = new InputStreamReader(exchange.getRequestBody(), StandardCharsets.UTF_8)) {
+                uris = new Gson().fromJson(reader, new TypeToken<List<String>>() {}.getType());
+            }
+
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, 0);
+            try (JsonWriter writer = new JsonWriter(
+                    new OutputStreamWriter(exchange.getResponseBody(), StandardCharsets.UTF_8))) {
+                writer.beginArray();
+                for (String uri : uris) {
+                    String hash = hashes.get(key(transactionId, uri));
+                    if (hash != null) {
+                        writer.beginObject().name("uri").value(uri).name("hash").value(hash).endObject();
+                    }
+                }
+                writer.endArray();
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void delay() {
+        if (latencyMillis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(latencyMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static Map<String, String> query(HttpExchange exchange) throws IOException {
+        Map<String, String> params = new HashMap<>();
+        String query = exchange.getRequestURI().getRawQuery();
+        if (query == null) {
+            return params;
+        }
+        for (String param : query.split("&")) {
+            int i = param.indexOf('=');
+            if (i > 0) {
+                params.put(URLDecoder.decode(param.substring(0, i), "UTF-8"),
+                        URLDecoder.decode(param.substring(i + 1), "UTF-8"));
+            }
+        }
+        return params;
+    }
+
+    private static String key(String transactionId, String uri) {
+        return transactionId + "|" + uri;
+    }
+}
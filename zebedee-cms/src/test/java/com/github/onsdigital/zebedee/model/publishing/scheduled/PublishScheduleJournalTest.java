@@ -0,0 +1,154 @@
+package com.github.onsdigital.zebedee.model.publishing.scheduled;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.Date;
+import java.util.Map;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class PublishScheduleJournalTest {
+
+    private static final Date PUBLISH_DATE = new Date(1577836800000L);
+    private static final Map<String, String> TRANSACTION_IDS = Collections.singletonMap("http://localhost:8084", "transaction-1");
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private Path file;
+
+    @Before
+    public void setUp() throws Exception {
+        file = temporaryFolder.getRoot().toPath().resolve("publish-schedule.journal");
+    }
+
+    @Test
+    public void open_missingFile_shouldBeEmpty() throws Exception {
+        PublishScheduleJournal journal = PublishScheduleJournal.open(file);
+
+        assertFalse(journal.existed());
+        assertTrue(journal.getEntries().isEmpty());
+    }
+
+    @Test
+    public void open_shouldReplayProgress() throws Exception {
+        PublishScheduleJournal journal = PublishScheduleJournal.open(file);
+        journal.scheduled("collection-1", PUBLISH_DATE);
+        journal.transactionsCreated("collection-1", TRANSACTION_IDS);
+        journal.manifestSent("collection-1");
+        journal.staged("collection-1", "fingerprint");
+        journal.scheduled("collection-2", PUBLISH_DATE);
+
+        PublishScheduleJournal reopened = PublishScheduleJournal.open(file);
+
+        assertTrue(reopened.existed());
+        assertThat(reopened.getEntries().size(), equalTo(2));
+        PublishScheduleJournal.Entry entry = reopened.get("collection-1");
+        assertThat(entry.getPublishDate(), equalTo(PUBLISH_DATE));
+        assertThat(entry.getTransactionIds(), equalTo(TRANSACTION_IDS));
+        assertTrue(entry.isManifestSent());
+        assertThat(entry.getStagedFingerprint(), equalTo("fingerprint"));
+        assertTrue(reopened.get("collection-2").getTransactionIds().isEmpty());
+    }
+
+    @Test
+    public void scheduled_sameDate_shouldKeepProgress() throws Exception {
+        PublishScheduleJournal journal = PublishScheduleJournal.open(file);
+        journal.scheduled("collection-1", PUBLISH_DATE);
+        journal.transactionsCreated("collection-1", TRANSACTION_IDS);
+
+        journal.scheduled("collection-1", PUBLISH_DATE);
+
+        assertThat(journal.get("collection-1").getTransactionIds(), equalTo(TRANSACTION_IDS));
+    }
+
+    @Test
+    public void scheduled_newDate_shouldResetProgress() throws Exception {
+        PublishScheduleJournal journal = PublishScheduleJournal.open(file);
+        journal.scheduled("collection-1", PUBLISH_DATE);
+        journal.transactionsCreated("collection-1", TRANSACTION_IDS);
+        journal.manifestSent("collection-1");
+
+        journal.scheduled("collection-1", new Date(PUBLISH_DATE.getTime() + 60000));
+
+        assertTrue(journal.get("collection-1").getTransactionIds().isEmpty());
+        assertFalse(journal.get("collection-1").isManifestSent());
+    }
+
+    @Test
+    public void cancelledOrCompleted_shouldRemoveEntry() throws Exception {
+        PublishScheduleJournal journal = PublishScheduleJournal.open(file);
+        journal.scheduled("collection-1", PUBLISH_DATE);
+        journal.scheduled("collection-2", PUBLISH_DATE);
+
+        journal.cancelled("collection-1");
+        journal.completed("collection-2");
+
+        assertThat(journal.get("collection-1"), nullValue());
+        assertThat(PublishScheduleJournal.open(file).get("collection-2"), nullValue());
+    }
+
+    @Test
+    public void compact_shouldKeepOnlyCurrentEntries() throws Exception {
+        PublishScheduleJournal journal = PublishScheduleJournal.open(file);
+        for (int i = 0; i < 10; i++) {
+            journal.scheduled("collection-" + i, PUBLISH_DATE);
+        }
+        journal.transactionsCreated("collection-0", TRANSACTION_IDS);
+        for (int i = 1; i < 10; i++) {
+            journal.completed("collection-" + i);
+        }
+
+        journal.compact();
+
+        assertThat(Files.readAllLines(file).size(), equalTo(2));
+        PublishScheduleJournal reopened = PublishScheduleJournal.open(file);
+        assertThat(reopened.getEntries().size(), equalTo(1));
+        assertThat(reopened.get("collection-0").getTransactionIds(), equalTo(TRANSACTION_IDS));
+    }
+
+    @Test
+    public void open_partlyWrittenRecord_shouldBeSkipped() throws Exception {
+        PublishScheduleJournal journal = PublishScheduleJournal.open(file);
+        journal.scheduled("collection-1", PUBLISH_DATE);
+        Files.write(file, "{\"type\":\"MANIFEST_SE".getBytes(), StandardOpenOption.APPEND);
+
+        PublishScheduleJournal reopened = PublishScheduleJournal.open(file);
+
+        assertThat(reopened.getEntries().size(), equalTo(1));
+        assertFalse(reopened.get("collection-1").isManifestSent());
+    }
+
+    @Test
+    public void append_failed_shouldDeleteJournalUntilRewritten() throws Exception {
+        PublishScheduleJournal journal = PublishScheduleJournal.open(file);
+        journal.scheduled("collection-1", PUBLISH_DATE);
+
+        // a directory in place of the journal file makes the next append fail.
+        Files.delete(file);
+        Files.createDirectory(file);
+        journal.scheduled("collection-2", PUBLISH_DATE);
+
+        assertTrue(journal.isIncomplete());
+        assertFalse(Files.exists(file));
+        assertFalse(PublishScheduleJournal.open(file).existed());
+
+        journal.scheduled("collection-3", PUBLISH_DATE);
+
+        assertFalse(journal.isIncomplete());
+        PublishScheduleJournal reopened = PublishScheduleJournal.open(file);
+        assertTrue(reopened.existed());
+        assertThat(reopened.getEntries().size(), equalTo(3));
+    }
+}
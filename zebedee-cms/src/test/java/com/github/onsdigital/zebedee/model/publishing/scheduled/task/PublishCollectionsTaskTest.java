@@ -9,6 +9,7 @@ import com.github.onsdigital.zebedee.json.CollectionDescription;
 import com.github.onsdigital.zebedee.json.CollectionType;
 import com.github.onsdigital.zebedee.session.model.Session;
 import com.github.onsdigital.zebedee.model.Collection;
+import com.github.onsdigital.zebedee.model.publishing.scheduled.PublishScheduleJournal;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Ignore;
@@ -17,7 +18,10 @@ import org.junit.Test;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Date;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import static junit.framework.TestCase.assertEquals;
 import static junit.framework.TestCase.assertFalse;
 import static junit.framework.TestCase.assertTrue;
 
@@ -96,4 +100,37 @@ public class PublishCollectionsTaskTest extends ZebedeeTestBaseFixture {
         assertTrue(publish2.getEnd().compareTo(postPublish1.getStart()) != 1);
         assertTrue(publish2.getEnd().compareTo(postPublish2.getStart()) != 1);
     }
+
+    @Test
+    public void shouldCheckStagedCollectionsUntilPublish() throws Exception {
+
+        Collection collection = new Collection(builder.collections.get(0), zebedee);
+
+        // Given a publish task that counts the checks for changes to its staged collection.
+        AtomicInteger checks = new AtomicInteger();
+        ArrayList<PublishCollectionTask> publishCollectionTasks = new ArrayList<>();
+        publishCollectionTasks.add(new DummyPublishCollectionTask(collection, 0) {
+            @Override
+            public void restageIfChanged(PublishScheduleJournal journal) {
+                checks.incrementAndGet();
+            }
+        });
+        PublishCollectionsTask task = new PublishCollectionsTask(publishCollectionTasks, new ArrayList<>());
+
+        // When the checks are scheduled.
+        task.scheduleRestageChecks(10, TimeUnit.MILLISECONDS);
+
+        // Then the collection is checked until the publish runs.
+        long deadline = System.currentTimeMillis() + 5000;
+        while (checks.get() < 2 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertTrue(checks.get() >= 2);
+
+        task.run();
+        Thread.sleep(50);
+        int afterPublish = checks.get();
+        Thread.sleep(100);
+        assertEquals(afterPublish, checks.get());
+    }
 }
@@ -0,0 +1,100 @@
+package com.github.onsdigital.zebedee.model.publishing.verify;
+
+import com.github.onsdigital.zebedee.model.publishing.PublishSnapshot;
+import com.github.onsdigital.zebedee.model.publishing.client.PublishingClientImpl;
+import com.github.onsdigital.zebedee.model.publishing.client.StandInTrainServer;
+import com.github.onsdigital.zebedee.reader.CollectionReader;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class HashBatchVerificationTaskTest {
+
+    private static final String COLLECTION_ID = "collection";
+    private static final String TRANSACTION_ID = "transaction";
+
+    @Mock
+    private CollectionReader reader;
+
+    private StandInTrainServer train;
+    private HashVerifierImpl verifier;
+    private List<PublishSnapshot.Entry> files;
+
+    @Before
+    public void setUp() throws Exception {
+        MockitoAnnotations.openMocks(this);
+
+        train = new StandInTrainServer();
+        verifier = new HashVerifierImpl(new PublishingClientImpl());
+        files = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            String uri = "/file" + i + "/data.json";
+            files.add(entry(uri, "hash" + i));
+            train.put(TRANSACTION_ID, uri, "hash" + i);
+        }
+    }
+
+    @After
+    public void tearDown() {
+        train.close();
+    }
+
+    @Test
+    public void call_hashesCorrect_shouldVerifyEachBatchInOneRequest() throws Exception {
+        List<Callable<Boolean>> tasks = createTasks(3, 2);
+
+        assertThat(tasks.size(), equalTo(2));
+        for (Callable<Boolean> task : tasks) {
+            assertThat(task.call(), equalTo(true));
+        }
+        assertThat(train.getHashesRequests(), equalTo(4));
+        assertThat(train.getHashRequests(), equalTo(0));
+    }
+
+    @Test
+    public void call_hashIncorrect_shouldThrowForTheFile() throws Exception {
+        train.put(TRANSACTION_ID, "/file4/data.json", "wrong");
+
+        try {
+            createTasks(20, 1).get(0).call();
+        } catch (HashVerificationException ex) {
+            assertThat(ex.getUri(), equalTo("/file4/data.json"));
+            return;
+        }
+        throw new AssertionError("expected HashVerificationException");
+    }
+
+    @Test
+    public void call_batchNotSupported_shouldVerifyEachFile() throws Exception {
+        train.batchSupported(false);
+
+        for (Callable<Boolean> task : createTasks(5, 1)) {
+            assertThat(task.call(), equalTo(true));
+        }
+        assertThat(train.getHashesRequests(), equalTo(1));
+        assertThat(train.getHashRequests(), equalTo(10));
+    }
+
+    private List<Callable<Boolean>> createTasks(int batchSize, int batchesPerHost) {
+        return verifier.createBatchVerifyTasksForHost(COLLECTION_ID, reader, train.getHost(), TRANSACTION_ID, files,
+                batchSize, batchesPerHost);
+    }
+
+    private static PublishSnapshot.Entry entry(String uri, String sha1) {
+        PublishSnapshot.Entry entry = mock(PublishSnapshot.Entry.class);
+        when(entry.getUri()).thenReturn(uri);
+        when(entry.getSha1()).thenReturn(sha1);
+        return entry;
+    }
+}
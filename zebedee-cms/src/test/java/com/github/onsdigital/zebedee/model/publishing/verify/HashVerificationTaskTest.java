@@ -22,6 +22,9 @@ import static com.github.onsdigital.zebedee.model.publishing.verify.HashVerifica
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 public class HashVerificationTaskTest {
@@ -237,4 +240,24 @@ public class HashVerificationTaskTest {
 
         assertThat(task.call(), is(true));
     }
+
+    @Test
+    public void testCall_expectedHashProvided_shouldNotReadCollectionFile() throws Exception {
+        String hash = DigestUtils.sha1Hex("Hello world");
+        when(publishingClient.getContentHash(HOST, TRANSACTION_ID, URI))
+                .thenReturn(new GetContentHashEntity(URI, TRANSACTION_ID, hash));
+
+        task = new HashVerificationTask.Builder()
+                .collectionID(COLLECTION_ID)
+                .collectionReader(collectionReader)
+                .publishingAPIHost(HOST)
+                .transactionId(TRANSACTION_ID)
+                .contentURI(URI)
+                .publishingClient(publishingClient)
+                .expectedHash(hash)
+                .build();
+
+        assertThat(task.call(), is(true));
+        verify(collectionReader, never()).getResource(anyString());
+    }
 }
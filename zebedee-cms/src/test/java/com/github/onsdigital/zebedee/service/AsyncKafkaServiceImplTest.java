@@ -0,0 +1,97 @@
+package com.github.onsdigital.zebedee.service;
+
+import com.github.onsdigital.zebedee.kafka.KafkaClient;
+import com.github.onsdigital.zebedee.kafka.KafkaRetrySpool;
+import org.apache.kafka.clients.producer.Callback;
+import org.apache.kafka.common.errors.TimeoutException;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+public class AsyncKafkaServiceImplTest {
+
+    private static final String COLLECTION_ID = "col123";
+    private static final List<String> URIS = Arrays.asList("/moo", "/quack", "/oink");
+
+    private KafkaClient kafkaClient;
+    private KafkaRetrySpool spool;
+    private KafkaService kafkaService;
+
+    @Before
+    public void setUp() {
+        kafkaClient = mock(KafkaClient.class);
+        spool = mock(KafkaRetrySpool.class);
+        kafkaService = new AsyncKafkaServiceImpl(kafkaClient, spool);
+    }
+
+    @Test
+    public void produceContentUpdated_shouldNotWaitForAcknowledgement() throws Exception {
+        // the client never calls back, as if the broker has not acknowledged the events yet.
+        kafkaService.produceContentUpdated(COLLECTION_ID, URIS, "legacy", "", "ons", "trace");
+
+        verify(kafkaClient, times(3)).produceContentUpdated(anyString(), eq("legacy"), eq(COLLECTION_ID), eq(""),
+                eq("ons"), eq("trace"), any(Callback.class));
+        verify(spool, never()).spoolLater(any(), any());
+    }
+
+    @Test
+    public void produceContentUpdated_failedEvent_shouldBeSpooled() throws Exception {
+        kafkaService.produceContentUpdated(COLLECTION_ID, URIS, "legacy", "", "ons", "trace");
+
+        ArgumentCaptor<Callback> callbacks = ArgumentCaptor.forClass(Callback.class);
+        verify(kafkaClient, times(3)).produceContentUpdated(anyString(), anyString(), anyString(), anyString(),
+                anyString(), anyString(), callbacks.capture());
+        callbacks.getAllValues().get(0).onCompletion(null, null);
+        callbacks.getAllValues().get(1).onCompletion(null, new IOException("broker unavailable"));
+        callbacks.getAllValues().get(2).onCompletion(null, null);
+
+        ArgumentCaptor<KafkaRetrySpool.Event> spooled = ArgumentCaptor.forClass(KafkaRetrySpool.Event.class);
+        verify(spool, times(1)).spoolLater(spooled.capture(), any());
+        verify(spool, never()).spool(any());
+        assertEquals("/quack", spooled.getValue().getUri());
+    }
+
+    @Test
+    public void produceContentUpdated_sendThrows_shouldBeSpooled() throws Exception {
+        doThrow(new IllegalStateException("producer closed")).when(kafkaClient).produceContentUpdated(anyString(),
+                anyString(), anyString(), anyString(), anyString(), anyString(), any(Callback.class));
+
+        kafkaService.produceContentUpdated(COLLECTION_ID, URIS, "legacy", "", "ons", "trace");
+
+        verify(spool, times(3)).spoolLater(any(), any());
+    }
+
+    @Test
+    public void produceContentUpdated_sendTimesOut_shouldSpoolTheRemainingEventsWithoutSending() throws Exception {
+        // the producer calls back on the sending thread when it gives up waiting for the broker's metadata.
+        doAnswer(invocation -> {
+            ((Callback) invocation.getArgument(6)).onCompletion(null,
+                    new TimeoutException("topic not present in metadata after 1000 ms"));
+            return null;
+        }).when(kafkaClient).produceContentUpdated(anyString(), anyString(), anyString(), anyString(), anyString(),
+                anyString(), any(Callback.class));
+
+        kafkaService.produceContentUpdated(COLLECTION_ID, URIS, "legacy", "", "ons", "trace");
+
+        verify(kafkaClient, times(1)).produceContentUpdated(anyString(), anyString(), anyString(), anyString(),
+                anyString(), anyString(), any(Callback.class));
+        ArgumentCaptor<KafkaRetrySpool.Event> spooled = ArgumentCaptor.forClass(KafkaRetrySpool.Event.class);
+        verify(spool, times(3)).spoolLater(spooled.capture(), any());
+        assertEquals(URIS.get(2), spooled.getAllValues().get(2).getUri());
+    }
+}
@@ -14,6 +14,8 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
 import static org.junit.Assert.*;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
@@ -52,12 +54,10 @@ public class ImageServiceImplTest {
         // When publish is called on the collection
         imageService.publishImagesInCollection(mockCollection);
 
-        // Then publishImage should be called on the API for each image.
+        // Then publishImage should be called on the API for each image (images are published concurrently).
         ArgumentCaptor<String> captor = ArgumentCaptor.forClass(String.class);
         verify(mockImageAPI, times(3)).publishImage(captor.capture());
-        assertEquals(IMAGE1, captor.getAllValues().get(0));
-        assertEquals(IMAGE2, captor.getAllValues().get(1));
-        assertEquals(IMAGE3, captor.getAllValues().get(2));
+        assertThat(captor.getAllValues(), containsInAnyOrder(IMAGE1, IMAGE2, IMAGE3));
     }
 
     @Test
@@ -149,6 +149,22 @@ public class ImageServiceImplTest {
         // Then an ImageAPIException is expected
     }
 
+    @Test
+    public void testPublishImagesInCollection_publishImageException_shouldStillPublishOtherImages() throws Exception {
+        // Given an api that fails to publish one of three good images
+        when(mockImageAPI.getImages(COLLECTION_ID)).thenReturn(createImportedTestImages(IMAGE1, IMAGE2, IMAGE3));
+        doThrow(apiException).when(mockImageAPI).publishImage(IMAGE2);
+        ImageService imageService = new ImageServiceImpl(mockImageAPI, 2);
+
+        // When publish is called on the collection
+        assertThrows(ImageAPIException.class, () -> imageService.publishImagesInCollection(mockCollection));
+
+        // Then publishImage should still have been attempted for every image
+        verify(mockImageAPI, times(1)).publishImage(IMAGE1);
+        verify(mockImageAPI, times(1)).publishImage(IMAGE2);
+        verify(mockImageAPI, times(1)).publishImage(IMAGE3);
+    }
+
     @Test
     public void testPublishImagesInCollection_unexpectedPaging() throws Exception {
         // Given an api that returns one page of good images but with more pages available
@@ -162,8 +178,7 @@ public class ImageServiceImplTest {
         // Then publishImage should be called on the API for each image that it does have.
         ArgumentCaptor<String> captor = ArgumentCaptor.forClass(String.class);
         verify(mockImageAPI, times(2)).publishImage(captor.capture());
-        assertEquals(IMAGE1, captor.getAllValues().get(0));
-        assertEquals(IMAGE2, captor.getAllValues().get(1));
+        assertThat(captor.getAllValues(), containsInAnyOrder(IMAGE1, IMAGE2));
 
         // Then an IOException is expected (because zebedee uses IOExceptions inappropriately)
         assertEquals("Not all images have been published due to API paging", ex.getMessage());
@@ -0,0 +1,93 @@
+package com.github.onsdigital.zebedee.teams.store;
+
+import com.github.onsdigital.zebedee.exceptions.NotFoundException;
+import com.github.onsdigital.zebedee.teams.model.Team;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.HashSet;
+import java.util.List;
+
+import static java.util.Arrays.asList;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class TeamDirectoryTest {
+
+    private static final String EMAIL = "test@ons.gov.uk";
+
+    @Mock
+    private TeamsStore teamsStore;
+
+    private TeamDirectory directory;
+    private Team teamA;
+    private Team teamB;
+
+    @Before
+    public void setUp() throws Exception {
+        MockitoAnnotations.openMocks(this);
+
+        teamA = new Team().setId("1").setName("teamA").setMembers(new HashSet<>(asList(EMAIL)));
+        teamB = new Team().setId("2").setName("teamB");
+        when(teamsStore.listTeams()).thenReturn(asList(teamA, teamB));
+
+        directory = new TeamDirectory(teamsStore);
+    }
+
+    @Test
+    public void lookups_shouldLoadTheTeamsOnce() throws Exception {
+        assertThat(directory.listTeams().size(), equalTo(2));
+        assertThat(directory.get("teamB"), equalTo(teamB));
+        assertThat(directory.exists("teamC"), is(false));
+        assertThat(directory.getTeams(new HashSet<>(asList("1", "3"))), equalTo(asList(teamA)));
+        assertThat(directory.listTeamsForMember(EMAIL), equalTo(asList(teamA)));
+
+        verify(teamsStore, times(1)).listTeams();
+    }
+
+    @Test(expected = NotFoundException.class)
+    public void get_unknownTeam_shouldThrowNotFound() throws Exception {
+        directory.get("teamC");
+    }
+
+    @Test
+    public void get_teamChangedByCaller_shouldNotChangeTheDirectoryUntilSaved() throws Exception {
+        // Given a member is added to a team that has not been saved
+        Team team = directory.get("teamB");
+        team.addMember(EMAIL);
+        assertThat(directory.listTeamsForMember(EMAIL).size(), equalTo(1));
+
+        // When it is saved
+        directory.saved(team);
+
+        // Then the member is found in both teams
+        assertThat(directory.listTeamsForMember(EMAIL).size(), equalTo(2));
+        assertThat(directory.get("teamB").getMembers().contains(EMAIL), is(true));
+    }
+
+    @Test
+    public void saved_memberRemoved_shouldUpdateMembership() throws Exception {
+        Team team = directory.get("teamA");
+        team.removeMember(EMAIL);
+
+        directory.saved(team);
+
+        assertThat(directory.listTeamsForMember(EMAIL).isEmpty(), is(true));
+    }
+
+    @Test
+    public void deleted_shouldRemoveTheTeam() throws Exception {
+        directory.deleted(teamA);
+
+        List<Team> teams = directory.listTeams();
+        assertThat(teams, equalTo(asList(teamB)));
+        assertThat(directory.getTeams(new HashSet<>(asList("1"))).isEmpty(), is(true));
+        assertThat(directory.listTeamsForMember(EMAIL).isEmpty(), is(true));
+    }
+}
@@ -0,0 +1,75 @@
+package com.github.onsdigital.zebedee.user.store;
+
+import com.github.onsdigital.zebedee.user.model.User;
+import com.github.onsdigital.zebedee.user.model.UserList;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class UserDirectoryTest {
+
+    private static final String EMAIL = "test@ons.gov.uk";
+
+    @Mock
+    private UserStore userStore;
+
+    private UserDirectory directory;
+
+    @Before
+    public void setUp() throws Exception {
+        MockitoAnnotations.openMocks(this);
+
+        UserList users = new UserList();
+        users.add(user(EMAIL, "Test User"));
+        when(userStore.list()).thenReturn(users);
+
+        directory = new UserDirectory(userStore);
+    }
+
+    @Test
+    public void lookups_shouldLoadTheUsersOnce() throws Exception {
+        assertThat(directory.exists(" TEST@ons.gov.uk "), is(true));
+        assertThat(directory.get(EMAIL).getName(), equalTo("Test User"));
+        assertThat(directory.get("other@ons.gov.uk"), is(nullValue()));
+        assertThat(directory.list().size(), equalTo(1));
+
+        verify(userStore, times(1)).list();
+    }
+
+    @Test
+    public void get_userChangedByCaller_shouldNotChangeTheDirectoryUntilSaved() throws Exception {
+        User user = directory.get(EMAIL);
+        user.setName("Changed");
+        assertThat(directory.get(EMAIL).getName(), equalTo("Test User"));
+
+        directory.saved(user);
+
+        assertThat(directory.get(EMAIL).getName(), equalTo("Changed"));
+    }
+
+    @Test
+    public void savedAndDeleted_shouldAddAndRemoveUsers() throws Exception {
+        directory.saved(user("new@ons.gov.uk", "New User"));
+        assertThat(directory.list().size(), equalTo(2));
+
+        directory.deleted(user(EMAIL, "Test User"));
+        assertThat(directory.exists(EMAIL), is(false));
+        assertThat(directory.list().size(), equalTo(1));
+    }
+
+    private static User user(String email, String name) {
+        User user = new User();
+        user.setEmail(email);
+        user.setName(name);
+        return user;
+    }
+}
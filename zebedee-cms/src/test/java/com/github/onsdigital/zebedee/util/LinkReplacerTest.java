@@ -0,0 +1,58 @@
+package com.github.onsdigital.zebedee.util;
+
+import org.junit.Test;
+
+import java.io.StringReader;
+import java.io.StringWriter;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class LinkReplacerTest {
+
+    @Test
+    public void forMove_shouldReplaceLinksToTheContentAndBeneathIt() throws Exception {
+        String json = "{\"uri\":\"/economy/inflation\",\"link\":\"/economy/inflation/bulletins/jan\"," +
+                "\"other\":\"/economy/inflationandprices\"}";
+
+        StringWriter output = new StringWriter();
+        int count = LinkReplacer.forMove("/economy/inflation", "/economy/prices").replace(new StringReader(json), output);
+
+        assertThat(count, equalTo(2));
+        assertThat(output.toString(), equalTo("{\"uri\":\"/economy/prices\",\"link\":\"/economy/prices/bulletins/jan\"," +
+                "\"other\":\"/economy/inflationandprices\"}"));
+    }
+
+    @Test
+    public void forMove_toUriBeneathTheOldOne_shouldNotReplaceTheReplacement() throws Exception {
+        StringWriter output = new StringWriter();
+        LinkReplacer.forMove("/a", "/a/b").replace(new StringReader("[\"/a\",\"/a/c\"]"), output);
+
+        assertThat(output.toString(), equalTo("[\"/a/b\",\"/a/b/c\"]"));
+    }
+
+    @Test
+    public void replace_textLongerThanTheBuffer_shouldFindMatchesAcrossReads() throws Exception {
+        // Given text with a link at every offset around the buffer boundaries
+        StringBuilder text = new StringBuilder();
+        StringBuilder expected = new StringBuilder();
+        while (text.length() < 40 * 1024) {
+            text.append("x/old/").append(text.length() % 7);
+            expected.append("x/new/").append(expected.length() % 7);
+        }
+
+        StringWriter output = new StringWriter();
+        LinkReplacer.forMove("/old", "/new").replace(new StringReader(text.toString()), output);
+
+        assertThat(output.toString(), equalTo(expected.toString()));
+    }
+
+    @Test
+    public void replace_noMatches_shouldCopyTheText() throws Exception {
+        StringWriter output = new StringWriter();
+        int count = LinkReplacer.forMove("/old", "/new").replace(new StringReader("{\"uri\":\"/other\"}"), output);
+
+        assertThat(count, equalTo(0));
+        assertThat(output.toString(), equalTo("{\"uri\":\"/other\"}"));
+    }
+}
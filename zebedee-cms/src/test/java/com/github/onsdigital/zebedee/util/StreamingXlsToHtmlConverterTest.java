@@ -0,0 +1,205 @@
+package com.github.onsdigital.zebedee.util;
+
+import com.github.davidcarboni.ResourceUtils;
+import com.github.onsdigital.zebedee.content.page.statistics.document.figure.table.TableModifications;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.poi.hssf.usermodel.HSSFCellStyle;
+import org.apache.poi.hssf.usermodel.HSSFRow;
+import org.apache.poi.hssf.usermodel.HSSFSheet;
+import org.apache.poi.hssf.usermodel.HSSFWorkbook;
+import org.apache.poi.ss.usermodel.FormulaError;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.GregorianCalendar;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.hasItems;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+public class StreamingXlsToHtmlConverterTest {
+
+    private static final String TABLE = "/xls/example-table.xls";
+    private static final String SUBSCRIPT_TABLE = "/xls/example-subscript-table.xls";
+
+    private static final Pattern CELL = Pattern.compile("<t[dh][^>]*>(.*?)</t[dh]>", Pattern.DOTALL);
+    private static final Pattern TAG = Pattern.compile("<[^>]+>");
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void convertShouldRenderSubscriptAndSuperscript() throws Exception {
+
+        // Given an xls file with subscript and superscript content
+
+        // When the streaming convert method is called.
+        String output = convert(SUBSCRIPT_TABLE, null);
+
+        // Then the html includes the subscript / superscript.
+        assertTrue(StringUtils.contains(output, "<sub>This is subscript1 </sub>"));
+        assertTrue(StringUtils.contains(output, "<sub>subscript2</sub>"));
+        assertTrue(StringUtils.contains(output, "<sup>superscript1</sup>"));
+        assertTrue(StringUtils.contains(output, "<sup>superscript2</sup>"));
+    }
+
+    @Test
+    public void convertShouldWriteTheSameTableAsXlsToHtmlConverter() throws Exception {
+
+        // Given an xls file
+
+        // When it is converted by both converters.
+        String expected = convertWithDocument(TABLE, null);
+        String output = convert(TABLE, null);
+
+        // Then the tables have the same rows, cells and merged cells.
+        assertSameTable(output, expected);
+    }
+
+    @Test
+    public void convertShouldFormatCellValuesTheSameAsXlsToHtmlConverter() throws Exception {
+
+        // Given an xls file with formatted numbers, a date, a percentage, formulas, a boolean and an error cell.
+        Path xls = formattedValuesXls();
+
+        // When it is converted by both converters.
+        String expected = convertWithDocument(xls, null);
+        String output = convert(xls, null);
+
+        // Then every cell has the same text, formatted as the cell's style says.
+        assertSameTable(output, expected);
+        assertThat(cellTexts(output), hasItems("1,234.50", "15/03/2020", "12.50%", "2,469.00", "mooquack", "true",
+                "false", "#DIV/0!", "#N/A"));
+    }
+
+    @Test
+    public void convertWithModificationsShouldWriteTheSameTableAsXlsToHtmlConverter() throws Exception {
+
+        // Given table modifications with header rows and columns and excluded rows.
+        TableModifications modifications = new TableModifications();
+        modifications.setHeaderRows(Arrays.asList(0, 1));
+        modifications.setHeaderColumns(Arrays.asList(0));
+        modifications.setRowsExcluded(Arrays.asList(3, 4));
+
+        // When the xls file is converted by both converters.
+        String expected = convertWithDocument(TABLE, modifications);
+        String output = convert(TABLE, modifications);
+
+        // Then the tables have the same header cells and the excluded rows are left out of both.
+        assertSameTable(output, expected);
+        assertThat(count(output, "scope=\"row\""), equalTo(count(expected, "scope=\"row\"")));
+        assertThat(count(output, "scope=\"col\""), equalTo(count(expected, "scope=\"col\"")));
+        assertTrue(count(output, "<th") > 0);
+    }
+
+    private static void assertSameTable(String output, String expected) {
+        assertThat(cellTexts(output), equalTo(cellTexts(expected)));
+        assertThat(count(output, "<table"), equalTo(count(expected, "<table")));
+        assertThat(count(output, "<col>"), equalTo(count(expected, "<col>")));
+        assertThat(count(output, "<tr"), equalTo(count(expected, "<tr")));
+        assertThat(count(output, "<td"), equalTo(count(expected, "<td")));
+        assertThat(count(output, "<th"), equalTo(count(expected, "<th")));
+        assertThat(count(output, "colspan="), equalTo(count(expected, "colspan=")));
+        assertThat(count(output, "rowspan="), equalTo(count(expected, "rowspan=")));
+    }
+
+    private static int count(String html, String tag) {
+        return StringUtils.countMatches(html, tag);
+    }
+
+    /**
+     * The text of each cell in the order they are written.
+     */
+    private static List<String> cellTexts(String html) {
+        List<String> texts = new ArrayList<>();
+        Matcher cell = CELL.matcher(html);
+        while (cell.find()) {
+            String text = TAG.matcher(cell.group(1)).replaceAll("");
+            text = text.replace("&nbsp;", "\u00A0").replace("&#160;", "\u00A0").replace("&lt;", "<")
+                    .replace("&gt;", ">").replace("&quot;", "\"").replace("&amp;", "&");
+            texts.add(text.trim());
+        }
+        return texts;
+    }
+
+    private Path formattedValuesXls() throws IOException {
+        Path xls = temporaryFolder.newFile("formatted-values.xls").toPath();
+        try (HSSFWorkbook workbook = new HSSFWorkbook()) {
+            HSSFSheet sheet = workbook.createSheet("formatted values");
+
+            HSSFRow header = sheet.createRow(0);
+            String[] titles = {"number", "date", "percentage", "formula", "text formula", "boolean", "error"};
+            for (int i = 0; i < titles.length; i++) {
+                header.createCell(i).setCellValue(titles[i]);
+            }
+
+            HSSFRow values = sheet.createRow(1);
+            values.createCell(0).setCellValue(1234.5);
+            values.getCell(0).setCellStyle(style(workbook, "#,##0.00"));
+            values.createCell(1).setCellValue(new GregorianCalendar(2020, Calendar.MARCH, 15).getTime());
+            values.getCell(1).setCellStyle(style(workbook, "dd/mm/yyyy"));
+            values.createCell(2).setCellValue(0.125);
+            values.getCell(2).setCellStyle(style(workbook, "0.00%"));
+            values.createCell(3).setCellFormula("A2*2");
+            values.getCell(3).setCellStyle(style(workbook, "#,##0.00"));
+            values.createCell(4).setCellFormula("CONCATENATE(\"moo\",\"quack\")");
+            values.createCell(5).setCellValue(true);
+            values.createCell(6).setCellErrorValue(FormulaError.DIV0.getCode());
+
+            HSSFRow formulas = sheet.createRow(2);
+            formulas.createCell(0).setCellValue(42);
+            formulas.createCell(3).setCellFormula("A3>100");
+            formulas.createCell(4).setCellFormula("NA()");
+
+            // store the formula results in the file, as excel does.
+            workbook.getCreationHelper().createFormulaEvaluator().evaluateAll();
+            try (OutputStream stream = Files.newOutputStream(xls)) {
+                workbook.write(stream);
+            }
+        }
+        return xls;
+    }
+
+    private static HSSFCellStyle style(HSSFWorkbook workbook, String format) {
+        HSSFCellStyle style = workbook.createCellStyle();
+        style.setDataFormat(workbook.createDataFormat().getFormat(format));
+        return style;
+    }
+
+    private static String convert(String resource, TableModifications modifications) throws IOException {
+        return convert(ResourceUtils.getFile(resource).toPath(), modifications);
+    }
+
+    private static String convert(Path xls, TableModifications modifications) throws IOException {
+        StringWriter html = new StringWriter();
+        try (InputStream stream = Files.newInputStream(xls)) {
+            StreamingXlsToHtmlConverter.convertToHtmlPageWithModifications(stream, modifications, html);
+        }
+        return html.toString();
+    }
+
+    private static String convertWithDocument(String resource, TableModifications modifications) throws Exception {
+        return convertWithDocument(ResourceUtils.getFile(resource).toPath(), modifications);
+    }
+
+    private static String convertWithDocument(Path xls, TableModifications modifications) throws Exception {
+        try (InputStream stream = Files.newInputStream(xls)) {
+            return XlsToHtmlConverter.docToString(
+                    XlsToHtmlConverter.convertToHtmlPageWithModifications(stream, modifications));
+        }
+    }
+}
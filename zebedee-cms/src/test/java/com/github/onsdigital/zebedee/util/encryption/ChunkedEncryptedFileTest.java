@@ -0,0 +1,147 @@
+package com.github.onsdigital.zebedee.util.encryption;
+
+import com.github.davidcarboni.cryptolite.Keys;
+import com.github.onsdigital.zebedee.util.EncryptionUtils;
+import org.apache.commons.io.IOUtils;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import javax.crypto.SecretKey;
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class ChunkedEncryptedFileTest {
+
+    private static final int CHUNK_SIZE = 16;
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private SecretKey key;
+    private Path path;
+
+    @Before
+    public void setUp() throws Exception {
+        key = Keys.newSecretKey();
+        path = temporaryFolder.getRoot().toPath().resolve("data.csv");
+    }
+
+    @Test
+    public void shouldRoundTrip_forLengthsAroundChunkBoundaries() throws Exception {
+        for (int length : new int[]{0, 1, CHUNK_SIZE - 1, CHUNK_SIZE, CHUNK_SIZE + 1, CHUNK_SIZE * 4, 1000}) {
+            byte[] plain = write(length);
+
+            try (ChunkedEncryptedFile file = ChunkedEncryptedFile.open(path, key)) {
+                assertThat(file.length(), equalTo((long) length));
+                assertThat(IOUtils.toByteArray(file.newInputStream(0)), equalTo(plain));
+            }
+        }
+    }
+
+    @Test
+    public void read_shouldDecryptFromAnyPosition() throws Exception {
+        byte[] plain = write(100);
+
+        try (ChunkedEncryptedFile file = ChunkedEncryptedFile.open(path, key)) {
+            byte[] range = new byte[30];
+            int read = 0;
+            while (read < range.length) {
+                read += file.read(37 + read, range, read, range.length - read);
+            }
+            assertThat(range, equalTo(Arrays.copyOfRange(plain, 37, 67)));
+            assertThat(file.read(100, range, 0, 1), equalTo(-1));
+        }
+    }
+
+    @Test
+    public void encryptionUtils_shouldReadChunkedFiles() throws Exception {
+        byte[] plain = write(100);
+
+        assertThat(EncryptionUtils.decryptedLength(path, key), equalTo(100L));
+        try (InputStream in = EncryptionUtils.encryptionInputStream(path, key, 50)) {
+            assertThat(IOUtils.toByteArray(in), equalTo(Arrays.copyOfRange(plain, 50, 100)));
+        }
+        try (InputStream in = EncryptionUtils.encryptionInputStream(
+                new BufferedInputStream(Files.newInputStream(path)), key)) {
+            assertThat(IOUtils.toByteArray(in), equalTo(plain));
+        }
+    }
+
+    @Test
+    public void shouldRoundTrip_onExecutor() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            byte[] plain = new byte[CHUNK_SIZE * 50 + 7];
+            new Random(1).nextBytes(plain);
+            try (OutputStream out = new ChunkedEncryptionOutputStream(path, key, CHUNK_SIZE, executor, 3)) {
+                out.write(plain);
+            }
+
+            try (InputStream in = ChunkedEncryptedFile.open(path, key).newInputStream(0, executor, 3)) {
+                assertThat(IOUtils.toByteArray(in), equalTo(plain));
+            }
+            try (InputStream in = ChunkedEncryptedFile.open(path, key).newInputStream(0, executor, 3)) {
+                byte[] start = new byte[CHUNK_SIZE + 1];
+                IOUtils.readFully(in, start);
+                IOUtils.skipFully(in, CHUNK_SIZE * 20);
+                assertThat(IOUtils.toByteArray(in), equalTo(Arrays.copyOfRange(plain, CHUNK_SIZE * 21 + 1,
+                        plain.length)));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void open_shouldFail_whenTruncated() throws Exception {
+        write(100);
+        byte[] encrypted = Files.readAllBytes(path);
+        Files.write(path, Arrays.copyOf(encrypted, encrypted.length - CHUNK_SIZE - ChunkedEncryption.TAG_LENGTH));
+
+        ChunkedEncryptedFile.open(path, key);
+    }
+
+    @Test(expected = IOException.class)
+    public void readChunk_shouldFail_whenTampered() throws Exception {
+        write(100);
+        byte[] encrypted = Files.readAllBytes(path);
+        encrypted[ChunkedEncryption.HEADER_LENGTH + 1] ^= 1;
+        Files.write(path, encrypted);
+
+        try (ChunkedEncryptedFile file = ChunkedEncryptedFile.open(path, key)) {
+            file.readChunk(0);
+        }
+    }
+
+    @Test
+    public void isChunked_shouldBeFalse_forStreamFormat() throws Exception {
+        try (OutputStream out = EncryptionUtils.encryptionOutputStream(Files.newOutputStream(path), key)) {
+            out.write(new byte[100]);
+        }
+
+        assertThat(ChunkedEncryption.isChunked(path), equalTo(false));
+        assertThat(EncryptionUtils.decryptedLength(path, key), equalTo(100L));
+    }
+
+    private byte[] write(int length) throws IOException {
+        byte[] plain = new byte[length];
+        new Random(length).nextBytes(plain);
+        try (OutputStream out = new ChunkedEncryptionOutputStream(path, key, CHUNK_SIZE)) {
+            out.write(plain);
+        }
+        return plain;
+    }
+}
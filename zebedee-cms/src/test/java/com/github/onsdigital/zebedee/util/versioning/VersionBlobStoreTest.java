@@ -0,0 +1,105 @@
+package com.github.onsdigital.zebedee.util.versioning;
+
+import org.apache.commons.codec.digest.DigestUtils;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class VersionBlobStoreTest {
+
+    @Rule
+    public TemporaryFolder root = new TemporaryFolder();
+
+    private Path master;
+    private VersionBlobStore store;
+
+    @Before
+    public void setUp() throws Exception {
+        master = root.newFolder("master").toPath();
+        store = new VersionBlobStore(root.getRoot().toPath().resolve("version-blobs"));
+    }
+
+    @Test
+    public void store_identicalContent_shouldShareOneBlob() throws Exception {
+        // Given two versions of a file with the same content
+        Path v1 = master.resolve("economy/inflation/previous/v1/data.json");
+        Path v2 = master.resolve("economy/inflation/previous/v2/data.json");
+
+        // When both are stored
+        boolean firstExisting = store.store(content("{}"), v1);
+        boolean secondExisting = store.store(content("{}"), v2);
+
+        // Then the second shares the blob of the first and both read as the content
+        assertThat(firstExisting, is(false));
+        assertThat(secondExisting, is(true));
+        assertThat(Files.isSameFile(v1, v2), is(true));
+        assertThat(Files.isSameFile(v1, store.getBlobPath(DigestUtils.sha1Hex("{}"))), is(true));
+        assertThat(read(v2), equalTo("{}"));
+    }
+
+    @Test
+    public void store_differentContent_shouldNotShareBlob() throws Exception {
+        Path v1 = master.resolve("economy/inflation/previous/v1/data.json");
+        Path v2 = master.resolve("economy/inflation/previous/v2/data.json");
+
+        store.store(content("{\"v\":1}"), v1);
+        store.store(content("{\"v\":2}"), v2);
+
+        assertThat(Files.isSameFile(v1, v2), is(false));
+        assertThat(read(v1), equalTo("{\"v\":1}"));
+        assertThat(read(v2), equalTo("{\"v\":2}"));
+    }
+
+    @Test
+    public void store_existingVersionFile_shouldReplaceRatherThanWriteToIt() throws Exception {
+        // Given two version files sharing a blob
+        Path v1 = master.resolve("economy/inflation/previous/v1/data.json");
+        Path v2 = master.resolve("economy/inflation/previous/v2/data.json");
+        store.store(content("{}"), v1);
+        store.store(content("{}"), v2);
+
+        // When one of them is stored again with different content
+        store.store(content("{\"v\":2}"), v2);
+
+        // Then the other is unchanged
+        assertThat(read(v1), equalTo("{}"));
+        assertThat(read(v2), equalTo("{\"v\":2}"));
+    }
+
+    @Test
+    public void prune_shouldDeleteOnlyBlobsNoLongerLinked() throws Exception {
+        // Given two stored version files, one of which has been deleted
+        Path v1 = master.resolve("economy/inflation/previous/v1/data.json");
+        Path v2 = master.resolve("economy/inflation/previous/v2/data.json");
+        store.store(content("{\"v\":1}"), v1);
+        store.store(content("{\"v\":2}"), v2);
+        Files.delete(v1);
+
+        // When the store is pruned
+        int pruned = store.prune();
+
+        // Then only the blob of the deleted file is removed
+        assertThat(pruned, equalTo(1));
+        assertThat(Files.exists(store.getBlobPath(DigestUtils.sha1Hex("{\"v\":1}"))), is(false));
+        assertThat(Files.exists(store.getBlobPath(DigestUtils.sha1Hex("{\"v\":2}"))), is(true));
+        assertThat(read(v2), equalTo("{\"v\":2}"));
+    }
+
+    private static ByteArrayInputStream content(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String read(Path path) throws Exception {
+        return new String(Files.readAllBytes(path), StandardCharsets.UTF_8);
+    }
+}
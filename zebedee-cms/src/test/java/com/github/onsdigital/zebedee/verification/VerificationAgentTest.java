@@ -0,0 +1,51 @@
+package com.github.onsdigital.zebedee.verification;
+
+import com.github.onsdigital.zebedee.configuration.Configuration;
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class VerificationAgentTest {
+
+    @Test
+    public void retryDelay_firstAttempt_shouldBeWithinBaseDelay() {
+        long base = Configuration.getVerifyRetryDelay();
+
+        for (int i = 0; i < 100; i++) {
+            long delay = VerificationAgent.retryDelay(1);
+            assertTrue(delay >= base / 2);
+            assertTrue(delay <= base);
+        }
+    }
+
+    @Test
+    public void retryDelay_manyAttempts_shouldNotExceedMaxDelay() {
+        long max = Configuration.getVerifyMaxRetryDelay();
+
+        for (int attempt = 1; attempt < 100; attempt++) {
+            long delay = VerificationAgent.retryDelay(attempt);
+            assertTrue(delay <= max);
+            assertTrue(delay >= 0);
+        }
+    }
+
+    @Test
+    public void progress_lastUriDone_shouldBeComplete() {
+        VerificationProgress progress = new VerificationProgress("123");
+        progress.submitted();
+        progress.submitted();
+
+        assertFalse(progress.verified());
+        assertFalse(progress.isComplete());
+        assertTrue(progress.failed());
+
+        assertTrue(progress.isComplete());
+        assertThat(progress.getTotal(), equalTo(2));
+        assertThat(progress.getVerified(), equalTo(1));
+        assertThat(progress.getFailed(), equalTo(1));
+        assertThat(progress.getInProgress(), equalTo(0));
+    }
+}
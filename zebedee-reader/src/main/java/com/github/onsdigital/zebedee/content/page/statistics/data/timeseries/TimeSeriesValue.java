@@ -62,6 +62,24 @@ public class TimeSeriesValue implements Comparable<TimeSeriesValue> {
 		return toDate().compareTo(o.toDate());
 	}
 
+	/**
+	 * Copies the fields of this value, including the cached date so the copy
+	 * doesn't parse the date again.
+	 */
+	public TimeSeriesValue copy() {
+		TimeSeriesValue copy = new TimeSeriesValue();
+		copy.date = date;
+		copy.value = value;
+		copy.label = label;
+		copy.year = year;
+		copy.month = month;
+		copy.quarter = quarter;
+		copy.sourceDataset = sourceDataset;
+		copy.updateDate = updateDate == null ? null : new Date(updateDate.getTime());
+		copy.toDate = toDate;
+		return copy;
+	}
+
 	public Date toDate() {
 		if (toDate == null) {
 			toDate = toDate(date);
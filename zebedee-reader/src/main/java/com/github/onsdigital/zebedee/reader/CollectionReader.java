@@ -152,8 +152,11 @@ public abstract class CollectionReader {
         return resource;
     }
 
-    //If content not found with given reader do not shout
+    //If content not found with given reader do not shout, probing first so that a miss does not cost an exception
     private Resource getQuiet(String path, ContentReader contentReader) throws ZebedeeException, IOException {
+        if (!contentReader.probeResource(path).isPresent()) {
+            return null;
+        }
         try {
             return contentReader.getResource(path);
         } catch (NotFoundException e) {
@@ -162,6 +165,9 @@ public abstract class CollectionReader {
     }
 
     private long getContentLengthQuiet(String path, ContentReader contentReader) throws ZebedeeException, IOException {
+        if (!contentReader.probeResource(path).isPresent()) {
+            return 0;
+        }
         try {
             return contentReader.getContentLength(path);
         } catch (NotFoundException e) {
@@ -170,6 +176,9 @@ public abstract class CollectionReader {
     }
 
     private Page getContentQuiet(String path, ContentReader contentReader) throws ZebedeeException, IOException {
+        if (!contentReader.probeContent(path).isPresent()) {
+            return null;
+        }
         try {
             return contentReader.getContent(path);
         } catch (NotFoundException e) {
@@ -179,6 +188,9 @@ public abstract class CollectionReader {
 
     //If content not found with given reader do not shout
     private Page getLatestQuiet(String path, ContentReader contentReader) throws ZebedeeException, IOException {
+        if (!contentReader.probeResource(path).isPresent()) {
+            return null;
+        }
         try {
             return contentReader.getLatestContent(path);
         } catch (NotFoundException e) {
@@ -188,6 +200,9 @@ public abstract class CollectionReader {
 
     //If content not found with given reader do not shout
     private Map<URI, ContentNode> getChildrenQuiet(String path, ContentReader contentReader) throws ZebedeeException, IOException {
+        if (!contentReader.probeResource(path).isPresent()) {
+            return Collections.emptyMap();
+        }
         try {
             return contentReader.getChildren(path);
         } catch (NotFoundException e) {
@@ -15,6 +15,7 @@ import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
 
 
@@ -40,6 +41,9 @@ public class CompositeContentReader implements ContentReader {
         Iterator<ContentReader> iterator = readers.iterator();
         while (iterator.hasNext()) {
             ContentReader reader = iterator.next();
+            if (iterator.hasNext() && !reader.probeContent(path).isPresent()) {
+                continue;
+            }
             try {
                 return reader.getContent(path);
             } catch (ZebedeeException | IOException e) {
@@ -57,6 +61,9 @@ public class CompositeContentReader implements ContentReader {
         Iterator<ContentReader> iterator = readers.iterator();
         while (iterator.hasNext()) {
             ContentReader reader = iterator.next();
+            if (iterator.hasNext() && !reader.probeResource(path).isPresent()) {
+                continue;
+            }
             try {
                 return reader.getLatestContent(path);
             } catch (ZebedeeException | IOException e) {
@@ -73,6 +80,9 @@ public class CompositeContentReader implements ContentReader {
         Iterator<ContentReader> iterator = readers.iterator();
         while (iterator.hasNext()) {
             ContentReader reader = iterator.next();
+            if (iterator.hasNext() && !reader.probeResource(path).isPresent()) {
+                continue;
+            }
             try {
                 return reader.getResource(path);
             } catch (ZebedeeException | IOException e) {
@@ -89,6 +99,9 @@ public class CompositeContentReader implements ContentReader {
         Iterator<ContentReader> iterator = readers.iterator();
         while (iterator.hasNext()) {
             ContentReader reader = iterator.next();
+            if (iterator.hasNext() && !reader.probeResource(path).isPresent()) {
+                continue;
+            }
             try {
                 return reader.getContentLength(path);
             } catch (ZebedeeException | IOException e) {
@@ -105,6 +118,9 @@ public class CompositeContentReader implements ContentReader {
         Iterator<ContentReader> iterator = readers.iterator();
         while (iterator.hasNext()) {
             ContentReader reader = iterator.next();
+            if (iterator.hasNext() && !reader.probeResource(path).isPresent()) {
+                continue;
+            }
             try {
                 return reader.getChildren(path);
             } catch (ZebedeeException | IOException e) {
@@ -164,6 +180,28 @@ public class CompositeContentReader implements ContentReader {
         return null; // should never happen
     }
 
+    @Override
+    public Optional<Path> probeContent(String path) {
+        for (ContentReader reader : readers) {
+            Optional<Path> contentPath = reader.probeContent(path);
+            if (contentPath.isPresent()) {
+                return contentPath;
+            }
+        }
+        return Optional.empty();
+    }
+
+    @Override
+    public Optional<Path> probeResource(String path) {
+        for (ContentReader reader : readers) {
+            Optional<Path> resourcePath = reader.probeResource(path);
+            if (resourcePath.isPresent()) {
+                return resourcePath;
+            }
+        }
+        return Optional.empty();
+    }
+
     @Override
     public Path getRootFolder() {
         Iterator<ContentReader> iterator = readers.iterator();
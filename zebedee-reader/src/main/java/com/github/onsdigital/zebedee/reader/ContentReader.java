@@ -12,6 +12,7 @@ import java.nio.file.DirectoryStream;
 import java.nio.file.Path;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
 public interface ContentReader {
     Page getContent(String path) throws ZebedeeException, IOException;
@@ -30,6 +31,23 @@ public interface ContentReader {
 
     Map<URI, ContentNode> getParents(String path) throws ZebedeeException, IOException;
 
+    /**
+     * Resolve the data file {@link #getContent(String)} would read for the given path, without throwing if there is
+     * no content at the path.
+     *
+     * @param path path of the content under the root folder.
+     * @return the data file of the content, or empty if the content does not exist.
+     */
+    Optional<Path> probeContent(String path);
+
+    /**
+     * Resolve the file or folder at the given path, without throwing if nothing exists at the path.
+     *
+     * @param path path of the resource under the root folder.
+     * @return the resolved file or folder, or empty if it does not exist.
+     */
+    Optional<Path> probeResource(String path);
+
     /*Getters * Setters */
     Path getRootFolder();
 
@@ -14,12 +14,12 @@ import com.github.onsdigital.zebedee.exceptions.ResourceDirectoryNotFileExceptio
 import com.github.onsdigital.zebedee.exceptions.ZebedeeException;
 import com.github.onsdigital.zebedee.content.base.ContentLanguage;
 import com.github.onsdigital.zebedee.reader.configuration.ReaderConfiguration;
+import com.github.onsdigital.zebedee.reader.util.MimeTypeResolver;
 import com.github.onsdigital.zebedee.reader.util.ReleaseDateComparator;
 import com.github.onsdigital.zebedee.util.PathUtils;
 import com.github.onsdigital.zebedee.util.URIUtils;
 import com.google.gson.JsonSyntaxException;
 import org.apache.commons.lang3.StringUtils;
-import org.apache.tika.Tika;
 
 import java.io.IOException;
 import java.net.URI;
@@ -36,10 +36,12 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
 import java.util.TreeSet;
 
 import static com.github.onsdigital.zebedee.logging.ReaderLogger.error;
+import static com.github.onsdigital.zebedee.reader.LatestEditionIndex.latestEditionIndex;
 import static com.github.onsdigital.zebedee.util.URIUtils.removeLastSegment;
 import static com.github.onsdigital.zebedee.util.URIUtils.removeLeadingSlash;
 import static java.nio.file.Files.exists;
@@ -60,13 +62,6 @@ import static org.apache.commons.lang3.StringUtils.removeEnd;
 public class FileSystemContentReader implements ContentReader {
 
     private static final Path EMPTY_PATH = Paths.get("");
-    private static final String DEFAULT_MIME_TYPE = "application/octet-stream";
-
-    /**
-     * Apache TIKA is a library providing helper methods for determining the MIME type of files. Using this in place
-     * of {@link Files#probeContentType(Path)} due to know issues and bugs depending on the OS its used on.
-     */
-    private static Tika tika = new Tika();
 
     private final Path rootFolder;
     protected ContentLanguage language = ContentLanguage.ENGLISH;
@@ -79,14 +74,14 @@ public class FileSystemContentReader implements ContentReader {
     }
 
     /**
-     * Determine the mime type of the file at the given path.
+     * Determine the mime type of the file at the given path, see {@link MimeTypeResolver}.
      *
      * @param path the file path of the content to check.
      * @return the MIME type for the file, (default is application/octet-stream).
      * @throws IOException error determining MIME type.
      */
     protected static String determineMimeType(Path path) throws IOException {
-        return StringUtils.defaultIfEmpty(tika.detect(path), DEFAULT_MIME_TYPE);
+        return MimeTypeResolver.resolve(path);
     }
 
     /**
@@ -100,11 +95,15 @@ public class FileSystemContentReader implements ContentReader {
         //Resolve to see if requested content is latest content, if so return latest, otherwise requested file
         Path contentPath = resolveContentPath(path);
         if (!isRootFolder(contentPath)) {
-            String parentPath = URIUtils.removeLastSegment(path);
+            Path seriesFolder = resolvePath(URIUtils.removeLastSegment(path));
             try {
-                Page latestContent = getLatestContent(parentPath);
-                if (toRelativeUri(contentPath.getParent()).equals(latestContent.getUri())) {
-                    return latestContent;
+                if (isSeriesFolder(seriesFolder)) {
+                    LatestEditionIndex.Latest latest = resolveLatestEdition(seriesFolder);
+                    if (latest != null && toRelativeUri(contentPath.getParent()).equals(latest.getUri())) {
+                        Page latestContent = getPage(latest.getDataFile());
+                        latestContent.getDescription().setLatestRelease(true);
+                        return latestContent;
+                    }
                 }
             } catch (Exception e) {
             }
@@ -158,7 +157,8 @@ public class FileSystemContentReader implements ContentReader {
         Path contentPath = resolvePath(path);
         Path parent = contentPath.getParent();
         assertIsEditionsFolder(parent);
-        Page page = resolveLatest(contentPath);
+        LatestEditionIndex.Latest latest = resolveLatestEdition(contentPath);
+        Page page = latest == null ? null : getPage(latest.getDataFile());
         page.getDescription().setLatestRelease(true);
         return page;
     }
@@ -234,6 +234,30 @@ public class FileSystemContentReader implements ContentReader {
         return resolveParents(node);
     }
 
+    @Override
+    public Optional<Path> probeContent(String path) {
+        if (path == null) {
+            return Optional.empty();
+        }
+        Path contentPath = resolveContentPath(path);
+        if (Files.isRegularFile(contentPath) && isChildQuietly(contentPath)) {
+            return Optional.of(contentPath);
+        }
+        return Optional.empty();
+    }
+
+    @Override
+    public Optional<Path> probeResource(String path) {
+        if (path == null) {
+            return Optional.empty();
+        }
+        Path resourcePath = resolvePath(path);
+        if (exists(resourcePath) && isChildQuietly(resourcePath)) {
+            return Optional.of(resourcePath);
+        }
+        return Optional.empty();
+    }
+
     private Map<URI, ContentNode> resolveParents(Path node) throws IOException, ZebedeeException {
         Map<URI, ContentNode> nodes = new HashMap<>();
         if (isRootFolder(node)) {
@@ -291,15 +315,20 @@ public class FileSystemContentReader implements ContentReader {
         return nodes;
     }
 
-    private Page resolveLatest(Path path) throws ZebedeeException, IOException {
-
-        Map<URI, ContentNode> children = resolveChildren(path);
-        if (children == null || children.isEmpty()) {
-            return null;
-        }
+    /**
+     * Get the latest edition of the given series from the {@link LatestEditionIndex}, reading the editions of the
+     * series only if it has changed since it was last indexed.
+     */
+    private LatestEditionIndex.Latest resolveLatestEdition(Path seriesFolder) throws ZebedeeException, IOException {
+        return latestEditionIndex().get(seriesFolder, language.getDataFileName(), () -> {
+            Map<URI, ContentNode> children = resolveChildren(seriesFolder);
+            if (children == null || children.isEmpty()) {
+                return null;
+            }
 
-        Set<ContentNode> sortedSet = sortByDate(children.values());
-        return getPage(resolveDataFilePath(resolvePath(sortedSet.iterator().next().getUri().toString())));
+            URI uri = sortByDate(children.values()).iterator().next().getUri();
+            return new LatestEditionIndex.Latest(uri, resolveDataFilePath(resolvePath(uri.toString())));
+        });
     }
 
     private Set<ContentNode> sortByDate(Collection<ContentNode> set) {
@@ -353,6 +382,14 @@ public class FileSystemContentReader implements ContentReader {
         return path.toFile().getCanonicalPath().startsWith(getRootFolder().toFile().getCanonicalPath());
     }
 
+    private boolean isChildQuietly(Path path) {
+        try {
+            return isChild(path);
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
     private void assertNotDirectory(Path path) throws BadRequestException {
         if (isDirectory(path)) {
             throw new ResourceDirectoryNotFileException("Requested path is a directory");
@@ -368,16 +405,33 @@ public class FileSystemContentReader implements ContentReader {
     private void assertIsEditionsFolder(Path path) throws ZebedeeException, IOException {
         assertExists(path);
         assertIsDirectory(path);
-        String fileName = path.getFileName().toString();
-        ReaderConfiguration cfg = ReaderConfiguration.get();
-        if (cfg.getBulletinsFolderName().equals(fileName) ||
-                cfg.getArticlesFolderName().equals(fileName) ||
-                cfg.getCompendiumFolderName().equals(fileName)) {
+        if (isEditionsFolderName(path)) {
             return;
         }
         throw new BadRequestException("Latest uri can not be resolved for this content type");
     }
 
+    /**
+     * Checks whether the given path is a series folder, i.e. a folder under bulletins, articles or compendium whose
+     * children are editions, without throwing for any other content type.
+     */
+    private boolean isSeriesFolder(Path path) throws IOException {
+        Path parent = path.getParent();
+        return parent != null && isEditionsFolderName(parent) && isDirectory(path) && isChild(path);
+    }
+
+    private boolean isEditionsFolderName(Path path) {
+        Path fileName = path.getFileName();
+        if (fileName == null) {
+            return false;
+        }
+        String name = fileName.toString();
+        ReaderConfiguration cfg = ReaderConfiguration.get();
+        return cfg.getBulletinsFolderName().equals(name) ||
+                cfg.getArticlesFolderName().equals(name) ||
+                cfg.getCompendiumFolderName().equals(name);
+    }
+
     private Path resolvePath(String path) {
         if (path == null) {
             throw new NullPointerException("Path can not be null");
@@ -0,0 +1,157 @@
+package com.github.onsdigital.zebedee.reader;
+
+import com.github.onsdigital.zebedee.exceptions.ZebedeeException;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Index of the latest edition of each series (bulletins, articles and compendia), keyed by the series folder the
+ * editions live in.
+ * <p>
+ * Working out the latest edition means reading the data.json of every edition in the series and sorting them by
+ * release date, so the result is kept until the series changes. An entry is still valid while the modified time of
+ * the series folder (which changes when an edition is added or removed) and of the latest edition's data file (which
+ * changes when that edition is republished) are the same as when it was indexed. Publishing also invalidates the
+ * entries under the published content folder explicitly, see {@link #invalidate(Path)}.
+ * <p>
+ * Entries are keyed by absolute path so readers over different roots, i.e. published content and each collection,
+ * keep their own entries without interfering with each other.
+ */
+public class LatestEditionIndex {
+
+    static final int MAX_ENTRIES = 10000;
+
+    private static final LatestEditionIndex INSTANCE = new LatestEditionIndex(MAX_ENTRIES);
+
+    private final Map<String, Entry> entries;
+
+    LatestEditionIndex(int maxEntries) {
+        this.entries = Collections.synchronizedMap(new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        });
+    }
+
+    /**
+     * @return the index shared by every {@link FileSystemContentReader}.
+     */
+    public static LatestEditionIndex latestEditionIndex() {
+        return INSTANCE;
+    }
+
+    /**
+     * Get the latest edition of the given series, resolving it with the given resolver if it is not indexed or the
+     * series has changed since it was indexed.
+     *
+     * @param seriesFolder the folder containing the editions.
+     * @param language     the language the series is being read in.
+     * @param resolver     resolves the latest edition of the series.
+     * @return the latest edition, or null if the series has no editions.
+     */
+    Latest get(Path seriesFolder, String language, Resolver resolver) throws ZebedeeException, IOException {
+        String key = key(seriesFolder, language);
+        FileTime folderModified = Files.getLastModifiedTime(seriesFolder);
+
+        Entry entry = entries.get(key);
+        if (entry != null && entry.isValid(folderModified)) {
+            return entry.latest;
+        }
+
+        Latest latest = resolver.resolve();
+        entries.put(key, new Entry(latest, folderModified, lastModified(latest)));
+        return latest;
+    }
+
+    /**
+     * Remove every indexed series under the given folder, e.g. once a collection has been published into it.
+     *
+     * @param folder the content folder to invalidate.
+     */
+    public void invalidate(Path folder) {
+        String prefix = folder.toAbsolutePath().normalize().toString();
+        synchronized (entries) {
+            entries.keySet().removeIf(key -> key.startsWith(prefix));
+        }
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    private static String key(Path seriesFolder, String language) {
+        return seriesFolder.toAbsolutePath().normalize().toString() + "|" + language;
+    }
+
+    private static FileTime lastModified(Latest latest) throws IOException {
+        if (latest == null) {
+            return null;
+        }
+        try {
+            return Files.getLastModifiedTime(latest.getDataFile());
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Resolves the latest edition of a series from its content.
+     */
+    @FunctionalInterface
+    interface Resolver {
+        Latest resolve() throws ZebedeeException, IOException;
+    }
+
+    /**
+     * The latest edition of a series.
+     */
+    static class Latest {
+        private final URI uri;
+        private final Path dataFile;
+
+        Latest(URI uri, Path dataFile) {
+            this.uri = uri;
+            this.dataFile = dataFile;
+        }
+
+        URI getUri() {
+            return uri;
+        }
+
+        Path getDataFile() {
+            return dataFile;
+        }
+    }
+
+    private static class Entry {
+        private final Latest latest;
+        private final FileTime folderModified;
+        private final FileTime dataFileModified;
+
+        Entry(Latest latest, FileTime folderModified, FileTime dataFileModified) {
+            this.latest = latest;
+            this.folderModified = folderModified;
+            this.dataFileModified = dataFileModified;
+        }
+
+        boolean isValid(FileTime currentFolderModified) throws IOException {
+            if (!folderModified.equals(currentFolderModified)) {
+                return false;
+            }
+            if (latest == null) {
+                return true;
+            }
+            FileTime current = lastModified(latest);
+            return current != null && current.equals(dataFileModified);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.github.onsdigital.zebedee.reader;
+
+import com.github.onsdigital.zebedee.reader.configuration.ReaderConfiguration;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Remembers lookups that found nothing for a short time, so that repeated requests for content that does not exist,
+ * e.g. the Welsh version of a page that only exists in English, are answered without going back to the file system.
+ * <p>
+ * Entries expire after the configured time to live and are cleared whenever a collection is published, so new
+ * content becomes visible immediately in the process that published it and within the time to live elsewhere.
+ */
+public class NegativeLookupCache {
+
+    static final int MAX_ENTRIES = 50000;
+
+    private final long ttlNanos;
+    private final int maxEntries;
+    private final Map<String, Long> misses = new ConcurrentHashMap<>();
+
+    NegativeLookupCache(long ttlMillis, int maxEntries) {
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * @return the cache of lookups against published content.
+     */
+    public static NegativeLookupCache publishedNegativeLookups() {
+        return PublishedHolder.INSTANCE;
+    }
+
+    /**
+     * @return true if the given key was recorded as missing within the time to live.
+     */
+    boolean isMissing(String key) {
+        Long expiry = misses.get(key);
+        if (expiry == null) {
+            return false;
+        }
+        if (expiry - System.nanoTime() <= 0) {
+            misses.remove(key, expiry);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Record that a lookup for the given key found nothing.
+     */
+    void missing(String key) {
+        if (ttlNanos <= 0) {
+            return;
+        }
+        if (misses.size() >= maxEntries) {
+            // Bounded rather than evicting precisely: a cleared cache only costs a few extra lookups.
+            misses.clear();
+        }
+        misses.put(key, System.nanoTime() + ttlNanos);
+    }
+
+    /**
+     * Forget every recorded miss, e.g. once new content has been published.
+     */
+    public void invalidate() {
+        misses.clear();
+    }
+
+    int size() {
+        return misses.size();
+    }
+
+    private static class PublishedHolder {
+        private static final NegativeLookupCache INSTANCE = new NegativeLookupCache(
+                ReaderConfiguration.get().getNegativeLookupTtlMillis(), MAX_ENTRIES);
+    }
+}
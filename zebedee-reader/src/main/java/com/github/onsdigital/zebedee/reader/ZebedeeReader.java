@@ -19,8 +19,11 @@ import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
 
 import static com.github.onsdigital.zebedee.logging.ReaderLogger.info;
+import static com.github.onsdigital.zebedee.reader.NegativeLookupCache.publishedNegativeLookups;
 
 /**
  * Created by bren on 29/07/15.
@@ -169,6 +172,41 @@ public class ZebedeeReader {
         return createCollectionReader(collectionId, sessionId).getResource(path);
     }
 
+    /**
+     * Check whether there is published content at the given path without throwing if there is not. Misses are
+     * remembered briefly so repeated lookups for missing content do not go back to the file system.
+     *
+     * @param path path can start with / or not, Zebedee reader will evaluate the path relative to published contents root
+     * @return true if {@link #getPublishedContent(String)} would find content at the path.
+     */
+    public boolean publishedContentExists(String path) {
+        return probePublished("content", path, publishedContentReader::probeContent);
+    }
+
+    /**
+     * Check whether there is a published file or folder at the given path without throwing if there is not. Misses
+     * are remembered briefly so repeated lookups for missing resources do not go back to the file system.
+     *
+     * @param path path can start with / or not, Zebedee reader will evaluate the path relative to published contents root
+     * @return true if a file or folder exists at the path.
+     */
+    public boolean publishedResourceExists(String path) {
+        return probePublished("resource", path, publishedContentReader::probeResource);
+    }
+
+    private boolean probePublished(String kind, String path, Function<String, Optional<Path>> probe) {
+        String key = publishedContentReader.getRootFolder() + "|" + getLanguage() + "|" + kind + "|" + path;
+        NegativeLookupCache misses = publishedNegativeLookups();
+        if (misses.isMissing(key)) {
+            return false;
+        }
+        if (probe.apply(path).isPresent()) {
+            return true;
+        }
+        misses.missing(key);
+        return false;
+    }
+
     public long getCollectionContentLength(String collectionId, String sessionId, String path) throws ZebedeeException, IOException {
         assertId(collectionId);
         return createCollectionReader(collectionId, sessionId).getContentLength(path);
@@ -41,6 +41,11 @@ public class ReadRequestHandler {
         R find(ZebedeeReader reader) throws ZebedeeException, IOException ;
     }
 
+    @FunctionalInterface
+    private interface ResourceProbe {
+        boolean exists(ZebedeeReader reader);
+    }
+
     private final static String LATEST = "latest";
     private ZebedeeReader reader;
 
@@ -97,12 +102,14 @@ public class ReadRequestHandler {
 
     private Content getLatestContent(HttpServletRequest request, String collectionId, DataFilter dataFilter, String uri) throws IOException, ZebedeeException {
         return get(collectionId, uri,
+                r -> r.publishedResourceExists(uri),
                 r -> r.getLatestCollectionContent(collectionId, RequestUtils.getSessionId(request), uri, dataFilter),
                 r -> r.getLatestPublishedContent(uri, dataFilter));
     }
 
     private Content getContent(HttpServletRequest request, String collectionId, DataFilter dataFilter, String uri) throws IOException, ZebedeeException {
         return get(collectionId, uri,
+                r -> r.publishedContentExists(uri),
                 r -> r.getCollectionContent(collectionId, RequestUtils.getSessionId(request), uri, dataFilter),
                 r -> r.getPublishedContent(uri, dataFilter));
     }
@@ -118,7 +125,8 @@ public class ReadRequestHandler {
     public Resource findResource(HttpServletRequest request) throws ZebedeeException, IOException {
         String uri = URLDecoder.decode(extractUri(request), "UTF-8");
         String collectionId = getCollectionId(request);
-        return get(collectionId, uri, 
+        return get(collectionId, uri,
+                r -> r.publishedResourceExists(uri),
                 r -> r.getCollectionResource(collectionId, RequestUtils.getSessionId(request), uri),
                 r -> r.getPublishedResource(uri));
     }
@@ -135,7 +143,8 @@ public class ReadRequestHandler {
         String uri = extractUri(request);
         String collectionId = getCollectionId(request);
 
-        return get(collectionId, uri, 
+        return get(collectionId, uri,
+                r -> r.publishedResourceExists(uri),
                 r -> r.getCollectionContentLength(collectionId, RequestUtils.getSessionId(request), uri),
                 r -> r.getPublishedContentLength(uri));
     }
@@ -148,10 +157,13 @@ public class ReadRequestHandler {
      * <li>the given collection (if any) in English</li>
      * <li>published content in English</li>
      * </ol>
+     * Published content is probed before it is read so that falling back to English does not cost an exception.
      * 
      * @param <T>                The type of the resource being searched
      * @param collectionId       The collection id
      * @param uri                The uri of the resource
+     * @param publishedProbe     A function to check whether the resource exists in the
+     *                           published content
      * @param collectionSupplier A function to find the resource in the collection
      * @param publishedSupplier  A function to find the resource in the published
      *                           content
@@ -160,7 +172,7 @@ public class ReadRequestHandler {
      *                          it couldn't be found
      * @throws IOException      If an error occurs while finding the resource
      */
-    private <T> T get(String collectionId, String uri,
+    private <T> T get(String collectionId, String uri, ResourceProbe publishedProbe,
             ResourceFinder<T> collectionSupplier, ResourceFinder<T> publishedSupplier) throws ZebedeeException, IOException {
         if (collectionId != null) {
             try {
@@ -173,16 +185,22 @@ public class ReadRequestHandler {
             }
         }
 
+        boolean english = ContentLanguage.ENGLISH.equals(reader.getLanguage());
+        if (!english && !publishedProbe.exists(reader)) {
+            return new ReadRequestHandler(ContentLanguage.ENGLISH)
+                    .get(collectionId, uri, publishedProbe, collectionSupplier, publishedSupplier);
+        }
+
         try {
             return publishedSupplier.find(reader);
         } catch (NotFoundException e) {
-            if (!ContentLanguage.ENGLISH.equals(reader.getLanguage())) {
+            if (!english) {
                 info().data("uri", uri)
                         .data("collection_id", collectionId)
                         .data("language", reader.getLanguage())
                         .log("Could not find resource in published content. Will try English");
                 ReadRequestHandler englishHandler = new ReadRequestHandler(ContentLanguage.ENGLISH);
-                return englishHandler.get(collectionId, uri, collectionSupplier, publishedSupplier);
+                return englishHandler.get(collectionId, uri, publishedProbe, collectionSupplier, publishedSupplier);
             } else {
                 error().data("uri", uri)
                         .data("collection_id", collectionId)
@@ -3,6 +3,7 @@ package com.github.onsdigital.zebedee.reader.configuration;
 import com.github.onsdigital.zebedee.content.page.base.PageType;
 import com.github.onsdigital.zebedee.util.URIUtils;
 import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.math.NumberUtils;
 
 import java.util.Arrays;
 import java.util.HashSet;
@@ -48,6 +49,9 @@ public class ReaderConfiguration {
     private static final String SERVICE_AUTH_TOKEN_KEY = "SERVICE_AUTH_TOKEN";
     // how many seconds for Max_Age for cache
     private static final int DEFAULT_CACHE_CONTROL_SECONDS = 1800;
+    // how long a lookup that found no published content is remembered for
+    private static final String NEGATIVE_LOOKUP_TTL_MS_KEY = "NEGATIVE_LOOKUP_TTL_MS";
+    private static final long DEFAULT_NEGATIVE_LOOKUP_TTL_MS = 5000;
 
     private String zebedeeRootDir;
     private String collectionsDir;
@@ -64,6 +68,7 @@ public class ReaderConfiguration {
     private String serviceAuthToken;
     private boolean datasetImportEnabled;
     private Set<PageType> datasetImportPageTypes;
+    private long negativeLookupTtlMillis;
 
 
     public static ReaderConfiguration init(String zebedeeRootDir) {
@@ -126,6 +131,8 @@ public class ReaderConfiguration {
         this.articlesDirName = ARTICLES_FOLDER_NAME;
         this.compendiumDirName = COMPENDIUM_FOLDER_NAME;
         this.cacheControl = DEFAULT_CACHE_CONTROL_SECONDS;
+        this.negativeLookupTtlMillis = NumberUtils.toLong(getVariableValue(NEGATIVE_LOOKUP_TTL_MS_KEY),
+                DEFAULT_NEGATIVE_LOOKUP_TTL_MS);
 
         this.datasetImportEnabled = Boolean.valueOf(getVariableValue(ENABLE_DATASET_IMPORT));
 
@@ -154,6 +161,7 @@ public class ReaderConfiguration {
                 .data("compendium_dir", compendiumDirName)
                 .data("dataset_import_enabled", datasetImportEnabled)
                 .data("cache_control", cacheControl)
+                .data("negative_lookup_ttl_ms", negativeLookupTtlMillis)
                 .log("zebedee reader configuration");
     }
 
@@ -221,4 +229,8 @@ public class ReaderConfiguration {
     public Set<PageType> getDatasetImportPageTypes() {
         return datasetImportPageTypes;
     }
+
+    public long getNegativeLookupTtlMillis() {
+        return negativeLookupTtlMillis;
+    }
 }
@@ -0,0 +1,98 @@
+package com.github.onsdigital.zebedee.reader.util;
+
+import org.apache.commons.io.FilenameUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.tika.Tika;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Resolves the MIME type of content files from their extension, only reading the file to detect its type when the
+ * extension is not recognised.
+ * <p>
+ * The extensions of the files zebedee serves are mapped through a fixed table. Any other extension is looked up by
+ * name with Apache TIKA once and the result cached, so serving a resource does not open the file an extra time.
+ */
+public class MimeTypeResolver {
+
+    public static final String DEFAULT_MIME_TYPE = "application/octet-stream";
+
+    static final int MAX_CACHED_EXTENSIONS = 1000;
+
+    private static final Map<String, String> KNOWN_TYPES;
+
+    static {
+        Map<String, String> types = new HashMap<>();
+        types.put("json", "application/json");
+        types.put("csv", "text/csv");
+        types.put("xls", "application/vnd.ms-excel");
+        types.put("xlsx", "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet");
+        types.put("png", "image/png");
+        types.put("svg", "image/svg+xml");
+        types.put("pdf", "application/pdf");
+        types.put("zip", "application/zip");
+        types.put("html", "text/html");
+        KNOWN_TYPES = Collections.unmodifiableMap(types);
+    }
+
+    /**
+     * Apache TIKA is a library providing helper methods for determining the MIME type of files. Using this in place
+     * of {@link java.nio.file.Files#probeContentType(Path)} due to know issues and bugs depending on the OS its used
+     * on.
+     */
+    private static final Tika TIKA = new Tika();
+
+    private static final Map<String, String> BY_EXTENSION = new ConcurrentHashMap<>();
+
+    private MimeTypeResolver() {
+        // static utility
+    }
+
+    /**
+     * Resolve the MIME type of the file at the given path, detecting it from the file content only if the extension
+     * is not recognised.
+     *
+     * @param path the file to resolve the MIME type of.
+     * @return the MIME type of the file, application/octet-stream if it can not be determined.
+     * @throws IOException error reading the file.
+     */
+    public static String resolve(Path path) throws IOException {
+        String mimeType = fromFileName(path.getFileName().toString());
+        if (mimeType != null) {
+            return mimeType;
+        }
+        return StringUtils.defaultIfEmpty(TIKA.detect(path), DEFAULT_MIME_TYPE);
+    }
+
+    /**
+     * Resolve the MIME type of a file from its name alone, without reading it. Used where the file content can not be
+     * sniffed, e.g. encrypted collection content.
+     *
+     * @param fileName the name of the file.
+     * @return the MIME type for the file extension, or null if it is not recognised.
+     */
+    public static String fromFileName(String fileName) {
+        String extension = FilenameUtils.getExtension(fileName).toLowerCase(Locale.ROOT);
+        if (extension.isEmpty()) {
+            return null;
+        }
+
+        String mimeType = KNOWN_TYPES.get(extension);
+        if (mimeType == null) {
+            mimeType = BY_EXTENSION.get(extension);
+            if (mimeType == null) {
+                mimeType = StringUtils.defaultIfEmpty(TIKA.detect("file." + extension), DEFAULT_MIME_TYPE);
+                if (BY_EXTENSION.size() < MAX_CACHED_EXTENSIONS) {
+                    BY_EXTENSION.put(extension, mimeType);
+                }
+            }
+        }
+        return DEFAULT_MIME_TYPE.equals(mimeType) ? null : mimeType;
+    }
+}
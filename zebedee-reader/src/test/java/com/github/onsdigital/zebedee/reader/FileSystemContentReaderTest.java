@@ -61,6 +61,43 @@ public class FileSystemContentReaderTest {
         assertFileMimeType("test.png", "image/png");
     }
 
+    @Test
+    public void probeContent_shouldReturnDataFile_whenContentExists() throws Exception {
+        Path root = temporaryFolder.getRoot().toPath();
+        Path dataFile = Files.createDirectories(root.resolve("economy")).resolve("data.json");
+        Files.write(dataFile, "{}".getBytes());
+
+        FileSystemContentReader reader = new FileSystemContentReader(root);
+
+        assertThat(reader.probeContent("/economy").get(), equalTo(dataFile));
+        assertThat(reader.probeContent("/economy/").get(), equalTo(dataFile));
+    }
+
+    @Test
+    public void probeContent_shouldReturnEmpty_whenContentMissing() throws Exception {
+        Path root = temporaryFolder.getRoot().toPath();
+        Files.createDirectories(root.resolve("economy"));
+
+        FileSystemContentReader reader = new FileSystemContentReader(root);
+
+        assertThat(reader.probeContent("/economy").isPresent(), equalTo(false));
+        assertThat(reader.probeContent("/business").isPresent(), equalTo(false));
+        assertThat(reader.probeContent("/../outside").isPresent(), equalTo(false));
+    }
+
+    @Test
+    public void probeResource_shouldReturnPath_whenFileOrFolderExists() throws Exception {
+        Path root = temporaryFolder.getRoot().toPath();
+        Path folder = Files.createDirectories(root.resolve("economy"));
+        Path file = Files.createFile(folder.resolve("chart.png"));
+
+        FileSystemContentReader reader = new FileSystemContentReader(root);
+
+        assertThat(reader.probeResource("/economy").get(), equalTo(folder));
+        assertThat(reader.probeResource("/economy/chart.png").get(), equalTo(file));
+        assertThat(reader.probeResource("/economy/missing.png").isPresent(), equalTo(false));
+    }
+
     void assertFileMimeType(String filename, String expectedMimeType) throws Exception {
         File f = temporaryFolder.newFile(filename);
         try {
@@ -0,0 +1,110 @@
+package com.github.onsdigital.zebedee.reader;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class LatestEditionIndexTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private LatestEditionIndex index;
+    private Path series;
+    private Path latestDataFile;
+    private AtomicInteger resolved;
+
+    @Before
+    public void setUp() throws Exception {
+        index = new LatestEditionIndex(10);
+        series = temporaryFolder.newFolder("bulletins", "series").toPath();
+        latestDataFile = Files.createDirectory(series.resolve("june2020")).resolve("data.json");
+        Files.write(latestDataFile, "{}".getBytes());
+        resolved = new AtomicInteger();
+    }
+
+    @Test
+    public void get_shouldResolveOnlyOnce_whenSeriesUnchanged() throws Exception {
+        assertThat(get(series).getUri(), equalTo(URI.create("/bulletins/series/june2020")));
+        assertThat(get(series).getUri(), equalTo(URI.create("/bulletins/series/june2020")));
+
+        assertThat(resolved.get(), equalTo(1));
+    }
+
+    @Test
+    public void get_shouldResolveAgain_whenEditionAdded() throws Exception {
+        get(series);
+
+        Files.createDirectory(series.resolve("july2020"));
+        Files.setLastModifiedTime(series, FileTime.fromMillis(System.currentTimeMillis() + 60000));
+        get(series);
+
+        assertThat(resolved.get(), equalTo(2));
+    }
+
+    @Test
+    public void get_shouldResolveAgain_whenLatestEditionRepublished() throws Exception {
+        get(series);
+
+        Files.setLastModifiedTime(latestDataFile, FileTime.fromMillis(System.currentTimeMillis() + 60000));
+        get(series);
+
+        assertThat(resolved.get(), equalTo(2));
+    }
+
+    @Test
+    public void get_shouldResolveAgain_whenInvalidated() throws Exception {
+        get(series);
+
+        index.invalidate(temporaryFolder.getRoot().toPath());
+        get(series);
+
+        assertThat(resolved.get(), equalTo(2));
+    }
+
+    @Test
+    public void get_shouldIndexEmptySeries() throws Exception {
+        Path empty = temporaryFolder.newFolder("bulletins", "empty").toPath();
+
+        assertThat(index.get(empty, "data.json", () -> {
+            resolved.incrementAndGet();
+            return null;
+        }), nullValue());
+        assertThat(index.get(empty, "data.json", () -> {
+            resolved.incrementAndGet();
+            return null;
+        }), nullValue());
+
+        assertThat(resolved.get(), equalTo(1));
+    }
+
+    @Test
+    public void get_shouldKeepEntriesPerLanguage() throws Exception {
+        get(series);
+        index.get(series, "data_cy.json", () -> {
+            resolved.incrementAndGet();
+            return new LatestEditionIndex.Latest(URI.create("/bulletins/series/june2020"), latestDataFile);
+        });
+
+        assertThat(resolved.get(), equalTo(2));
+        assertThat(index.size(), equalTo(2));
+    }
+
+    private LatestEditionIndex.Latest get(Path seriesFolder) throws Exception {
+        return index.get(seriesFolder, "data.json", () -> {
+            resolved.incrementAndGet();
+            return new LatestEditionIndex.Latest(URI.create("/bulletins/series/june2020"), latestDataFile);
+        });
+    }
+}
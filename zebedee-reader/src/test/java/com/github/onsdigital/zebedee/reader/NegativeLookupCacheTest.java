@@ -0,0 +1,61 @@
+package com.github.onsdigital.zebedee.reader;
+
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class NegativeLookupCacheTest {
+
+    @Test
+    public void isMissing_shouldReturnTrue_whenRecordedWithinTtl() {
+        NegativeLookupCache cache = new NegativeLookupCache(60000, 10);
+
+        cache.missing("/economy");
+
+        assertThat(cache.isMissing("/economy"), equalTo(true));
+        assertThat(cache.isMissing("/business"), equalTo(false));
+    }
+
+    @Test
+    public void isMissing_shouldReturnFalse_whenExpired() throws Exception {
+        NegativeLookupCache cache = new NegativeLookupCache(1, 10);
+
+        cache.missing("/economy");
+        Thread.sleep(10);
+
+        assertThat(cache.isMissing("/economy"), equalTo(false));
+        assertThat(cache.size(), equalTo(0));
+    }
+
+    @Test
+    public void missing_shouldNotRecord_whenTtlDisabled() {
+        NegativeLookupCache cache = new NegativeLookupCache(0, 10);
+
+        cache.missing("/economy");
+
+        assertThat(cache.isMissing("/economy"), equalTo(false));
+    }
+
+    @Test
+    public void missing_shouldStayWithinMaxEntries() {
+        NegativeLookupCache cache = new NegativeLookupCache(60000, 2);
+
+        cache.missing("/a");
+        cache.missing("/b");
+        cache.missing("/c");
+
+        assertThat(cache.size(), equalTo(1));
+        assertThat(cache.isMissing("/c"), equalTo(true));
+    }
+
+    @Test
+    public void invalidate_shouldForgetMisses() {
+        NegativeLookupCache cache = new NegativeLookupCache(60000, 10);
+        cache.missing("/economy");
+
+        cache.invalidate();
+
+        assertThat(cache.isMissing("/economy"), equalTo(false));
+    }
+}
@@ -0,0 +1,62 @@
+package com.github.onsdigital.zebedee.reader.util;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class MimeTypeResolverTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void resolve_shouldNotReadFile_whenExtensionKnown() throws Exception {
+        // the file does not exist, so this only passes if the type is resolved from the name
+        Path missing = Paths.get("does", "not", "exist", "data.json");
+
+        assertThat(MimeTypeResolver.resolve(missing), equalTo("application/json"));
+    }
+
+    @Test
+    public void resolve_shouldUseKnownTypes() throws Exception {
+        assertThat(MimeTypeResolver.resolve(Paths.get("a.csv")), equalTo("text/csv"));
+        assertThat(MimeTypeResolver.resolve(Paths.get("a.xls")), equalTo("application/vnd.ms-excel"));
+        assertThat(MimeTypeResolver.resolve(Paths.get("a.xlsx")),
+                equalTo("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"));
+        assertThat(MimeTypeResolver.resolve(Paths.get("a.png")), equalTo("image/png"));
+        assertThat(MimeTypeResolver.resolve(Paths.get("a.svg")), equalTo("image/svg+xml"));
+        assertThat(MimeTypeResolver.resolve(Paths.get("a.pdf")), equalTo("application/pdf"));
+        assertThat(MimeTypeResolver.resolve(Paths.get("a.zip")), equalTo("application/zip"));
+        assertThat(MimeTypeResolver.resolve(Paths.get("a.html")), equalTo("text/html"));
+    }
+
+    @Test
+    public void fromFileName_shouldIgnoreExtensionCase() {
+        assertThat(MimeTypeResolver.fromFileName("CHART.PNG"), equalTo("image/png"));
+    }
+
+    @Test
+    public void fromFileName_shouldResolveOtherExtensionsByName() {
+        assertThat(MimeTypeResolver.fromFileName("style.css"), equalTo("text/css"));
+    }
+
+    @Test
+    public void fromFileName_shouldReturnNull_whenNotRecognised() {
+        assertThat(MimeTypeResolver.fromFileName("noextension"), nullValue());
+        assertThat(MimeTypeResolver.fromFileName("file.notarealextension"), nullValue());
+    }
+
+    @Test
+    public void resolve_shouldDefault_whenNotRecognised() throws Exception {
+        Path file = temporaryFolder.newFile("file.notarealextension").toPath();
+
+        assertThat(MimeTypeResolver.resolve(file), equalTo(MimeTypeResolver.DEFAULT_MIME_TYPE));
+    }
+}